@@ -5,6 +5,7 @@ import com.example.campusvault.data.local.SharedPreferencesManager;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import java.util.concurrent.TimeUnit;
+import okhttp3.EventListener;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -22,6 +23,8 @@ public class ApiClient {
 
     private static ApiClient instance;
     private final ApiService apiService;
+    private final OkHttpClient okHttpClient;
+    private final Retrofit retrofit;
     
     // Store managers for later use
     private static SharedPreferencesManager sharedPrefs;
@@ -45,7 +48,7 @@ public class ApiClient {
         AuthInterceptor authInterceptor = new AuthInterceptor(preferencesManager, encryptedPreferencesManager);
         
         // Configure OkHttp client - simple setup, no authenticator needed
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
+        okHttpClient = new OkHttpClient.Builder()
             .addInterceptor(authInterceptor)
             .addInterceptor(loggingInterceptor)
             .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
@@ -54,7 +57,7 @@ public class ApiClient {
             .build();
 
         // Configure Retrofit
-        Retrofit retrofit = new Retrofit.Builder()
+        retrofit = new Retrofit.Builder()
             .baseUrl(BASE_URL)
             .client(okHttpClient)
             .addConverterFactory(GsonConverterFactory.create(gson))
@@ -92,6 +95,20 @@ public class ApiClient {
         return apiService;
     }
 
+    /**
+     * API service whose calls report to {@code eventListenerFactory}, e.g. to meter the bytes
+     * a sync moves. Shares this client's connection pool, interceptors and auth.
+     */
+    public ApiService createApiService(EventListener.Factory eventListenerFactory) {
+        OkHttpClient client = okHttpClient.newBuilder()
+            .eventListenerFactory(eventListenerFactory)
+            .build();
+        return retrofit.newBuilder()
+            .client(client)
+            .build()
+            .create(ApiService.class);
+    }
+
     /**
      * Reset instance (useful for logout)
      */
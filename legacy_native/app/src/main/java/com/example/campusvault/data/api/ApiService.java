@@ -20,6 +20,7 @@ import okhttp3.RequestBody;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Multipart;
 import retrofit2.http.PATCH;
 import retrofit2.http.POST;
@@ -76,6 +77,35 @@ public interface ApiService {
         @Query("semester") Integer semester
     );
 
+    // Delta sync - rows changed since the cursor plus tombstones; 304 when the ETag still matches
+    @GET("sync/faculties")
+    Single<retrofit2.Response<com.example.campusvault.data.models.ChangeSet<FacultyResponse>>> getFacultyChanges(
+        @Query("updated_since") String cursor,
+        @Query("limit") Integer limit,
+        @Header("If-None-Match") String etag
+    );
+
+    @GET("sync/programs")
+    Single<retrofit2.Response<com.example.campusvault.data.models.ChangeSet<ProgramResponse>>> getProgramChanges(
+        @Query("updated_since") String cursor,
+        @Query("limit") Integer limit,
+        @Header("If-None-Match") String etag
+    );
+
+    @GET("sync/course-units")
+    Single<retrofit2.Response<com.example.campusvault.data.models.ChangeSet<CourseUnit>>> getCourseUnitChanges(
+        @Query("updated_since") String cursor,
+        @Query("limit") Integer limit,
+        @Header("If-None-Match") String etag
+    );
+
+    @GET("sync/resources")
+    Single<retrofit2.Response<com.example.campusvault.data.models.ChangeSet<Resource>>> getResourceChanges(
+        @Query("updated_since") String cursor,
+        @Query("limit") Integer limit,
+        @Header("If-None-Match") String etag
+    );
+
     // User endpoints
     @GET("auth/me")
     Single<User> getProfile();
@@ -150,6 +180,10 @@ public interface ApiService {
         @Body com.example.campusvault.data.models.MobileUploadRequest request
     );
 
+    // Same endpoint with a pre-built JSON body, used to stream the base64 content
+    @POST("resources/mobile/upload")
+    Single<Resource> mobileUploadResourceStream(@Body RequestBody body);
+
     // Legacy multipart upload (may have issues on some cloud providers)
     @Multipart
     @POST("resources/upload")
@@ -161,6 +195,32 @@ public interface ApiService {
         @Part("resource_type") RequestBody resourceType
     );
 
+    // Chunked resumable upload - open a session, send fixed-size chunks, then finalize
+    @POST("resources/upload/sessions")
+    Single<com.example.campusvault.data.models.UploadSessionResponse> createUploadSession(
+        @Body com.example.campusvault.data.models.UploadSessionRequest request
+    );
+
+    @GET("resources/upload/sessions/{id}")
+    Single<com.example.campusvault.data.models.UploadSessionResponse> getUploadSession(
+        @Path("id") String uploadId
+    );
+
+    @PUT("resources/upload/sessions/{id}/chunks/{index}")
+    Single<com.example.campusvault.data.models.UploadSessionResponse> uploadChunk(
+        @Path("id") String uploadId,
+        @Path("index") int chunkIndex,
+        @Header("Content-Range") String contentRange,
+        @Header("X-Chunk-Checksum") String chunkChecksum,
+        @Body RequestBody chunk
+    );
+
+    @POST("resources/upload/sessions/{id}/complete")
+    Single<Resource> completeUploadSession(
+        @Path("id") String uploadId,
+        @Body com.example.campusvault.data.models.UploadCompleteRequest request
+    );
+
     // Check for duplicate before uploading (saves bandwidth)
     @Multipart
     @POST("resources/check-duplicate")
@@ -169,6 +229,12 @@ public interface ApiService {
         @Part("course_unit_id") RequestBody courseUnitId
     );
 
+    // Hash-only duplicate check - sends the SHA-256 instead of the file
+    @POST("resources/check-duplicate/hash")
+    Single<com.example.campusvault.data.models.DuplicateCheckResponse> checkDuplicateByHash(
+        @Body com.example.campusvault.data.models.HashDuplicateCheckRequest request
+    );
+
     // Link an existing resource to a different course unit (no re-upload needed)
     @POST("resources/{id}/link")
     Single<Resource> linkResource(
@@ -180,18 +246,31 @@ public interface ApiService {
     Completable deleteResource(@Path("id") int resourceId);
 
     // Bookmark endpoints
+    // Mutations are replayed from the offline outbox; the key lets the server drop repeats
     @POST("resources/{id}/bookmark")
-    Completable bookmarkResource(@Path("id") int resourceId);
+    Completable bookmarkResource(
+        @Path("id") int resourceId,
+        @Header("Idempotency-Key") String idempotencyKey
+    );
 
     @DELETE("resources/{id}/bookmark")
-    Completable unbookmarkResource(@Path("id") int resourceId);
+    Completable unbookmarkResource(
+        @Path("id") int resourceId,
+        @Header("Idempotency-Key") String idempotencyKey
+    );
 
+    // 304 when the ETag still matches the cached bookmark list
     @GET("resources/bookmarks")
-    Single<java.util.List<Resource>> getBookmarkedResources();
+    Single<retrofit2.Response<java.util.List<Resource>>> getBookmarkedResources(
+        @Header("If-None-Match") String etag
+    );
 
     // Download endpoint
     @POST("resources/{id}/download")
-    Single<Resource> recordDownload(@Path("id") int resourceId);
+    Single<Resource> recordDownload(
+        @Path("id") int resourceId,
+        @Header("Idempotency-Key") String idempotencyKey
+    );
 
     // Search autocomplete
     @GET("search/autocomplete")
@@ -206,13 +285,15 @@ public interface ApiService {
     @POST("resources/{id}/comments")
     Single<com.example.campusvault.data.models.ResourceComment> addComment(
         @Path("id") int resourceId,
-        @Body com.example.campusvault.data.models.CommentRequest request
+        @Body com.example.campusvault.data.models.CommentRequest request,
+        @Header("Idempotency-Key") String idempotencyKey
     );
     
     // Rating endpoint
     @POST("resources/{id}/rating")
     Single<Resource> rateResource(
         @Path("id") int resourceId,
-        @Body com.example.campusvault.data.models.RatingRequest request
+        @Body com.example.campusvault.data.models.RatingRequest request,
+        @Header("Idempotency-Key") String idempotencyKey
     );
 }
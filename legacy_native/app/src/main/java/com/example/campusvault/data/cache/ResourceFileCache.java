@@ -0,0 +1,276 @@
+package com.example.campusvault.data.cache;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.Log;
+import androidx.preference.PreferenceManager;
+import com.example.campusvault.data.download.RangeDownloader;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.dao.CachedFileDao;
+import com.example.campusvault.data.local.database.dao.DownloadSegmentDao;
+import com.example.campusvault.data.local.database.entity.CachedFileEntity;
+import com.example.campusvault.data.upload.ContentHasher;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+
+/**
+ * On-disk cache of downloaded resource files with its index in Room.
+ *
+ * Preview, download and share all read through this cache, so a file is fetched once and
+ * then served from disk - including offline. Entries are keyed by file URL and can also be
+ * found by resource id (storage URLs may carry changing signature parameters). The cache is
+ * bounded by a byte budget from settings and evicts least recently used files first.
+ * Misses are fetched with {@link RangeDownloader}, so large files arrive in parallel
+ * segments and an interrupted download resumes.
+ */
+public class ResourceFileCache {
+
+    private static final String TAG = "ResourceFileCache";
+    private static final String DIR_NAME = "resource_files";
+    private static final int TIMEOUT_SECONDS = 60;
+    private static final int EVICTION_BATCH = 20;
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    public static final String PREF_CACHE_SIZE = "file_cache_size";
+    public static final long DEFAULT_MAX_BYTES = 250L * 1024 * 1024; // 250 MB
+
+    private static volatile ResourceFileCache instance;
+    private final File dir;
+    private final CachedFileDao dao;
+    private final DownloadSegmentDao segmentDao;
+    private final RangeDownloader downloader;
+    private final Map<String, Object> downloadLocks = new ConcurrentHashMap<>();
+    private volatile long maxBytes;
+
+    private ResourceFileCache(Context context) {
+        Context appContext = context.getApplicationContext();
+        this.dir = new File(appContext.getCacheDir(), DIR_NAME);
+        AppDatabase database = AppDatabase.getInstance(appContext);
+        this.dao = database.cachedFileDao();
+        this.segmentDao = database.downloadSegmentDao();
+        // Separate client: file URLs point at storage, which must not receive the API token
+        OkHttpClient client = new OkHttpClient.Builder()
+            .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .build();
+        this.downloader = new RangeDownloader(client, segmentDao);
+
+        SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(appContext);
+        this.maxBytes = parseBudget(prefs.getString(PREF_CACHE_SIZE, null));
+    }
+
+    public static ResourceFileCache getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ResourceFileCache.class) {
+                if (instance == null) {
+                    instance = new ResourceFileCache(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Cached copy of a resource file, or empty if it has to be fetched.
+     * Only touches disk and the index, never the network.
+     */
+    public Maybe<File> getCached(Integer resourceId, String url) {
+        return Maybe.fromCallable(() -> lookup(resourceId, url));
+    }
+
+    /**
+     * Return the cached copy, downloading it first if needed
+     */
+    public Single<File> fetch(Integer resourceId, String url, String fileName) {
+        return fetch(resourceId, url, fileName, null);
+    }
+
+    /**
+     * Same as {@link #fetch(Integer, String, String)}, reporting download progress to
+     * {@code listener} on a background thread. Nothing is reported for a cache hit.
+     */
+    public Single<File> fetch(Integer resourceId, String url, String fileName,
+                              RangeDownloader.ProgressListener listener) {
+        return Single.fromCallable(() -> {
+            File cached = lookup(resourceId, url);
+            if (cached != null) {
+                return cached;
+            }
+            // One download per file; a second caller waits and then finds it cached
+            synchronized (downloadLock(keyFor(url))) {
+                cached = lookup(resourceId, url);
+                if (cached != null) {
+                    return cached;
+                }
+                return download(resourceId, url, fileName, listener);
+            }
+        });
+    }
+
+    /**
+     * Drop a cached file, e.g. when it turned out to be corrupt
+     */
+    public Completable remove(Integer resourceId, String url) {
+        return Completable.fromAction(() -> {
+            CachedFileEntity entry = findEntry(resourceId, url);
+            if (entry != null) {
+                evict(entry);
+            }
+        });
+    }
+
+    /**
+     * Delete every cached file and its index
+     */
+    public Completable clear() {
+        return Completable.fromAction(() -> {
+            synchronized (this) {
+                File[] files = dir.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                dao.deleteAll();
+                segmentDao.deleteAll();
+            }
+        });
+    }
+
+    public Flowable<Long> observeSize() {
+        return dao.observeTotalSize();
+    }
+
+    /**
+     * Change the byte budget, evicting files if the cache is now over it
+     */
+    public Completable setMaxBytes(long bytes) {
+        maxBytes = bytes;
+        return Completable.fromAction(this::trim);
+    }
+
+    public static long parseBudget(String value) {
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException ignored) {
+                // Fall through to the default
+            }
+        }
+        return DEFAULT_MAX_BYTES;
+    }
+
+    private File lookup(Integer resourceId, String url) {
+        CachedFileEntity entry = findEntry(resourceId, url);
+        if (entry == null) {
+            return null;
+        }
+        File file = new File(dir, entry.getCacheKey());
+        if (!file.isFile() || file.length() != entry.getSizeBytes()) {
+            // Cache directory was cleared by the system - the index is stale
+            dao.delete(entry.getCacheKey());
+            return null;
+        }
+        dao.touch(entry.getCacheKey(), System.currentTimeMillis());
+        return file;
+    }
+
+    private CachedFileEntity findEntry(Integer resourceId, String url) {
+        CachedFileEntity entry = dao.getByKey(keyFor(url));
+        if (entry == null && resourceId != null) {
+            // Same resource under a re-signed URL: same path, different query
+            CachedFileEntity byResource = dao.getByResourceId(resourceId);
+            if (byResource != null && samePath(byResource.getUrl(), url)) {
+                entry = byResource;
+            }
+        }
+        return entry;
+    }
+
+    private File download(Integer resourceId, String url, String fileName,
+                          RangeDownloader.ProgressListener listener) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create cache directory");
+        }
+
+        String key = keyFor(url);
+        File target = new File(dir, key);
+        // Stable name: a failed download leaves its segments here to resume from
+        File partial = new File(dir, key + PARTIAL_SUFFIX);
+        downloader.download(key, url, partial, listener);
+
+        synchronized (this) {
+            // Rename last so a half-written file is never served from the cache
+            if (!partial.renameTo(target)) {
+                partial.delete();
+                throw new IOException("Cannot move download into cache");
+            }
+            CachedFileEntity entry = new CachedFileEntity();
+            entry.setCacheKey(key);
+            entry.setResourceId(resourceId);
+            entry.setUrl(url);
+            entry.setFileName(fileName);
+            entry.setSizeBytes(target.length());
+            dao.upsert(entry);
+        }
+
+        Log.d(TAG, "Cached " + target.length() + " bytes for resource " + resourceId);
+        trim();
+        return target;
+    }
+
+    private synchronized void trim() {
+        long total = dao.getTotalSize();
+        while (total > maxBytes) {
+            List<CachedFileEntity> oldest = dao.getLeastRecentlyUsed(EVICTION_BATCH);
+            if (oldest.isEmpty()) {
+                break;
+            }
+            for (CachedFileEntity entry : oldest) {
+                if (total <= maxBytes) {
+                    break;
+                }
+                evict(entry);
+                total -= entry.getSizeBytes();
+            }
+        }
+    }
+
+    private synchronized void evict(CachedFileEntity entry) {
+        File file = new File(dir, entry.getCacheKey());
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Could not delete " + file);
+        }
+        dao.delete(entry.getCacheKey());
+    }
+
+    private Object downloadLock(String key) {
+        return downloadLocks.computeIfAbsent(key, k -> new Object());
+    }
+
+    private static boolean samePath(String a, String b) {
+        if (a == null || b == null) {
+            return false;
+        }
+        Uri left = Uri.parse(a);
+        Uri right = Uri.parse(b);
+        return Objects.equals(left.getHost(), right.getHost()) && Objects.equals(left.getPath(), right.getPath());
+    }
+
+    private static String keyFor(String url) {
+        byte[] bytes = url.getBytes(StandardCharsets.UTF_8);
+        return ContentHasher.sha256Hex(bytes, bytes.length);
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.campusvault.data.download;
+
+import android.util.Log;
+import com.example.campusvault.data.local.database.dao.DownloadSegmentDao;
+import com.example.campusvault.data.local.database.entity.DownloadSegmentEntity;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * Downloads a file in parallel byte-range segments.
+ *
+ * A one-byte probe request tells whether the server honours {@code Range}, the full size and
+ * an ETag/Last-Modified validator. The file is then split into up to {@link #MAX_SEGMENTS}
+ * segments fetched concurrently into a pre-sized file; each segment's progress is
+ * checkpointed in Room so an interrupted download continues where it stopped, as long as the
+ * validator is unchanged. Servers that ignore ranges are read as a single stream.
+ *
+ * Blocking - call from a background thread. Interrupting that thread cancels the download.
+ */
+public class RangeDownloader {
+
+    /**
+     * Progress callback, invoked on download threads
+     */
+    public interface ProgressListener {
+        void onProgress(long downloadedBytes, long totalBytes);
+    }
+
+    private static final String TAG = "RangeDownloader";
+    static final int MAX_SEGMENTS = 4;
+    static final long MIN_SEGMENT_BYTES = 2L * 1024 * 1024; // 2 MB
+    private static final long CHECKPOINT_BYTES = 512L * 1024;
+    private static final int MAX_SEGMENT_ATTEMPTS = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OkHttpClient client;
+    private final DownloadSegmentDao dao;
+
+    public RangeDownloader(OkHttpClient client, DownloadSegmentDao dao) {
+        this.client = client;
+        this.dao = dao;
+    }
+
+    /**
+     * Download {@code url} into {@code target}, resuming segments recorded under {@code key}
+     */
+    public void download(String key, String url, File target, ProgressListener listener) throws IOException {
+        try {
+            downloadOnce(key, url, target, listener);
+        } catch (FileChangedException e) {
+            // The file was replaced mid-download - the saved segments are useless
+            Log.w(TAG, "Remote file changed, restarting download " + key);
+            dao.deleteSegments(key);
+            target.delete();
+            downloadOnce(key, url, target, listener);
+        }
+    }
+
+    private void downloadOnce(String key, String url, File target, ProgressListener listener) throws IOException {
+        long total;
+        String validator;
+        Request probe = new Request.Builder().url(url).header("Range", "bytes=0-0").build();
+        try (Response response = client.newCall(probe).execute()) {
+            if (response.code() != 206) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Download failed (" + response.code() + ")");
+                }
+                // Ranges ignored: the probe response already carries the whole file
+                dao.deleteSegments(key);
+                streamWhole(response, target, listener);
+                return;
+            }
+            total = parseTotal(response.header("Content-Range"));
+            validator = validatorOf(response);
+        }
+
+        if (total <= 0) {
+            // Ranges work but the size is unknown, so the file can't be split
+            dao.deleteSegments(key);
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Download failed (" + response.code() + ")");
+                }
+                streamWhole(response, target, listener);
+            }
+            return;
+        }
+
+        List<DownloadSegmentEntity> segments = resumableSegments(key, target, total, validator);
+        if (segments == null) {
+            target.delete();
+            segments = planSegments(key, total, validator);
+            dao.insertAll(segments);
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(target, "rw")) {
+            file.setLength(total);
+            fetchSegments(url, validator, segments, file.getChannel(), total, listener);
+        }
+        dao.deleteSegments(key);
+    }
+
+    private List<DownloadSegmentEntity> resumableSegments(String key, File target, long total, String validator) {
+        List<DownloadSegmentEntity> saved = dao.getSegments(key);
+        if (saved.isEmpty() || !target.isFile() || target.length() != total) {
+            return null;
+        }
+        DownloadSegmentEntity first = saved.get(0);
+        if (first.getTotalBytes() != total || validator == null || !validator.equals(first.getValidator())) {
+            return null;
+        }
+        Log.d(TAG, "Resuming " + key + " from saved segments");
+        return saved;
+    }
+
+    private static List<DownloadSegmentEntity> planSegments(String key, long total, String validator) {
+        int count = (int) Math.max(1, Math.min(MAX_SEGMENTS, total / MIN_SEGMENT_BYTES));
+        long segmentSize = (total + count - 1) / count;
+        List<DownloadSegmentEntity> segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = i * segmentSize;
+            long end = Math.min(total, start + segmentSize) - 1;
+            segments.add(new DownloadSegmentEntity(key, i, start, end, total, validator));
+        }
+        return segments;
+    }
+
+    private void fetchSegments(String url, String validator, List<DownloadSegmentEntity> segments,
+                               FileChannel channel, long total, ProgressListener listener) throws IOException {
+        AtomicLong done = new AtomicLong();
+        List<DownloadSegmentEntity> pending = new ArrayList<>();
+        for (DownloadSegmentEntity segment : segments) {
+            done.addAndGet(segment.getDownloadedBytes());
+            if (!segment.isComplete()) {
+                pending.add(segment);
+            }
+        }
+        report(done.get(), total, listener);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(pending.size());
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (DownloadSegmentEntity segment : pending) {
+                futures.add(pool.submit(() -> {
+                    fetchSegment(url, validator, segment, channel, done, total, listener);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Download cancelled");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void fetchSegment(String url, String validator, DownloadSegmentEntity segment, FileChannel channel,
+                              AtomicLong done, long total, ProgressListener listener) throws IOException {
+        IOException lastError = null;
+        for (int attempt = 1; attempt <= MAX_SEGMENT_ATTEMPTS && !segment.isComplete(); attempt++) {
+            try {
+                fetchRange(url, validator, segment, channel, done, total, listener);
+                return;
+            } catch (FileChangedException | InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                lastError = e;
+                Log.w(TAG, "Segment " + segment.getSegmentIndex() + " attempt " + attempt + " failed", e);
+            }
+        }
+        if (lastError != null) {
+            throw lastError;
+        }
+    }
+
+    private void fetchRange(String url, String validator, DownloadSegmentEntity segment, FileChannel channel,
+                            AtomicLong done, long total, ProgressListener listener) throws IOException {
+        long position = segment.getStartByte() + segment.getDownloadedBytes();
+        Request.Builder request = new Request.Builder()
+            .url(url)
+            .header("Range", "bytes=" + position + "-" + segment.getEndByte());
+        if (validator != null) {
+            // Without a match the server answers 200 with the new file instead of a stale range
+            request.header("If-Range", validator);
+        }
+
+        try (Response response = client.newCall(request.build()).execute()) {
+            if (response.code() != 206) {
+                if (response.isSuccessful() || response.code() == 412 || response.code() == 416) {
+                    throw new FileChangedException();
+                }
+                throw new IOException("Segment " + segment.getSegmentIndex() + " failed (" + response.code() + ")");
+            }
+            ResponseBody body = response.body();
+            if (body == null) {
+                throw new IOException("Empty segment response");
+            }
+
+            BufferedSource source = body.source();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long remaining = segment.getEndByte() - position + 1;
+            long sinceCheckpoint = 0;
+            try {
+                while (remaining > 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Download cancelled");
+                    }
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), remaining));
+                    int read = source.read(buffer);
+                    if (read == -1) {
+                        throw new IOException("Segment " + segment.getSegmentIndex() + " ended early");
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    remaining -= read;
+                    sinceCheckpoint += read;
+                    segment.setDownloadedBytes(segment.getDownloadedBytes() + read);
+                    report(done.addAndGet(read), total, listener);
+
+                    if (sinceCheckpoint >= CHECKPOINT_BYTES) {
+                        checkpoint(segment, channel);
+                        sinceCheckpoint = 0;
+                    }
+                }
+            } finally {
+                checkpoint(segment, channel);
+            }
+        }
+    }
+
+    /**
+     * Flush written bytes before recording them, so a resume never trusts unwritten data
+     */
+    private void checkpoint(DownloadSegmentEntity segment, FileChannel channel) throws IOException {
+        channel.force(false);
+        dao.updateProgress(segment.getDownloadKey(), segment.getSegmentIndex(), segment.getDownloadedBytes());
+    }
+
+    private static void streamWhole(Response response, File target, ProgressListener listener) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new IOException("Empty response");
+        }
+        long total = body.contentLength();
+        long downloaded = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (java.io.InputStream in = body.byteStream();
+             java.io.OutputStream out = new java.io.FileOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Download cancelled");
+                }
+                out.write(buffer, 0, read);
+                downloaded += read;
+                report(downloaded, total, listener);
+            }
+        }
+    }
+
+    private static void report(long downloaded, long total, ProgressListener listener) {
+        if (listener != null) {
+            listener.onProgress(downloaded, total);
+        }
+    }
+
+    /**
+     * Total size from a {@code Content-Range: bytes 0-0/12345} header, or -1 if unknown
+     */
+    static long parseTotal(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1; // "*" - length unknown
+        }
+    }
+
+    private static String validatorOf(Response response) {
+        String etag = response.header("ETag");
+        // Weak ETags are not allowed in If-Range
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return response.header("Last-Modified");
+    }
+
+    /**
+     * The server no longer has the file the saved segments belong to
+     */
+    static class FileChangedException extends IOException {
+        FileChangedException() {
+            super("Remote file changed");
+        }
+    }
+}
@@ -1,21 +1,41 @@
 package com.example.campusvault.data.local.database;
 
 import android.content.Context;
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.example.campusvault.data.local.database.dao.CachedFileDao;
+import com.example.campusvault.data.local.database.dao.DownloadSegmentDao;
+import com.example.campusvault.data.local.database.dao.PendingMutationDao;
+import com.example.campusvault.data.local.database.dao.PendingUploadDao;
+import com.example.campusvault.data.local.database.dao.RemoteKeyDao;
 import com.example.campusvault.data.local.database.dao.ResourceDao;
+import com.example.campusvault.data.local.database.dao.SyncTelemetryDao;
+import com.example.campusvault.data.local.database.dao.TagDao;
 import com.example.campusvault.data.local.database.dao.UniversityDao;
 import com.example.campusvault.data.local.database.dao.UserDao;
+import com.example.campusvault.data.local.database.entity.CachedFileEntity;
 import com.example.campusvault.data.local.database.entity.CourseUnitEntity;
+import com.example.campusvault.data.local.database.entity.CourseUnitFtsEntity;
+import com.example.campusvault.data.local.database.entity.DownloadSegmentEntity;
 import com.example.campusvault.data.local.database.entity.FacultyEntity;
+import com.example.campusvault.data.local.database.entity.PendingMutationEntity;
+import com.example.campusvault.data.local.database.entity.PendingUploadEntity;
 import com.example.campusvault.data.local.database.entity.ProgramEntity;
+import com.example.campusvault.data.local.database.entity.RemoteKeyEntity;
 import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import com.example.campusvault.data.local.database.entity.ResourceFtsEntity;
+import com.example.campusvault.data.local.database.entity.ResourceTagEntity;
+import com.example.campusvault.data.local.database.entity.SyncTelemetryEntity;
+import com.example.campusvault.data.local.database.entity.TagEntity;
 import com.example.campusvault.data.local.database.entity.UserEntity;
 
 /**
- * Room database for local caching
+ * Room database for local caching - the app's only database.
+ * The retired "campus_vault_database" is folded in on first open by {@link LegacyDatabaseImporter}.
  */
 @Database(
     entities = {
@@ -23,10 +43,20 @@ import com.example.campusvault.data.local.database.entity.UserEntity;
         ResourceEntity.class,
         FacultyEntity.class,
         ProgramEntity.class,
-        CourseUnitEntity.class
+        CourseUnitEntity.class,
+        PendingUploadEntity.class,
+        CachedFileEntity.class,
+        DownloadSegmentEntity.class,
+        ResourceFtsEntity.class,
+        CourseUnitFtsEntity.class,
+        SyncTelemetryEntity.class,
+        PendingMutationEntity.class,
+        RemoteKeyEntity.class,
+        TagEntity.class,
+        ResourceTagEntity.class
     },
-    version = 4,
-    exportSchema = false
+    version = 15,
+    exportSchema = true
 )
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
@@ -37,17 +67,33 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract UserDao userDao();
     public abstract ResourceDao resourceDao();
     public abstract UniversityDao universityDao();
+    public abstract PendingUploadDao pendingUploadDao();
+    public abstract CachedFileDao cachedFileDao();
+    public abstract DownloadSegmentDao downloadSegmentDao();
+    public abstract SyncTelemetryDao syncTelemetryDao();
+    public abstract PendingMutationDao pendingMutationDao();
+    public abstract RemoteKeyDao remoteKeyDao();
+    public abstract TagDao tagDao();
 
     public static AppDatabase getInstance(Context context) {
         if (instance == null) {
             synchronized (AppDatabase.class) {
                 if (instance == null) {
+                    Context appContext = context.getApplicationContext();
                     instance = Room.databaseBuilder(
-                        context.getApplicationContext(),
+                        appContext,
                         AppDatabase.class,
                         DATABASE_NAME
                     )
-                    .fallbackToDestructiveMigration()
+                    .addMigrations(Migrations.ALL)
+                    // Versions before 4 predate the migrations; those caches are rebuilt
+                    .fallbackToDestructiveMigrationFrom(1, 2, 3)
+                    .addCallback(new RoomDatabase.Callback() {
+                        @Override
+                        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                            LegacyDatabaseImporter.importIfPresent(appContext, db);
+                        }
+                    })
                     .build();
                 }
             }
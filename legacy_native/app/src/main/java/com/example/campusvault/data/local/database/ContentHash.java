@@ -0,0 +1,69 @@
+package com.example.campusvault.data.local.database;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 64-bit FNV-1a hash over a row's server-provided fields. Stored alongside the row so a
+ * refresh can tell unchanged rows apart without comparing every column.
+ */
+public final class ContentHash {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    public ContentHash add(String value) {
+        if (value == null) {
+            return addByte(0);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            addByte(c >>> 8);
+            addByte(c);
+        }
+        // Field separator, so ("ab", "c") and ("a", "bc") differ
+        return addByte(1);
+    }
+
+    public ContentHash add(long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            addByte((int) (value >>> shift));
+        }
+        return this;
+    }
+
+    public ContentHash add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    public ContentHash add(Integer value) {
+        return value == null ? addByte(0) : add(value.longValue());
+    }
+
+    public ContentHash add(Date value) {
+        return value == null ? addByte(0) : add(value.getTime());
+    }
+
+    public ContentHash add(List<String> values) {
+        if (values == null) {
+            return addByte(0);
+        }
+        add(values.size());
+        for (String value : values) {
+            add(value);
+        }
+        return this;
+    }
+
+    public long value() {
+        return hash;
+    }
+
+    private ContentHash addByte(int b) {
+        hash ^= b & 0xFF;
+        hash *= PRIME;
+        return this;
+    }
+}
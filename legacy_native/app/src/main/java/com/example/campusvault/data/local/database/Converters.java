@@ -1,9 +1,7 @@
 package com.example.campusvault.data.local.database;
 
 import androidx.room.TypeConverter;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -12,8 +10,6 @@ import java.util.List;
  */
 public class Converters {
 
-    private static final Gson gson = new Gson();
-
     @TypeConverter
     public static Date fromTimestamp(Long value) {
         return value == null ? null : new Date(value);
@@ -24,20 +20,147 @@ public class Converters {
         return date == null ? null : date.getTime();
     }
 
+    /**
+     * Tags are stored as a JSON array of strings, the format Gson wrote before. It is read and
+     * written by hand here: this runs for every row read, and Gson's reflective parse was the
+     * bulk of the cost.
+     */
     @TypeConverter
     public static String fromStringList(List<String> list) {
         if (list == null) {
             return null;
         }
-        return gson.toJson(list);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendJsonString(sb, list.get(i));
+        }
+        return sb.append(']').toString();
     }
 
+    /**
+     * Reads what {@link #fromStringList} and Gson wrote. A malformed value reads as no tags
+     * rather than failing the whole query.
+     */
     @TypeConverter
     public static List<String> toStringList(String value) {
         if (value == null) {
             return null;
         }
-        Type listType = new TypeToken<List<String>>() {}.getType();
-        return gson.fromJson(value, listType);
+        try {
+            return parseJsonStringArray(value);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private static void appendJsonString(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static List<String> parseJsonStringArray(String json) {
+        List<String> list = new ArrayList<>();
+        int i = skipWhitespace(json, 0);
+        expect(json, i++, '[');
+        i = skipWhitespace(json, i);
+        if (json.charAt(i) == ']') {
+            return list;
+        }
+        while (true) {
+            i = skipWhitespace(json, i);
+            if (json.startsWith("null", i)) {
+                list.add(null);
+                i += 4;
+            } else {
+                expect(json, i++, '"');
+                StringBuilder sb = new StringBuilder();
+                char c;
+                while ((c = json.charAt(i++)) != '"') {
+                    if (c != '\\') {
+                        sb.append(c);
+                        continue;
+                    }
+                    char e = json.charAt(i++);
+                    switch (e) {
+                        case 'b':
+                            sb.append('\b');
+                            break;
+                        case 'f':
+                            sb.append('\f');
+                            break;
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 'r':
+                            sb.append('\r');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'u':
+                            // Gson escapes <, >, &, = and ' this way
+                            sb.append((char) Integer.parseInt(json.substring(i, i + 4), 16));
+                            i += 4;
+                            break;
+                        default:
+                            // \" \\ \/
+                            sb.append(e);
+                    }
+                }
+                list.add(sb.toString());
+            }
+            i = skipWhitespace(json, i);
+            char next = json.charAt(i++);
+            if (next == ']') {
+                return list;
+            }
+            expect(json, i - 1, ',');
+        }
+    }
+
+    private static int skipWhitespace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void expect(String s, int i, char c) {
+        if (s.charAt(i) != c) {
+            throw new IllegalArgumentException("Expected '" + c + "' at " + i + " in " + s);
+        }
     }
 }
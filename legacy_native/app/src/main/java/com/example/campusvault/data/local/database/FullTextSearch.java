@@ -0,0 +1,127 @@
+package com.example.campusvault.data.local.database;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Helpers for the FTS4 search tables: turning user input into a MATCH expression and
+ * ranking matches with Okapi BM25, which FTS4 lacks, computed from
+ * {@code matchinfo(table, 'pcnalx')}.
+ */
+public final class FullTextSearch {
+
+    /** matchinfo format the ranking expects - keep in sync with the DAO queries */
+    public static final String MATCHINFO_FORMAT = "pcnalx";
+
+    /** Ranking weights for resources_fts: title, description, tags, course_unit_name */
+    public static final double[] RESOURCE_WEIGHTS = {3.0, 1.0, 2.0, 2.0};
+
+    /** Ranking weights for course_units_fts: name, code */
+    public static final double[] COURSE_UNIT_WEIGHTS = {1.0, 2.0};
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private FullTextSearch() {
+    }
+
+    /**
+     * Prefix-match every word of the user's query, e.g. {@code "data str"} becomes
+     * {@code "data* str*"}. FTS operators and quotes are dropped so typing can never
+     * produce a malformed expression.
+     *
+     * @return MATCH expression, or null if the query has no searchable words
+     */
+    public static String toMatchQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append(word).append('*');
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * Sort rows best match first
+     *
+     * @param weights per-column weight, in FTS table column order
+     */
+    public static <T> List<T> rank(List<T> rows, Function<T, byte[]> matchInfo, double[] weights) {
+        if (rows.size() < 2) {
+            return rows;
+        }
+        List<Scored<T>> scored = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            scored.add(new Scored<>(row, bm25(matchInfo.apply(row), weights)));
+        }
+        Collections.sort(scored, (a, b) -> Double.compare(b.score, a.score));
+        List<T> ranked = new ArrayList<>(rows.size());
+        for (Scored<T> item : scored) {
+            ranked.add(item.row);
+        }
+        return ranked;
+    }
+
+    /**
+     * BM25 score of one row from its {@code 'pcnalx'} matchinfo blob
+     */
+    static double bm25(byte[] matchInfo, double[] weights) {
+        if (matchInfo == null) {
+            return 0;
+        }
+        ByteBuffer info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = (int) uint(info, 0);
+        int columns = (int) uint(info, 1);
+        long rowCount = uint(info, 2);
+        // Layout: p, c, n, a[c] (average tokens), l[c] (tokens in this row), x[3*p*c]
+        int avgOffset = 3;
+        int lengthOffset = avgOffset + columns;
+        int hitsOffset = lengthOffset + columns;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns && column < weights.length; column++) {
+                int x = hitsOffset + 3 * (phrase * columns + column);
+                long hitsInRow = uint(info, x);
+                if (hitsInRow == 0) {
+                    continue;
+                }
+                long rowsWithHits = uint(info, x + 2);
+                double avgLength = Math.max(1, uint(info, avgOffset + column));
+                long length = uint(info, lengthOffset + column);
+
+                double idf = Math.log(1 + (rowCount - rowsWithHits + 0.5) / (rowsWithHits + 0.5));
+                double tf = hitsInRow * (K1 + 1) / (hitsInRow + K1 * (1 - B + B * length / avgLength));
+                score += weights[column] * idf * tf;
+            }
+        }
+        return score;
+    }
+
+    private static long uint(ByteBuffer info, int index) {
+        return info.getInt(index * 4) & 0xFFFFFFFFL;
+    }
+
+    private static final class Scored<T> {
+        final T row;
+        final double score;
+
+        Scored(T row, double score) {
+            this.row = row;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.campusvault.data.local.database;
+
+import android.content.Context;
+import android.database.SQLException;
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import java.io.File;
+
+/**
+ * One-time import of the retired "campus_vault_database" into campusvault_db.
+ *
+ * The old database kept bookmarks in a separate table next to its own copy of each
+ * resource. Bookmarked resources are copied into {@code resources} (rows already cached
+ * here win) and flagged with {@code is_bookmarked}, the single bookmark state from now on.
+ * The old file is deleted only after a successful import, so this is a cheap existence check
+ * on later opens; if the import fails the file is kept and the next open tries again.
+ */
+final class LegacyDatabaseImporter {
+
+    private static final String TAG = "LegacyDatabaseImporter";
+    static final String LEGACY_DATABASE_NAME = "campus_vault_database";
+
+    private LegacyDatabaseImporter() {
+    }
+
+    static void importIfPresent(Context context, SupportSQLiteDatabase db) {
+        File legacyFile = context.getDatabasePath(LEGACY_DATABASE_NAME);
+        if (!legacyFile.exists()) {
+            return;
+        }
+
+        try {
+            // ATTACH is not allowed inside a transaction, so it wraps the import
+            db.execSQL("ATTACH DATABASE ? AS legacy", new Object[]{legacyFile.getAbsolutePath()});
+            try {
+                db.beginTransaction();
+                try {
+                    copyBookmarkedResources(db);
+                    ResourceTags.rebuildAll(db);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            } finally {
+                db.execSQL("DETACH DATABASE legacy");
+            }
+            Log.i(TAG, "Imported bookmarks from " + LEGACY_DATABASE_NAME);
+        } catch (SQLException e) {
+            // Keep the file: it may hold the only copy of the user's bookmarks
+            Log.w(TAG, "Legacy database not imported, will retry on next open", e);
+            return;
+        }
+        context.deleteDatabase(LEGACY_DATABASE_NAME);
+    }
+
+    private static void copyBookmarkedResources(SupportSQLiteDatabase db) {
+        db.execSQL("INSERT OR IGNORE INTO resources (id, title, description, file_url, thumbnail_url, " +
+            "file_type, file_size, author_id, author_name, course_unit_id, course_unit_name, tags, " +
+            "download_count, average_rating, is_bookmarked, uploaded_at, cached_at, resource_type) " +
+            "SELECT r.id, r.title, r.description, r.fileUrl, r.thumbnailUrl, r.fileType, r.fileSize, " +
+            "COALESCE(r.author_id, 0), TRIM(COALESCE(r.author_firstName, '') || ' ' || COALESCE(r.author_lastName, '')), " +
+            "COALESCE(r.courseUnitId, r.course_unit_id), r.course_unit_name, r.tags, " +
+            "r.downloadCount, r.averageRating, 1, r.uploadedAt, ?, r.resourceType " +
+            "FROM legacy.resources r WHERE r.id IN (SELECT resourceId FROM legacy.bookmarks)",
+            new Object[]{System.currentTimeMillis()});
+        db.execSQL("UPDATE resources SET is_bookmarked = 1 " +
+            "WHERE id IN (SELECT resourceId FROM legacy.bookmarks)");
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.campusvault.data.local.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Schema migrations for {@link AppDatabase}, one per version step from 4 on, so an upgrade
+ * keeps the cached catalog instead of wiping it. The SQL mirrors what Room generates for
+ * the entities (see the exported schema in app/schemas) - Room validates the result on open.
+ */
+final class Migrations {
+
+    private Migrations() {
+    }
+
+    // Upload queue
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `pending_uploads` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `uri` TEXT, `file_name` TEXT, " +
+                "`content_type` TEXT, `size_bytes` INTEGER NOT NULL, `course_unit_id` INTEGER NOT NULL, " +
+                "`title` TEXT, `description` TEXT, `resource_type` TEXT, `status` TEXT, " +
+                "`bytes_uploaded` INTEGER NOT NULL, `attempts` INTEGER NOT NULL, `error_message` TEXT, " +
+                "`resource_id` INTEGER, `created_at` INTEGER, `updated_at` INTEGER)");
+        }
+    };
+
+    // Resource file cache index
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `cached_files` (" +
+                "`cache_key` TEXT NOT NULL, `resource_id` INTEGER, `url` TEXT, `file_name` TEXT, " +
+                "`size_bytes` INTEGER NOT NULL, `last_accessed` INTEGER, `cached_at` INTEGER, " +
+                "PRIMARY KEY(`cache_key`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_cached_files_resource_id` ON `cached_files` (`resource_id`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_cached_files_last_accessed` ON `cached_files` (`last_accessed`)");
+        }
+    };
+
+    // Segmented download progress
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `download_segments` (" +
+                "`download_key` TEXT NOT NULL, `segment_index` INTEGER NOT NULL, `start_byte` INTEGER NOT NULL, " +
+                "`end_byte` INTEGER NOT NULL, `downloaded_bytes` INTEGER NOT NULL, `total_bytes` INTEGER NOT NULL, " +
+                "`validator` TEXT, PRIMARY KEY(`download_key`, `segment_index`))");
+        }
+    };
+
+    // Full-text search tables, their sync triggers, and an index of the rows already cached
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `resources_fts` USING FTS4(" +
+                "`title` TEXT, `description` TEXT, `tags` TEXT, `course_unit_name` TEXT, " +
+                "tokenize=unicode61, content=`resources`, prefix=`2,3`)");
+            createFtsSyncTriggers(db, "resources_fts", "resources",
+                "title", "description", "tags", "course_unit_name");
+            db.execSQL("INSERT INTO `resources_fts`(`resources_fts`) VALUES('rebuild')");
+
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `course_units_fts` USING FTS4(" +
+                "`name` TEXT, `code` TEXT, tokenize=unicode61, content=`course_units`, prefix=`2,3`)");
+            createFtsSyncTriggers(db, "course_units_fts", "course_units", "name", "code");
+            db.execSQL("INSERT INTO `course_units_fts`(`course_units_fts`) VALUES('rebuild')");
+        }
+    };
+
+    // Composite indices for ResourceDao queries
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resources_course_unit_id_uploaded_at` " +
+                "ON `resources` (`course_unit_id`, `uploaded_at`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resources_course_unit_id_resource_type_uploaded_at` " +
+                "ON `resources` (`course_unit_id`, `resource_type`, `uploaded_at`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resources_uploaded_at` ON `resources` (`uploaded_at`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resources_download_count_average_rating` " +
+                "ON `resources` (`download_count`, `average_rating`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resources_is_bookmarked_cached_at` " +
+                "ON `resources` (`is_bookmarked`, `cached_at`)");
+        }
+    };
+
+    // Content hashes for change-detecting refreshes; 0 never matches, so old rows get rewritten once
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            for (String table : new String[]{"resources", "faculties", "programs", "course_units"}) {
+                db.execSQL("ALTER TABLE `" + table + "` ADD COLUMN `content_hash` INTEGER NOT NULL DEFAULT 0");
+            }
+        }
+    };
+
+    // Sync telemetry ring table
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sync_telemetry` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `run_id` TEXT NOT NULL, `stage` TEXT NOT NULL, " +
+                "`started_at` INTEGER NOT NULL, `duration_ms` INTEGER NOT NULL, `requests` INTEGER NOT NULL, " +
+                "`bytes_in` INTEGER NOT NULL, `bytes_out` INTEGER NOT NULL, `rows_inserted` INTEGER NOT NULL, " +
+                "`rows_updated` INTEGER NOT NULL, `rows_deleted` INTEGER NOT NULL, `attempt` INTEGER NOT NULL, " +
+                "`outcome` TEXT NOT NULL, `error` TEXT)");
+        }
+    };
+
+    // Offline mutation outbox
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `pending_mutations` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `type` TEXT NOT NULL, " +
+                "`resource_id` INTEGER NOT NULL, `payload` TEXT, `coalesce_key` TEXT, " +
+                "`idempotency_key` TEXT NOT NULL, `created_at` INTEGER NOT NULL, `in_flight` INTEGER NOT NULL, " +
+                "`attempts` INTEGER NOT NULL, `last_error` TEXT)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_pending_mutations_coalesce_key` " +
+                "ON `pending_mutations` (`coalesce_key`)");
+        }
+    };
+
+    // Remote keys for paged resource lists
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `remote_keys` (" +
+                "`list_key` TEXT NOT NULL, `next_page` INTEGER, `refreshed_at` INTEGER NOT NULL, " +
+                "PRIMARY KEY(`list_key`))");
+        }
+    };
+
+    // Indices for the keyset pages on bookmarks and per course unit popularity
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resources_course_unit_id_download_count_average_rating` " +
+                "ON `resources` (`course_unit_id`, `download_count`, `average_rating`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resources_is_bookmarked_uploaded_at` " +
+                "ON `resources` (`is_bookmarked`, `uploaded_at`)");
+        }
+    };
+
+    // Normalized tags, filled from the tags column of every cached resource
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `tags` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `name` TEXT NOT NULL COLLATE NOCASE)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tags_name` ON `tags` (`name`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `resource_tags` (" +
+                "`tag_id` INTEGER NOT NULL, `resource_id` INTEGER NOT NULL, PRIMARY KEY(`tag_id`, `resource_id`), " +
+                "FOREIGN KEY(`resource_id`) REFERENCES `resources`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , " +
+                "FOREIGN KEY(`tag_id`) REFERENCES `tags`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resource_tags_resource_id` ON `resource_tags` (`resource_id`)");
+            ResourceTags.rebuildAll(db);
+        }
+    };
+
+    static final Migration[] ALL = {
+        MIGRATION_4_5,
+        MIGRATION_5_6,
+        MIGRATION_6_7,
+        MIGRATION_7_8,
+        MIGRATION_8_9,
+        MIGRATION_9_10,
+        MIGRATION_10_11,
+        MIGRATION_11_12,
+        MIGRATION_12_13,
+        MIGRATION_13_14,
+        MIGRATION_14_15
+    };
+
+    /**
+     * The triggers Room creates for an external-content FTS table; migrations must add them
+     * themselves or the index silently stops following the content table.
+     */
+    private static void createFtsSyncTriggers(SupportSQLiteDatabase db, String ftsTable,
+                                              String contentTable, String... columns) {
+        StringBuilder names = new StringBuilder("`docid`");
+        StringBuilder values = new StringBuilder("NEW.`rowid`");
+        for (String column : columns) {
+            names.append(", `").append(column).append('`');
+            values.append(", NEW.`").append(column).append('`');
+        }
+        String prefix = "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_" + ftsTable + "_";
+        String delete = " BEGIN DELETE FROM `" + ftsTable + "` WHERE `docid`=OLD.`rowid`; END";
+        String insert = " BEGIN INSERT INTO `" + ftsTable + "`(" + names + ") VALUES (" + values + "); END";
+
+        db.execSQL(prefix + "BEFORE_UPDATE BEFORE UPDATE ON `" + contentTable + "`" + delete);
+        db.execSQL(prefix + "BEFORE_DELETE BEFORE DELETE ON `" + contentTable + "`" + delete);
+        db.execSQL(prefix + "AFTER_UPDATE AFTER UPDATE ON `" + contentTable + "`" + insert);
+        db.execSQL(prefix + "AFTER_INSERT AFTER INSERT ON `" + contentTable + "`" + insert);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.campusvault.data.local.database;
+
+import android.database.Cursor;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The tags and resource_tags tables mirror resources.tags, which stays as the column
+ * full-text search indexes. ResourceDao.upsertAll keeps them in step for synced rows;
+ * {@link #rebuildAll} fills them for rows written with plain SQL.
+ */
+public final class ResourceTags {
+
+    private ResourceTags() {
+    }
+
+    /**
+     * Tag names as stored: trimmed, with blanks and repeats dropped
+     */
+    public static List<String> normalize(List<String> tags) {
+        List<String> names = new ArrayList<>();
+        if (tags == null) {
+            return names;
+        }
+        Set<String> seen = new HashSet<>();
+        for (String tag : tags) {
+            String name = tag != null ? tag.trim() : "";
+            if (!name.isEmpty() && seen.add(key(name))) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * The form two names share when SQLite's NOCASE sees them as equal; it folds ASCII only
+     */
+    public static String key(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sb.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Relink every resource from its tags column. For migrations and imports, which
+     * cannot go through a DAO; the caller owns the transaction.
+     */
+    static void rebuildAll(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM `resource_tags`");
+        try (SupportSQLiteStatement insertTag = db.compileStatement(
+                 "INSERT OR IGNORE INTO `tags` (`name`) VALUES (?)");
+             SupportSQLiteStatement insertLink = db.compileStatement("INSERT OR IGNORE INTO `resource_tags` " +
+                 "(`tag_id`, `resource_id`) SELECT `id`, ? FROM `tags` WHERE `name` = ?");
+             Cursor cursor = db.query("SELECT `id`, `tags` FROM `resources` WHERE `tags` IS NOT NULL")) {
+            while (cursor.moveToNext()) {
+                int resourceId = cursor.getInt(0);
+                for (String name : normalize(Converters.toStringList(cursor.getString(1)))) {
+                    insertTag.bindString(1, name);
+                    insertTag.executeInsert();
+                    insertLink.bindLong(1, resourceId);
+                    insertLink.bindString(2, name);
+                    insertLink.executeInsert();
+                }
+            }
+        } catch (IOException e) {
+            // Only closing a statement throws this
+            throw new IllegalStateException(e);
+        }
+    }
+}
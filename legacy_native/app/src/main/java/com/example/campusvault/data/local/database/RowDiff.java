@@ -0,0 +1,94 @@
+package com.example.campusvault.data.local.database;
+
+import com.example.campusvault.data.local.database.entity.SyncedEntity;
+import com.example.campusvault.data.local.database.model.RowHash;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between freshly fetched rows and what Room already holds, by content hash.
+ * Applying only the inserts, updates and deletes means a refresh that changed nothing
+ * writes nothing - and Room's observers don't re-emit.
+ */
+public final class RowDiff<T extends SyncedEntity> {
+
+    /** SQLite allows 999 bound variables per statement */
+    public static final int MAX_BATCH = 500;
+
+    public final List<T> inserted = new ArrayList<>();
+    public final List<T> changed = new ArrayList<>();
+    public final List<Integer> removedIds = new ArrayList<>();
+
+    private RowDiff() {
+    }
+
+    public static <T extends SyncedEntity> RowDiff<T> empty() {
+        return new RowDiff<>();
+    }
+
+    /**
+     * Fold another diff's rows into this one, e.g. to total several scoped refreshes
+     */
+    public void addAll(RowDiff<T> other) {
+        inserted.addAll(other.inserted);
+        changed.addAll(other.changed);
+        removedIds.addAll(other.removedIds);
+    }
+
+    /**
+     * @param existing hashes of the rows in the same scope as {@code incoming}; any of them
+     *                 missing from {@code incoming} ends up in {@link #removedIds}
+     */
+    public static <T extends SyncedEntity> RowDiff<T> compute(List<T> incoming, List<RowHash> existing) {
+        Map<Integer, Long> stored = new HashMap<>(existing.size() * 2);
+        for (RowHash row : existing) {
+            stored.put(row.id, row.contentHash);
+        }
+
+        RowDiff<T> diff = new RowDiff<>();
+        for (T row : incoming) {
+            long hash = row.computeContentHash();
+            row.setContentHash(hash);
+            Long storedHash = stored.remove(row.getId());
+            if (storedHash == null) {
+                diff.inserted.add(row);
+            } else if (storedHash != hash) {
+                diff.changed.add(row);
+            }
+        }
+        diff.removedIds.addAll(stored.keySet());
+        return diff;
+    }
+
+    /**
+     * Ids of {@code rows}, in order - for looking up the stored hashes of a delta batch
+     */
+    public static <T extends SyncedEntity> List<Integer> ids(List<T> rows) {
+        List<Integer> ids = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            ids.add(row.getId());
+        }
+        return ids;
+    }
+
+    public boolean isEmpty() {
+        return inserted.isEmpty() && changed.isEmpty() && removedIds.isEmpty();
+    }
+
+    /**
+     * Split a list into runs of at most {@link #MAX_BATCH}, for IN (...) queries
+     */
+    public static <E> List<List<E>> batches(List<E> items) {
+        if (items.size() <= MAX_BATCH) {
+            return Collections.singletonList(items);
+        }
+        List<List<E>> batches = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += MAX_BATCH) {
+            batches.add(items.subList(i, Math.min(items.size(), i + MAX_BATCH)));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.campusvault.data.local.database;
+
+import com.example.campusvault.data.local.database.model.ResourceListItem;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds one newest-first (uploaded_at, id) keyset page. SQLite sorts NULL upload times last
+ * in DESC order and one index seek cannot run from the dated rows into the NULL ones, so every
+ * such list has a query for the dated rows and one for the undated tail; this joins them.
+ */
+public final class UploadedAtKeyset {
+
+    public interface DatedQuery {
+        List<ResourceListItem> load(long uploadedAt, int afterId, int limit);
+    }
+
+    public interface UndatedQuery {
+        List<ResourceListItem> load(int afterId, int limit);
+    }
+
+    private UploadedAtKeyset() {
+    }
+
+    /**
+     * @param uploadedAt cursor: upload time of the last row already shown, null if that row had none
+     * @param afterId cursor: id of the last row already shown, null for the first page
+     */
+    public static List<ResourceListItem> page(Long uploadedAt, Integer afterId, int limit,
+                                            DatedQuery dated, UndatedQuery undated) {
+        if (afterId != null && uploadedAt == null) {
+            // Already into the undated tail
+            return undated.load(afterId, limit);
+        }
+        long fromTime = afterId != null ? uploadedAt : Long.MAX_VALUE;
+        int fromId = afterId != null ? afterId : Integer.MAX_VALUE;
+        List<ResourceListItem> page = dated.load(fromTime, fromId, limit);
+        if (page.size() < limit) {
+            page = new ArrayList<>(page);
+            page.addAll(undated.load(Integer.MAX_VALUE, limit - page.size()));
+        }
+        return page;
+    }
+}
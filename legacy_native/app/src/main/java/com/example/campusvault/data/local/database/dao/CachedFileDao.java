@@ -0,0 +1,45 @@
+package com.example.campusvault.data.local.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.example.campusvault.data.local.database.entity.CachedFileEntity;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.List;
+
+/**
+ * Data Access Object for the resource file cache index.
+ * Called from the cache's own background thread, so queries are synchronous.
+ */
+@Dao
+public interface CachedFileDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(CachedFileEntity file);
+
+    @Query("SELECT * FROM cached_files WHERE cache_key = :cacheKey")
+    CachedFileEntity getByKey(String cacheKey);
+
+    @Query("SELECT * FROM cached_files WHERE resource_id = :resourceId ORDER BY last_accessed DESC LIMIT 1")
+    CachedFileEntity getByResourceId(int resourceId);
+
+    @Query("UPDATE cached_files SET last_accessed = :now WHERE cache_key = :cacheKey")
+    void touch(String cacheKey, long now);
+
+    @Query("SELECT COALESCE(SUM(size_bytes), 0) FROM cached_files")
+    long getTotalSize();
+
+    @Query("SELECT COALESCE(SUM(size_bytes), 0) FROM cached_files")
+    Flowable<Long> observeTotalSize();
+
+    // Eviction candidates, least recently used first
+    @Query("SELECT * FROM cached_files ORDER BY last_accessed ASC LIMIT :limit")
+    List<CachedFileEntity> getLeastRecentlyUsed(int limit);
+
+    @Query("DELETE FROM cached_files WHERE cache_key = :cacheKey")
+    void delete(String cacheKey);
+
+    @Query("DELETE FROM cached_files")
+    void deleteAll();
+}
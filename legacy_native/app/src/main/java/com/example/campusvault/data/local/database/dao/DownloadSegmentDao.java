@@ -0,0 +1,32 @@
+package com.example.campusvault.data.local.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.example.campusvault.data.local.database.entity.DownloadSegmentEntity;
+import java.util.List;
+
+/**
+ * Data Access Object for segmented download progress.
+ * Called from download worker threads, so queries are synchronous.
+ */
+@Dao
+public interface DownloadSegmentDao {
+
+    @Query("SELECT * FROM download_segments WHERE download_key = :downloadKey ORDER BY segment_index")
+    List<DownloadSegmentEntity> getSegments(String downloadKey);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<DownloadSegmentEntity> segments);
+
+    @Query("UPDATE download_segments SET downloaded_bytes = :downloadedBytes " +
+           "WHERE download_key = :downloadKey AND segment_index = :segmentIndex")
+    void updateProgress(String downloadKey, int segmentIndex, long downloadedBytes);
+
+    @Query("DELETE FROM download_segments WHERE download_key = :downloadKey")
+    void deleteSegments(String downloadKey);
+
+    @Query("DELETE FROM download_segments")
+    void deleteAll();
+}
@@ -0,0 +1,82 @@
+package com.example.campusvault.data.local.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import com.example.campusvault.data.local.database.entity.PendingMutationEntity;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+
+/**
+ * Data Access Object for the offline mutation outbox.
+ * Written by MutationOutbox, drained by OutboxWorker.
+ */
+@Dao
+public interface PendingMutationDao {
+
+    @Insert
+    long insert(PendingMutationEntity mutation);
+
+    @Query("SELECT * FROM pending_mutations WHERE coalesce_key = :coalesceKey AND in_flight = 0 " +
+           "ORDER BY id DESC LIMIT 1")
+    PendingMutationEntity getQueuedByCoalesceKey(String coalesceKey);
+
+    @Query("UPDATE pending_mutations SET type = :type, payload = :payload, idempotency_key = :idempotencyKey, " +
+           "created_at = :createdAt WHERE id = :id")
+    void replace(long id, String type, String payload, String idempotencyKey, long createdAt);
+
+    @Query("DELETE FROM pending_mutations WHERE id = :id")
+    void delete(long id);
+
+    /**
+     * Queue a mutation, folding it into a queued one for the same thing where that is safe:
+     * a bookmark change undoes the opposite change, a rating replaces the earlier rating.
+     * Rows a flush has already claimed are left alone - the new one queues behind them.
+     *
+     * @return false if the mutation cancelled out and nothing is left to send
+     */
+    @Transaction
+    default boolean enqueue(PendingMutationEntity mutation) {
+        PendingMutationEntity queued = mutation.getCoalesceKey() != null
+            ? getQueuedByCoalesceKey(mutation.getCoalesceKey()) : null;
+        if (queued == null) {
+            insert(mutation);
+            return true;
+        }
+        if (mutation.isBookmarkChange() && !queued.getType().equals(mutation.getType())) {
+            delete(queued.getId());
+            return false;
+        }
+        replace(queued.getId(), mutation.getType(), mutation.getPayload(),
+            mutation.getIdempotencyKey(), mutation.getCreatedAt());
+        return true;
+    }
+
+    @Query("SELECT * FROM pending_mutations WHERE in_flight = 0 ORDER BY id ASC LIMIT :limit")
+    List<PendingMutationEntity> getQueuedSync(int limit);
+
+    @Query("UPDATE pending_mutations SET in_flight = 1 WHERE id IN (:ids)")
+    void claim(List<Long> ids);
+
+    // Return claimed rows to the queue, after a failed flush or one a dead process left behind
+    @Query("UPDATE pending_mutations SET in_flight = 0 WHERE in_flight = 1")
+    int releaseClaimed();
+
+    // Counted per failed send, not per claim: rows queued behind a failure were never tried
+    @Query("UPDATE pending_mutations SET attempts = attempts + 1, last_error = :error WHERE id = :id")
+    void recordFailure(long id, String error);
+
+    @Query("SELECT * FROM pending_mutations WHERE resource_id = :resourceId ORDER BY id ASC")
+    Single<List<PendingMutationEntity>> getForResource(int resourceId);
+
+    @Query("SELECT * FROM pending_mutations WHERE type IN ('bookmark', 'unbookmark') ORDER BY id ASC")
+    Single<List<PendingMutationEntity>> getBookmarkChanges();
+
+    @Query("SELECT * FROM pending_mutations WHERE type IN ('bookmark', 'unbookmark') ORDER BY id ASC")
+    List<PendingMutationEntity> getBookmarkChangesSync();
+
+    @Query("SELECT COUNT(*) FROM pending_mutations")
+    Flowable<Integer> observeCount();
+}
@@ -0,0 +1,65 @@
+package com.example.campusvault.data.local.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import com.example.campusvault.data.local.database.entity.PendingUploadEntity;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+
+/**
+ * Data Access Object for the upload queue
+ */
+@Dao
+public interface PendingUploadDao {
+
+    @Insert
+    Single<Long> insert(PendingUploadEntity upload);
+
+    @Query("SELECT * FROM pending_uploads WHERE id = :id")
+    Flowable<PendingUploadEntity> observeById(long id);
+
+    @Query("SELECT * FROM pending_uploads WHERE id = :id")
+    PendingUploadEntity getByIdSync(long id);
+
+    @Query("SELECT * FROM pending_uploads WHERE status IN ('queued', 'uploading') ORDER BY created_at ASC")
+    Flowable<List<PendingUploadEntity>> observeActive();
+
+    @Query("SELECT * FROM pending_uploads WHERE status IN ('queued', 'uploading') ORDER BY created_at ASC")
+    List<PendingUploadEntity> getActiveSync();
+
+    @Query("SELECT * FROM pending_uploads WHERE status = 'queued' ORDER BY created_at ASC")
+    List<PendingUploadEntity> getQueuedSync();
+
+    /**
+     * Atomically move a queued row to uploading.
+     * @return 1 if this caller claimed the row, 0 if someone else did
+     */
+    @Query("UPDATE pending_uploads SET status = 'uploading', attempts = attempts + 1, updated_at = :now " +
+           "WHERE id = :id AND status = 'queued'")
+    int claim(long id, long now);
+
+    @Query("UPDATE pending_uploads SET bytes_uploaded = :bytes, updated_at = :now WHERE id = :id")
+    void updateProgress(long id, long bytes, long now);
+
+    @Query("UPDATE pending_uploads SET status = :status, error_message = :message, updated_at = :now WHERE id = :id")
+    void updateStatus(long id, String status, String message, long now);
+
+    // Only from uploading: a cancel that landed while the last chunk was in flight stands
+    @Query("UPDATE pending_uploads SET status = 'done', resource_id = :resourceId, bytes_uploaded = size_bytes, " +
+           "error_message = NULL, updated_at = :now WHERE id = :id AND status = 'uploading'")
+    int markDone(long id, int resourceId, long now);
+
+    // Uploads left in progress by a process that died go back to the queue
+    @Query("UPDATE pending_uploads SET status = 'queued', updated_at = :now WHERE id = :id AND status = 'uploading'")
+    void requeue(long id, long now);
+
+    @Query("UPDATE pending_uploads SET status = 'cancelled', updated_at = :now " +
+           "WHERE id = :id AND status IN ('queued', 'uploading')")
+    Completable cancel(long id, long now);
+
+    @Query("DELETE FROM pending_uploads WHERE status IN ('done', 'cancelled') AND updated_at < :before")
+    Completable deleteFinishedBefore(long before);
+}
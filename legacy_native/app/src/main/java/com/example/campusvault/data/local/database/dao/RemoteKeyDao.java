@@ -0,0 +1,21 @@
+package com.example.campusvault.data.local.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.example.campusvault.data.local.database.entity.RemoteKeyEntity;
+
+/**
+ * Data Access Object for paged-list remote keys.
+ * Used by the remote mediators, always off the main thread.
+ */
+@Dao
+public interface RemoteKeyDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(RemoteKeyEntity key);
+
+    @Query("SELECT * FROM remote_keys WHERE list_key = :listKey")
+    RemoteKeyEntity get(String listKey);
+}
@@ -5,12 +5,29 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import com.example.campusvault.data.local.database.FullTextSearch;
+import com.example.campusvault.data.local.database.ResourceTags;
+import com.example.campusvault.data.local.database.RowDiff;
+import com.example.campusvault.data.local.database.UploadedAtKeyset;
 import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import com.example.campusvault.data.local.database.entity.ResourceTagEntity;
+import com.example.campusvault.data.local.database.entity.TagEntity;
+import com.example.campusvault.data.local.database.model.ResourceListItem;
+import com.example.campusvault.data.local.database.model.ResourceSearchResult;
+import com.example.campusvault.data.local.database.model.RowHash;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for Resource entity
@@ -27,29 +44,264 @@ public interface ResourceDao {
     @Update
     Completable update(ResourceEntity resource);
 
+    // Synchronous bulk writes for SyncWorker and repository refreshes (callers run off the main thread).
+    // IGNORE, not REPLACE: a row written concurrently since its hash was read is kept as is; REPLACE
+    // would delete and re-insert it, cascading away its resource_tags links.
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertAllSync(List<ResourceEntity> resources);
+
+    @Update
+    void updateAll(List<ResourceEntity> resources);
+
+    @Query("SELECT id, content_hash FROM resources WHERE id IN (:ids)")
+    List<RowHash> getHashes(List<Integer> ids);
+
+    /**
+     * Insert new rows and update changed ones in a single transaction. Rows whose content
+     * hash is unchanged are not written at all, so a refresh that brings nothing new causes
+     * no invalidation and observers don't re-emit. Rows missing from the batch are kept:
+     * refreshes fetch a page, not the whole catalog.
+     */
+    @Transaction
+    default RowDiff<ResourceEntity> upsertAll(List<ResourceEntity> resources) {
+        List<RowHash> stored = new ArrayList<>();
+        for (List<Integer> batch : RowDiff.batches(RowDiff.ids(resources))) {
+            stored.addAll(getHashes(batch));
+        }
+
+        RowDiff<ResourceEntity> diff = RowDiff.compute(resources, stored);
+        if (!diff.inserted.isEmpty()) {
+            insertAllSync(diff.inserted);
+        }
+        if (!diff.changed.isEmpty()) {
+            keepBookmarkFlags(diff.changed);
+            updateAll(diff.changed);
+        }
+        if (!diff.inserted.isEmpty() || !diff.changed.isEmpty()) {
+            List<ResourceEntity> written = new ArrayList<>(diff.inserted);
+            written.addAll(diff.changed);
+            writeTagLinks(written);
+        }
+        return diff;
+    }
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertTags(List<TagEntity> tags);
+
+    @Query("SELECT * FROM tags WHERE name IN (:names)")
+    List<TagEntity> getTagsNamed(List<String> names);
+
+    @Query("DELETE FROM resource_tags WHERE resource_id IN (:resourceIds)")
+    void deleteTagLinks(List<Integer> resourceIds);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertTagLinks(List<ResourceTagEntity> links);
+
+    /**
+     * Point resource_tags at the current tags of these rows, creating tags on first use.
+     * Deleted resources lose their links through the foreign key cascade.
+     */
+    default void writeTagLinks(List<ResourceEntity> rows) {
+        Set<String> seen = new HashSet<>();
+        List<String> names = new ArrayList<>();
+        for (ResourceEntity row : rows) {
+            for (String name : ResourceTags.normalize(row.getTags())) {
+                if (seen.add(ResourceTags.key(name))) {
+                    names.add(name);
+                }
+            }
+        }
+        Map<String, Integer> tagIds = new HashMap<>();
+        for (List<String> batch : RowDiff.batches(names)) {
+            List<TagEntity> tags = new ArrayList<>(batch.size());
+            for (String name : batch) {
+                tags.add(new TagEntity(name));
+            }
+            insertTags(tags);
+            for (TagEntity tag : getTagsNamed(batch)) {
+                tagIds.put(ResourceTags.key(tag.getName()), tag.getId());
+            }
+        }
+
+        for (List<Integer> batch : RowDiff.batches(RowDiff.ids(rows))) {
+            deleteTagLinks(batch);
+        }
+        List<ResourceTagEntity> links = new ArrayList<>();
+        for (ResourceEntity row : rows) {
+            for (String name : ResourceTags.normalize(row.getTags())) {
+                Integer tagId = tagIds.get(ResourceTags.key(name));
+                if (tagId != null) {
+                    links.add(new ResourceTagEntity(tagId, row.getId()));
+                }
+            }
+        }
+        if (!links.isEmpty()) {
+            insertTagLinks(links);
+        }
+    }
+
+    @Query("SELECT id FROM resources WHERE is_bookmarked = 1 AND id IN (:ids)")
+    List<Integer> getBookmarkedIdsAmong(List<Integer> ids);
+
+    /**
+     * is_bookmarked belongs to the bookmark list and the outbox, not to catalog feeds;
+     * copy the stored flag onto changed rows so a refresh does not reset it
+     */
+    default void keepBookmarkFlags(List<ResourceEntity> rows) {
+        Set<Integer> bookmarked = new HashSet<>();
+        for (List<Integer> batch : RowDiff.batches(RowDiff.ids(rows))) {
+            bookmarked.addAll(getBookmarkedIdsAmong(batch));
+        }
+        for (ResourceEntity row : rows) {
+            row.setBookmarked(bookmarked.contains(row.getId()));
+        }
+    }
+
     @Delete
     Completable delete(ResourceEntity resource);
 
+    @Query("DELETE FROM resources WHERE id IN (:ids)")
+    void deleteByIds(List<Integer> ids);
+
+    /**
+     * Apply one page of a delta sync: upsert the changed rows and drop the tombstoned ones
+     */
+    @Transaction
+    default RowDiff<ResourceEntity> applyChanges(List<ResourceEntity> changed, List<Integer> deletedIds) {
+        RowDiff<ResourceEntity> diff = changed.isEmpty() ? RowDiff.empty() : upsertAll(changed);
+        for (List<Integer> ids : RowDiff.batches(deletedIds)) {
+            deleteByIds(ids);
+        }
+        diff.removedIds.addAll(deletedIds);
+        return diff;
+    }
+
     @Query("SELECT * FROM resources WHERE id = :resourceId")
     Flowable<ResourceEntity> getResourceById(int resourceId);
 
-    @Query("SELECT * FROM resources ORDER BY uploaded_at DESC LIMIT :limit")
-    Flowable<List<ResourceEntity>> getRecentResources(int limit);
+    // One read: completes empty when the row is not cached, where the Flowable would wait for it
+    @Query("SELECT * FROM resources WHERE id = :resourceId")
+    Maybe<ResourceEntity> findResourceById(int resourceId);
+
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources ORDER BY uploaded_at DESC LIMIT :limit")
+    Flowable<List<ResourceListItem>> getRecentResources(int limit);
 
-    @Query("SELECT * FROM resources ORDER BY download_count DESC, average_rating DESC LIMIT :limit")
-    Flowable<List<ResourceEntity>> getTrendingResources(int limit);
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources ORDER BY download_count DESC, average_rating DESC LIMIT :limit")
+    Flowable<List<ResourceListItem>> getTrendingResources(int limit);
 
-    @Query("SELECT * FROM resources WHERE course_unit_id = :courseUnitId ORDER BY uploaded_at DESC")
-    Flowable<List<ResourceEntity>> getResourcesByCourseUnit(int courseUnitId);
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE course_unit_id = :courseUnitId ORDER BY uploaded_at DESC")
+    Flowable<List<ResourceListItem>> getResourcesByCourseUnit(int courseUnitId);
     
-    @Query("SELECT * FROM resources WHERE course_unit_id = :courseUnitId AND resource_type = :type ORDER BY uploaded_at DESC")
-    Flowable<List<ResourceEntity>> getResourcesByCourseUnitAndType(int courseUnitId, String type);
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE course_unit_id = :courseUnitId AND resource_type = :type ORDER BY uploaded_at DESC")
+    Flowable<List<ResourceListItem>> getResourcesByCourseUnitAndType(int courseUnitId, String type);
+
+    /*
+     * Keyset pages: each takes the sort key of the last row already shown and seeks straight
+     * past it on an index, so a deep page costs the same as the first - unlike LIMIT/OFFSET,
+     * which walks every skipped row. Ties are broken by id, which every index carries as the
+     * rowid. The first page passes a null afterId.
+     */
 
-    @Query("SELECT * FROM resources WHERE is_bookmarked = 1 ORDER BY cached_at DESC")
-    Flowable<List<ResourceEntity>> getBookmarkedResources();
+    /**
+     * A course unit's resources newest first by (uploaded_at, id), optionally of one type.
+     * Rows without an upload time sort last.
+     *
+     * @param type resource type, or null for all
+     */
+    default List<ResourceListItem> getCourseUnitPage(int courseUnitId, String type,
+                                                   Long uploadedAt, Integer afterId, int limit) {
+        if (type == null) {
+            return UploadedAtKeyset.page(uploadedAt, afterId, limit,
+                (t, id, n) -> getCourseUnitDatedPage(courseUnitId, t, id, n),
+                (id, n) -> getCourseUnitUndatedPage(courseUnitId, id, n));
+        }
+        return UploadedAtKeyset.page(uploadedAt, afterId, limit,
+            (t, id, n) -> getCourseUnitDatedPageByType(courseUnitId, type, t, id, n),
+            (id, n) -> getCourseUnitUndatedPageByType(courseUnitId, type, id, n));
+    }
 
-    @Query("SELECT * FROM resources WHERE title LIKE '%' || :query || '%' OR description LIKE '%' || :query || '%'")
-    Flowable<List<ResourceEntity>> searchResources(String query);
+    // "uploaded_at <= :uploadedAt" is the range the index seeks on; the OR only breaks ties by id
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE course_unit_id = :courseUnitId AND uploaded_at <= :uploadedAt " +
+           "AND (uploaded_at < :uploadedAt OR id < :afterId) ORDER BY uploaded_at DESC, id DESC LIMIT :limit")
+    List<ResourceListItem> getCourseUnitDatedPage(int courseUnitId, long uploadedAt, int afterId, int limit);
+
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE course_unit_id = :courseUnitId AND resource_type = :type " +
+           "AND uploaded_at <= :uploadedAt AND (uploaded_at < :uploadedAt OR id < :afterId) " +
+           "ORDER BY uploaded_at DESC, id DESC LIMIT :limit")
+    List<ResourceListItem> getCourseUnitDatedPageByType(int courseUnitId, String type, long uploadedAt, int afterId, int limit);
+
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE course_unit_id = :courseUnitId AND uploaded_at IS NULL AND id < :afterId " +
+           "ORDER BY id DESC LIMIT :limit")
+    List<ResourceListItem> getCourseUnitUndatedPage(int courseUnitId, int afterId, int limit);
+
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE course_unit_id = :courseUnitId AND resource_type = :type " +
+           "AND uploaded_at IS NULL AND id < :afterId ORDER BY id DESC LIMIT :limit")
+    List<ResourceListItem> getCourseUnitUndatedPageByType(int courseUnitId, String type, int afterId, int limit);
+
+    /**
+     * A course unit's resources carrying a tag, newest first. The tag is matched ignoring
+     * case and read from resource_tags by its primary key.
+     */
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE course_unit_id = :courseUnitId AND id IN " +
+           "(SELECT resource_id FROM resource_tags WHERE tag_id = (SELECT id FROM tags WHERE name = :tag)) " +
+           "ORDER BY uploaded_at DESC, id DESC")
+    Flowable<List<ResourceListItem>> getCourseUnitResourcesWithTag(int courseUnitId, String tag);
+
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE is_bookmarked = 1 ORDER BY cached_at DESC")
+    Flowable<List<ResourceListItem>> getBookmarkedResources();
+
+    /**
+     * All resources newest first by (uploaded_at, id); the keyset form of getRecentResources
+     */
+    default List<ResourceListItem> getRecentPage(Long uploadedAt, Integer afterId, int limit) {
+        return UploadedAtKeyset.page(uploadedAt, afterId, limit, this::getRecentDatedPage, this::getRecentUndatedPage);
+    }
+
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE uploaded_at <= :uploadedAt AND (uploaded_at < :uploadedAt OR id < :afterId) " +
+           "ORDER BY uploaded_at DESC, id DESC LIMIT :limit")
+    List<ResourceListItem> getRecentDatedPage(long uploadedAt, int afterId, int limit);
+
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE uploaded_at IS NULL AND id < :afterId ORDER BY id DESC LIMIT :limit")
+    List<ResourceListItem> getRecentUndatedPage(int afterId, int limit);
+
+    /**
+     * All resources most popular first by (download_count, average_rating, id); the keyset
+     * form of getTrendingResources
+     */
+    default List<ResourceListItem> getTrendingPage(int downloadCount, float averageRating, Integer afterId, int limit) {
+        return afterId == null
+            ? getTrendingPageAfter(Integer.MAX_VALUE, Float.MAX_VALUE, Integer.MAX_VALUE, limit)
+            : getTrendingPageAfter(downloadCount, averageRating, afterId, limit);
+    }
+
+    // "download_count <= :downloadCount" is the range the index seeks on; the rest only
+    // skips the cursor's own download_count group up to the cursor
+    @Query("SELECT " + ResourceListItem.COLUMNS + " FROM resources WHERE download_count <= :downloadCount AND (download_count < :downloadCount " +
+           "OR average_rating < :averageRating OR (average_rating = :averageRating AND id < :afterId)) " +
+           "ORDER BY download_count DESC, average_rating DESC, id DESC LIMIT :limit")
+    List<ResourceListItem> getTrendingPageAfter(int downloadCount, float averageRating, int afterId, int limit);
+
+    /**
+     * Full-text search over title, description, tags and course unit name, best match first.
+     * Every word is prefix-matched, so results update as the user types.
+     */
+    default Flowable<List<ResourceEntity>> searchResources(String query) {
+        String match = FullTextSearch.toMatchQuery(query);
+        if (match == null) {
+            return Flowable.just(Collections.emptyList());
+        }
+        return searchResourcesFts(match).map(rows -> {
+            List<ResourceEntity> resources = new ArrayList<>(rows.size());
+            for (ResourceSearchResult row : FullTextSearch.rank(rows, r -> r.matchInfo, FullTextSearch.RESOURCE_WEIGHTS)) {
+                resources.add(row.resource);
+            }
+            return resources;
+        });
+    }
+
+    @Query("SELECT resources.*, matchinfo(resources_fts, 'pcnalx') AS match_info FROM resources " +
+           "JOIN resources_fts ON resources.id = resources_fts.rowid WHERE resources_fts MATCH :match")
+    Flowable<List<ResourceSearchResult>> searchResourcesFts(String match);
 
     @Query("DELETE FROM resources")
     Completable deleteAll();
@@ -60,6 +312,62 @@ public interface ResourceDao {
     @Query("SELECT COUNT(*) FROM resources")
     Single<Integer> getResourceCount();
 
+    @Query("SELECT EXISTS(SELECT 1 FROM resources WHERE id = :resourceId AND is_bookmarked = 1)")
+    Flowable<Boolean> isBookmarked(int resourceId);
+
     @Query("UPDATE resources SET is_bookmarked = :isBookmarked WHERE id = :resourceId")
     Completable updateBookmarkStatus(int resourceId, boolean isBookmarked);
+
+    @Query("SELECT COUNT(*) FROM resources WHERE is_bookmarked = 1")
+    int getBookmarkedCountSync();
+
+    @Query("SELECT id FROM resources WHERE is_bookmarked = 1")
+    List<Integer> getBookmarkedIdsSync();
+
+    @Query("UPDATE resources SET is_bookmarked = :isBookmarked WHERE id IN (:ids)")
+    void setBookmarkStatusSync(List<Integer> ids, boolean isBookmarked);
+
+    /**
+     * Make the cached bookmarks match the server's list, with actions still in the outbox
+     * laid on top. Only flags that actually differ are written, so an unchanged list
+     * does not make the bookmarks screen re-emit.
+     *
+     * @param pending resource id to the bookmark state queued in the outbox
+     */
+    @Transaction
+    default RowDiff<ResourceEntity> reconcileBookmarks(List<ResourceEntity> bookmarks, Map<Integer, Boolean> pending) {
+        RowDiff<ResourceEntity> diff = bookmarks.isEmpty() ? RowDiff.empty() : upsertAll(bookmarks);
+
+        Set<Integer> wanted = new HashSet<>(RowDiff.ids(bookmarks));
+        for (Map.Entry<Integer, Boolean> entry : pending.entrySet()) {
+            if (entry.getValue()) {
+                wanted.add(entry.getKey());
+            } else {
+                wanted.remove(entry.getKey());
+            }
+        }
+        Set<Integer> current = new HashSet<>(getBookmarkedIdsSync());
+        List<Integer> added = new ArrayList<>();
+        for (Integer id : wanted) {
+            if (!current.contains(id)) {
+                added.add(id);
+            }
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : current) {
+            if (!wanted.contains(id)) {
+                removed.add(id);
+            }
+        }
+        for (List<Integer> batch : RowDiff.batches(added)) {
+            setBookmarkStatusSync(batch, true);
+        }
+        for (List<Integer> batch : RowDiff.batches(removed)) {
+            setBookmarkStatusSync(batch, false);
+        }
+        return diff;
+    }
+
+    @Query("UPDATE resources SET download_count = download_count + 1 WHERE id = :resourceId")
+    Completable incrementDownloadCount(int resourceId);
 }
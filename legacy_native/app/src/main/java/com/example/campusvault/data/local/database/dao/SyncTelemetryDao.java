@@ -0,0 +1,45 @@
+package com.example.campusvault.data.local.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import com.example.campusvault.data.local.database.entity.SyncTelemetryEntity;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.List;
+
+/**
+ * Data Access Object for the sync telemetry ring table.
+ * Written from SyncWorker's thread, read by the sync diagnostics screen.
+ */
+@Dao
+public interface SyncTelemetryDao {
+
+    @Insert
+    void insertAll(List<SyncTelemetryEntity> rows);
+
+    // Ids only grow, so everything more than :keep below the newest id is the oldest data
+    @Query("DELETE FROM sync_telemetry WHERE id <= (SELECT MAX(id) FROM sync_telemetry) - :keep")
+    void trim(int keep);
+
+    /**
+     * Append one run's rows and drop the oldest beyond {@link SyncTelemetryEntity#MAX_ROWS}
+     */
+    @Transaction
+    default void record(List<SyncTelemetryEntity> rows) {
+        insertAll(rows);
+        trim(SyncTelemetryEntity.MAX_ROWS);
+    }
+
+    // Fraction of the last :runs sync runs that wrote any rows; null with no history
+    @Query("SELECT AVG(CASE WHEN rows_inserted + rows_updated + rows_deleted > 0 THEN 1.0 ELSE 0.0 END) " +
+           "FROM (SELECT * FROM sync_telemetry WHERE stage = 'run' ORDER BY id DESC LIMIT :runs)")
+    Double recentChurn(int runs);
+
+    @Query("SELECT * FROM sync_telemetry ORDER BY id DESC")
+    Flowable<List<SyncTelemetryEntity>> observeAll();
+
+    @Query("DELETE FROM sync_telemetry")
+    Completable clear();
+}
@@ -0,0 +1,36 @@
+package com.example.campusvault.data.local.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import com.example.campusvault.data.local.database.model.TagCount;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+
+/**
+ * Data Access Object for reading tags. Tags are written with their resources, in
+ * ResourceDao.upsertAll.
+ */
+@Dao
+public interface TagDao {
+
+    /**
+     * Most used tags across cached resources, most frequent first
+     */
+    @Query("SELECT t.name AS name, COUNT(*) AS resource_count FROM resource_tags rt " +
+           "JOIN tags t ON t.id = rt.tag_id GROUP BY rt.tag_id ORDER BY resource_count DESC, t.name LIMIT :limit")
+    Flowable<List<TagCount>> getTagCounts(int limit);
+
+    /**
+     * Most used tags within one course unit, most frequent first
+     */
+    @Query("SELECT t.name AS name, COUNT(*) AS resource_count FROM resources r " +
+           "JOIN resource_tags rt ON rt.resource_id = r.id JOIN tags t ON t.id = rt.tag_id " +
+           "WHERE r.course_unit_id = :courseUnitId GROUP BY rt.tag_id " +
+           "ORDER BY resource_count DESC, t.name LIMIT :limit")
+    Flowable<List<TagCount>> getCourseUnitTagCounts(int courseUnitId, int limit);
+
+    @Query("SELECT t.name FROM resource_tags rt JOIN tags t ON t.id = rt.tag_id " +
+           "WHERE rt.resource_id = :resourceId ORDER BY t.name")
+    Single<List<String>> getTagNames(int resourceId);
+}
@@ -5,12 +5,20 @@ import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Transaction;
+import androidx.room.Update;
 
+import com.example.campusvault.data.local.database.FullTextSearch;
+import com.example.campusvault.data.local.database.RowDiff;
 import com.example.campusvault.data.local.database.entity.CourseUnitEntity;
 import com.example.campusvault.data.local.database.entity.FacultyEntity;
 import com.example.campusvault.data.local.database.entity.ProgramEntity;
+import com.example.campusvault.data.local.database.model.CourseUnitSearchResult;
+import com.example.campusvault.data.local.database.model.RowHash;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import io.reactivex.rxjava3.core.Flowable;
 
@@ -27,10 +35,56 @@ public interface UniversityDao {
     @Query("DELETE FROM faculties")
     void deleteAllFaculties();
 
+    @Query("SELECT id, content_hash FROM faculties")
+    List<RowHash> getFacultyHashes();
+
+    @Query("SELECT id, content_hash FROM faculties WHERE id IN (:ids)")
+    List<RowHash> getFacultyHashes(List<Integer> ids);
+
+    @Update
+    void updateFacultyRows(List<FacultyEntity> faculties);
+
+    @Query("DELETE FROM faculties WHERE id IN (:ids)")
+    void deleteFaculties(List<Integer> ids);
+
+    /**
+     * Replace the stored faculties with {@code faculties}, writing only rows that were
+     * added, changed or removed - an unchanged list causes no writes and no re-emission
+     */
     @Transaction
-    default void updateFaculties(List<FacultyEntity> faculties) {
-        deleteAllFaculties();
-        insertFaculties(faculties);
+    default RowDiff<FacultyEntity> updateFaculties(List<FacultyEntity> faculties) {
+        RowDiff<FacultyEntity> diff = RowDiff.compute(faculties, getFacultyHashes());
+        if (!diff.inserted.isEmpty()) {
+            insertFaculties(diff.inserted);
+        }
+        if (!diff.changed.isEmpty()) {
+            updateFacultyRows(diff.changed);
+        }
+        for (List<Integer> ids : RowDiff.batches(diff.removedIds)) {
+            deleteFaculties(ids);
+        }
+        return diff;
+    }
+
+    // Apply one page of a delta sync: upsert changed faculties, drop tombstoned ones
+    @Transaction
+    default RowDiff<FacultyEntity> applyFacultyChanges(List<FacultyEntity> changed, List<Integer> deletedIds) {
+        List<RowHash> stored = new ArrayList<>();
+        for (List<Integer> ids : RowDiff.batches(RowDiff.ids(changed))) {
+            stored.addAll(getFacultyHashes(ids));
+        }
+        RowDiff<FacultyEntity> diff = RowDiff.compute(changed, stored);
+        diff.removedIds.addAll(deletedIds);
+        if (!diff.inserted.isEmpty()) {
+            insertFaculties(diff.inserted);
+        }
+        if (!diff.changed.isEmpty()) {
+            updateFacultyRows(diff.changed);
+        }
+        for (List<Integer> ids : RowDiff.batches(diff.removedIds)) {
+            deleteFaculties(ids);
+        }
+        return diff;
     }
 
     // Program
@@ -43,21 +97,105 @@ public interface UniversityDao {
     @Query("DELETE FROM programs")
     void deleteAllPrograms();
 
+    @Query("SELECT id, content_hash FROM programs")
+    List<RowHash> getProgramHashes();
+
+    @Query("SELECT id, content_hash FROM programs WHERE faculty_id = :facultyId")
+    List<RowHash> getProgramHashes(int facultyId);
+
+    @Query("SELECT id, content_hash FROM programs WHERE id IN (:ids)")
+    List<RowHash> getProgramHashes(List<Integer> ids);
+
+    @Update
+    void updateProgramRows(List<ProgramEntity> programs);
+
+    @Query("DELETE FROM programs WHERE id IN (:ids)")
+    void deletePrograms(List<Integer> ids);
+
+    // Replace all stored programs, writing only the differences
+    @Transaction
+    default RowDiff<ProgramEntity> updatePrograms(List<ProgramEntity> programs) {
+        return applyProgramDiff(RowDiff.compute(programs, getProgramHashes()));
+    }
+
+    // Replace one faculty's programs, leaving other faculties untouched
+    @Transaction
+    default RowDiff<ProgramEntity> updateProgramsForFaculty(int facultyId, List<ProgramEntity> programs) {
+        return applyProgramDiff(RowDiff.compute(programs, getProgramHashes(facultyId)));
+    }
+
+    // Replace the programs of each faculty in the map in one transaction, leaving other faculties untouched
+    @Transaction
+    default RowDiff<ProgramEntity> updateProgramsByFaculty(Map<Integer, List<ProgramEntity>> programsByFaculty) {
+        RowDiff<ProgramEntity> total = RowDiff.empty();
+        for (Map.Entry<Integer, List<ProgramEntity>> entry : programsByFaculty.entrySet()) {
+            total.addAll(updateProgramsForFaculty(entry.getKey(), entry.getValue()));
+        }
+        return total;
+    }
+
+    // Apply one page of a delta sync: upsert changed programs, drop tombstoned ones
     @Transaction
-    default void updatePrograms(List<ProgramEntity> programs) {
-        deleteAllPrograms();
-        insertPrograms(programs);
+    default RowDiff<ProgramEntity> applyProgramChanges(List<ProgramEntity> changed, List<Integer> deletedIds) {
+        List<RowHash> stored = new ArrayList<>();
+        for (List<Integer> ids : RowDiff.batches(RowDiff.ids(changed))) {
+            stored.addAll(getProgramHashes(ids));
+        }
+        RowDiff<ProgramEntity> diff = RowDiff.compute(changed, stored);
+        diff.removedIds.addAll(deletedIds);
+        return applyProgramDiff(diff);
+    }
+
+    default RowDiff<ProgramEntity> applyProgramDiff(RowDiff<ProgramEntity> diff) {
+        if (!diff.inserted.isEmpty()) {
+            insertPrograms(diff.inserted);
+        }
+        if (!diff.changed.isEmpty()) {
+            updateProgramRows(diff.changed);
+        }
+        for (List<Integer> ids : RowDiff.batches(diff.removedIds)) {
+            deletePrograms(ids);
+        }
+        return diff;
     }
 
     // Course Unit
     @Query("SELECT * FROM course_units WHERE (:programId IS NULL OR program_id = :programId) AND (:year IS NULL OR year = :year) AND (:semester IS NULL OR semester = :semester)")
     Flowable<List<CourseUnitEntity>> getCourseUnits(Integer programId, Integer year, Integer semester);
 
-    @Query("SELECT * FROM course_units WHERE name LIKE '%' || :query || '%' OR code LIKE '%' || :query || '%'")
-    Flowable<List<CourseUnitEntity>> searchCourseUnits(String query);
+    // Full-text search over name and code, prefix-matched and best match first
+    default Flowable<List<CourseUnitEntity>> searchCourseUnits(String query) {
+        String match = FullTextSearch.toMatchQuery(query);
+        if (match == null) {
+            return Flowable.just(Collections.emptyList());
+        }
+        return searchCourseUnitsFts(match).map(this::toRankedCourseUnits);
+    }
+
+    default Flowable<List<CourseUnitEntity>> searchCourseUnitsByProgram(Integer programId, String query) {
+        String match = FullTextSearch.toMatchQuery(query);
+        if (match == null) {
+            return Flowable.just(Collections.emptyList());
+        }
+        return searchCourseUnitsByProgramFts(programId, match).map(this::toRankedCourseUnits);
+    }
+
+    default List<CourseUnitEntity> toRankedCourseUnits(List<CourseUnitSearchResult> rows) {
+        List<CourseUnitEntity> courseUnits = new ArrayList<>(rows.size());
+        for (CourseUnitSearchResult row : FullTextSearch.rank(rows, r -> r.matchInfo, FullTextSearch.COURSE_UNIT_WEIGHTS)) {
+            courseUnits.add(row.courseUnit);
+        }
+        return courseUnits;
+    }
+
+    @Query("SELECT course_units.*, matchinfo(course_units_fts, 'pcnalx') AS match_info FROM course_units " +
+           "JOIN course_units_fts ON course_units.id = course_units_fts.rowid WHERE course_units_fts MATCH :match")
+    Flowable<List<CourseUnitSearchResult>> searchCourseUnitsFts(String match);
 
-    @Query("SELECT * FROM course_units WHERE program_id = :programId AND (name LIKE '%' || :query || '%' OR code LIKE '%' || :query || '%')")
-    Flowable<List<CourseUnitEntity>> searchCourseUnitsByProgram(Integer programId, String query);
+    @Query("SELECT course_units.*, matchinfo(course_units_fts, 'pcnalx') AS match_info FROM course_units " +
+           "JOIN course_units_fts ON course_units.id = course_units_fts.rowid " +
+           "WHERE course_units_fts MATCH :match AND course_units.program_id = :programId")
+    Flowable<List<CourseUnitSearchResult>> searchCourseUnitsByProgramFts(Integer programId, String match);
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertCourseUnits(List<CourseUnitEntity> courseUnits);
@@ -65,9 +203,52 @@ public interface UniversityDao {
     @Query("DELETE FROM course_units")
     void deleteAllCourseUnits();
 
+    @Query("SELECT id, content_hash FROM course_units WHERE (:programId IS NULL OR program_id = :programId) AND (:year IS NULL OR year = :year) AND (:semester IS NULL OR semester = :semester)")
+    List<RowHash> getCourseUnitHashes(Integer programId, Integer year, Integer semester);
+
+    @Query("SELECT id, content_hash FROM course_units WHERE id IN (:ids)")
+    List<RowHash> getCourseUnitHashes(List<Integer> ids);
+
+    @Update
+    void updateCourseUnitRows(List<CourseUnitEntity> courseUnits);
+
+    @Query("DELETE FROM course_units WHERE id IN (:ids)")
+    void deleteCourseUnits(List<Integer> ids);
+
+    // Replace all stored course units, writing only the differences
+    @Transaction
+    default RowDiff<CourseUnitEntity> updateCourseUnits(List<CourseUnitEntity> courseUnits) {
+        return updateCourseUnits(null, null, null, courseUnits);
+    }
+
+    // Replace the course units matching the same filters the list was fetched with
     @Transaction
-    default void updateCourseUnits(List<CourseUnitEntity> courseUnits) {
-        deleteAllCourseUnits();
-        insertCourseUnits(courseUnits);
+    default RowDiff<CourseUnitEntity> updateCourseUnits(Integer programId, Integer year, Integer semester, List<CourseUnitEntity> courseUnits) {
+        return applyCourseUnitDiff(RowDiff.compute(courseUnits, getCourseUnitHashes(programId, year, semester)));
+    }
+
+    // Apply one page of a delta sync: upsert changed course units, drop tombstoned ones
+    @Transaction
+    default RowDiff<CourseUnitEntity> applyCourseUnitChanges(List<CourseUnitEntity> changed, List<Integer> deletedIds) {
+        List<RowHash> stored = new ArrayList<>();
+        for (List<Integer> ids : RowDiff.batches(RowDiff.ids(changed))) {
+            stored.addAll(getCourseUnitHashes(ids));
+        }
+        RowDiff<CourseUnitEntity> diff = RowDiff.compute(changed, stored);
+        diff.removedIds.addAll(deletedIds);
+        return applyCourseUnitDiff(diff);
+    }
+
+    default RowDiff<CourseUnitEntity> applyCourseUnitDiff(RowDiff<CourseUnitEntity> diff) {
+        if (!diff.inserted.isEmpty()) {
+            insertCourseUnits(diff.inserted);
+        }
+        if (!diff.changed.isEmpty()) {
+            updateCourseUnitRows(diff.changed);
+        }
+        for (List<Integer> ids : RowDiff.batches(diff.removedIds)) {
+            deleteCourseUnits(ids);
+        }
+        return diff;
     }
 }
@@ -0,0 +1,109 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import java.util.Date;
+
+/**
+ * Room entity indexing a resource file held in the on-disk file cache.
+ * The file itself lives in the cache directory under {@code cache_key}.
+ */
+@Entity(
+    tableName = "cached_files",
+    indices = {
+        @Index(value = "resource_id"),
+        @Index(value = "last_accessed")
+    }
+)
+public class CachedFileEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "cache_key")
+    private String cacheKey = "";
+
+    @ColumnInfo(name = "resource_id")
+    private Integer resourceId;
+
+    @ColumnInfo(name = "url")
+    private String url;
+
+    @ColumnInfo(name = "file_name")
+    private String fileName;
+
+    @ColumnInfo(name = "size_bytes")
+    private long sizeBytes;
+
+    @ColumnInfo(name = "last_accessed")
+    private Date lastAccessed;
+
+    @ColumnInfo(name = "cached_at")
+    private Date cachedAt;
+
+    // Constructors
+    public CachedFileEntity() {
+        this.cachedAt = new Date();
+        this.lastAccessed = this.cachedAt;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(@NonNull String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public Integer getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Integer resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public Date getLastAccessed() {
+        return lastAccessed;
+    }
+
+    public void setLastAccessed(Date lastAccessed) {
+        this.lastAccessed = lastAccessed;
+    }
+
+    public Date getCachedAt() {
+        return cachedAt;
+    }
+
+    public void setCachedAt(Date cachedAt) {
+        this.cachedAt = cachedAt;
+    }
+}
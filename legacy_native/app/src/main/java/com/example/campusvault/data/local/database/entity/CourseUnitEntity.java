@@ -3,10 +3,11 @@ package com.example.campusvault.data.local.database.entity;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
+import com.example.campusvault.data.local.database.ContentHash;
 import java.util.Date;
 
 @Entity(tableName = "course_units")
-public class CourseUnitEntity {
+public class CourseUnitEntity implements SyncedEntity {
     @PrimaryKey
     @ColumnInfo(name = "id")
     private int id;
@@ -26,6 +27,9 @@ public class CourseUnitEntity {
     @ColumnInfo(name = "semester")
     private int semester;
 
+    @ColumnInfo(name = "content_hash", defaultValue = "0")
+    private long contentHash;
+
     @ColumnInfo(name = "cached_at")
     private Date cachedAt;
 
@@ -53,4 +57,14 @@ public class CourseUnitEntity {
 
     public Date getCachedAt() { return cachedAt; }
     public void setCachedAt(Date cachedAt) { this.cachedAt = cachedAt; }
+
+    public long getContentHash() { return contentHash; }
+
+    @Override
+    public void setContentHash(long contentHash) { this.contentHash = contentHash; }
+
+    @Override
+    public long computeContentHash() {
+        return new ContentHash().add(code).add(name).add(programId).add(year).add(semester).value();
+    }
 }
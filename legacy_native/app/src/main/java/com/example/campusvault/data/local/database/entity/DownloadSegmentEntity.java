@@ -0,0 +1,120 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Room entity persisting the progress of one byte range of a segmented download,
+ * so an interrupted download resumes where each segment stopped.
+ */
+@Entity(
+    tableName = "download_segments",
+    primaryKeys = {"download_key", "segment_index"}
+)
+public class DownloadSegmentEntity {
+
+    @NonNull
+    @ColumnInfo(name = "download_key")
+    private String downloadKey = "";
+
+    @ColumnInfo(name = "segment_index")
+    private int segmentIndex;
+
+    @ColumnInfo(name = "start_byte")
+    private long startByte;
+
+    // Inclusive, as in an HTTP Range header
+    @ColumnInfo(name = "end_byte")
+    private long endByte;
+
+    @ColumnInfo(name = "downloaded_bytes")
+    private long downloadedBytes;
+
+    @ColumnInfo(name = "total_bytes")
+    private long totalBytes;
+
+    // ETag or Last-Modified of the file the segments belong to
+    @ColumnInfo(name = "validator")
+    private String validator;
+
+    // Constructors
+    public DownloadSegmentEntity() {
+    }
+
+    public DownloadSegmentEntity(@NonNull String downloadKey, int segmentIndex, long startByte,
+                                 long endByte, long totalBytes, String validator) {
+        this.downloadKey = downloadKey;
+        this.segmentIndex = segmentIndex;
+        this.startByte = startByte;
+        this.endByte = endByte;
+        this.totalBytes = totalBytes;
+        this.validator = validator;
+    }
+
+    public long getLength() {
+        return endByte - startByte + 1;
+    }
+
+    public boolean isComplete() {
+        return downloadedBytes >= getLength();
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getDownloadKey() {
+        return downloadKey;
+    }
+
+    public void setDownloadKey(@NonNull String downloadKey) {
+        this.downloadKey = downloadKey;
+    }
+
+    public int getSegmentIndex() {
+        return segmentIndex;
+    }
+
+    public void setSegmentIndex(int segmentIndex) {
+        this.segmentIndex = segmentIndex;
+    }
+
+    public long getStartByte() {
+        return startByte;
+    }
+
+    public void setStartByte(long startByte) {
+        this.startByte = startByte;
+    }
+
+    public long getEndByte() {
+        return endByte;
+    }
+
+    public void setEndByte(long endByte) {
+        this.endByte = endByte;
+    }
+
+    public long getDownloadedBytes() {
+        return downloadedBytes;
+    }
+
+    public void setDownloadedBytes(long downloadedBytes) {
+        this.downloadedBytes = downloadedBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public String getValidator() {
+        return validator;
+    }
+
+    public void setValidator(String validator) {
+        this.validator = validator;
+    }
+}
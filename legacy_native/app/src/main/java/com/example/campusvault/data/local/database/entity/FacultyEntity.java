@@ -3,10 +3,11 @@ package com.example.campusvault.data.local.database.entity;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
+import com.example.campusvault.data.local.database.ContentHash;
 import java.util.Date;
 
 @Entity(tableName = "faculties")
-public class FacultyEntity {
+public class FacultyEntity implements SyncedEntity {
     @PrimaryKey
     @ColumnInfo(name = "id")
     private int id;
@@ -17,6 +18,9 @@ public class FacultyEntity {
     @ColumnInfo(name = "code")
     private String code;
 
+    @ColumnInfo(name = "content_hash", defaultValue = "0")
+    private long contentHash;
+
     @ColumnInfo(name = "cached_at")
     private Date cachedAt;
 
@@ -35,4 +39,14 @@ public class FacultyEntity {
 
     public Date getCachedAt() { return cachedAt; }
     public void setCachedAt(Date cachedAt) { this.cachedAt = cachedAt; }
+
+    public long getContentHash() { return contentHash; }
+
+    @Override
+    public void setContentHash(long contentHash) { this.contentHash = contentHash; }
+
+    @Override
+    public long computeContentHash() {
+        return new ContentHash().add(name).add(code).value();
+    }
 }
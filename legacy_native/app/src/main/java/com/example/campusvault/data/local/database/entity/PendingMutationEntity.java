@@ -0,0 +1,177 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import java.util.UUID;
+
+/**
+ * Room entity for a user action waiting to reach the server: a bookmark change, rating,
+ * comment or download record. The UI has already applied it locally; OutboxWorker replays
+ * the queue in order once there is a network. Each row carries an idempotency key so a
+ * replay the server already saw is not applied twice.
+ */
+@Entity(
+    tableName = "pending_mutations",
+    indices = {@Index(value = {"coalesce_key"})}
+)
+public class PendingMutationEntity {
+
+    public static final String TYPE_BOOKMARK = "bookmark";
+    public static final String TYPE_UNBOOKMARK = "unbookmark";
+    public static final String TYPE_RATE = "rate";
+    public static final String TYPE_COMMENT = "comment";
+    public static final String TYPE_DOWNLOAD = "download";
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private long id;
+
+    @NonNull
+    @ColumnInfo(name = "type")
+    private String type = "";
+
+    @ColumnInfo(name = "resource_id")
+    private int resourceId;
+
+    // Request body as JSON, null for body-less calls
+    @ColumnInfo(name = "payload")
+    private String payload;
+
+    // Queued rows sharing a key collapse into one; null for actions that always append
+    @ColumnInfo(name = "coalesce_key")
+    private String coalesceKey;
+
+    @NonNull
+    @ColumnInfo(name = "idempotency_key")
+    private String idempotencyKey = "";
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    // Claimed by a running flush; such rows are no longer coalesced
+    @ColumnInfo(name = "in_flight")
+    private boolean inFlight;
+
+    @ColumnInfo(name = "attempts")
+    private int attempts;
+
+    @ColumnInfo(name = "last_error")
+    private String lastError;
+
+    public static PendingMutationEntity create(String type, int resourceId, String payload) {
+        PendingMutationEntity mutation = new PendingMutationEntity();
+        mutation.setType(type);
+        mutation.setResourceId(resourceId);
+        mutation.setPayload(payload);
+        mutation.setCoalesceKey(coalesceKeyFor(type, resourceId));
+        mutation.setIdempotencyKey(UUID.randomUUID().toString());
+        mutation.setCreatedAt(System.currentTimeMillis());
+        return mutation;
+    }
+
+    /**
+     * Bookmark and unbookmark share a key so they cancel out; ratings share one so the
+     * last wins. Comments and downloads each count, so they are never coalesced.
+     */
+    static String coalesceKeyFor(String type, int resourceId) {
+        switch (type) {
+            case TYPE_BOOKMARK:
+            case TYPE_UNBOOKMARK:
+                return "bookmark:" + resourceId;
+            case TYPE_RATE:
+                return "rate:" + resourceId;
+            default:
+                return null;
+        }
+    }
+
+    public boolean isBookmarkChange() {
+        return TYPE_BOOKMARK.equals(type) || TYPE_UNBOOKMARK.equals(type);
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getType() {
+        return type;
+    }
+
+    public void setType(@NonNull String type) {
+        this.type = type;
+    }
+
+    public int getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(int resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getCoalesceKey() {
+        return coalesceKey;
+    }
+
+    public void setCoalesceKey(String coalesceKey) {
+        this.coalesceKey = coalesceKey;
+    }
+
+    @NonNull
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(@NonNull String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(boolean inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import java.util.Date;
+
+/**
+ * Room entity for a queued upload. Rows outlive the screen that created them,
+ * so UploadWorker can finish (or resume) the upload after process death.
+ */
+@Entity(tableName = "pending_uploads")
+public class PendingUploadEntity {
+
+    public static final String STATUS_QUEUED = "queued";
+    public static final String STATUS_UPLOADING = "uploading";
+    public static final String STATUS_DONE = "done";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_DUPLICATE = "duplicate";
+    public static final String STATUS_CANCELLED = "cancelled";
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private long id;
+
+    @ColumnInfo(name = "uri")
+    private String uri;
+
+    @ColumnInfo(name = "file_name")
+    private String fileName;
+
+    @ColumnInfo(name = "content_type")
+    private String contentType;
+
+    @ColumnInfo(name = "size_bytes")
+    private long sizeBytes;
+
+    @ColumnInfo(name = "course_unit_id")
+    private int courseUnitId;
+
+    @ColumnInfo(name = "title")
+    private String title;
+
+    @ColumnInfo(name = "description")
+    private String description;
+
+    @ColumnInfo(name = "resource_type")
+    private String resourceType;
+
+    @ColumnInfo(name = "status")
+    private String status;
+
+    @ColumnInfo(name = "bytes_uploaded")
+    private long bytesUploaded;
+
+    @ColumnInfo(name = "attempts")
+    private int attempts;
+
+    // Failure message, or the existing resource as JSON when status is duplicate
+    @ColumnInfo(name = "error_message")
+    private String errorMessage;
+
+    @ColumnInfo(name = "resource_id")
+    private Integer resourceId;
+
+    @ColumnInfo(name = "created_at")
+    private Date createdAt;
+
+    @ColumnInfo(name = "updated_at")
+    private Date updatedAt;
+
+    // Constructors
+    public PendingUploadEntity() {
+        this.status = STATUS_QUEUED;
+        this.createdAt = new Date();
+        this.updatedAt = this.createdAt;
+    }
+
+    public boolean isFinished() {
+        return STATUS_DONE.equals(status) || STATUS_FAILED.equals(status)
+            || STATUS_DUPLICATE.equals(status) || STATUS_CANCELLED.equals(status);
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public int getCourseUnitId() {
+        return courseUnitId;
+    }
+
+    public void setCourseUnitId(int courseUnitId) {
+        this.courseUnitId = courseUnitId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public void setResourceType(String resourceType) {
+        this.resourceType = resourceType;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getBytesUploaded() {
+        return bytesUploaded;
+    }
+
+    public void setBytesUploaded(long bytesUploaded) {
+        this.bytesUploaded = bytesUploaded;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Integer getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Integer resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -3,10 +3,11 @@ package com.example.campusvault.data.local.database.entity;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
+import com.example.campusvault.data.local.database.ContentHash;
 import java.util.Date;
 
 @Entity(tableName = "programs")
-public class ProgramEntity {
+public class ProgramEntity implements SyncedEntity {
     @PrimaryKey
     @ColumnInfo(name = "id")
     private int id;
@@ -23,6 +24,9 @@ public class ProgramEntity {
     @ColumnInfo(name = "duration_years")
     private int durationYears;
 
+    @ColumnInfo(name = "content_hash", defaultValue = "0")
+    private long contentHash;
+
     @ColumnInfo(name = "cached_at")
     private Date cachedAt;
 
@@ -47,4 +51,14 @@ public class ProgramEntity {
 
     public Date getCachedAt() { return cachedAt; }
     public void setCachedAt(Date cachedAt) { this.cachedAt = cachedAt; }
+
+    public long getContentHash() { return contentHash; }
+
+    @Override
+    public void setContentHash(long contentHash) { this.contentHash = contentHash; }
+
+    @Override
+    public long computeContentHash() {
+        return new ContentHash().add(name).add(code).add(facultyId).add(durationYears).value();
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity remembering how far a paged list has been fetched from the server, so
+ * scrolling resumes with the next server page instead of starting over.
+ */
+@Entity(tableName = "remote_keys")
+public class RemoteKeyEntity {
+
+    // Which list, e.g. "course_unit:12:notes"
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "list_key")
+    private String listKey = "";
+
+    // Next server page to fetch; null once the server has no more
+    @ColumnInfo(name = "next_page")
+    private Integer nextPage;
+
+    // When page 1 was last fetched
+    @ColumnInfo(name = "refreshed_at")
+    private long refreshedAt;
+
+    public RemoteKeyEntity() {
+    }
+
+    public RemoteKeyEntity(@NonNull String listKey, Integer nextPage, long refreshedAt) {
+        this.listKey = listKey;
+        this.nextPage = nextPage;
+        this.refreshedAt = refreshedAt;
+    }
+
+    public boolean isEndReached() {
+        return nextPage == null;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getListKey() {
+        return listKey;
+    }
+
+    public void setListKey(@NonNull String listKey) {
+        this.listKey = listKey;
+    }
+
+    public Integer getNextPage() {
+        return nextPage;
+    }
+
+    public void setNextPage(Integer nextPage) {
+        this.nextPage = nextPage;
+    }
+
+    public long getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(long refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+}
@@ -2,15 +2,37 @@ package com.example.campusvault.data.local.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import com.example.campusvault.data.local.database.ContentHash;
 import java.util.Date;
 import java.util.List;
 
 /**
- * Room entity for Resource data
+ * Room entity for Resource data.
+ * Each index matches the WHERE + ORDER BY of a ResourceDao query, so none of them
+ * needs a table scan or a temporary sort.
  */
-@Entity(tableName = "resources")
-public class ResourceEntity {
+@Entity(
+    tableName = "resources",
+    indices = {
+        // getResourcesByCourseUnit, getCourseUnitPage
+        @Index(value = {"course_unit_id", "uploaded_at"}),
+        // getResourcesByCourseUnitAndType, getCourseUnitPage with a type
+        @Index(value = {"course_unit_id", "resource_type", "uploaded_at"}),
+        // getRecentResources, getRecentPage
+        @Index(value = "uploaded_at"),
+        // getTrendingResources, getTrendingPage, read backwards for DESC, DESC
+        @Index(value = {"download_count", "average_rating"}),
+        // Unused since the per course unit trending page was dropped; goes with the next schema change
+        @Index(value = {"course_unit_id", "download_count", "average_rating"}),
+        // getBookmarkedResources and deleteExpiredCache
+        @Index(value = {"is_bookmarked", "cached_at"}),
+        // Unused since the bookmarks keyset page was dropped; goes with the next schema change
+        @Index(value = {"is_bookmarked", "uploaded_at"})
+    }
+)
+public class ResourceEntity implements SyncedEntity {
 
     @PrimaryKey
     @ColumnInfo(name = "id")
@@ -46,6 +68,7 @@ public class ResourceEntity {
     @ColumnInfo(name = "course_unit_name")
     private String courseUnitName;
 
+    // Kept for full-text search; tag filters and counts use the tags / resource_tags tables
     @ColumnInfo(name = "tags")
     private List<String> tags;
 
@@ -64,6 +87,9 @@ public class ResourceEntity {
     @ColumnInfo(name = "cached_at")
     private Date cachedAt;
 
+    @ColumnInfo(name = "content_hash", defaultValue = "0")
+    private long contentHash;
+
     @ColumnInfo(name = "resource_type")
     private String resourceType;
 
@@ -216,4 +242,23 @@ public class ResourceEntity {
     public void setResourceType(String resourceType) {
         this.resourceType = resourceType;
     }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    @Override
+    public long computeContentHash() {
+        // is_bookmarked and cached_at are local state, not server content
+        return new ContentHash()
+            .add(title).add(description).add(fileUrl).add(thumbnailUrl).add(fileType).add(fileSize)
+            .add(authorId).add(authorName).add(courseUnitId).add(courseUnitName).add(tags)
+            .add(downloadCount).add(averageRating).add(uploadedAt).add(resourceType)
+            .value();
+    }
 }
@@ -0,0 +1,75 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+/**
+ * FTS4 index shadowing the searchable columns of {@link ResourceEntity}.
+ * Room keeps it in sync with the resources table through generated triggers;
+ * its rowid is the resource id.
+ */
+@Fts4(contentEntity = ResourceEntity.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61, prefix = {2, 3})
+@Entity(tableName = "resources_fts")
+public class ResourceFtsEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private int rowId;
+
+    @ColumnInfo(name = "title")
+    private String title;
+
+    @ColumnInfo(name = "description")
+    private String description;
+
+    // JSON list as stored in resources.tags; the tokenizer skips the punctuation
+    @ColumnInfo(name = "tags")
+    private String tags;
+
+    @ColumnInfo(name = "course_unit_name")
+    private String courseUnitName;
+
+    // Getters and Setters
+    public int getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(int rowId) {
+        this.rowId = rowId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTags() {
+        return tags;
+    }
+
+    public void setTags(String tags) {
+        this.tags = tags;
+    }
+
+    public String getCourseUnitName() {
+        return courseUnitName;
+    }
+
+    public void setCourseUnitName(String courseUnitName) {
+        this.courseUnitName = courseUnitName;
+    }
+}
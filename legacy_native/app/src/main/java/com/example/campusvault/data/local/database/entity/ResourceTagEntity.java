@@ -0,0 +1,55 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * Room entity linking a resource to one of its tags. The primary key leads with tag_id for
+ * "resources with tag X"; the resource_id index serves rewriting a resource's tags and the
+ * cascade when the resource is deleted.
+ */
+@Entity(
+    tableName = "resource_tags",
+    primaryKeys = {"tag_id", "resource_id"},
+    foreignKeys = {
+        @ForeignKey(entity = ResourceEntity.class, parentColumns = "id", childColumns = "resource_id",
+            onDelete = ForeignKey.CASCADE),
+        @ForeignKey(entity = TagEntity.class, parentColumns = "id", childColumns = "tag_id",
+            onDelete = ForeignKey.CASCADE)
+    },
+    indices = {@Index(value = {"resource_id"})}
+)
+public class ResourceTagEntity {
+
+    @ColumnInfo(name = "tag_id")
+    private int tagId;
+
+    @ColumnInfo(name = "resource_id")
+    private int resourceId;
+
+    public ResourceTagEntity() {
+    }
+
+    public ResourceTagEntity(int tagId, int resourceId) {
+        this.tagId = tagId;
+        this.resourceId = resourceId;
+    }
+
+    public int getTagId() {
+        return tagId;
+    }
+
+    public void setTagId(int tagId) {
+        this.tagId = tagId;
+    }
+
+    public int getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(int resourceId) {
+        this.resourceId = resourceId;
+    }
+}
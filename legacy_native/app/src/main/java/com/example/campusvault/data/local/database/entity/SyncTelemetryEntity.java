@@ -0,0 +1,112 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity recording how one sync stage went in one run: time, HTTP bytes, rows written
+ * and outcome. A row with stage {@link #STAGE_RUN} covers the whole run. The table is a ring -
+ * only the newest {@link #MAX_ROWS} rows are kept.
+ */
+@Entity(tableName = "sync_telemetry")
+public class SyncTelemetryEntity {
+
+    public static final String STAGE_RUN = "run";
+    public static final int MAX_ROWS = 500;
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private long id;
+
+    @NonNull
+    @ColumnInfo(name = "run_id")
+    private String runId = "";
+
+    @NonNull
+    @ColumnInfo(name = "stage")
+    private String stage = "";
+
+    @ColumnInfo(name = "started_at")
+    private long startedAt;
+
+    @ColumnInfo(name = "duration_ms")
+    private long durationMs;
+
+    @ColumnInfo(name = "requests")
+    private int requests;
+
+    @ColumnInfo(name = "bytes_in")
+    private long bytesIn;
+
+    @ColumnInfo(name = "bytes_out")
+    private long bytesOut;
+
+    @ColumnInfo(name = "rows_inserted")
+    private int rowsInserted;
+
+    @ColumnInfo(name = "rows_updated")
+    private int rowsUpdated;
+
+    @ColumnInfo(name = "rows_deleted")
+    private int rowsDeleted;
+
+    // WorkManager run attempt - anything above 0 is a retry
+    @ColumnInfo(name = "attempt")
+    private int attempt;
+
+    // SyncPlanner outcome: SUCCEEDED, FAILED or SKIPPED
+    @NonNull
+    @ColumnInfo(name = "outcome")
+    private String outcome = "";
+
+    @ColumnInfo(name = "error")
+    private String error;
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    @NonNull
+    public String getRunId() { return runId; }
+    public void setRunId(@NonNull String runId) { this.runId = runId; }
+
+    @NonNull
+    public String getStage() { return stage; }
+    public void setStage(@NonNull String stage) { this.stage = stage; }
+
+    public long getStartedAt() { return startedAt; }
+    public void setStartedAt(long startedAt) { this.startedAt = startedAt; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public int getRequests() { return requests; }
+    public void setRequests(int requests) { this.requests = requests; }
+
+    public long getBytesIn() { return bytesIn; }
+    public void setBytesIn(long bytesIn) { this.bytesIn = bytesIn; }
+
+    public long getBytesOut() { return bytesOut; }
+    public void setBytesOut(long bytesOut) { this.bytesOut = bytesOut; }
+
+    public int getRowsInserted() { return rowsInserted; }
+    public void setRowsInserted(int rowsInserted) { this.rowsInserted = rowsInserted; }
+
+    public int getRowsUpdated() { return rowsUpdated; }
+    public void setRowsUpdated(int rowsUpdated) { this.rowsUpdated = rowsUpdated; }
+
+    public int getRowsDeleted() { return rowsDeleted; }
+    public void setRowsDeleted(int rowsDeleted) { this.rowsDeleted = rowsDeleted; }
+
+    public int getAttempt() { return attempt; }
+    public void setAttempt(int attempt) { this.attempt = attempt; }
+
+    @NonNull
+    public String getOutcome() { return outcome; }
+    public void setOutcome(@NonNull String outcome) { this.outcome = outcome; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
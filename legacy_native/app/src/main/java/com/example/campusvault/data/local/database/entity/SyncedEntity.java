@@ -0,0 +1,17 @@
+package com.example.campusvault.data.local.database.entity;
+
+/**
+ * A row mirrored from the server, carrying a hash of its server-provided fields so
+ * refreshes only write rows whose content actually changed
+ */
+public interface SyncedEntity {
+
+    int getId();
+
+    /**
+     * Hash of the server-provided fields; local state such as cached_at is excluded
+     */
+    long computeContentHash();
+
+    void setContentHash(long contentHash);
+}
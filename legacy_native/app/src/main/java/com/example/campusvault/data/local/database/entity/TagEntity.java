@@ -0,0 +1,50 @@
+package com.example.campusvault.data.local.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity for a tag name, shared by every resource carrying it. Names compare
+ * case-insensitively, so "Calculus" and "calculus" are one tag.
+ */
+@Entity(
+    tableName = "tags",
+    indices = {@Index(value = {"name"}, unique = true)}
+)
+public class TagEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private int id;
+
+    @NonNull
+    @ColumnInfo(name = "name", collate = ColumnInfo.NOCASE)
+    private String name = "";
+
+    public TagEntity() {
+    }
+
+    public TagEntity(@NonNull String name) {
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public void setName(@NonNull String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.campusvault.data.local.database.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Embedded;
+import com.example.campusvault.data.local.database.entity.CourseUnitEntity;
+
+/**
+ * A course unit matched by full-text search, with the FTS matchinfo used to rank it
+ */
+public class CourseUnitSearchResult {
+
+    @Embedded
+    public CourseUnitEntity courseUnit;
+
+    @ColumnInfo(name = "match_info")
+    public byte[] matchInfo;
+}
@@ -0,0 +1,64 @@
+package com.example.campusvault.data.local.database.model;
+
+import androidx.room.ColumnInfo;
+import java.util.Date;
+
+/**
+ * The columns a resource list cell shows. List queries select these instead of the whole
+ * row, so the cursor skips file_url and the tags JSON (and its Gson parse) and carries only
+ * the start of the description; the detail screen loads the full ResourceEntity.
+ */
+public class ResourceListItem {
+
+    // Long enough for the two-line subtitle of a list card
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 160;
+
+    public static final String COLUMNS = "id, title, substr(description, 1, " + DESCRIPTION_PREVIEW_LENGTH + ") " +
+        "AS description_preview, thumbnail_url, file_type, file_size, resource_type, download_count, " +
+        "average_rating, is_bookmarked, uploaded_at, author_id, author_name, course_unit_id, course_unit_name";
+
+    @ColumnInfo(name = "id")
+    public int id;
+
+    @ColumnInfo(name = "title")
+    public String title;
+
+    @ColumnInfo(name = "description_preview")
+    public String descriptionPreview;
+
+    @ColumnInfo(name = "thumbnail_url")
+    public String thumbnailUrl;
+
+    @ColumnInfo(name = "file_type")
+    public String fileType;
+
+    @ColumnInfo(name = "file_size")
+    public long fileSize;
+
+    @ColumnInfo(name = "resource_type")
+    public String resourceType;
+
+    @ColumnInfo(name = "download_count")
+    public int downloadCount;
+
+    @ColumnInfo(name = "average_rating")
+    public float averageRating;
+
+    @ColumnInfo(name = "is_bookmarked")
+    public boolean isBookmarked;
+
+    @ColumnInfo(name = "uploaded_at")
+    public Date uploadedAt;
+
+    @ColumnInfo(name = "author_id")
+    public int authorId;
+
+    @ColumnInfo(name = "author_name")
+    public String authorName;
+
+    @ColumnInfo(name = "course_unit_id")
+    public Integer courseUnitId;
+
+    @ColumnInfo(name = "course_unit_name")
+    public String courseUnitName;
+}
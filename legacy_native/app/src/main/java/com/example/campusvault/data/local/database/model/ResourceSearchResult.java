@@ -0,0 +1,17 @@
+package com.example.campusvault.data.local.database.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Embedded;
+import com.example.campusvault.data.local.database.entity.ResourceEntity;
+
+/**
+ * A resource matched by full-text search, with the FTS matchinfo used to rank it
+ */
+public class ResourceSearchResult {
+
+    @Embedded
+    public ResourceEntity resource;
+
+    @ColumnInfo(name = "match_info")
+    public byte[] matchInfo;
+}
@@ -0,0 +1,15 @@
+package com.example.campusvault.data.local.database.model;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Id and stored content hash of a synced row
+ */
+public class RowHash {
+
+    @ColumnInfo(name = "id")
+    public int id;
+
+    @ColumnInfo(name = "content_hash")
+    public long contentHash;
+}
@@ -0,0 +1,15 @@
+package com.example.campusvault.data.local.database.model;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * A tag and how many cached resources carry it
+ */
+public class TagCount {
+
+    @ColumnInfo(name = "name")
+    public String name;
+
+    @ColumnInfo(name = "resource_count")
+    public int resourceCount;
+}
@@ -13,7 +13,9 @@ import java.util.List;
 public class ResourceMapper {
 
     /**
-     * Convert Resource model to ResourceEntity for Room database
+     * Convert Resource model to ResourceEntity for Room database. Every refresh path (sync,
+     * list refreshes, bookmarks, paging) maps through here, so a row hashes the same whichever
+     * of them wrote it and an unchanged row is never rewritten.
      */
     public static ResourceEntity toEntity(Resource resource) {
         if (resource == null) {
@@ -22,7 +24,7 @@ public class ResourceMapper {
 
         ResourceEntity entity = new ResourceEntity();
         entity.setId(resource.getId());
-        entity.setTitle(resource.getTitle());
+        entity.setTitle(resource.getTitle() != null ? resource.getTitle() : "Untitled");
         entity.setDescription(resource.getDescription());
         entity.setFileUrl(resource.getFileUrl());
         entity.setThumbnailUrl(resource.getThumbnailUrl());
@@ -33,12 +35,18 @@ public class ResourceMapper {
         if (resource.getAuthor() != null) {
             entity.setAuthorId(resource.getAuthor().getId());
             entity.setAuthorName(resource.getAuthor().getName());
+        } else {
+            entity.setAuthorId(0);
+            entity.setAuthorName("Unknown");
         }
 
+        // Handle course unit - list endpoints send the object, the delta feed only the id
         CourseUnitInfo courseUnit = resource.getCourseUnit();
         if (courseUnit != null) {
             entity.setCourseUnitId(courseUnit.getId());
             entity.setCourseUnitName(courseUnit.getName());
+        } else {
+            entity.setCourseUnitId(resource.getCourseUnitId());
         }
 
         entity.setTags(resource.getTags());
@@ -46,6 +54,7 @@ public class ResourceMapper {
         entity.setAverageRating(resource.getAverageRating());
         entity.setBookmarked(resource.isBookmarked());
         entity.setUploadedAt(resource.getUploadedAt());
+        entity.setResourceType(resource.getResourceType());
         
         return entity;
     }
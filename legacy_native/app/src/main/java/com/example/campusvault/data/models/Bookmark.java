@@ -1,18 +0,0 @@
-package com.example.campusvault.data.models;
-
-import androidx.room.Entity;
-import androidx.room.PrimaryKey;
-
-@Entity(tableName = "bookmarks")
-public class Bookmark {
-    @PrimaryKey
-    private int resourceId;
-
-    public Bookmark(int resourceId) {
-        this.resourceId = resourceId;
-    }
-
-    public int getResourceId() {
-        return resourceId;
-    }
-}
@@ -0,0 +1,57 @@
+package com.example.campusvault.data.models;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a delta sync: rows changed since the request's cursor, ids deleted since then,
+ * and the cursor to send next time
+ */
+public class ChangeSet<T> {
+
+    @SerializedName("items")
+    private List<T> items;
+
+    @SerializedName("deleted_ids")
+    private List<Integer> deletedIds;
+
+    @SerializedName("cursor")
+    private String cursor;
+
+    @SerializedName("has_more")
+    private boolean hasMore;
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items != null ? items : Collections.emptyList();
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds != null ? deletedIds : Collections.emptyList();
+    }
+
+    public void setDeletedIds(List<Integer> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
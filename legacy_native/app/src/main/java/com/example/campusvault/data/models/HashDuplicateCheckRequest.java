@@ -0,0 +1,37 @@
+package com.example.campusvault.data.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Request body for the hash-only duplicate check.
+ * Only the file's SHA-256 is sent, never the file content.
+ */
+public class HashDuplicateCheckRequest {
+
+    @SerializedName("sha256")
+    private String sha256;
+
+    @SerializedName("course_unit_id")
+    private int courseUnitId;
+
+    public HashDuplicateCheckRequest(String sha256, int courseUnitId) {
+        this.sha256 = sha256;
+        this.courseUnitId = courseUnitId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public int getCourseUnitId() {
+        return courseUnitId;
+    }
+
+    public void setCourseUnitId(int courseUnitId) {
+        this.courseUnitId = courseUnitId;
+    }
+}
@@ -1,19 +1,11 @@
 package com.example.campusvault.data.models;
 
-import androidx.room.Embedded;
-import androidx.room.Entity;
-import androidx.room.PrimaryKey;
-import androidx.room.TypeConverters;
-import com.example.campusvault.data.local.converters.Converters;
 import com.google.gson.annotations.SerializedName;
 import java.util.Date;
 import java.util.List;
 
-@Entity(tableName = "resources")
-@TypeConverters(Converters.class)
 public class Resource {
 
-    @PrimaryKey
     @SerializedName("id")
     private int id;
 
@@ -35,11 +27,9 @@ public class Resource {
     @SerializedName("size_bytes")
     private long fileSize;
 
-    @Embedded(prefix = "author_")
     @SerializedName("author")
     private Author author;
 
-    @Embedded(prefix = "course_unit_")
     @SerializedName("course_unit")
     private CourseUnitInfo courseUnit;
 
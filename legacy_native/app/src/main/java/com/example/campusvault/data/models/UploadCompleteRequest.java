@@ -0,0 +1,26 @@
+package com.example.campusvault.data.models;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+/**
+ * Request body for finalizing a chunked upload session.
+ * Carries the SHA-256 of every chunk so the server can verify the assembled file.
+ */
+public class UploadCompleteRequest {
+
+    @SerializedName("chunk_checksums")
+    private List<String> chunkChecksums;
+
+    public UploadCompleteRequest(List<String> chunkChecksums) {
+        this.chunkChecksums = chunkChecksums;
+    }
+
+    public List<String> getChunkChecksums() {
+        return chunkChecksums;
+    }
+
+    public void setChunkChecksums(List<String> chunkChecksums) {
+        this.chunkChecksums = chunkChecksums;
+    }
+}
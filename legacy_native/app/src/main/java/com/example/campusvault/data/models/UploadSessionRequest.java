@@ -0,0 +1,78 @@
+package com.example.campusvault.data.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Request body for opening a chunked upload session.
+ * The file itself is sent afterwards in fixed-size chunks.
+ */
+public class UploadSessionRequest {
+
+    @SerializedName("course_unit_id")
+    private int courseUnitId;
+
+    @SerializedName("filename")
+    private String filename;
+
+    @SerializedName("content_type")
+    private String contentType;
+
+    @SerializedName("size_bytes")
+    private long sizeBytes;
+
+    @SerializedName("chunk_size")
+    private int chunkSize;
+
+    @SerializedName("title")
+    private String title;
+
+    @SerializedName("description")
+    private String description;
+
+    @SerializedName("resource_type")
+    private String resourceType;
+
+    public UploadSessionRequest(int courseUnitId, String filename, String contentType, long sizeBytes,
+                                int chunkSize, String title, String description, String resourceType) {
+        this.courseUnitId = courseUnitId;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.sizeBytes = sizeBytes;
+        this.chunkSize = chunkSize;
+        this.title = title;
+        this.description = description;
+        this.resourceType = resourceType != null ? resourceType : "notes";
+    }
+
+    public int getCourseUnitId() {
+        return courseUnitId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.campusvault.data.models;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+/**
+ * State of a chunked upload session as reported by the server.
+ * {@code offset} is the number of contiguous bytes the server has durably received;
+ * {@code received_chunks}, when present, lists every stored chunk including out-of-order ones.
+ */
+public class UploadSessionResponse {
+
+    @SerializedName("upload_id")
+    private String uploadId;
+
+    @SerializedName("offset")
+    private long offset;
+
+    @SerializedName("chunk_size")
+    private int chunkSize;
+
+    @SerializedName("size_bytes")
+    private long sizeBytes;
+
+    @SerializedName("received_chunks")
+    private List<Integer> receivedChunks;
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public List<Integer> getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public void setReceivedChunks(List<Integer> receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.campusvault.data.paging;
+
+import android.util.Log;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads a list from Room one keyset page at a time as the user scrolls, and asks a
+ * {@link RemoteMediator} for the next server page when the local rows run out.
+ *
+ * At most {@link Config#maxLoadedPages} pages are held. Pages scrolled far out of view are
+ * released and their positions filled with nulls; they are reloaded from their start key
+ * when they come back, so memory stays flat however long the list is.
+ *
+ * Room's Flowable queries re-run on every write; this pager's queries don't, so it reloads
+ * its loaded pages whenever the invalidations it is given emit (bookmark changes, sync writes).
+ *
+ * State is only touched on the main scheduler; queries and fetches run on the io scheduler.
+ */
+public class KeysetPager<T, K> {
+
+    private static final String TAG = "KeysetPager";
+
+    // Server pages in a row that added nothing locally before giving up until the next refresh
+    private static final int MAX_EMPTY_APPENDS = 3;
+
+    public static final class Config {
+        public final int pageSize;
+        // Start loading once the last visible row is this close to the end of what is loaded
+        public final int prefetchDistance;
+        public final int maxLoadedPages;
+
+        public Config(int pageSize, int prefetchDistance, int maxLoadedPages) {
+            if (pageSize <= 0 || prefetchDistance < 0 || maxLoadedPages < 2) {
+                throw new IllegalArgumentException("Invalid paging config");
+            }
+            this.pageSize = pageSize;
+            this.prefetchDistance = prefetchDistance;
+            this.maxLoadedPages = maxLoadedPages;
+        }
+    }
+
+    public interface LocalSource<T, K> {
+        /**
+         * Up to limit rows following the key, or from the start when it is null. Blocking.
+         */
+        List<T> load(K after, int limit);
+    }
+
+    public interface RemoteMediator {
+        /**
+         * Fetch the first server page again, unless the cached copy is recent enough
+         */
+        Completable refresh();
+
+        /**
+         * Fetch the next server page into Room; emits false once the server has no more
+         */
+        Single<Boolean> append();
+    }
+
+    private static final class Page<T, K> {
+        // Key of the row before this page, null for the first page
+        K after;
+        // Null while released
+        List<T> items;
+        int size;
+
+        Page(K after, List<T> items) {
+            this.after = after;
+            this.items = items;
+            this.size = items.size();
+        }
+
+        boolean isLoaded() {
+            return items != null;
+        }
+    }
+
+    private final Config config;
+    private final LocalSource<T, K> source;
+    private final Function<T, K> keyOf;
+    private final RemoteMediator mediator;
+    private final Observable<?> invalidations;
+    private final Scheduler io;
+    private final Scheduler main;
+    private final CompositeDisposable disposables = new CompositeDisposable();
+    private final BehaviorSubject<List<T>> items = BehaviorSubject.create();
+
+    private final List<Page<T, K>> pages = new ArrayList<>();
+    private boolean busy;
+    private boolean reloadPending;
+    private boolean localEnd;
+    private boolean remoteEnd;
+    private int emptyAppends;
+    private int firstVisible;
+    private int lastVisible;
+
+    /**
+     * @param mediator      null for a list that only pages through Room
+     * @param invalidations emits when the tables behind {@code source} change, e.g.
+     *                      {@link TableInvalidations#observe}; null if they never do
+     */
+    public KeysetPager(Config config, LocalSource<T, K> source, Function<T, K> keyOf,
+                       RemoteMediator mediator, Observable<?> invalidations, Scheduler io, Scheduler main) {
+        this.config = config;
+        this.source = source;
+        this.keyOf = keyOf;
+        this.mediator = mediator;
+        this.invalidations = invalidations;
+        this.io = io;
+        this.main = main;
+    }
+
+    /**
+     * Loaded rows with null for positions whose page is released; emits on the main scheduler
+     */
+    public Observable<List<T>> items() {
+        return items;
+    }
+
+    /**
+     * Load the first page from Room and follow its changes. Call {@link #refresh()} as well
+     * to check the server.
+     */
+    public void start() {
+        if (invalidations != null) {
+            disposables.add(invalidations
+                .subscribeOn(io)
+                .observeOn(main)
+                .subscribe(changed -> reload(), error -> Log.w(TAG, "Lost table invalidations", error)));
+        }
+        evaluate();
+    }
+
+    /**
+     * Refresh the first server page, then reload the loaded pages from Room
+     */
+    public void refresh() {
+        emptyAppends = 0;
+        if (mediator == null) {
+            reload();
+            return;
+        }
+        disposables.add(mediator.refresh()
+            .subscribeOn(io)
+            .observeOn(main)
+            .subscribe(() -> {
+                remoteEnd = false;
+                reload();
+            }, error -> Log.w(TAG, "Refresh failed, showing cached rows", error)));
+    }
+
+    /**
+     * Tell the pager what is on screen; it loads ahead and releases far-away pages
+     */
+    public void onVisibleRange(int first, int last) {
+        firstVisible = Math.max(0, first);
+        lastVisible = Math.max(firstVisible, last);
+        evaluate();
+    }
+
+    public void dispose() {
+        disposables.clear();
+    }
+
+    private void evaluate() {
+        if (busy) {
+            return;
+        }
+        int from = firstVisible - config.prefetchDistance;
+        int to = lastVisible + config.prefetchDistance;
+        int start = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            Page<T, K> page = pages.get(i);
+            int end = start + page.size;
+            if (!page.isLoaded() && end > from && start <= to) {
+                loadReleased(i);
+                return;
+            }
+            start = end;
+        }
+        if (lastVisible + config.prefetchDistance >= start - 1) {
+            loadNext();
+        }
+    }
+
+    private void loadNext() {
+        if (!pages.isEmpty() && !pages.get(pages.size() - 1).isLoaded()) {
+            // Its last key is needed to continue
+            loadReleased(pages.size() - 1);
+            return;
+        }
+        if (localEnd) {
+            appendRemote();
+            return;
+        }
+        K after = lastKey();
+        run(Single.fromCallable(() -> source.load(after, config.pageSize)), page -> {
+            if (!page.isEmpty()) {
+                pages.add(new Page<>(after, page));
+                emptyAppends = 0;
+            }
+            localEnd = page.size() < config.pageSize;
+        });
+    }
+
+    private void appendRemote() {
+        if (mediator == null || remoteEnd || emptyAppends >= MAX_EMPTY_APPENDS) {
+            return;
+        }
+        busy = true;
+        disposables.add(mediator.append()
+            .subscribeOn(io)
+            .observeOn(main)
+            .subscribe(hasMore -> {
+                busy = false;
+                remoteEnd = !hasMore;
+                localEnd = false;
+                emptyAppends++;
+                afterLoad();
+            }, error -> {
+                busy = false;
+                // Offline or failing - stop asking until the next refresh
+                emptyAppends = MAX_EMPTY_APPENDS;
+                Log.w(TAG, "Could not fetch the next page", error);
+            }));
+    }
+
+    /**
+     * Bring a released page back, asking for as many rows as it had so positions stay put
+     */
+    private void loadReleased(int index) {
+        Page<T, K> page = pages.get(index);
+        K after = page.after;
+        int size = page.size;
+        run(Single.fromCallable(() -> source.load(after, size)), rows -> {
+            page.items = rows;
+            page.size = rows.size();
+        });
+    }
+
+    /**
+     * Re-query the loaded pages after the underlying rows changed
+     */
+    private void reload() {
+        if (busy) {
+            reloadPending = true;
+            return;
+        }
+        int first = 0;
+        while (first < pages.size() && !pages.get(first).isLoaded()) {
+            first++;
+        }
+        if (first == pages.size()) {
+            pages.clear();
+            localEnd = false;
+            evaluate();
+            return;
+        }
+        int last = first;
+        while (last + 1 < pages.size() && pages.get(last + 1).isLoaded()) {
+            last++;
+        }
+        int from = first;
+        int count = last - first + 1;
+        K start = pages.get(first).after;
+        run(Single.fromCallable(() -> {
+            List<List<T>> loaded = new ArrayList<>();
+            K key = start;
+            for (int i = 0; i < count; i++) {
+                List<T> rows = source.load(key, config.pageSize);
+                loaded.add(rows);
+                if (rows.size() < config.pageSize) {
+                    break;
+                }
+                key = keyOf.apply(rows.get(rows.size() - 1));
+            }
+            return loaded;
+        }), loaded -> {
+            K key = start;
+            for (int i = 0; i < loaded.size(); i++) {
+                List<T> rows = loaded.get(i);
+                pages.set(from + i, new Page<>(key, rows));
+                if (!rows.isEmpty()) {
+                    key = keyOf.apply(rows.get(rows.size() - 1));
+                }
+            }
+            int next = from + loaded.size();
+            if (loaded.get(loaded.size() - 1).size() < config.pageSize) {
+                // The list now ends here: drop what followed, and an empty last page
+                pages.subList(next, pages.size()).clear();
+                if (pages.get(next - 1).size == 0) {
+                    pages.remove(next - 1);
+                }
+                localEnd = true;
+            } else if (next < pages.size()) {
+                pages.get(next).after = key;
+            } else {
+                localEnd = false;
+            }
+        });
+    }
+
+    private <R> void run(Single<R> work, Consumer<R> apply) {
+        busy = true;
+        disposables.add(work
+            .subscribeOn(io)
+            .observeOn(main)
+            .subscribe(result -> {
+                busy = false;
+                apply.accept(result);
+                afterLoad();
+            }, error -> {
+                busy = false;
+                Log.e(TAG, "Page load failed", error);
+            }));
+    }
+
+    private void afterLoad() {
+        releaseFarPages();
+        publish();
+        if (reloadPending) {
+            reloadPending = false;
+            reload();
+        } else {
+            evaluate();
+        }
+    }
+
+    /**
+     * Release loaded pages furthest from the viewport until at most maxLoadedPages remain
+     */
+    private void releaseFarPages() {
+        while (true) {
+            int loaded = 0;
+            int farthest = -1;
+            long farthestDistance = -1;
+            int start = 0;
+            for (int i = 0; i < pages.size(); i++) {
+                Page<T, K> page = pages.get(i);
+                int end = start + page.size;
+                if (page.isLoaded()) {
+                    loaded++;
+                    long distance = end <= firstVisible ? firstVisible - end + 1
+                        : start > lastVisible ? start - lastVisible : 0;
+                    if (distance > farthestDistance) {
+                        farthestDistance = distance;
+                        farthest = i;
+                    }
+                }
+                start = end;
+            }
+            if (loaded <= config.maxLoadedPages || farthestDistance <= 0) {
+                return;
+            }
+            pages.get(farthest).items = null;
+        }
+    }
+
+    private void publish() {
+        List<T> flat = new ArrayList<>();
+        for (Page<T, K> page : pages) {
+            if (page.isLoaded()) {
+                flat.addAll(page.items);
+            } else {
+                flat.addAll(Collections.nCopies(page.size, null));
+            }
+        }
+        items.onNext(Collections.unmodifiableList(flat));
+    }
+
+    private K lastKey() {
+        if (pages.isEmpty()) {
+            return null;
+        }
+        List<T> rows = pages.get(pages.size() - 1).items;
+        return keyOf.apply(rows.get(rows.size() - 1));
+    }
+}
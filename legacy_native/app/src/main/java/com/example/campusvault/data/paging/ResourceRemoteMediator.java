@@ -0,0 +1,102 @@
+package com.example.campusvault.data.paging;
+
+import android.util.Log;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.dao.RemoteKeyDao;
+import com.example.campusvault.data.local.database.dao.ResourceDao;
+import com.example.campusvault.data.local.database.entity.RemoteKeyEntity;
+import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import com.example.campusvault.data.models.PaginatedResponse;
+import com.example.campusvault.data.models.Resource;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fetches a paged server list into the resources table as {@link KeysetPager} runs out of
+ * local rows. The next page to fetch is kept in remote_keys, so scrolling resumes where
+ * it stopped on the next visit.
+ */
+public class ResourceRemoteMediator implements KeysetPager.RemoteMediator {
+
+    private static final String TAG = "ResourceRemoteMediator";
+
+    // Page 1 is not refetched more often than this
+    static final long REFRESH_TIMEOUT_MS = 15 * 60 * 1000L;
+
+    public interface PageFetcher {
+        Single<PaginatedResponse<Resource>> fetch(int page, int pageSize);
+    }
+
+    private final AppDatabase db;
+    private final ResourceDao resourceDao;
+    private final RemoteKeyDao keyDao;
+    private final String listKey;
+    private final int pageSize;
+    private final PageFetcher fetcher;
+    private final Function<List<Resource>, List<ResourceEntity>> mapper;
+
+    public ResourceRemoteMediator(AppDatabase db, String listKey, int pageSize, PageFetcher fetcher,
+                                  Function<List<Resource>, List<ResourceEntity>> mapper) {
+        this.db = db;
+        this.resourceDao = db.resourceDao();
+        this.keyDao = db.remoteKeyDao();
+        this.listKey = listKey;
+        this.pageSize = pageSize;
+        this.fetcher = fetcher;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Completable refresh() {
+        return Completable.defer(() -> {
+            RemoteKeyEntity key = keyDao.get(listKey);
+            if (key != null && System.currentTimeMillis() - key.getRefreshedAt() < REFRESH_TIMEOUT_MS) {
+                return Completable.complete();
+            }
+            return fetch(1).ignoreElement();
+        });
+    }
+
+    @Override
+    public Single<Boolean> append() {
+        return Single.defer(() -> {
+            RemoteKeyEntity key = keyDao.get(listKey);
+            if (key == null) {
+                return fetch(1);
+            }
+            if (key.isEndReached()) {
+                return Single.just(false);
+            }
+            return fetch(key.getNextPage());
+        });
+    }
+
+    private Single<Boolean> fetch(int page) {
+        return fetcher.fetch(page, pageSize).map(response -> {
+            List<Resource> items = response.getItems() != null ? response.getItems() : Collections.emptyList();
+            boolean hasMore = response.isHasNext() && !items.isEmpty();
+            db.runInTransaction(() -> {
+                if (!items.isEmpty()) {
+                    resourceDao.upsertAll(mapper.apply(items));
+                }
+                RemoteKeyEntity previous = keyDao.get(listKey);
+                if (page == 1) {
+                    // New uploads push rows down, never up, so carrying on from the old
+                    // position can repeat rows but not skip any. An end reached earlier is
+                    // forgotten: the list may have grown since.
+                    Integer nextPage = previous != null && previous.getNextPage() != null
+                        ? previous.getNextPage() : hasMore ? 2 : null;
+                    keyDao.upsert(new RemoteKeyEntity(listKey, nextPage, System.currentTimeMillis()));
+                } else {
+                    keyDao.upsert(new RemoteKeyEntity(listKey, hasMore ? page + 1 : null,
+                        previous != null ? previous.getRefreshedAt() : 0));
+                }
+            });
+            Log.d(TAG, listKey + ": page " + page + " brought " + items.size() + (hasMore ? "" : ", end reached"));
+            return hasMore;
+        });
+    }
+}
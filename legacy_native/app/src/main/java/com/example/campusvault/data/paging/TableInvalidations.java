@@ -0,0 +1,34 @@
+package com.example.campusvault.data.paging;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import androidx.room.RoomDatabase;
+import io.reactivex.rxjava3.core.Observable;
+import java.util.Set;
+
+/**
+ * Room invalidations as an Observable, for readers that query on their own schedule (like
+ * {@link KeysetPager}) rather than through a Flowable DAO method
+ */
+public final class TableInvalidations {
+
+    private TableInvalidations() {
+    }
+
+    /**
+     * Emits the changed table names after each transaction that wrote to any of
+     * {@code tables}; the observer is removed on dispose
+     */
+    public static Observable<Set<String>> observe(RoomDatabase db, String... tables) {
+        return Observable.create(emitter -> {
+            InvalidationTracker.Observer observer = new InvalidationTracker.Observer(tables) {
+                @Override
+                public void onInvalidated(@NonNull Set<String> changed) {
+                    emitter.onNext(changed);
+                }
+            };
+            db.getInvalidationTracker().addObserver(observer);
+            emitter.setCancellable(() -> db.getInvalidationTracker().removeObserver(observer));
+        });
+    }
+}
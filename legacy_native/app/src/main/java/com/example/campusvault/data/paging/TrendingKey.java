@@ -0,0 +1,23 @@
+package com.example.campusvault.data.paging;
+
+import com.example.campusvault.data.models.Resource;
+
+/**
+ * Keyset position in a list ordered most popular first by (download_count, average_rating, id)
+ */
+public final class TrendingKey {
+
+    public final int downloadCount;
+    public final float averageRating;
+    public final int id;
+
+    public TrendingKey(int downloadCount, float averageRating, int id) {
+        this.downloadCount = downloadCount;
+        this.averageRating = averageRating;
+        this.id = id;
+    }
+
+    public static TrendingKey of(Resource resource) {
+        return new TrendingKey(resource.getDownloadCount(), resource.getAverageRating(), resource.getId());
+    }
+}
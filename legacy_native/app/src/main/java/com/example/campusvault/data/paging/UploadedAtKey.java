@@ -0,0 +1,23 @@
+package com.example.campusvault.data.paging;
+
+import com.example.campusvault.data.models.Resource;
+
+/**
+ * Keyset position in a list ordered newest first by (uploaded_at, id)
+ */
+public final class UploadedAtKey {
+
+    // Null when the row has no upload time; such rows sort last
+    public final Long uploadedAt;
+    public final int id;
+
+    public UploadedAtKey(Long uploadedAt, int id) {
+        this.uploadedAt = uploadedAt;
+        this.id = id;
+    }
+
+    public static UploadedAtKey of(Resource resource) {
+        return new UploadedAtKey(
+            resource.getUploadedAt() != null ? resource.getUploadedAt().getTime() : null, resource.getId());
+    }
+}
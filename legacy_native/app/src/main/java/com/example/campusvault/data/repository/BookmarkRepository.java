@@ -1,38 +1,107 @@
 package com.example.campusvault.data.repository;
 
 import android.app.Application;
-import androidx.lifecycle.LiveData;
-import com.example.campusvault.data.local.AppDatabase;
-import com.example.campusvault.data.local.dao.BookmarkDao;
-import com.example.campusvault.data.models.Bookmark;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import com.example.campusvault.data.api.ApiService;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.RowDiff;
+import com.example.campusvault.data.local.database.dao.PendingMutationDao;
+import com.example.campusvault.data.local.database.dao.ResourceDao;
+import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import com.example.campusvault.data.local.database.model.ResourceListItem;
+import com.example.campusvault.data.mappers.ResourceMapper;
 import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.data.sync.MutationOutbox;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import retrofit2.HttpException;
 
+/**
+ * Bookmark state, kept as the is_bookmarked flag on cached resources.
+ *
+ * The bookmarks screen reads from Room, so it shows the last known list at once; a
+ * conditional request then revalidates it in the background. Changes made in the app go
+ * through {@link MutationOutbox}, which updates the same flag, so the list is patched in
+ * place rather than refetched.
+ */
 public class BookmarkRepository {
-    private final BookmarkDao bookmarkDao;
-    private final ExecutorService executorService;
+    private static final String TAG = "BookmarkRepository";
 
-    public BookmarkRepository(Application application) {
-        AppDatabase db = AppDatabase.getDatabase(application);
-        bookmarkDao = db.bookmarkDao();
-        executorService = Executors.newSingleThreadExecutor();
+    private static final String PREFS_NAME = "bookmark_sync";
+    private static final String KEY_ETAG = "bookmarks_etag";
+
+    private final AppDatabase db;
+    private final ResourceDao resourceDao;
+    private final PendingMutationDao pendingMutationDao;
+    private final ApiService apiService;
+    private final SharedPreferences prefs;
+
+    public BookmarkRepository(Application application, ApiService apiService) {
+        db = AppDatabase.getInstance((Context) application);
+        resourceDao = db.resourceDao();
+        pendingMutationDao = db.pendingMutationDao();
+        this.apiService = apiService;
+        prefs = application.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public Flowable<List<ResourceListItem>> getAllBookmarks() {
+        return resourceDao.getBookmarkedResources()
+                .subscribeOn(Schedulers.io());
+    }
+
+    public Flowable<List<Resource>> observeBookmarks() {
+        return resourceDao.getBookmarkedResources()
+                .map(ResourceRepository::mapListItemsToModels)
+                .subscribeOn(Schedulers.io());
     }
 
-    public LiveData<List<Bookmark>> getAllBookmarks() {
-        return bookmarkDao.getAllBookmarks();
+    /**
+     * Revalidate the cached list. A 304 writes nothing; a new list is reconciled with the
+     * cache, keeping bookmark changes the outbox has not sent yet.
+     */
+    public Completable refreshBookmarks() {
+        return Completable.defer(() -> {
+            // Only revalidate a copy we actually hold - after a wipe the list must come in full
+            String etag = resourceDao.getBookmarkedCountSync() > 0 ? prefs.getString(KEY_ETAG, null) : null;
+            return apiService.getBookmarkedResources(etag)
+                .flatMapCompletable(response -> {
+                    if (response.code() == 304) {
+                        Log.d(TAG, "Bookmarks not modified");
+                        return Completable.complete();
+                    }
+                    if (!response.isSuccessful()) {
+                        return Completable.error(new HttpException(response));
+                    }
+                    List<Resource> bookmarks = response.body() != null ? response.body() : new ArrayList<>();
+                    return Completable.fromAction(() -> {
+                        RowDiff<ResourceEntity> diff = db.runInTransaction(() -> resourceDao.reconcileBookmarks(
+                            ResourceMapper.toEntityList(bookmarks),
+                            MutationOutbox.bookmarkStates(pendingMutationDao.getBookmarkChangesSync())));
+                        prefs.edit().putString(KEY_ETAG, response.headers().get("ETag")).apply();
+                        Log.d(TAG, "Bookmarks revalidated: " + bookmarks.size() + " on server, "
+                            + diff.inserted.size() + " new, " + diff.changed.size() + " changed");
+                    });
+                });
+        }).subscribeOn(Schedulers.io());
     }
 
-    public LiveData<Boolean> isBookmarked(int resourceId) {
-        return bookmarkDao.isBookmarked(resourceId);
+    public Flowable<Boolean> isBookmarked(int resourceId) {
+        return resourceDao.isBookmarked(resourceId)
+                .subscribeOn(Schedulers.io());
     }
 
-    public void insert(int resourceId) {
-        executorService.execute(() -> bookmarkDao.insert(new Bookmark(resourceId)));
+    public Completable insert(int resourceId) {
+        return resourceDao.updateBookmarkStatus(resourceId, true)
+                .subscribeOn(Schedulers.io());
     }
 
-    public void delete(int resourceId) {
-        executorService.execute(() -> bookmarkDao.delete(resourceId));
+    public Completable delete(int resourceId) {
+        return resourceDao.updateBookmarkStatus(resourceId, false)
+                .subscribeOn(Schedulers.io());
     }
 }
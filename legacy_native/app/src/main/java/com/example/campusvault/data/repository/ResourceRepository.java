@@ -7,81 +7,105 @@ import com.example.campusvault.data.local.database.AppDatabase;
 import com.example.campusvault.data.local.database.dao.ResourceDao;
 import com.example.campusvault.data.api.ApiService;
 import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import com.example.campusvault.data.local.database.model.ResourceListItem;
+import com.example.campusvault.data.mappers.ResourceMapper;
 import com.example.campusvault.data.models.Author;
 import com.example.campusvault.data.models.CourseUnitInfo;
 import com.example.campusvault.data.models.Resource;
-import io.reactivex.rxjava3.core.Completable;
+import com.example.campusvault.data.paging.KeysetPager;
+import com.example.campusvault.data.paging.ResourceRemoteMediator;
+import com.example.campusvault.data.paging.TableInvalidations;
+import com.example.campusvault.data.paging.TrendingKey;
+import com.example.campusvault.data.paging.UploadedAtKey;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class ResourceRepository {
+    // Server page size for paged lists
+    private static final int REMOTE_PAGE_SIZE = 50;
+
+    private final AppDatabase db;
     private final ResourceDao resourceDao;
     private final ApiService apiService;
 
     public ResourceRepository(Application application, ApiService apiService) {
-        AppDatabase db = AppDatabase.getInstance((Context) application);
+        this.db = AppDatabase.getInstance((Context) application);
         this.resourceDao = db.resourceDao();
         this.apiService = apiService;
     }
 
     public Flowable<List<Resource>> getBookmarkedResources() {
         return resourceDao.getBookmarkedResources()
-                .map(this::mapEntitiesToModels)
+                .map(ResourceRepository::mapListItemsToModels)
                 .subscribeOn(Schedulers.io());
     }
 
-    // Recent Resources
-    public Flowable<List<Resource>> getRecentResources() {
-        return resourceDao.getRecentResources(20)
-                .map(this::mapEntitiesToModels)
+    /**
+     * The full cached row, for the detail screen; completes empty if it is not cached
+     */
+    public Maybe<Resource> getResource(int resourceId) {
+        return resourceDao.findResourceById(resourceId)
+                .map(entity -> mapEntitiesToModels(Collections.singletonList(entity)).get(0))
                 .subscribeOn(Schedulers.io());
     }
 
-    public Completable refreshRecentResources() {
-        return apiService.getRecentResources(1, 20)
-                .subscribeOn(Schedulers.io())
-                .map(response -> mapModelsToEntities(response.getItems()))
-                .flatMapCompletable(entities -> resourceDao.insertAll(entities));
+    // Recent Resources
+    /**
+     * A pager over every cached resource, newest first, fetching the server's recent list
+     * as it runs out
+     */
+    public KeysetPager<Resource, UploadedAtKey> pageRecentResources(KeysetPager.Config config) {
+        ResourceRemoteMediator mediator = new ResourceRemoteMediator(db, "recent", REMOTE_PAGE_SIZE,
+                apiService::getRecentResources, ResourceMapper::toEntityList);
+        return new KeysetPager<>(config,
+                (after, limit) -> mapListItemsToModels(resourceDao.getRecentPage(
+                        after != null ? after.uploadedAt : null, after != null ? after.id : null, limit)),
+                UploadedAtKey::of, mediator, TableInvalidations.observe(db, "resources"),
+                Schedulers.io(), AndroidSchedulers.mainThread());
     }
 
     // Trending Resources
-    public Flowable<List<Resource>> getTrendingResources() {
-        return resourceDao.getTrendingResources(20)
-                .map(this::mapEntitiesToModels)
-                .subscribeOn(Schedulers.io());
-    }
-
-    public Completable refreshTrendingResources() {
-        return apiService.getTrendingResources(1, 20)
-                .subscribeOn(Schedulers.io())
-                .map(response -> mapModelsToEntities(response.getItems()))
-                .flatMapCompletable(entities -> resourceDao.insertAll(entities));
+    /**
+     * A pager over every cached resource, most downloaded first, fetching the server's
+     * trending list as it runs out
+     */
+    public KeysetPager<Resource, TrendingKey> pageTrendingResources(KeysetPager.Config config) {
+        ResourceRemoteMediator mediator = new ResourceRemoteMediator(db, "trending", REMOTE_PAGE_SIZE,
+                apiService::getTrendingResources, ResourceMapper::toEntityList);
+        return new KeysetPager<>(config,
+                (after, limit) -> mapListItemsToModels(after == null
+                        ? resourceDao.getTrendingPage(0, 0f, null, limit)
+                        : resourceDao.getTrendingPage(after.downloadCount, after.averageRating, after.id, limit)),
+                TrendingKey::of, mediator, TableInvalidations.observe(db, "resources"),
+                Schedulers.io(), AndroidSchedulers.mainThread());
     }
 
     // Course Unit Resources
-    public Flowable<List<Resource>> getResourcesByCourseUnit(int courseUnitId, String type) {
-        if (type == null) {
-            return resourceDao.getResourcesByCourseUnit(courseUnitId)
-                    .map(this::mapEntitiesToModels)
-                    .subscribeOn(Schedulers.io());
-        } else {
-            return resourceDao.getResourcesByCourseUnitAndType(courseUnitId, type)
-                    .map(this::mapEntitiesToModels)
-                    .subscribeOn(Schedulers.io());
-        }
-    }
-
-    public Completable refreshResourcesByCourseUnit(int courseUnitId, String type) {
-        return apiService.getResources(1, 100, null, null, courseUnitId, null, null, type)
-                .subscribeOn(Schedulers.io())
-                .map(response -> mapModelsToEntities(response.getItems()))
-                .flatMapCompletable(entities -> resourceDao.insertAll(entities));
+    /**
+     * A pager over one course unit's resources, newest first, optionally of one type.
+     * It reads Room page by page and fetches server pages of REMOTE_PAGE_SIZE as it runs out.
+     */
+    public KeysetPager<Resource, UploadedAtKey> pageResourcesByCourseUnit(int courseUnitId, String type,
+                                                                         KeysetPager.Config config) {
+        String listKey = "course_unit:" + courseUnitId + ":" + (type != null ? type : "all");
+        ResourceRemoteMediator mediator = new ResourceRemoteMediator(db, listKey, REMOTE_PAGE_SIZE,
+                (page, pageSize) -> apiService.getResources(page, pageSize, null, null, courseUnitId, null, null, type),
+                ResourceMapper::toEntityList);
+        return new KeysetPager<>(config,
+                (after, limit) -> mapListItemsToModels(resourceDao.getCourseUnitPage(courseUnitId, type,
+                        after != null ? after.uploadedAt : null, after != null ? after.id : null, limit)),
+                UploadedAtKey::of, mediator, TableInvalidations.observe(db, "resources"),
+                Schedulers.io(), AndroidSchedulers.mainThread());
     }
 
     // Mappers
-    private List<Resource> mapEntitiesToModels(List<ResourceEntity> entities) {
+    static List<Resource> mapEntitiesToModels(List<ResourceEntity> entities) {
         return entities.stream().map(e -> {
             Resource r = new Resource();
             r.setId(e.getId());
@@ -114,46 +138,36 @@ public class ResourceRepository {
         }).collect(Collectors.toList());
     }
 
-    private List<ResourceEntity> mapModelsToEntities(List<Resource> models) {
-        return models.stream().map(m -> {
-            ResourceEntity e = new ResourceEntity();
-            e.setId(m.getId());
-            e.setTitle(m.getTitle() != null ? m.getTitle() : "Untitled");
-            e.setDescription(m.getDescription());
-            e.setFileUrl(m.getFileUrl());
-            e.setThumbnailUrl(m.getThumbnailUrl());
-            e.setFileType(m.getFileType());
-            e.setFileSize(m.getFileSize());
-            e.setDownloadCount(m.getDownloadCount());
-            e.setAverageRating(m.getAverageRating());
-            e.setBookmarked(m.isBookmarked());
-            e.setUploadedAt(m.getUploadedAt());
-            
-            // Handle author - may be null or present
-            if (m.getAuthor() != null) {
-                e.setAuthorId(m.getAuthor().getId());
-                e.setAuthorName(m.getAuthor().getName());
-            } else {
-                e.setAuthorId(0);
-                e.setAuthorName("Unknown");
-            }
-            
-            // Handle course unit - may be null or present  
-            if (m.getCourseUnit() != null) {
-                e.setCourseUnitId(m.getCourseUnit().getId());
-                e.setCourseUnitName(m.getCourseUnit().getName());
-            } else if (m.getCourseUnitId() != null) {
-                // Use direct course_unit_id from API
-                e.setCourseUnitId(m.getCourseUnitId());
-                e.setCourseUnitName(null);
-            } else {
-                e.setCourseUnitId(null);
-                e.setCourseUnitName(null);
-            }
-            
-            e.setTags(m.getTags());
-            e.setResourceType(m.getResourceType());
-            return e;
-        }).collect(Collectors.toList());
+    /**
+     * Models for list cells: the description is only a preview, and file URL and tags are unset
+     */
+    static List<Resource> mapListItemsToModels(List<ResourceListItem> items) {
+        List<Resource> resources = new ArrayList<>(items.size());
+        for (ResourceListItem item : items) {
+            Resource r = new Resource();
+            r.setId(item.id);
+            r.setTitle(item.title);
+            r.setDescription(item.descriptionPreview);
+            r.setThumbnailUrl(item.thumbnailUrl);
+            r.setFileType(item.fileType);
+            r.setFileSize(item.fileSize);
+            r.setResourceType(item.resourceType);
+            r.setDownloadCount(item.downloadCount);
+            r.setAverageRating(item.averageRating);
+            r.setBookmarked(item.isBookmarked);
+            r.setUploadedAt(item.uploadedAt);
+
+            Author author = new Author();
+            author.setId(item.authorId);
+            author.setName(item.authorName);
+            r.setAuthor(author);
+
+            CourseUnitInfo cu = new CourseUnitInfo();
+            cu.setId(item.courseUnitId != null ? item.courseUnitId : 0);
+            cu.setName(item.courseUnitName);
+            r.setCourseUnit(cu);
+            resources.add(r);
+        }
+        return resources;
     }
 }
@@ -55,7 +55,7 @@ public class UniversityRepository {
         return api.getPrograms(facultyId)
                 .subscribeOn(Schedulers.io())
                 .map(this::mapProgramResponsesToEntities)
-                .flatMapCompletable(entities -> Completable.fromAction(() -> dao.updatePrograms(entities)));
+                .flatMapCompletable(entities -> Completable.fromAction(() -> dao.updateProgramsForFaculty(facultyId, entities)));
     }
 
     // Course Unit - ACCEPTS NULLABLE INTEGERS
@@ -85,7 +85,7 @@ public class UniversityRepository {
         return api.getCourseUnits(programId, year, semester)
                 .subscribeOn(Schedulers.io())
                 .map(this::mapCourseUnitModelsToEntities)
-                .flatMapCompletable(entities -> Completable.fromAction(() -> dao.updateCourseUnits(entities)));
+                .flatMapCompletable(entities -> Completable.fromAction(() -> dao.updateCourseUnits(programId, year, semester, entities)));
     }
 
     // Mappers
@@ -0,0 +1,93 @@
+package com.example.campusvault.data.sync;
+
+/**
+ * Picks how often and how much to sync from the device's situation: network type and
+ * metering, battery, and how often recent syncs actually found changes ("churn").
+ * Plain Java so the rules can be checked without a device.
+ */
+public final class AdaptiveSyncPolicy {
+
+    static final long UNMETERED_INTERVAL_HOURS = 6;
+    static final long METERED_INTERVAL_HOURS = 12;
+    static final long MIN_INTERVAL_HOURS = 3;
+    static final long MAX_INTERVAL_HOURS = 24;
+
+    static final int UNMETERED_PAGE_SIZE = 500;
+    static final int METERED_PAGE_SIZE = 100;
+    // Delta pages per stage on a metered network; the rest waits for the next run
+    static final int METERED_MAX_PAGES = 2;
+
+    // Fraction of recent runs that wrote rows, below / above which the interval stretches / shrinks
+    static final double LOW_CHURN = 0.2;
+    static final double HIGH_CHURN = 0.6;
+
+    private AdaptiveSyncPolicy() {
+    }
+
+    public static final class Conditions {
+        public final boolean metered;
+        public final boolean batteryLow;
+        public final boolean charging;
+        // 0..1, or negative when there is no history yet
+        public final double churn;
+
+        public Conditions(boolean metered, boolean batteryLow, boolean charging, double churn) {
+            this.metered = metered;
+            this.batteryLow = batteryLow;
+            this.charging = charging;
+            this.churn = churn;
+        }
+
+        @Override
+        public String toString() {
+            return (metered ? "metered" : "unmetered") + (batteryLow ? ", battery low" : "")
+                + (charging ? ", charging" : "") + (churn >= 0 ? ", churn " + Math.round(churn * 100) + "%" : "");
+        }
+    }
+
+    public static final class Decision {
+        public final long intervalHours;
+        public final int pageSize;
+        // 0 means no limit
+        public final int maxDeltaPages;
+        // Full resource refetches (no delta feed) are heavy - only on unmetered networks
+        public final boolean allowFullResourceSync;
+        public final boolean requireBatteryNotLow;
+
+        Decision(long intervalHours, int pageSize, int maxDeltaPages,
+                 boolean allowFullResourceSync, boolean requireBatteryNotLow) {
+            this.intervalHours = intervalHours;
+            this.pageSize = pageSize;
+            this.maxDeltaPages = maxDeltaPages;
+            this.allowFullResourceSync = allowFullResourceSync;
+            this.requireBatteryNotLow = requireBatteryNotLow;
+        }
+
+        @Override
+        public String toString() {
+            return "every " + intervalHours + "h, pages of " + pageSize
+                + (maxDeltaPages > 0 ? " (max " + maxDeltaPages + ")" : "")
+                + (allowFullResourceSync ? "" : ", full resource sync deferred")
+                + (requireBatteryNotLow ? ", needs battery" : "");
+        }
+    }
+
+    public static Decision decide(Conditions conditions) {
+        long interval = conditions.metered ? METERED_INTERVAL_HOURS : UNMETERED_INTERVAL_HOURS;
+        if (conditions.churn >= 0 && conditions.churn < LOW_CHURN) {
+            interval *= 2;
+        } else if (conditions.churn > HIGH_CHURN) {
+            interval /= 2;
+        }
+        boolean saveBattery = conditions.batteryLow && !conditions.charging;
+        if (saveBattery) {
+            interval *= 2;
+        }
+        interval = Math.max(MIN_INTERVAL_HOURS, Math.min(MAX_INTERVAL_HOURS, interval));
+
+        if (conditions.metered) {
+            return new Decision(interval, METERED_PAGE_SIZE, METERED_MAX_PAGES, false, saveBattery);
+        }
+        return new Decision(interval, UNMETERED_PAGE_SIZE, 0, true, saveBattery);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.campusvault.data.sync;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+import com.example.campusvault.data.models.ChangeSet;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Pulls a stage's delta feed page by page and keeps its cursor and ETag in the sync
+ * preferences between runs
+ */
+final class DeltaSync {
+
+    private static final String TAG = "DeltaSync";
+
+    // Delta sync state per stage: the server's cursor and the ETag of the last page seen
+    static final String KEY_CURSOR_PREFIX = "delta_cursor_";
+    static final String KEY_ETAG_PREFIX = "delta_etag_";
+
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int HTTP_GONE = 410;
+
+    private final SharedPreferences prefs;
+
+    DeltaSync(SharedPreferences prefs) {
+        this.prefs = prefs;
+    }
+
+    /** Fetches one page of a stage's delta feed */
+    interface ChangeFetcher<T> {
+        Single<Response<ChangeSet<T>>> fetch(String cursor, Integer limit, String etag);
+    }
+
+    /** Writes one page of changes to Room in a single transaction */
+    interface ChangeApplier<T> {
+        void apply(List<T> changed, List<Integer> deletedIds);
+    }
+
+    /**
+     * Pull a stage's changes since its stored cursor, one page per transaction, saving the
+     * new cursor after each page. The last page's ETag is sent back as If-None-Match, so a
+     * sync with nothing new costs a single 304 with no body.
+     *
+     * @param maxPages pages to pull in this run, or 0 for all; the rest wait for the next run
+     * @return false if the server has no delta feed for this stage, or no longer remembers
+     *         the cursor; the caller then falls back to a full refetch
+     */
+    <T> boolean sync(String stage, int pageSize, int maxPages, ChangeFetcher<T> fetcher,
+                     ChangeApplier<T> applier) throws Exception {
+        String cursorKey = KEY_CURSOR_PREFIX + stage;
+        String etagKey = KEY_ETAG_PREFIX + stage;
+        String cursor = prefs.getString(cursorKey, null);
+        String etag = prefs.getString(etagKey, null);
+        int changed = 0;
+        int deleted = 0;
+        int pages = 0;
+
+        while (true) {
+            Response<ChangeSet<T>> response = fetcher.fetch(cursor, pageSize, etag).blockingGet();
+            int code = response.code();
+            if (code == HTTP_NOT_MODIFIED) {
+                Log.d(TAG, "No " + stage + " changes since last sync");
+                return true;
+            }
+            if (code == HTTP_NOT_FOUND) {
+                return false;
+            }
+            if (code == HTTP_GONE) {
+                // Cursor is older than the server keeps tombstones for - start over from a full fetch
+                Log.w(TAG, "Delta cursor for " + stage + " expired, resyncing in full");
+                prefs.edit().remove(cursorKey).remove(etagKey).apply();
+                return false;
+            }
+            ChangeSet<T> page = response.body();
+            if (!response.isSuccessful() || page == null) {
+                throw new HttpException(response);
+            }
+
+            applier.apply(page.getItems(), page.getDeletedIds());
+            changed += page.getItems().size();
+            deleted += page.getDeletedIds().size();
+
+            // Only the final page's ETag describes the whole feed
+            cursor = page.getCursor();
+            etag = page.isHasMore() ? null : response.headers().get("ETag");
+            prefs.edit().putString(cursorKey, cursor).putString(etagKey, etag).apply();
+            if (!page.isHasMore()) {
+                break;
+            }
+            if (maxPages > 0 && ++pages >= maxPages) {
+                Log.d(TAG, "More " + stage + " changes pending - continuing next sync");
+                break;
+            }
+        }
+        Log.d(TAG, "Synced " + stage + " delta: " + changed + " changed, " + deleted + " deleted");
+        return true;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.campusvault.data.sync;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.dao.PendingMutationDao;
+import com.example.campusvault.data.local.database.dao.ResourceDao;
+import com.example.campusvault.data.local.database.entity.PendingMutationEntity;
+import com.example.campusvault.data.models.CommentRequest;
+import com.example.campusvault.data.models.RatingRequest;
+import com.google.gson.Gson;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline outbox for bookmark changes, ratings, comments and download records.
+ *
+ * Each action is applied to the local cache straight away and queued in Room; {@link OutboxWorker}
+ * sends the queue once a network is available. A short delay before each flush lets a burst
+ * of taps go out in one run, and queued actions on the same thing are coalesced before that.
+ */
+public class MutationOutbox {
+
+    private static final String TAG = "MutationOutbox";
+
+    static final String OUTBOX_WORK = "mutation_outbox";
+    private static final long FLUSH_DELAY_SECONDS = 5;
+
+    private static volatile MutationOutbox instance;
+    private final WorkManager workManager;
+    private final PendingMutationDao dao;
+    private final ResourceDao resourceDao;
+    private final Gson gson = new Gson();
+
+    private MutationOutbox(Context context) {
+        this.workManager = WorkManager.getInstance(context);
+        AppDatabase db = AppDatabase.getInstance(context);
+        this.dao = db.pendingMutationDao();
+        this.resourceDao = db.resourceDao();
+    }
+
+    public static MutationOutbox getInstance(Context context) {
+        if (instance == null) {
+            synchronized (MutationOutbox.class) {
+                if (instance == null) {
+                    instance = new MutationOutbox(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    public Completable bookmark(int resourceId) {
+        return resourceDao.updateBookmarkStatus(resourceId, true)
+            .andThen(enqueue(PendingMutationEntity.TYPE_BOOKMARK, resourceId, null))
+            .subscribeOn(Schedulers.io());
+    }
+
+    public Completable unbookmark(int resourceId) {
+        return resourceDao.updateBookmarkStatus(resourceId, false)
+            .andThen(enqueue(PendingMutationEntity.TYPE_UNBOOKMARK, resourceId, null))
+            .subscribeOn(Schedulers.io());
+    }
+
+    public Completable rate(int resourceId, int rating) {
+        return enqueue(PendingMutationEntity.TYPE_RATE, resourceId, gson.toJson(new RatingRequest(rating)));
+    }
+
+    public Completable comment(int resourceId, String body) {
+        return enqueue(PendingMutationEntity.TYPE_COMMENT, resourceId, gson.toJson(new CommentRequest(body)));
+    }
+
+    public Completable recordDownload(int resourceId) {
+        return resourceDao.incrementDownloadCount(resourceId)
+            .andThen(enqueue(PendingMutationEntity.TYPE_DOWNLOAD, resourceId, null))
+            .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Actions on one resource the server has not seen yet, oldest first, so a screen
+     * loading the server's copy can lay them over it
+     */
+    public Single<List<PendingMutationEntity>> pendingFor(int resourceId) {
+        return dao.getForResource(resourceId).subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Resource id to the bookmark state the server will have once the outbox is sent
+     */
+    public Single<Map<Integer, Boolean>> pendingBookmarkStates() {
+        return dao.getBookmarkChanges()
+            .map(MutationOutbox::bookmarkStates)
+            .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * The bookmark state each change leaves behind; later changes to the same resource win
+     */
+    public static Map<Integer, Boolean> bookmarkStates(List<PendingMutationEntity> changes) {
+        Map<Integer, Boolean> states = new HashMap<>();
+        for (PendingMutationEntity change : changes) {
+            if (change.isBookmarkChange()) {
+                states.put(change.getResourceId(), PendingMutationEntity.TYPE_BOOKMARK.equals(change.getType()));
+            }
+        }
+        return states;
+    }
+
+    public int ratingOf(PendingMutationEntity mutation) {
+        return gson.fromJson(mutation.getPayload(), RatingRequest.class).getRating();
+    }
+
+    public String commentOf(PendingMutationEntity mutation) {
+        return gson.fromJson(mutation.getPayload(), CommentRequest.class).getBody();
+    }
+
+    private Completable enqueue(String type, int resourceId, String payload) {
+        return Completable.fromAction(() -> {
+                boolean queued = dao.enqueue(PendingMutationEntity.create(type, resourceId, payload));
+                Log.d(TAG, (queued ? "Queued " : "Cancelled out ") + type + " for resource " + resourceId);
+            })
+            .doOnComplete(this::scheduleFlush)
+            .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Send the outbox once any network is available. Each run drains the whole queue, so a
+     * flush that is still waiting to start is kept as it is; one already running may have
+     * read its last batch, so a single follow-up run is appended behind it.
+     */
+    public void scheduleFlush() {
+        Constraints constraints = new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OutboxWorker.class)
+            .setConstraints(constraints)
+            .setInitialDelay(FLUSH_DELAY_SECONDS, TimeUnit.SECONDS)
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+            .addTag(OUTBOX_WORK)
+            .build();
+
+        workManager.enqueueUniqueWork(OUTBOX_WORK, flushPolicy(), request);
+    }
+
+    /**
+     * APPEND_OR_REPLACE only while a flush runs with nothing queued behind it, so the chain
+     * never grows past one waiting run however many actions come in
+     */
+    private ExistingWorkPolicy flushPolicy() {
+        boolean running = false;
+        try {
+            for (WorkInfo info : workManager.getWorkInfosForUniqueWork(OUTBOX_WORK).get()) {
+                if (info.getState() == WorkInfo.State.ENQUEUED || info.getState() == WorkInfo.State.BLOCKED) {
+                    return ExistingWorkPolicy.KEEP;
+                }
+                running |= info.getState() == WorkInfo.State.RUNNING;
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read outbox work state", e);
+        }
+        return running ? ExistingWorkPolicy.APPEND_OR_REPLACE : ExistingWorkPolicy.KEEP;
+    }
+}
@@ -104,6 +104,14 @@ public class NetworkMonitor {
         return networkState;
     }
 
+    /**
+     * Whether the active network is metered, read directly from the system (cellular, and
+     * Wi-Fi hotspots marked as metered). True when offline or unknown.
+     */
+    public boolean isMetered() {
+        return connectivityManager == null || connectivityManager.isActiveNetworkMetered();
+    }
+
     /**
      * Check if connected to unmetered network (WiFi)
      */
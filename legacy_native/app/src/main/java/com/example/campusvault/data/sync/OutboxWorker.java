@@ -0,0 +1,154 @@
+package com.example.campusvault.data.sync;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.campusvault.data.api.ApiClient;
+import com.example.campusvault.data.api.ApiService;
+import com.example.campusvault.data.local.EncryptedPreferencesManager;
+import com.example.campusvault.data.local.SharedPreferencesManager;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.dao.PendingMutationDao;
+import com.example.campusvault.data.local.database.entity.PendingMutationEntity;
+import com.example.campusvault.data.models.CommentRequest;
+import com.example.campusvault.data.models.RatingRequest;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import retrofit2.HttpException;
+
+/**
+ * Sends the offline mutation outbox, oldest first, in batches of {@link #BATCH_SIZE}.
+ *
+ * A transient failure (no network, timeout, 5xx, 408/429, expired session) stops the run and
+ * leaves the rest queued for a retry; since every request carries its row's idempotency key,
+ * replaying one the server already applied is harmless. A row that has failed
+ * {@link #MAX_ATTEMPTS} times is dropped rather than holding up the queue behind it. Any other
+ * 4xx means the server will never accept it (e.g. the resource was deleted), so the row is
+ * dropped, as is one whose payload cannot be read back.
+ */
+public class OutboxWorker extends Worker {
+
+    private static final String TAG = "OutboxWorker";
+
+    private static final int BATCH_SIZE = 50;
+    // Failed sends per row, counting only rows actually tried, before it is given up on
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final PendingMutationDao dao;
+    private final ApiService api;
+    private final Gson gson = new Gson();
+
+    public OutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+
+        SharedPreferencesManager spm = new SharedPreferencesManager(context);
+        EncryptedPreferencesManager epm = new EncryptedPreferencesManager(context);
+        this.api = ApiClient.getInstance(spm, epm).getApiService();
+        this.dao = AppDatabase.getInstance(context).pendingMutationDao();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        // Unique work, so nothing else is sending: anything still claimed was left by a dead run
+        dao.releaseClaimed();
+
+        int sent = 0;
+        int dropped = 0;
+        try {
+            while (!isStopped()) {
+                List<PendingMutationEntity> batch = dao.getQueuedSync(BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<>(batch.size());
+                for (PendingMutationEntity mutation : batch) {
+                    ids.add(mutation.getId());
+                }
+                dao.claim(ids);
+
+                for (PendingMutationEntity mutation : batch) {
+                    if (isStopped()) {
+                        return Result.retry();
+                    }
+                    try {
+                        send(mutation);
+                        sent++;
+                    } catch (Throwable raw) {
+                        Throwable error = unwrap(raw);
+                        if (isTransient(error) && mutation.getAttempts() + 1 < MAX_ATTEMPTS) {
+                            Log.w(TAG, "Outbox flush stopped at " + mutation.getType()
+                                + " for resource " + mutation.getResourceId() + ", will retry", error);
+                            dao.recordFailure(mutation.getId(), String.valueOf(error.getMessage()));
+                            return Result.retry();
+                        }
+                        Log.e(TAG, "Dropping " + mutation.getType() + " for resource "
+                            + mutation.getResourceId() + ", " + dropReason(error), error);
+                        dropped++;
+                    }
+                    dao.delete(mutation.getId());
+                }
+            }
+        } finally {
+            dao.releaseClaimed();
+            Log.d(TAG, "Outbox flush sent " + sent + ", dropped " + dropped);
+        }
+        return isStopped() ? Result.retry() : Result.success();
+    }
+
+    private void send(PendingMutationEntity mutation) {
+        int resourceId = mutation.getResourceId();
+        String key = mutation.getIdempotencyKey();
+        switch (mutation.getType()) {
+            case PendingMutationEntity.TYPE_BOOKMARK:
+                api.bookmarkResource(resourceId, key).blockingAwait();
+                break;
+            case PendingMutationEntity.TYPE_UNBOOKMARK:
+                api.unbookmarkResource(resourceId, key).blockingAwait();
+                break;
+            case PendingMutationEntity.TYPE_RATE:
+                api.rateResource(resourceId, gson.fromJson(mutation.getPayload(), RatingRequest.class), key)
+                    .blockingGet();
+                break;
+            case PendingMutationEntity.TYPE_COMMENT:
+                api.addComment(resourceId, gson.fromJson(mutation.getPayload(), CommentRequest.class), key)
+                    .blockingGet();
+                break;
+            case PendingMutationEntity.TYPE_DOWNLOAD:
+                api.recordDownload(resourceId, key).blockingGet();
+                break;
+            default:
+                Log.w(TAG, "Unknown mutation type " + mutation.getType());
+        }
+    }
+
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof HttpException) {
+            int code = ((HttpException) error).code();
+            return code >= 500 || code == 401 || code == 408 || code == 429;
+        }
+        return error instanceof IOException;
+    }
+
+    private static String dropReason(Throwable error) {
+        if (error instanceof JsonParseException) {
+            return "unreadable payload";
+        }
+        return isTransient(error) ? "gave up after " + MAX_ATTEMPTS + " attempts" : "rejected by server";
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        // blockingGet wraps checked exceptions in a plain RuntimeException. Subclasses are left
+        // alone: Gson's JsonSyntaxException wraps a MalformedJsonException, which is an
+        // IOException and would otherwise pass for a network failure.
+        if (error.getClass() == RuntimeException.class && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.campusvault.data.sync;
 
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.os.BatteryManager;
 import android.util.Log;
 import androidx.work.BackoffPolicy;
 import androidx.work.Constraints;
@@ -9,6 +13,7 @@ import androidx.work.ExistingPeriodicWorkPolicy;
 import androidx.work.ExistingWorkPolicy;
 import androidx.work.NetworkType;
 import androidx.work.OneTimeWorkRequest;
+import androidx.work.OutOfQuotaPolicy;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkInfo;
 import androidx.work.WorkManager;
@@ -24,15 +29,21 @@ public class SyncManager {
     private static final String PERIODIC_SYNC_WORK = "periodic_sync";
     private static final String ONE_TIME_SYNC_WORK = "one_time_sync";
     
-    // Sync intervals
-    private static final long PERIODIC_SYNC_INTERVAL_HOURS = 6;
-    private static final long FLEX_INTERVAL_HOURS = 2;
+    private static final String DEFERRED_SYNC_WORK = "deferred_sync";
+    
+    // Flex window as a share of the interval chosen by AdaptiveSyncPolicy
+    private static final int FLEX_DIVISOR = 3;
+    private static final String KEY_SCHEDULED_POLICY = "scheduled_sync_policy";
+    // Runs that feed the churn estimate
+    static final int CHURN_WINDOW_RUNS = 20;
     
     private static volatile SyncManager instance;
+    private final Context appContext;
     private final WorkManager workManager;
     private final NetworkMonitor networkMonitor;
 
     private SyncManager(Context context) {
+        this.appContext = context.getApplicationContext();
         this.workManager = WorkManager.getInstance(context);
         this.networkMonitor = NetworkMonitor.getInstance(context);
     }
@@ -49,22 +60,43 @@ public class SyncManager {
     }
 
     /**
-     * Schedule periodic background sync.
-     * Runs every 6 hours when device is connected to network.
+     * Network, battery and churn right now, as inputs for {@link AdaptiveSyncPolicy}
+     */
+    public AdaptiveSyncPolicy.Conditions currentConditions() {
+        boolean batteryLow = false;
+        boolean charging = false;
+        Intent battery = appContext.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery != null) {
+            int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+            int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+            int status = battery.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
+            batteryLow = level >= 0 && scale > 0 && level * 100 / scale <= 15;
+            charging = status == BatteryManager.BATTERY_STATUS_CHARGING || status == BatteryManager.BATTERY_STATUS_FULL;
+        }
+        float churn = syncPrefs().getFloat(SyncWorker.KEY_RECENT_CHURN, -1f);
+        return new AdaptiveSyncPolicy.Conditions(networkMonitor.isMetered(), batteryLow, charging, churn);
+    }
+
+    /**
+     * Schedule periodic background sync. The interval and battery constraint come from
+     * {@link AdaptiveSyncPolicy}: roughly every 6 hours on Wi-Fi, 12 on cellular, stretched
+     * when syncs keep finding nothing and shrunk when they keep finding changes.
      */
     public void schedulePeriodicSync() {
-        Log.d(TAG, "Scheduling periodic sync");
+        AdaptiveSyncPolicy.Decision decision = AdaptiveSyncPolicy.decide(currentConditions());
+        Log.d(TAG, "Scheduling periodic sync: " + decision);
         
         Constraints constraints = new Constraints.Builder()
             .setRequiredNetworkType(NetworkType.CONNECTED)
+            .setRequiresBatteryNotLow(decision.requireBatteryNotLow)
             .build();
 
         PeriodicWorkRequest syncRequest = new PeriodicWorkRequest.Builder(
                 SyncWorker.class,
-                PERIODIC_SYNC_INTERVAL_HOURS,
+                decision.intervalHours,
                 TimeUnit.HOURS,
-                FLEX_INTERVAL_HOURS,
-                TimeUnit.HOURS
+                decision.intervalHours * 60 / FLEX_DIVISOR,
+                TimeUnit.MINUTES
             )
             .setConstraints(constraints)
             .setBackoffCriteria(
@@ -78,9 +110,55 @@ public class SyncManager {
             .addTag(PERIODIC_SYNC_WORK)
             .build();
 
+        // UPDATE keeps the existing schedule's timing (and any run in progress)
         workManager.enqueueUniquePeriodicWork(
             PERIODIC_SYNC_WORK,
-            ExistingPeriodicWorkPolicy.KEEP,
+            ExistingPeriodicWorkPolicy.UPDATE,
+            syncRequest
+        );
+        syncPrefs().edit().putString(KEY_SCHEDULED_POLICY, policyKey(decision)).apply();
+    }
+
+    /**
+     * Re-schedule the periodic sync if conditions now call for a different interval
+     */
+    public void adaptPeriodicSync() {
+        AdaptiveSyncPolicy.Decision decision = AdaptiveSyncPolicy.decide(currentConditions());
+        if (!policyKey(decision).equals(syncPrefs().getString(KEY_SCHEDULED_POLICY, null))) {
+            schedulePeriodicSync();
+        }
+    }
+
+    private static String policyKey(AdaptiveSyncPolicy.Decision decision) {
+        return decision.intervalHours + ":" + decision.requireBatteryNotLow;
+    }
+
+    private SharedPreferences syncPrefs() {
+        return appContext.getSharedPreferences(SyncWorker.SYNC_PREFS, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Run a sync for {@code syncType} once the device is on an unmetered network - for work
+     * too heavy to do over cellular
+     */
+    public void requestUnmeteredSync(String syncType) {
+        Log.d(TAG, "Deferring sync to unmetered network: " + syncType);
+        
+        Constraints constraints = new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.UNMETERED)
+            .build();
+
+        OneTimeWorkRequest syncRequest = new OneTimeWorkRequest.Builder(SyncWorker.class)
+            .setConstraints(constraints)
+            .setInputData(new Data.Builder()
+                .putString(SyncWorker.SYNC_TYPE_KEY, syncType)
+                .build())
+            .addTag(DEFERRED_SYNC_WORK)
+            .build();
+
+        workManager.enqueueUniqueWork(
+            DEFERRED_SYNC_WORK + "_" + syncType,
+            ExistingWorkPolicy.KEEP,
             syncRequest
         );
     }
@@ -89,13 +167,18 @@ public class SyncManager {
      * Request an immediate sync if online.
      */
     public void requestImmediateSync() {
-        requestSync(SyncWorker.SYNC_TYPE_ALL);
+        requestSync(SyncWorker.SYNC_TYPE_ALL, false);
     }
 
     /**
-     * Request sync for specific data type.
+     * Request sync for specific data type. Runs as expedited work and its stage jumps
+     * ahead of the others in the worker's plan, since the user is waiting on it.
      */
     public void requestSync(String syncType) {
+        requestSync(syncType, true);
+    }
+
+    private void requestSync(String syncType, boolean userRequested) {
         if (!networkMonitor.isOnline()) {
             Log.d(TAG, "Skipping sync - offline");
             return;
@@ -107,13 +190,17 @@ public class SyncManager {
             .setRequiredNetworkType(NetworkType.CONNECTED)
             .build();
 
-        OneTimeWorkRequest syncRequest = new OneTimeWorkRequest.Builder(SyncWorker.class)
+        OneTimeWorkRequest.Builder builder = new OneTimeWorkRequest.Builder(SyncWorker.class)
             .setConstraints(constraints)
             .setInputData(new Data.Builder()
                 .putString(SyncWorker.SYNC_TYPE_KEY, syncType)
+                .putBoolean(SyncWorker.USER_REQUESTED_KEY, userRequested)
                 .build())
-            .addTag(ONE_TIME_SYNC_WORK)
-            .build();
+            .addTag(ONE_TIME_SYNC_WORK);
+        if (userRequested) {
+            builder.setExpedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST);
+        }
+        OneTimeWorkRequest syncRequest = builder.build();
 
         workManager.enqueueUniqueWork(
             ONE_TIME_SYNC_WORK + "_" + syncType,
@@ -156,6 +243,7 @@ public class SyncManager {
     public void cancelAllSync() {
         workManager.cancelAllWorkByTag(PERIODIC_SYNC_WORK);
         workManager.cancelAllWorkByTag(ONE_TIME_SYNC_WORK);
+        workManager.cancelAllWorkByTag(DEFERRED_SYNC_WORK);
     }
 
     /**
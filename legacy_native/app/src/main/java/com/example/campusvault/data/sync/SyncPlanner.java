@@ -0,0 +1,355 @@
+package com.example.campusvault.data.sync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Plans and runs sync stages as a dependency graph. Each stage has a freshness window,
+ * a priority and the stages it has to wait for. A plan skips stages that are still fresh;
+ * running it starts every stage whose dependencies are done, highest priority first, and
+ * records when each one started and finished.
+ *
+ * Plain Java with no Android types, so plans and their timings can be checked in unit tests.
+ */
+public final class SyncPlanner {
+
+    /** Work done by one stage */
+    public interface StageTask {
+        void run() throws Exception;
+    }
+
+    public static final class Stage {
+        public final String name;
+        public final long freshForMs;
+        public final int priority;
+        public final List<String> dependsOn;
+        final StageTask task;
+
+        Stage(String name, long freshForMs, int priority, List<String> dependsOn, StageTask task) {
+            this.name = name;
+            this.freshForMs = freshForMs;
+            this.priority = priority;
+            this.dependsOn = dependsOn;
+            this.task = task;
+        }
+    }
+
+    private final Map<String, Stage> stages;
+
+    private SyncPlanner(Map<String, Stage> stages) {
+        this.stages = stages;
+    }
+
+    public static final class Builder {
+        private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+        /**
+         * @param freshForMs how long after a successful sync the stage can be skipped
+         * @param priority   higher starts first when several stages are ready at once
+         * @param dependsOn  stages that must finish first whenever they run in the same plan
+         */
+        public Builder stage(String name, long freshForMs, int priority, StageTask task, String... dependsOn) {
+            if (stages.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate stage " + name);
+            }
+            List<String> deps = new ArrayList<>();
+            Collections.addAll(deps, dependsOn);
+            stages.put(name, new Stage(name, freshForMs, priority, Collections.unmodifiableList(deps), task));
+            return this;
+        }
+
+        public SyncPlanner build() {
+            for (Stage stage : stages.values()) {
+                for (String dep : stage.dependsOn) {
+                    if (!stages.containsKey(dep)) {
+                        throw new IllegalArgumentException(stage.name + " depends on unknown stage " + dep);
+                    }
+                }
+            }
+            Set<String> done = new HashSet<>();
+            for (String name : stages.keySet()) {
+                checkAcyclic(name, new HashSet<>(), done);
+            }
+            return new SyncPlanner(Collections.unmodifiableMap(new LinkedHashMap<>(stages)));
+        }
+
+        private void checkAcyclic(String name, Set<String> path, Set<String> done) {
+            if (done.contains(name)) {
+                return;
+            }
+            if (!path.add(name)) {
+                throw new IllegalArgumentException("Dependency cycle through " + name);
+            }
+            for (String dep : stages.get(name).dependsOn) {
+                checkAcyclic(dep, path, done);
+            }
+            path.remove(name);
+            done.add(name);
+        }
+    }
+
+    /**
+     * Decide which stages to run.
+     *
+     * @param requested     stages asked for by name; empty means every stage
+     * @param force         run requested stages even when they are fresh
+     * @param userRequested the user asked for this sync - requested stages jump ahead of
+     *                      the rest regardless of their priority
+     * @param lastSyncAt    last successful sync per stage, in epoch ms (0 if never)
+     */
+    public Plan plan(Collection<String> requested, boolean force, boolean userRequested,
+                     long now, ToLongFunction<String> lastSyncAt) {
+        for (String name : requested) {
+            if (!stages.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown stage " + name);
+            }
+        }
+        List<PlannedStage> entries = new ArrayList<>(stages.size());
+        for (Stage stage : stages.values()) {
+            boolean inScope = requested.isEmpty() || requested.contains(stage.name);
+            boolean boosted = userRequested && !requested.isEmpty() && inScope;
+            long lastSync = lastSyncAt.applyAsLong(stage.name);
+            long age = now - lastSync;
+            if (!inScope) {
+                entries.add(new PlannedStage(stage, false, boosted, "not requested"));
+            } else if (force) {
+                entries.add(new PlannedStage(stage, true, boosted, "forced"));
+            } else if (lastSync <= 0) {
+                entries.add(new PlannedStage(stage, true, boosted, "never synced"));
+            } else if (age > stage.freshForMs) {
+                entries.add(new PlannedStage(stage, true, boosted, "stale for " + age / 1000 + "s"));
+            } else {
+                entries.add(new PlannedStage(stage, false, boosted, "fresh for another " + (stage.freshForMs - age) / 1000 + "s"));
+            }
+        }
+        return new Plan(entries);
+    }
+
+    /** One stage's place in a plan and why it runs or doesn't */
+    public static final class PlannedStage {
+        public final Stage stage;
+        public final boolean run;
+        public final boolean boosted;
+        public final String reason;
+
+        PlannedStage(Stage stage, boolean run, boolean boosted, String reason) {
+            this.stage = stage;
+            this.run = run;
+            this.boosted = boosted;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return stage.name + (run ? " RUN" : " SKIP") + (boosted ? " (user)" : "") + ": " + reason;
+        }
+    }
+
+    public static final class Plan {
+        public final List<PlannedStage> stages;
+
+        Plan(List<PlannedStage> stages) {
+            this.stages = Collections.unmodifiableList(stages);
+        }
+
+        public List<String> stagesToRun() {
+            List<String> names = new ArrayList<>();
+            for (PlannedStage entry : stages) {
+                if (entry.run) {
+                    names.add(entry.stage.name);
+                }
+            }
+            return names;
+        }
+
+        @Override
+        public String toString() {
+            return stages.toString();
+        }
+    }
+
+    public enum Outcome { SUCCEEDED, FAILED, SKIPPED }
+
+    /** What happened to one stage, with times read from the clock given to {@link #execute} */
+    public static final class StageResult {
+        public final String name;
+        public final Outcome outcome;
+        public final String reason;
+        public final long startedAtMs;
+        public final long finishedAtMs;
+        public final Exception error;
+
+        StageResult(String name, Outcome outcome, String reason, long startedAtMs, long finishedAtMs, Exception error) {
+            this.name = name;
+            this.outcome = outcome;
+            this.reason = reason;
+            this.startedAtMs = startedAtMs;
+            this.finishedAtMs = finishedAtMs;
+            this.error = error;
+        }
+
+        public long durationMs() {
+            return finishedAtMs - startedAtMs;
+        }
+
+        @Override
+        public String toString() {
+            return outcome == Outcome.SKIPPED
+                ? name + " skipped (" + reason + ")"
+                : name + " " + outcome + " in " + durationMs() + "ms";
+        }
+    }
+
+    public static final class Report {
+        public final List<StageResult> results;
+        public final long startedAtMs;
+        public final long finishedAtMs;
+
+        Report(List<StageResult> results, long startedAtMs, long finishedAtMs) {
+            this.results = Collections.unmodifiableList(results);
+            this.startedAtMs = startedAtMs;
+            this.finishedAtMs = finishedAtMs;
+        }
+
+        public long durationMs() {
+            return finishedAtMs - startedAtMs;
+        }
+
+        /** Rethrow the first stage failure, if any */
+        public void throwIfFailed() throws Exception {
+            for (StageResult result : results) {
+                if (result.outcome == Outcome.FAILED) {
+                    throw result.error;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return durationMs() + "ms " + results;
+        }
+    }
+
+    /**
+     * Run the plan's stages on {@code executor}, each one as soon as every dependency that
+     * is also in the plan has succeeded. A stage whose dependency failed is skipped. Blocks
+     * until every planned stage has finished or been skipped.
+     */
+    public Report execute(Plan plan, Executor executor, LongSupplier clock) throws InterruptedException {
+        return new Run(plan, executor, clock).await();
+    }
+
+    private static final class Run {
+        private final Executor executor;
+        private final LongSupplier clock;
+        private final long startedAtMs;
+        private final Map<String, PlannedStage> pending = new LinkedHashMap<>();
+        private final Set<String> running = new HashSet<>();
+        private final Map<String, StageResult> finished = new HashMap<>();
+        private final List<StageResult> results = new ArrayList<>();
+        private final CountDownLatch remaining;
+
+        Run(Plan plan, Executor executor, LongSupplier clock) {
+            this.executor = executor;
+            this.clock = clock;
+            this.startedAtMs = clock.getAsLong();
+            for (PlannedStage entry : plan.stages) {
+                if (entry.run) {
+                    pending.put(entry.stage.name, entry);
+                } else {
+                    results.add(new StageResult(entry.stage.name, Outcome.SKIPPED, entry.reason, startedAtMs, startedAtMs, null));
+                }
+            }
+            remaining = new CountDownLatch(pending.size());
+        }
+
+        Report await() throws InterruptedException {
+            dispatch(Collections.emptyList());
+            remaining.await();
+            synchronized (this) {
+                return new Report(new ArrayList<>(results), startedAtMs, clock.getAsLong());
+            }
+        }
+
+        private void dispatch(List<StageResult> justFinished) {
+            List<PlannedStage> ready = new ArrayList<>();
+            synchronized (this) {
+                for (StageResult result : justFinished) {
+                    running.remove(result.name);
+                    finished.put(result.name, result);
+                    results.add(result);
+                    remaining.countDown();
+                }
+                // Skipping a stage can unblock (or skip) the stages after it, so repeat until settled
+                boolean changed = true;
+                while (changed) {
+                    changed = false;
+                    for (PlannedStage entry : new ArrayList<>(pending.values())) {
+                        String blocker = blocker(entry.stage);
+                        if (blocker == null) {
+                            pending.remove(entry.stage.name);
+                            running.add(entry.stage.name);
+                            ready.add(entry);
+                        } else if (finished.containsKey(blocker)) {
+                            long now = clock.getAsLong();
+                            StageResult skipped = new StageResult(entry.stage.name, Outcome.SKIPPED,
+                                blocker + " failed", now, now, null);
+                            pending.remove(entry.stage.name);
+                            finished.put(skipped.name, skipped);
+                            results.add(skipped);
+                            remaining.countDown();
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            ready.sort(Comparator
+                .comparing((PlannedStage entry) -> !entry.boosted)
+                .thenComparing(entry -> -entry.stage.priority));
+            for (PlannedStage entry : ready) {
+                executor.execute(() -> runStage(entry.stage));
+            }
+        }
+
+        /**
+         * @return a dependency that is pending, running or failed, or null if the stage can start
+         */
+        private String blocker(Stage stage) {
+            for (String dep : stage.dependsOn) {
+                if (pending.containsKey(dep) || running.contains(dep)) {
+                    return dep;
+                }
+                StageResult result = finished.get(dep);
+                if (result != null && result.outcome != Outcome.SUCCEEDED) {
+                    return dep;
+                }
+            }
+            return null;
+        }
+
+        private void runStage(Stage stage) {
+            long start = clock.getAsLong();
+            StageResult result;
+            try {
+                stage.task.run();
+                result = new StageResult(stage.name, Outcome.SUCCEEDED, null, start, clock.getAsLong(), null);
+            } catch (Throwable t) {
+                Exception error = t instanceof Exception ? (Exception) t : new Exception(t);
+                result = new StageResult(stage.name, Outcome.FAILED, t.getMessage(), start, clock.getAsLong(), error);
+            }
+            dispatch(Collections.singletonList(result));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.campusvault.data.sync;
+
+import com.example.campusvault.data.local.database.RowDiff;
+import com.example.campusvault.data.local.database.entity.SyncTelemetryEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Collects the numbers for one sync run: HTTP bytes and request counts from an OkHttp
+ * {@link EventListener}, rows written from the DAO diffs, and timings and outcomes from the
+ * planner's report. Stages run in parallel, so traffic is attributed by request URL rather
+ * than by thread.
+ */
+public class SyncTelemetry {
+
+    private final String runId;
+    private final int attempt;
+    private final Function<HttpUrl, String> stageForUrl;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param stageForUrl maps a request to the stage it belongs to, or null to leave it
+     *                    out of the per-stage numbers (it still counts towards the run)
+     */
+    public SyncTelemetry(String runId, int attempt, Function<HttpUrl, String> stageForUrl) {
+        this.runId = runId;
+        this.attempt = attempt;
+        this.stageForUrl = stageForUrl;
+    }
+
+    public EventListener.Factory eventListenerFactory() {
+        return call -> {
+            String stage = stageForUrl.apply(call.request().url());
+            return new Meter(counters(SyncTelemetryEntity.STAGE_RUN), stage != null ? counters(stage) : null);
+        };
+    }
+
+    public void addRows(String stage, RowDiff<?> diff) {
+        Counters stageCounters = counters(stage);
+        stageCounters.inserted.addAndGet(diff.inserted.size());
+        stageCounters.updated.addAndGet(diff.changed.size());
+        stageCounters.deleted.addAndGet(diff.removedIds.size());
+    }
+
+    /**
+     * One row per stage that ran, plus a {@link SyncTelemetryEntity#STAGE_RUN} row for the run
+     */
+    public List<SyncTelemetryEntity> toEntities(SyncPlanner.Report report) {
+        List<SyncTelemetryEntity> rows = new ArrayList<>();
+        Counters total = counters(SyncTelemetryEntity.STAGE_RUN);
+        boolean failed = false;
+        for (SyncPlanner.StageResult result : report.results) {
+            if (result.outcome == SyncPlanner.Outcome.SKIPPED && !counters.containsKey(result.name)) {
+                // Fresh or not requested - nothing happened worth recording
+                continue;
+            }
+            Counters stageCounters = counters(result.name);
+            total.inserted.addAndGet(stageCounters.inserted.get());
+            total.updated.addAndGet(stageCounters.updated.get());
+            total.deleted.addAndGet(stageCounters.deleted.get());
+            failed |= result.outcome == SyncPlanner.Outcome.FAILED;
+            rows.add(toEntity(result.name, result.startedAtMs, result.durationMs(),
+                result.outcome.name(), result.error != null ? String.valueOf(result.error) : null, stageCounters));
+        }
+        rows.add(toEntity(SyncTelemetryEntity.STAGE_RUN, report.startedAtMs, report.durationMs(),
+            (failed ? SyncPlanner.Outcome.FAILED : SyncPlanner.Outcome.SUCCEEDED).name(), null, total));
+        return rows;
+    }
+
+    private SyncTelemetryEntity toEntity(String stage, long startedAt, long durationMs,
+                                         String outcome, String error, Counters c) {
+        SyncTelemetryEntity row = new SyncTelemetryEntity();
+        row.setRunId(runId);
+        row.setStage(stage);
+        row.setStartedAt(startedAt);
+        row.setDurationMs(durationMs);
+        row.setRequests((int) c.requests.get());
+        row.setBytesIn(c.bytesIn.get());
+        row.setBytesOut(c.bytesOut.get());
+        row.setRowsInserted((int) c.inserted.get());
+        row.setRowsUpdated((int) c.updated.get());
+        row.setRowsDeleted((int) c.deleted.get());
+        row.setAttempt(attempt);
+        row.setOutcome(outcome);
+        row.setError(error);
+        return row;
+    }
+
+    private Counters counters(String stage) {
+        return counters.computeIfAbsent(stage, key -> new Counters());
+    }
+
+    private static final class Counters {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong bytesIn = new AtomicLong();
+        final AtomicLong bytesOut = new AtomicLong();
+        final AtomicLong inserted = new AtomicLong();
+        final AtomicLong updated = new AtomicLong();
+        final AtomicLong deleted = new AtomicLong();
+    }
+
+    /**
+     * Counts header and body bytes on the wire for one call, into the run and its stage
+     */
+    private static final class Meter extends EventListener {
+        private final Counters run;
+        private final Counters stage;
+
+        Meter(Counters run, Counters stage) {
+            this.run = run;
+            this.stage = stage;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            add(c -> c.requests, 1);
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            add(c -> c.bytesOut, request.headers().byteCount());
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            add(c -> c.bytesOut, byteCount);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            add(c -> c.bytesIn, response.headers().byteCount());
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            add(c -> c.bytesIn, byteCount);
+        }
+
+        private void add(Function<Counters, AtomicLong> counter, long amount) {
+            counter.apply(run).addAndGet(amount);
+            if (stage != null) {
+                counter.apply(stage).addAndGet(amount);
+            }
+        }
+    }
+}
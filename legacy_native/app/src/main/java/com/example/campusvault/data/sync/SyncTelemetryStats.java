@@ -0,0 +1,93 @@
+package com.example.campusvault.data.sync;
+
+import com.example.campusvault.data.local.database.entity.SyncTelemetryEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-stage aggregates over the sync telemetry table, for the diagnostics screen
+ */
+public final class SyncTelemetryStats {
+
+    public final String stage;
+    public final int samples;
+    public final int failures;
+    public final int retries;
+    public final long p50DurationMs;
+    public final long p95DurationMs;
+    public final long p50BytesIn;
+    public final long p95BytesIn;
+    public final long p50BytesOut;
+    public final double meanRowsWritten;
+
+    private SyncTelemetryStats(String stage, List<SyncTelemetryEntity> rows) {
+        this.stage = stage;
+        this.samples = rows.size();
+        int failed = 0;
+        int retried = 0;
+        long rowsWritten = 0;
+        long[] durations = new long[rows.size()];
+        long[] bytesIn = new long[rows.size()];
+        long[] bytesOut = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            SyncTelemetryEntity row = rows.get(i);
+            if (SyncPlanner.Outcome.FAILED.name().equals(row.getOutcome())) {
+                failed++;
+            }
+            if (row.getAttempt() > 0) {
+                retried++;
+            }
+            rowsWritten += row.getRowsInserted() + row.getRowsUpdated() + row.getRowsDeleted();
+            durations[i] = row.getDurationMs();
+            bytesIn[i] = row.getBytesIn();
+            bytesOut[i] = row.getBytesOut();
+        }
+        this.failures = failed;
+        this.retries = retried;
+        this.meanRowsWritten = samples > 0 ? (double) rowsWritten / samples : 0;
+        this.p50DurationMs = percentile(durations, 50);
+        this.p95DurationMs = percentile(durations, 95);
+        this.p50BytesIn = percentile(bytesIn, 50);
+        this.p95BytesIn = percentile(bytesIn, 95);
+        this.p50BytesOut = percentile(bytesOut, 50);
+    }
+
+    /**
+     * One summary per stage, the whole-run row first, then stages in order of appearance
+     */
+    public static List<SyncTelemetryStats> summarize(List<SyncTelemetryEntity> rows) {
+        Map<String, List<SyncTelemetryEntity>> byStage = new LinkedHashMap<>();
+        byStage.put(SyncTelemetryEntity.STAGE_RUN, new ArrayList<>());
+        for (SyncTelemetryEntity row : rows) {
+            List<SyncTelemetryEntity> stageRows = byStage.get(row.getStage());
+            if (stageRows == null) {
+                stageRows = new ArrayList<>();
+                byStage.put(row.getStage(), stageRows);
+            }
+            stageRows.add(row);
+        }
+        List<SyncTelemetryStats> stats = new ArrayList<>(byStage.size());
+        for (Map.Entry<String, List<SyncTelemetryEntity>> entry : byStage.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                stats.add(new SyncTelemetryStats(entry.getKey(), entry.getValue()));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Nearest-rank percentile; 0 for no samples
+     */
+    static long percentile(long[] values, int percent) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
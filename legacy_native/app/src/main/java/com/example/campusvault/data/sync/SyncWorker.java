@@ -1,32 +1,53 @@
 package com.example.campusvault.data.sync;
 
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.work.ForegroundInfo;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
+import com.example.campusvault.R;
 import com.example.campusvault.data.api.ApiClient;
 import com.example.campusvault.data.api.ApiService;
 import com.example.campusvault.data.local.SharedPreferencesManager;
 import com.example.campusvault.data.local.database.AppDatabase;
 import com.example.campusvault.data.local.database.dao.UniversityDao;
 import com.example.campusvault.data.local.database.dao.ResourceDao;
+import com.example.campusvault.data.local.database.dao.SyncTelemetryDao;
 import com.example.campusvault.data.local.database.entity.CourseUnitEntity;
 import com.example.campusvault.data.local.database.entity.FacultyEntity;
 import com.example.campusvault.data.local.database.entity.ProgramEntity;
-import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import com.example.campusvault.data.mappers.ResourceMapper;
 import com.example.campusvault.data.models.CourseUnit;
 import com.example.campusvault.data.models.FacultyResponse;
 import com.example.campusvault.data.models.ProgramResponse;
 import com.example.campusvault.data.models.Resource;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import okhttp3.HttpUrl;
 
 /**
  * Background worker that syncs data from the API to local database.
- * Uses smart incremental sync - only syncs if data is stale.
+ * Uses smart incremental sync - only syncs if data is stale, and then asks the server
+ * only for rows changed since the stage's last cursor (falling back to a full refetch
+ * when the server has no delta feed). Stages are planned by {@link SyncPlanner}, so
+ * independent ones (resources vs. the faculty/program/course unit chain) run in parallel.
  * 
  * Sync intervals:
  * - Faculties/Programs: Every 24 hours (rarely change)
@@ -36,7 +57,9 @@ import java.util.List;
 public class SyncWorker extends Worker {
 
     private static final String TAG = "SyncWorker";
-    private static final String SYNC_PREFS = "sync_preferences";
+    static final String SYNC_PREFS = "sync_preferences";
+    // Share of recent runs that wrote rows, for AdaptiveSyncPolicy
+    static final String KEY_RECENT_CHURN = "recent_churn";
     
     // Sync interval thresholds (in milliseconds)
     private static final long FACULTY_SYNC_INTERVAL = 24 * 60 * 60 * 1000L; // 24 hours
@@ -49,10 +72,22 @@ public class SyncWorker extends Worker {
     private static final String KEY_LAST_PROGRAM_SYNC = "last_program_sync";
     private static final String KEY_LAST_COURSE_UNIT_SYNC = "last_course_unit_sync";
     private static final String KEY_LAST_RESOURCE_SYNC = "last_resource_sync";
+
+    // Stages run in parallel when their dependencies allow; user-facing resources go first
+    private static final int MAX_PARALLEL_STAGES = 3;
+    private static final int PRIORITY_CATALOG = 1;
+    private static final int PRIORITY_RESOURCES = 2;
+
+    private static final String CHANNEL_ID = "sync";
+    private static final int NOTIFICATION_ID = 2101;
+
+    // Per-faculty program requests in flight at once; each call is mostly backend latency
+    private static final int MAX_CONCURRENT_REQUESTS = 6;
     
     public static final String WORK_NAME = "data_sync_work";
     public static final String SYNC_TYPE_KEY = "sync_type";
     public static final String FORCE_SYNC_KEY = "force_sync";
+    public static final String USER_REQUESTED_KEY = "user_requested";
     
     public static final String SYNC_TYPE_ALL = "all";
     public static final String SYNC_TYPE_FACULTIES = "faculties";
@@ -63,18 +98,39 @@ public class SyncWorker extends Worker {
     private final ApiService api;
     private final UniversityDao universityDao;
     private final ResourceDao resourceDao;
+    private final SyncTelemetryDao telemetryDao;
+    private final SyncTelemetry telemetry;
     private final SharedPreferences syncPrefs;
+    private final DeltaSync deltaSync;
+    // Fetched at most once per run and shared by the faculty and program stages
+    private final Single<List<FacultyResponse>> faculties;
+    private final SyncPlanner planner;
+    // Set at the start of doWork, before any stage runs
+    private AdaptiveSyncPolicy.Decision policy;
+    private boolean userRequested;
 
     public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
         
         SharedPreferencesManager spm = new SharedPreferencesManager(context);
-        this.api = ApiClient.getInstance(spm).getApiService();
+        // Traffic from this worker's own client is metered per stage for the telemetry table
+        this.telemetry = new SyncTelemetry(getId().toString(), getRunAttemptCount(), SyncWorker::stageForUrl);
+        this.api = ApiClient.getInstance(spm).createApiService(telemetry.eventListenerFactory());
         
         AppDatabase db = AppDatabase.getInstance(context);
         this.universityDao = db.universityDao();
         this.resourceDao = db.resourceDao();
+        this.telemetryDao = db.syncTelemetryDao();
         this.syncPrefs = context.getSharedPreferences(SYNC_PREFS, Context.MODE_PRIVATE);
+        this.deltaSync = new DeltaSync(syncPrefs);
+        this.faculties = api.getFaculties().cache();
+        // Programs and course units hang off the hierarchy; resources don't, so they sync alongside it
+        this.planner = new SyncPlanner.Builder()
+            .stage(SYNC_TYPE_RESOURCES, RESOURCE_SYNC_INTERVAL, PRIORITY_RESOURCES, this::syncRecentResources)
+            .stage(SYNC_TYPE_FACULTIES, FACULTY_SYNC_INTERVAL, PRIORITY_CATALOG, this::syncFaculties)
+            .stage(SYNC_TYPE_PROGRAMS, PROGRAM_SYNC_INTERVAL, PRIORITY_CATALOG, this::syncAllPrograms, SYNC_TYPE_FACULTIES)
+            .stage(SYNC_TYPE_COURSE_UNITS, COURSE_UNIT_SYNC_INTERVAL, PRIORITY_CATALOG, this::syncAllCourseUnits, SYNC_TYPE_PROGRAMS)
+            .build();
     }
 
     @NonNull
@@ -87,27 +143,28 @@ public class SyncWorker extends Worker {
             syncType = SYNC_TYPE_ALL;
         }
         
-        Log.d(TAG, "Starting sync: " + syncType + " (force=" + forceSync + ")");
+        userRequested = getInputData().getBoolean(USER_REQUESTED_KEY, false);
+        SyncManager syncManager = SyncManager.getInstance(getApplicationContext());
+        AdaptiveSyncPolicy.Conditions conditions = syncManager.currentConditions();
+        policy = AdaptiveSyncPolicy.decide(conditions);
+        List<String> requested = SYNC_TYPE_ALL.equals(syncType) || lastSyncKey(syncType) == null
+            ? Collections.emptyList()
+            : Collections.singletonList(syncType);
         
+        Log.d(TAG, "Starting sync: " + syncType + " (force=" + forceSync + ", user=" + userRequested + ")"
+            + " on " + conditions + ": " + policy);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL_STAGES);
         try {
-            switch (syncType) {
-                case SYNC_TYPE_FACULTIES:
-                    syncFaculties(forceSync);
-                    break;
-                case SYNC_TYPE_PROGRAMS:
-                    syncAllPrograms(forceSync);
-                    break;
-                case SYNC_TYPE_COURSE_UNITS:
-                    syncAllCourseUnits(forceSync);
-                    break;
-                case SYNC_TYPE_RESOURCES:
-                    syncRecentResources(forceSync);
-                    break;
-                case SYNC_TYPE_ALL:
-                default:
-                    syncAll(forceSync);
-                    break;
-            }
+            SyncPlanner.Plan plan = planner.plan(requested, forceSync, userRequested,
+                System.currentTimeMillis(), stage -> syncPrefs.getLong(lastSyncKey(stage), 0));
+            Log.d(TAG, "Sync plan: " + plan);
+            
+            SyncPlanner.Report report = planner.execute(plan, executor, System::currentTimeMillis);
+            Log.d(TAG, "Sync finished: " + report);
+            recordTelemetry(report);
+            syncManager.adaptPeriodicSync();
+            report.throwIfFailed();
             
             Log.d(TAG, "Sync completed successfully");
             return Result.success();
@@ -119,16 +176,85 @@ public class SyncWorker extends Worker {
                 return Result.retry();
             }
             return Result.failure();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Shown when a user-requested sync runs as expedited work on Android 11 and below
+     */
+    @NonNull
+    @Override
+    public ForegroundInfo getForegroundInfo() {
+        Context context = getApplicationContext();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationManager manager = context.getSystemService(NotificationManager.class);
+            if (manager != null && manager.getNotificationChannel(CHANNEL_ID) == null) {
+                NotificationChannel channel = new NotificationChannel(
+                    CHANNEL_ID, "Sync", NotificationManager.IMPORTANCE_MIN);
+                channel.setDescription("Refreshing courses and resources");
+                manager.createNotificationChannel(channel);
+            }
+        }
+        Notification notification = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_sync)
+            .setContentTitle("Syncing CampusVault")
+            .setOngoing(true)
+            .setPriority(NotificationCompat.PRIORITY_MIN)
+            .build();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return new ForegroundInfo(NOTIFICATION_ID, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC);
         }
+        return new ForegroundInfo(NOTIFICATION_ID, notification);
     }
     
+    private void recordTelemetry(SyncPlanner.Report report) {
+        try {
+            telemetryDao.record(telemetry.toEntities(report));
+            Double churn = telemetryDao.recentChurn(SyncManager.CHURN_WINDOW_RUNS);
+            if (churn != null) {
+                syncPrefs.edit().putFloat(KEY_RECENT_CHURN, churn.floatValue()).apply();
+            }
+        } catch (Exception e) {
+            // Diagnostics only - never fail a sync over them
+            Log.w(TAG, "Could not record sync telemetry", e);
+        }
+    }
+
     /**
-     * Check if a sync is needed based on last sync timestamp
+     * The stage a request belongs to, by the collection it reads
      */
-    private boolean needsSync(String key, long interval) {
-        long lastSync = syncPrefs.getLong(key, 0);
-        long now = System.currentTimeMillis();
-        return (now - lastSync) > interval;
+    private static String stageForUrl(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        if (segments.contains("course-units")) {
+            return SYNC_TYPE_COURSE_UNITS;
+        } else if (segments.contains("programs")) {
+            return SYNC_TYPE_PROGRAMS;
+        } else if (segments.contains("faculties")) {
+            return SYNC_TYPE_FACULTIES;
+        } else if (segments.contains("resources")) {
+            return SYNC_TYPE_RESOURCES;
+        }
+        return null;
+    }
+
+    /**
+     * Preference key holding a stage's last successful sync time, or null for an unknown stage
+     */
+    private static String lastSyncKey(String stage) {
+        switch (stage) {
+            case SYNC_TYPE_FACULTIES:
+                return KEY_LAST_FACULTY_SYNC;
+            case SYNC_TYPE_PROGRAMS:
+                return KEY_LAST_PROGRAM_SYNC;
+            case SYNC_TYPE_COURSE_UNITS:
+                return KEY_LAST_COURSE_UNIT_SYNC;
+            case SYNC_TYPE_RESOURCES:
+                return KEY_LAST_RESOURCE_SYNC;
+            default:
+                return null;
+        }
     }
     
     /**
@@ -138,108 +264,107 @@ public class SyncWorker extends Worker {
         syncPrefs.edit().putLong(key, System.currentTimeMillis()).apply();
     }
 
-    private void syncAll(boolean force) throws Exception {
-        syncFaculties(force);
-        syncAllPrograms(force);
-        syncAllCourseUnits(force);
-        syncRecentResources(force);
-    }
-
-    private void syncFaculties(boolean force) throws Exception {
-        if (!force && !needsSync(KEY_LAST_FACULTY_SYNC, FACULTY_SYNC_INTERVAL)) {
-            Log.d(TAG, "Skipping faculties sync - data is fresh");
-            return;
-        }
-        
+    private void syncFaculties() throws Exception {
         Log.d(TAG, "Syncing faculties...");
-        List<FacultyResponse> faculties = api.getFaculties().blockingGet();
-        
-        List<FacultyEntity> entities = new ArrayList<>();
-        for (FacultyResponse f : faculties) {
-            FacultyEntity entity = new FacultyEntity();
-            entity.setId(f.getId());
-            entity.setName(f.getName());
-            entity.setCode(f.getCode());
-            entities.add(entity);
+        boolean delta = syncChanges(SYNC_TYPE_FACULTIES, api::getFacultyChanges,
+            (changed, deletedIds) -> telemetry.addRows(SYNC_TYPE_FACULTIES,
+                universityDao.applyFacultyChanges(mapList(changed, this::mapFacultyToEntity), deletedIds)));
+        if (!delta) {
+            List<FacultyEntity> entities = mapList(faculties.blockingGet(), this::mapFacultyToEntity);
+            telemetry.addRows(SYNC_TYPE_FACULTIES, universityDao.updateFaculties(entities));
+            Log.d(TAG, "Synced " + entities.size() + " faculties");
         }
-        
-        universityDao.updateFaculties(entities);
         markSynced(KEY_LAST_FACULTY_SYNC);
-        Log.d(TAG, "Synced " + entities.size() + " faculties");
     }
 
-    private void syncAllPrograms(boolean force) throws Exception {
-        if (!force && !needsSync(KEY_LAST_PROGRAM_SYNC, PROGRAM_SYNC_INTERVAL)) {
-            Log.d(TAG, "Skipping programs sync - data is fresh");
+    private void syncAllPrograms() throws Exception {
+        Log.d(TAG, "Syncing programs...");
+        boolean delta = syncChanges(SYNC_TYPE_PROGRAMS, api::getProgramChanges,
+            (changed, deletedIds) -> telemetry.addRows(SYNC_TYPE_PROGRAMS,
+                universityDao.applyProgramChanges(mapList(changed, this::mapProgramToEntity), deletedIds)));
+        if (delta) {
+            markSynced(KEY_LAST_PROGRAM_SYNC);
             return;
         }
         
-        Log.d(TAG, "Syncing programs...");
-        
-        // First get all faculties to know which programs to fetch
-        List<FacultyResponse> faculties = api.getFaculties().blockingGet();
-        
-        List<ProgramEntity> allPrograms = new ArrayList<>();
-        for (FacultyResponse faculty : faculties) {
-            try {
-                List<ProgramResponse> programs = api.getPrograms(faculty.getId()).blockingGet();
-                for (ProgramResponse p : programs) {
-                    ProgramEntity entity = new ProgramEntity();
-                    entity.setId(p.getId());
-                    entity.setName(p.getName());
-                    entity.setCode(p.getCode());
-                    entity.setFacultyId(p.getFacultyId());
-                    entity.setDurationYears(p.getDurationYears());
-                    allPrograms.add(entity);
-                }
-            } catch (Exception e) {
-                Log.w(TAG, "Failed to sync programs for faculty " + faculty.getId(), e);
+        // No delta feed - fan out one request per faculty, a few at a time. A faculty whose
+        // request fails keeps its stored programs instead of failing the whole stage.
+        List<FacultyResponse> facultyList = faculties.blockingGet();
+        List<FacultyPrograms> results = Flowable.fromIterable(facultyList)
+            .flatMapSingle(faculty -> api.getPrograms(faculty.getId())
+                    .subscribeOn(Schedulers.io())
+                    .map(programs -> new FacultyPrograms(faculty.getId(), mapList(programs, this::mapProgramToEntity), null))
+                    .onErrorReturn(e -> new FacultyPrograms(faculty.getId(), null, e)),
+                false, MAX_CONCURRENT_REQUESTS)
+            .toList()
+            .blockingGet();
+
+        Map<Integer, List<ProgramEntity>> programsByFaculty = new HashMap<>();
+        Throwable failure = null;
+        for (FacultyPrograms result : results) {
+            if (result.error != null) {
+                Log.w(TAG, "Failed to sync programs for faculty " + result.facultyId, result.error);
+                failure = result.error;
+            } else {
+                programsByFaculty.put(result.facultyId, result.programs);
             }
         }
-        
-        if (!allPrograms.isEmpty()) {
-            universityDao.updatePrograms(allPrograms);
+        if (programsByFaculty.isEmpty() && failure != null) {
+            throw new Exception("Program sync failed for every faculty", failure);
+        }
+        int count = 0;
+        for (List<ProgramEntity> programs : programsByFaculty.values()) {
+            count += programs.size();
+        }
+        if (failure == null) {
+            // Complete picture - also drops programs of faculties that no longer exist
+            if (count > 0) {
+                List<ProgramEntity> allPrograms = new ArrayList<>(count);
+                for (List<ProgramEntity> programs : programsByFaculty.values()) {
+                    allPrograms.addAll(programs);
+                }
+                telemetry.addRows(SYNC_TYPE_PROGRAMS, universityDao.updatePrograms(allPrograms));
+            }
+            markSynced(KEY_LAST_PROGRAM_SYNC);
+        } else {
+            // Leave the stage stale so the next run retries the faculties that failed
+            telemetry.addRows(SYNC_TYPE_PROGRAMS, universityDao.updateProgramsByFaculty(programsByFaculty));
         }
-        markSynced(KEY_LAST_PROGRAM_SYNC);
-        Log.d(TAG, "Synced " + allPrograms.size() + " programs");
+        Log.d(TAG, "Synced " + count + " programs from " + programsByFaculty.size() + "/" + facultyList.size() + " faculties");
     }
 
-    private void syncAllCourseUnits(boolean force) throws Exception {
-        if (!force && !needsSync(KEY_LAST_COURSE_UNIT_SYNC, COURSE_UNIT_SYNC_INTERVAL)) {
-            Log.d(TAG, "Skipping course units sync - data is fresh");
-            return;
-        }
+    private void syncAllCourseUnits() throws Exception {
         Log.d(TAG, "Syncing course units...");
-        
-        // Fetch all course units (no filters)
-        List<CourseUnit> courseUnits = api.getCourseUnits(null, null, null).blockingGet();
-        
-        List<CourseUnitEntity> entities = new ArrayList<>();
-        for (CourseUnit cu : courseUnits) {
-            CourseUnitEntity entity = new CourseUnitEntity();
-            entity.setId(cu.getId());
-            entity.setName(cu.getName());
-            entity.setCode(cu.getCode());
-            entity.setProgramId(cu.getProgramId());
-            entity.setYear(cu.getYear());
-            entity.setSemester(cu.getSemester());
-            entities.add(entity);
+        boolean delta = syncChanges(SYNC_TYPE_COURSE_UNITS, api::getCourseUnitChanges,
+            (changed, deletedIds) -> telemetry.addRows(SYNC_TYPE_COURSE_UNITS,
+                universityDao.applyCourseUnitChanges(mapList(changed, this::mapCourseUnitToEntity), deletedIds)));
+        if (!delta) {
+            // Fetch all course units (no filters)
+            List<CourseUnitEntity> entities = mapList(api.getCourseUnits(null, null, null).blockingGet(), this::mapCourseUnitToEntity);
+            telemetry.addRows(SYNC_TYPE_COURSE_UNITS, universityDao.updateCourseUnits(entities));
+            Log.d(TAG, "Synced " + entities.size() + " course units");
         }
-        
-        universityDao.updateCourseUnits(entities);
         markSynced(KEY_LAST_COURSE_UNIT_SYNC);
-        Log.d(TAG, "Synced " + entities.size() + " course units");
     }
 
-    private void syncRecentResources(boolean force) throws Exception {
-        if (!force && !needsSync(KEY_LAST_RESOURCE_SYNC, RESOURCE_SYNC_INTERVAL)) {
-            Log.d(TAG, "Skipping resources sync - data is fresh");
+    private void syncRecentResources() throws Exception {
+        Log.d(TAG, "Syncing recent resources...");
+        boolean delta = syncChanges(SYNC_TYPE_RESOURCES, api::getResourceChanges,
+            (changed, deletedIds) -> telemetry.addRows(SYNC_TYPE_RESOURCES,
+                resourceDao.applyChanges(mapList(changed, ResourceMapper::toEntity), deletedIds)));
+        if (delta) {
+            markSynced(KEY_LAST_RESOURCE_SYNC);
             return;
         }
         
-        Log.d(TAG, "Syncing recent resources...");
+        if (!policy.allowFullResourceSync && !userRequested) {
+            // The full fallback is the heaviest request we make; leave it for Wi-Fi
+            Log.d(TAG, "Deferring full resources sync to an unmetered network");
+            SyncManager.getInstance(getApplicationContext()).requestUnmeteredSync(SYNC_TYPE_RESOURCES);
+            return;
+        }
         
-        // Fetch recent and trending resources (paginated)
+        // No delta feed - fetch recent and trending resources (paginated)
         List<Resource> recentResources = api.getRecentResources(1, 50).blockingGet().getItems();
         List<Resource> trendingResources = api.getTrendingResources(1, 50).blockingGet().getItems();
         
@@ -258,45 +383,72 @@ public class SyncWorker extends Worker {
             }
         }
         
-        for (Resource r : allResources) {
-            ResourceEntity entity = mapResourceToEntity(r);
-            resourceDao.insert(entity).blockingAwait();
-        }
+        // One transaction for the whole stage - observers re-query once, not once per row
+        telemetry.addRows(SYNC_TYPE_RESOURCES, resourceDao.upsertAll(mapList(allResources, ResourceMapper::toEntity)));
         
         markSynced(KEY_LAST_RESOURCE_SYNC);
         Log.d(TAG, "Synced " + allResources.size() + " resources");
     }
 
-    private ResourceEntity mapResourceToEntity(Resource r) {
-        ResourceEntity entity = new ResourceEntity();
-        entity.setId(r.getId());
-        entity.setTitle(r.getTitle());
-        entity.setDescription(r.getDescription());
-        entity.setFileUrl(r.getFileUrl());
-        entity.setThumbnailUrl(r.getThumbnailUrl());
-        entity.setFileType(r.getFileType());
-        entity.setFileSize(r.getFileSize());
-        
-        // Handle author
-        if (r.getAuthor() != null) {
-            entity.setAuthorId(r.getAuthor().getId());
-            entity.setAuthorName(r.getAuthor().getName());
+    /**
+     * Pull a stage's delta feed through {@link DeltaSync}. Page size and page count follow
+     * the current {@link AdaptiveSyncPolicy.Decision}; on a metered network a big backlog is
+     * left for later runs, unless the user asked for this sync.
+     *
+     * @return false if the stage has to fall back to a full refetch
+     */
+    private <T> boolean syncChanges(String stage, DeltaSync.ChangeFetcher<T> fetcher,
+                                    DeltaSync.ChangeApplier<T> applier) throws Exception {
+        return deltaSync.sync(stage, policy.pageSize, userRequested ? 0 : policy.maxDeltaPages, fetcher, applier);
+    }
+
+    /** One faculty's programs, or the error its request failed with */
+    private static final class FacultyPrograms {
+        final int facultyId;
+        final List<ProgramEntity> programs;
+        final Throwable error;
+
+        FacultyPrograms(int facultyId, List<ProgramEntity> programs, Throwable error) {
+            this.facultyId = facultyId;
+            this.programs = programs;
+            this.error = error;
         }
-        
-        // Handle course unit
-        if (r.getCourseUnit() != null) {
-            entity.setCourseUnitId(r.getCourseUnit().getId());
-            entity.setCourseUnitName(r.getCourseUnit().getName());
-        } else if (r.getCourseUnitId() != null) {
-            entity.setCourseUnitId(r.getCourseUnitId());
+    }
+
+    private static <S, E> List<E> mapList(List<S> items, Function<S, E> mapper) {
+        List<E> mapped = new ArrayList<>(items.size());
+        for (S item : items) {
+            mapped.add(mapper.apply(item));
         }
-        
-        entity.setTags(r.getTags());
-        entity.setDownloadCount(r.getDownloadCount());
-        entity.setAverageRating(r.getAverageRating());
-        entity.setUploadedAt(r.getUploadedAt());
-        entity.setResourceType(r.getResourceType());
-        entity.setCachedAt(new Date());
+        return mapped;
+    }
+
+    private FacultyEntity mapFacultyToEntity(FacultyResponse f) {
+        FacultyEntity entity = new FacultyEntity();
+        entity.setId(f.getId());
+        entity.setName(f.getName());
+        entity.setCode(f.getCode());
+        return entity;
+    }
+
+    private ProgramEntity mapProgramToEntity(ProgramResponse p) {
+        ProgramEntity entity = new ProgramEntity();
+        entity.setId(p.getId());
+        entity.setName(p.getName());
+        entity.setCode(p.getCode());
+        entity.setFacultyId(p.getFacultyId());
+        entity.setDurationYears(p.getDurationYears());
+        return entity;
+    }
+
+    private CourseUnitEntity mapCourseUnitToEntity(CourseUnit cu) {
+        CourseUnitEntity entity = new CourseUnitEntity();
+        entity.setId(cu.getId());
+        entity.setName(cu.getName());
+        entity.setCode(cu.getCode());
+        entity.setProgramId(cu.getProgramId());
+        entity.setYear(cu.getYear());
+        entity.setSemester(cu.getSemester());
         return entity;
     }
 }
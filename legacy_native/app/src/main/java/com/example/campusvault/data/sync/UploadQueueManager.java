@@ -0,0 +1,135 @@
+package com.example.campusvault.data.sync;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.dao.PendingUploadDao;
+import com.example.campusvault.data.local.database.entity.PendingUploadEntity;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent upload queue. Uploads are stored in Room and sent by {@link UploadWorker},
+ * so they keep going when the user leaves the upload screen and survive process death.
+ *
+ * Files above {@link #WIFI_ONLY_THRESHOLD_BYTES} are held back while the device is on a
+ * metered network and picked up by a separate run that requires an unmetered connection.
+ */
+public class UploadQueueManager {
+
+    private static final String TAG = "UploadQueueManager";
+
+    public static final long WIFI_ONLY_THRESHOLD_BYTES = 20L * 1024 * 1024; // 20 MB
+
+    static final String UPLOAD_WORK = "upload_queue";
+    static final String WIFI_UPLOAD_WORK = "upload_queue_wifi";
+
+    private static volatile UploadQueueManager instance;
+    private final WorkManager workManager;
+    private final PendingUploadDao dao;
+
+    private UploadQueueManager(Context context) {
+        this.workManager = WorkManager.getInstance(context);
+        this.dao = AppDatabase.getInstance(context).pendingUploadDao();
+    }
+
+    public static UploadQueueManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (UploadQueueManager.class) {
+                if (instance == null) {
+                    instance = new UploadQueueManager(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Add a file to the queue and make sure a worker is scheduled to send it.
+     * The URI must carry a persistable read permission so it is still readable after a restart.
+     *
+     * @return id of the queued upload
+     */
+    public Single<Long> enqueue(Uri uri, String fileName, String contentType, long sizeBytes,
+                                int courseUnitId, String title, String description, String resourceType) {
+        PendingUploadEntity upload = new PendingUploadEntity();
+        upload.setUri(uri.toString());
+        upload.setFileName(fileName);
+        upload.setContentType(contentType);
+        upload.setSizeBytes(sizeBytes);
+        upload.setCourseUnitId(courseUnitId);
+        upload.setTitle(title);
+        upload.setDescription(description);
+        upload.setResourceType(resourceType != null ? resourceType : "notes");
+
+        return dao.insert(upload)
+            .doOnSuccess(id -> {
+                Log.d(TAG, "Queued upload " + id + ": " + fileName + " (" + sizeBytes + " bytes)");
+                scheduleUploads();
+            });
+    }
+
+    /**
+     * Observe one queued upload's status and progress
+     */
+    public Flowable<PendingUploadEntity> observe(long uploadId) {
+        return dao.observeById(uploadId);
+    }
+
+    /**
+     * Cancel a queued or running upload. A running worker notices and stops sending it.
+     */
+    public Completable cancel(long uploadId) {
+        return dao.cancel(uploadId, System.currentTimeMillis());
+    }
+
+    /**
+     * Run the queue as soon as any network is available
+     */
+    public void scheduleUploads() {
+        Constraints constraints = new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(UploadWorker.class)
+            .setConstraints(constraints)
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+            .addTag(UPLOAD_WORK)
+            .build();
+
+        // Append so a file queued while the worker is finishing still gets a run
+        workManager.enqueueUniqueWork(UPLOAD_WORK, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    /**
+     * Run the queue once an unmetered network is available, for files held back on mobile data
+     */
+    void scheduleWifiUploads() {
+        Log.d(TAG, "Deferring large uploads until Wi-Fi is available");
+
+        Constraints constraints = new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.UNMETERED)
+            .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(UploadWorker.class)
+            .setConstraints(constraints)
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+            .setInputData(new Data.Builder()
+                .putBoolean(UploadWorker.KEY_UNMETERED_RUN, true)
+                .build())
+            .addTag(WIFI_UPLOAD_WORK)
+            .build();
+
+        workManager.enqueueUniqueWork(WIFI_UPLOAD_WORK, ExistingWorkPolicy.KEEP, request);
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.campusvault.data.sync;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.work.ForegroundInfo;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.campusvault.R;
+import com.example.campusvault.data.api.ApiClient;
+import com.example.campusvault.data.local.EncryptedPreferencesManager;
+import com.example.campusvault.data.local.SharedPreferencesManager;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.dao.PendingUploadDao;
+import com.example.campusvault.data.local.database.entity.PendingUploadEntity;
+import com.example.campusvault.data.models.DuplicateResourceInfo;
+import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.data.upload.ContentUriUploadSource;
+import com.example.campusvault.data.upload.PreferencesUploadSessionStore;
+import com.example.campusvault.data.upload.ResourceUploader;
+import com.example.campusvault.data.upload.UploadErrors;
+import com.google.gson.Gson;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import retrofit2.HttpException;
+
+/**
+ * Background worker that drains the upload queue.
+ *
+ * Runs as a foreground service with a single notification showing aggregate progress.
+ * Up to {@link #MAX_PARALLEL_UPLOADS} files are sent at once; chunk progress is kept by
+ * the chunked uploader's session store, so an upload interrupted by process death
+ * continues where it stopped on the next run.
+ */
+public class UploadWorker extends Worker {
+
+    private static final String TAG = "UploadWorker";
+
+    public static final String KEY_UNMETERED_RUN = "unmetered_run";
+
+    private static final String CHANNEL_ID = "uploads";
+    private static final int NOTIFICATION_ID = 2001;
+    private static final int WIFI_NOTIFICATION_ID = 2002;
+
+    private static final int MAX_PARALLEL_UPLOADS = 2;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long POLL_INTERVAL_MS = 1000;
+    private static final long PROGRESS_WRITE_INTERVAL_MS = 500;
+    private static final long FINISHED_RETENTION_MS = 7 * 24 * 60 * 60 * 1000L; // 7 days
+
+    // Uploads being sent by a worker in this process; anything else marked uploading was orphaned
+    private static final Set<Long> activeUploads = ConcurrentHashMap.newKeySet();
+
+    private final PendingUploadDao dao;
+    private final ResourceUploader uploader;
+    private final NetworkMonitor networkMonitor;
+    private final boolean unmeteredRun;
+    private final Gson gson = new Gson();
+
+    public UploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+
+        SharedPreferencesManager spm = new SharedPreferencesManager(context);
+        EncryptedPreferencesManager epm = new EncryptedPreferencesManager(context);
+        this.uploader = new ResourceUploader(
+            ApiClient.getInstance(spm, epm).getApiService(),
+            new PreferencesUploadSessionStore(context));
+
+        this.dao = AppDatabase.getInstance(context).pendingUploadDao();
+        this.networkMonitor = NetworkMonitor.getInstance(context);
+        this.unmeteredRun = params.getInputData().getBoolean(KEY_UNMETERED_RUN, false);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        long now = System.currentTimeMillis();
+        dao.deleteFinishedBefore(now - FINISHED_RETENTION_MS).blockingAwait();
+        requeueOrphans(now);
+
+        showProgress();
+
+        ExecutorService pool = Executors.newFixedThreadPool(MAX_PARALLEL_UPLOADS);
+        Map<Long, Future<Boolean>> running = new HashMap<>();
+        // Failed transiently in this run; left for the next run so WorkManager's backoff spaces the attempts
+        Set<Long> retryLater = new HashSet<>();
+        boolean heldForWifi = false;
+        boolean needsRetry = false;
+
+        try {
+            while (!isStopped()) {
+                // Start queued uploads while there is a free slot
+                for (PendingUploadEntity upload : dao.getQueuedSync()) {
+                    if (running.size() >= MAX_PARALLEL_UPLOADS) {
+                        break;
+                    }
+                    if (running.containsKey(upload.getId()) || retryLater.contains(upload.getId())) {
+                        continue;
+                    }
+                    if (!unmeteredRun && upload.getSizeBytes() > UploadQueueManager.WIFI_ONLY_THRESHOLD_BYTES
+                            && !networkMonitor.isUnmetered()) {
+                        heldForWifi = true;
+                        continue;
+                    }
+                    // Mark it ours before claiming so another worker's orphan sweep can't requeue it in between
+                    activeUploads.add(upload.getId());
+                    if (dao.claim(upload.getId(), System.currentTimeMillis()) == 1) {
+                        running.put(upload.getId(), pool.submit(() -> send(upload)));
+                    } else {
+                        activeUploads.remove(upload.getId());
+                    }
+                }
+
+                if (running.isEmpty()) {
+                    break;
+                }
+
+                Thread.sleep(POLL_INTERVAL_MS);
+
+                // Collect finished uploads and stop any the user cancelled
+                Iterator<Map.Entry<Long, Future<Boolean>>> it = running.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Long, Future<Boolean>> entry = it.next();
+                    Future<Boolean> future = entry.getValue();
+                    if (future.isDone()) {
+                        if (!future.isCancelled() && Boolean.TRUE.equals(future.get())) {
+                            retryLater.add(entry.getKey());
+                            needsRetry = true;
+                        }
+                        it.remove();
+                    } else {
+                        PendingUploadEntity current = dao.getByIdSync(entry.getKey());
+                        if (current == null || PendingUploadEntity.STATUS_CANCELLED.equals(current.getStatus())) {
+                            Log.d(TAG, "Upload " + entry.getKey() + " cancelled");
+                            future.cancel(true);
+                        }
+                    }
+                }
+
+                showProgress();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Log.e(TAG, "Upload queue failed", e);
+            needsRetry = true;
+        } finally {
+            // Stopped by the system (e.g. network lost): hand unfinished uploads back to the queue
+            for (Map.Entry<Long, Future<Boolean>> entry : running.entrySet()) {
+                entry.getValue().cancel(true);
+                dao.requeue(entry.getKey(), System.currentTimeMillis());
+                activeUploads.remove(entry.getKey());
+            }
+            pool.shutdownNow();
+        }
+
+        if (heldForWifi) {
+            UploadQueueManager.getInstance(getApplicationContext()).scheduleWifiUploads();
+        }
+
+        if (isStopped() || needsRetry) {
+            return getRunAttemptCount() < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        }
+        Log.d(TAG, "Upload queue drained");
+        return Result.success();
+    }
+
+    /**
+     * Send one file and record the outcome.
+     * @return true if the upload failed with a transient error and was put back in the queue
+     */
+    private boolean send(PendingUploadEntity upload) {
+        long id = upload.getId();
+        Uri uri = Uri.parse(upload.getUri());
+        long[] lastWrite = {0};
+
+        try {
+            ContentUriUploadSource source = new ContentUriUploadSource(
+                getApplicationContext().getContentResolver(), uri);
+            Resource resource = uploader.upload(source, upload.getCourseUnitId(), upload.getTitle(),
+                upload.getDescription(), upload.getResourceType(), (uploaded, total) -> {
+                    long now = System.currentTimeMillis();
+                    if (now - lastWrite[0] >= PROGRESS_WRITE_INTERVAL_MS) {
+                        lastWrite[0] = now;
+                        dao.updateProgress(id, uploaded, now);
+                    }
+                });
+
+            if (dao.markDone(id, resource.getId(), System.currentTimeMillis()) == 0) {
+                Log.d(TAG, "Upload " + id + " was cancelled while finishing as resource " + resource.getId());
+            } else {
+                Log.d(TAG, "Upload " + id + " finished as resource " + resource.getId());
+            }
+            releaseUri(uri);
+            return false;
+        } catch (Throwable raw) {
+            Throwable error = unwrap(raw);
+            long now = System.currentTimeMillis();
+
+            if (error instanceof InterruptedIOException || Thread.currentThread().isInterrupted()) {
+                // Cancelled by the user, or the worker is stopping and will requeue it
+                PendingUploadEntity current = dao.getByIdSync(id);
+                if (current != null && PendingUploadEntity.STATUS_CANCELLED.equals(current.getStatus())) {
+                    releaseUri(uri);
+                }
+                return false;
+            }
+
+            String errorBody = UploadErrors.readErrorBody(error);
+            if (UploadErrors.isDuplicate(error)) {
+                DuplicateResourceInfo existing = UploadErrors.parseDuplicate(errorBody);
+                dao.updateStatus(id, PendingUploadEntity.STATUS_DUPLICATE,
+                    existing != null ? gson.toJson(existing) : null, now);
+                releaseUri(uri);
+                return false;
+            }
+
+            if (isTransient(error) && upload.getAttempts() + 1 < MAX_ATTEMPTS) {
+                Log.w(TAG, "Upload " + id + " failed, will retry", error);
+                dao.requeue(id, now);
+                return true;
+            }
+
+            Log.e(TAG, "Upload " + id + " failed", error);
+            dao.updateStatus(id, PendingUploadEntity.STATUS_FAILED, UploadErrors.describe(error, errorBody), now);
+            releaseUri(uri);
+            return false;
+        } finally {
+            activeUploads.remove(id);
+        }
+    }
+
+    private void requeueOrphans(long now) {
+        for (PendingUploadEntity upload : dao.getActiveSync()) {
+            if (PendingUploadEntity.STATUS_UPLOADING.equals(upload.getStatus())
+                    && !activeUploads.contains(upload.getId())) {
+                Log.d(TAG, "Resuming interrupted upload " + upload.getId());
+                dao.requeue(upload.getId(), now);
+            }
+        }
+    }
+
+    private void releaseUri(Uri uri) {
+        try {
+            getApplicationContext().getContentResolver()
+                .releasePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        } catch (SecurityException ignored) {
+            // Permission was not persisted (e.g. picked with ACTION_GET_CONTENT)
+        }
+    }
+
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof HttpException) {
+            int code = ((HttpException) error).code();
+            return code >= 500 || code == 408 || code == 429;
+        }
+        return error instanceof IOException && !(error instanceof EOFException);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        // blockingGet wraps checked exceptions in a RuntimeException
+        if (error instanceof RuntimeException && !(error instanceof HttpException) && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Post aggregate progress across every queued and running upload
+     */
+    private void showProgress() {
+        List<PendingUploadEntity> active = dao.getActiveSync();
+        long total = 0;
+        long uploaded = 0;
+        for (PendingUploadEntity upload : active) {
+            total += upload.getSizeBytes();
+            uploaded += upload.getBytesUploaded();
+        }
+        int percent = total > 0 ? (int) ((100 * uploaded) / total) : 0;
+
+        try {
+            setForegroundAsync(createForegroundInfo(active.size(), percent));
+        } catch (IllegalStateException e) {
+            // Foreground start not allowed from the background on this Android version
+            Log.w(TAG, "Could not promote upload to foreground", e);
+        }
+    }
+
+    private ForegroundInfo createForegroundInfo(int fileCount, int percent) {
+        Context context = getApplicationContext();
+        createNotificationChannel(context);
+
+        String title = fileCount == 1 ? "Uploading 1 file" : "Uploading " + fileCount + " files";
+        Notification notification = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_cloud_upload)
+            .setContentTitle(title)
+            .setContentText(percent + "%")
+            .setProgress(100, percent, fileCount == 0)
+            .setOngoing(true)
+            .setOnlyAlertOnce(true)
+            .setPriority(NotificationCompat.PRIORITY_LOW)
+            .build();
+
+        int notificationId = unmeteredRun ? WIFI_NOTIFICATION_ID : NOTIFICATION_ID;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return new ForegroundInfo(notificationId, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC);
+        }
+        return new ForegroundInfo(notificationId, notification);
+    }
+
+    private static void createNotificationChannel(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        if (manager != null && manager.getNotificationChannel(CHANNEL_ID) == null) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID, "Uploads", NotificationManager.IMPORTANCE_LOW);
+            channel.setDescription("Progress of files being uploaded");
+            manager.createNotificationChannel(channel);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.campusvault.data.upload;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Bounds the number of chunks in flight and tunes that bound from measured throughput.
+ *
+ * The limit climbs by one while aggregate throughput keeps improving, backs off by one
+ * when an extra stream stops paying for itself, and halves when a chunk fails.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Throughput must improve by this much before another stream is added
+    private static final double GAIN_THRESHOLD = 1.10;
+    private static final long MIN_WINDOW_NS = 500_000_000L; // 500 ms
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private int limit;
+    private int inFlight;
+
+    private long windowStartNs;
+    private long windowBytes;
+    private double lastWindowThroughput;
+    private boolean lastChangeWasIncrease = true;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.windowStartNs = System.nanoTime();
+    }
+
+    /**
+     * Block until a slot is free
+     */
+    public synchronized void acquire() throws InterruptedIOException {
+        try {
+            while (inFlight >= limit) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload cancelled");
+        }
+        inFlight++;
+    }
+
+    /**
+     * Return a slot after a chunk was sent
+     */
+    public synchronized void onSuccess(long bytes) {
+        inFlight--;
+        windowBytes += bytes;
+        long now = System.nanoTime();
+        long elapsed = now - windowStartNs;
+        // Only judge a window once every slot had a chance to complete a chunk
+        if (elapsed >= MIN_WINDOW_NS && windowBytes > 0) {
+            double throughput = windowBytes / (elapsed / 1_000_000_000.0);
+            adjust(throughput);
+            windowStartNs = now;
+            windowBytes = 0;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Return a slot after a chunk attempt failed
+     */
+    public synchronized void onFailure() {
+        inFlight--;
+        limit = Math.max(minLimit, limit / 2);
+        lastChangeWasIncrease = false;
+        lastWindowThroughput = 0;
+        windowStartNs = System.nanoTime();
+        windowBytes = 0;
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    private void adjust(double throughput) {
+        if (lastWindowThroughput == 0 || throughput >= lastWindowThroughput * GAIN_THRESHOLD) {
+            // Still scaling - try one more stream
+            if (limit < maxLimit) {
+                limit++;
+                lastChangeWasIncrease = true;
+            }
+        } else if (lastChangeWasIncrease && throughput < lastWindowThroughput && limit > minLimit) {
+            // The last extra stream made things worse - give it back
+            limit--;
+            lastChangeWasIncrease = false;
+        }
+        lastWindowThroughput = throughput;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.campusvault.data.upload;
+
+import java.io.IOException;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * RequestBody over a slice of a reusable chunk buffer.
+ * Writes in small segments so byte-level progress can be reported while the chunk is on the wire.
+ */
+public class ChunkRequestBody extends RequestBody {
+
+    public interface WriteListener {
+        /**
+         * @param chunkBytesWritten bytes of this chunk written so far in the current attempt
+         */
+        void onChunkProgress(long chunkBytesWritten);
+    }
+
+    private static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+    private static final int SEGMENT_SIZE = 8192;
+
+    private final byte[] buffer;
+    private final int length;
+    private final WriteListener listener;
+
+    public ChunkRequestBody(byte[] buffer, int length, WriteListener listener) {
+        this.buffer = buffer;
+        this.length = length;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return OCTET_STREAM;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        int written = 0;
+        while (written < length) {
+            int count = Math.min(SEGMENT_SIZE, length - written);
+            sink.write(buffer, written, count);
+            written += count;
+            if (listener != null) {
+                listener.onChunkProgress(written);
+            }
+        }
+    }
+}
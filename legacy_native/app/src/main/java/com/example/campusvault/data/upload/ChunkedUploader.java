@@ -0,0 +1,409 @@
+package com.example.campusvault.data.upload;
+
+import android.util.Log;
+import com.example.campusvault.data.api.ApiService;
+import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.data.models.UploadCompleteRequest;
+import com.example.campusvault.data.models.UploadSessionRequest;
+import com.example.campusvault.data.models.UploadSessionResponse;
+import io.reactivex.rxjava3.core.Single;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import retrofit2.HttpException;
+
+/**
+ * Streams a file to the chunked upload endpoints in fixed-size chunks.
+ *
+ * The file is read once, front to back, and each chunk is handed to a worker so several
+ * chunks are on the wire at the same time. An {@link AdaptiveConcurrencyLimiter} decides how
+ * many, based on measured throughput, which also bounds memory to that many chunk buffers.
+ * A failed chunk is retried on its own with exponential backoff. Every acknowledged chunk is
+ * recorded in an {@link UploadSessionStore}, so a dropped connection (or a later retry by the
+ * user) continues with the missing chunks instead of starting over. The session is only
+ * finalized once every chunk checksum has been acknowledged.
+ *
+ * The call is blocking and should run on a background thread.
+ */
+public class ChunkedUploader {
+
+    private static final String TAG = "ChunkedUploader";
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024; // 1 MB
+    private static final int MAX_RESUME_ATTEMPTS = 5;
+    private static final int MAX_CHUNK_ATTEMPTS = 4;
+    private static final long RETRY_BASE_DELAY_MS = 1000;
+
+    private static final int INITIAL_CONCURRENCY = 2;
+    private static final int MAX_CONCURRENCY = 6;
+
+    public interface ProgressListener {
+        void onProgress(long bytesUploaded, long totalBytes);
+    }
+
+    /**
+     * Thrown when the server has no chunked upload endpoints, so the caller can fall back.
+     */
+    public static class UnsupportedException extends IOException {
+        public UnsupportedException(String message) {
+            super(message);
+        }
+    }
+
+    private final ApiService api;
+    private final UploadSessionStore store;
+    private final int chunkSize;
+
+    public ChunkedUploader(ApiService api, UploadSessionStore store) {
+        this(api, store, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedUploader(ApiService api, UploadSessionStore store, int chunkSize) {
+        this.api = api;
+        this.store = store;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Upload a file, resuming a previous session for the same file and course unit if one exists.
+     */
+    public Resource upload(UploadSource source, int courseUnitId, String title, String description,
+                           String resourceType, ProgressListener listener) throws IOException {
+        long total = source.length();
+        if (total <= 0) {
+            throw new IOException("Cannot determine file size");
+        }
+
+        String key = source.fingerprint() + "|" + courseUnitId;
+        UploadSession session = resumeOrCreate(key, source, courseUnitId, title, description, resourceType);
+        report(listener, session.getAcknowledgedBytes(), total);
+
+        int attempt = 0;
+        boolean resyncFirst = false;
+        while (true) {
+            try {
+                if (resyncFirst) {
+                    resync(session);
+                    resyncFirst = false;
+                }
+                sendRemainingChunks(source, session, listener);
+                if (!session.isComplete()) {
+                    throw new IOException("Not every chunk was acknowledged");
+                }
+                Resource resource = await(api.completeUploadSession(
+                    session.getUploadId(), new UploadCompleteRequest(session.getChunkChecksums())));
+                store.remove(key);
+                return resource;
+            } catch (IOException | HttpException e) {
+                if (e instanceof InterruptedIOException || !isRetryable(e) || ++attempt > MAX_RESUME_ATTEMPTS) {
+                    throw e;
+                }
+                Log.w(TAG, "Upload interrupted with " + session.getAcknowledgedBytes() + " bytes acknowledged, resuming (attempt " + attempt + ")", e);
+                sleepBeforeRetry(attempt);
+                // Inside the try, so a resync that fails goes through the same retry budget
+                resyncFirst = true;
+            }
+        }
+    }
+
+    private UploadSession resumeOrCreate(String key, UploadSource source, int courseUnitId, String title,
+                                         String description, String resourceType) throws IOException {
+        UploadSession saved = store.get(key);
+        if (saved != null && saved.getTotalBytes() == source.length()) {
+            try {
+                resyncWithRetry(saved);
+                Log.d(TAG, "Resuming upload " + saved.getUploadId() + " with " + saved.getAcknowledgedBytes() + " bytes acknowledged");
+                return saved;
+            } catch (HttpException e) {
+                if (e.code() != 404 && e.code() != 410) {
+                    throw e;
+                }
+                // Session expired on the server - start over
+                store.remove(key);
+            }
+        }
+
+        UploadSessionRequest request = new UploadSessionRequest(
+            courseUnitId,
+            source.fileName(),
+            source.contentType(),
+            source.length(),
+            chunkSize,
+            title != null ? title : "",
+            description != null ? description : "",
+            resourceType
+        );
+
+        UploadSessionResponse created;
+        try {
+            created = await(api.createUploadSession(request));
+        } catch (HttpException e) {
+            if (e.code() == 404 || e.code() == 405 || e.code() == 501) {
+                throw new UnsupportedException("Chunked upload not available (" + e.code() + ")");
+            }
+            throw e;
+        }
+
+        int agreedChunkSize = created.getChunkSize() > 0 ? created.getChunkSize() : chunkSize;
+        UploadSession session = new UploadSession(created.getUploadId(), key, courseUnitId, source.length(), agreedChunkSize);
+        save(session);
+        return session;
+    }
+
+    /**
+     * Align the local session with the chunks the server actually holds
+     */
+    private void resync(UploadSession session) throws IOException {
+        UploadSessionResponse state = await(api.getUploadSession(session.getUploadId()));
+        if (state.getReceivedChunks() != null) {
+            session.retainReceived(new HashSet<>(state.getReceivedChunks()));
+        } else {
+            session.rewindTo(state.getOffset());
+        }
+        save(session);
+    }
+
+    /**
+     * {@link #resync} with the same backoff as the upload itself, for resuming a saved session
+     */
+    private void resyncWithRetry(UploadSession session) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                resync(session);
+                return;
+            } catch (IOException | HttpException e) {
+                if (e instanceof InterruptedIOException || !isRetryable(e) || attempt > MAX_RESUME_ATTEMPTS) {
+                    throw e;
+                }
+                Log.w(TAG, "Could not check upload " + session.getUploadId() + " (attempt " + attempt + "), retrying", e);
+                sleepBeforeRetry(attempt);
+            }
+        }
+    }
+
+    /**
+     * Read the file sequentially and send every unacknowledged chunk, several at a time
+     */
+    private void sendRemainingChunks(UploadSource source, UploadSession session,
+                                     ProgressListener listener) throws IOException {
+        long total = session.getTotalBytes();
+        int chunkCount = session.getChunkCount();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            INITIAL_CONCURRENCY, 1, MAX_CONCURRENCY);
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(MAX_CONCURRENCY);
+        Map<Integer, Long> inFlightBytes = new ConcurrentHashMap<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Future<?>> pending = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(MAX_CONCURRENCY);
+
+        try (InputStream in = source.open()) {
+            long position = 0;
+            for (int index = 0; index < chunkCount && failure.get() == null; index++) {
+                if (session.isAcknowledged(index)) {
+                    continue;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Upload cancelled");
+                }
+
+                limiter.acquire();
+                final int chunkIndex = index;
+                final int length = session.getChunkLength(index);
+                byte[] pooled = buffers.poll();
+                final byte[] buffer = pooled != null && pooled.length >= length ? pooled : new byte[session.getChunkSize()];
+                try {
+                    skipFully(in, session.getChunkStart(index) - position);
+                    if (readFully(in, buffer, length) < length) {
+                        throw new EOFException("File changed during upload");
+                    }
+                    position = session.getChunkStart(index) + length;
+                } catch (IOException | RuntimeException e) {
+                    limiter.onFailure();
+                    throw e;
+                }
+
+                pending.add(workers.submit(() -> {
+                    try {
+                        sendChunk(session, chunkIndex, buffer, length, limiter, written -> {
+                            inFlightBytes.put(chunkIndex, written);
+                            report(listener, session.getAcknowledgedBytes() + sum(inFlightBytes), total);
+                        });
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlightBytes.remove(chunkIndex);
+                        buffers.offer(buffer);
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload cancelled");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Exception error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error instanceof HttpException) {
+            throw (HttpException) error;
+        }
+        if (error != null) {
+            throw new IOException(error);
+        }
+        report(listener, session.getAcknowledgedBytes(), total);
+    }
+
+    /**
+     * Send one chunk, retrying it with exponential backoff without disturbing the others
+     */
+    private void sendChunk(UploadSession session, int index, byte[] buffer, int length,
+                           AdaptiveConcurrencyLimiter limiter,
+                           ChunkRequestBody.WriteListener writeListener) throws IOException {
+        // The caller acquired the permit for the first attempt; each permit is returned exactly once
+        boolean holdingPermit = true;
+        boolean sent = false;
+        String checksum;
+        try {
+            long start = session.getChunkStart(index);
+            checksum = ContentHasher.sha256Hex(buffer, length);
+            String range = "bytes " + start + "-" + (start + length - 1) + "/" + session.getTotalBytes();
+
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    ChunkRequestBody body = new ChunkRequestBody(buffer, length, writeListener);
+                    await(api.uploadChunk(session.getUploadId(), index, range, checksum, body));
+                    break;
+                } catch (IOException | HttpException e) {
+                    if (e instanceof InterruptedIOException || !isRetryable(e) || attempt >= MAX_CHUNK_ATTEMPTS) {
+                        throw e;
+                    }
+                    Log.w(TAG, "Chunk " + index + " failed (attempt " + attempt + "), retrying", e);
+                    limiter.onFailure();
+                    holdingPermit = false;
+                    sleepBeforeRetry(attempt);
+                    limiter.acquire();
+                    holdingPermit = true;
+                }
+            }
+            sent = true;
+        } finally {
+            if (holdingPermit) {
+                if (sent) {
+                    limiter.onSuccess(length);
+                } else {
+                    limiter.onFailure();
+                }
+            }
+        }
+
+        session.acknowledge(index, checksum);
+        save(session);
+    }
+
+    private void save(UploadSession session) {
+        // Serialize under the session lock so a concurrent acknowledgement can't change it mid-write
+        synchronized (session) {
+            store.save(session);
+        }
+    }
+
+    private static long sum(Map<Integer, Long> values) {
+        long total = 0;
+        for (Long value : values.values()) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof HttpException) {
+            int code = ((HttpException) e).code();
+            return code >= 500 || code == 408 || code == 429;
+        }
+        return !(e instanceof UnsupportedException) && !(e instanceof EOFException);
+    }
+
+    private static void sleepBeforeRetry(int attempt) throws InterruptedIOException {
+        try {
+            Thread.sleep(RETRY_BASE_DELAY_MS << Math.min(attempt - 1, 4));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload cancelled");
+        }
+    }
+
+    private static void report(ProgressListener listener, long uploaded, long total) {
+        if (listener != null) {
+            listener.onProgress(Math.min(uploaded, total), total);
+        }
+    }
+
+    /**
+     * Block on a Retrofit Single, surfacing network failures as IOException
+     */
+    private static <T> T await(Single<T> single) throws IOException {
+        try {
+            return single.blockingGet();
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Upload cancelled");
+            }
+            throw e;
+        }
+    }
+
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                // Some content providers don't support skip - read and discard instead
+                if (in.read() == -1) {
+                    throw new EOFException("File is shorter than the uploaded offset");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = in.read(buffer, total, length - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.campusvault.data.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 helpers for upload content. Files are hashed from a stream with a fixed
+ * buffer, so hashing a large file costs no more memory than hashing a small one.
+ */
+public final class ContentHasher {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContentHasher() {
+    }
+
+    /**
+     * Hash the full content of an upload source, returned as lowercase hex
+     */
+    public static String sha256Hex(UploadSource source) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = source.open()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Hashing cancelled");
+                }
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Hash the first {@code length} bytes of a buffer, returned as lowercase hex
+     */
+    public static String sha256Hex(byte[] data, int length) {
+        MessageDigest digest = newDigest();
+        digest.update(data, 0, length);
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        char[] out = new char[hash.length * 2];
+        final char[] digits = "0123456789abcdef".toCharArray();
+        for (int i = 0; i < hash.length; i++) {
+            out[i * 2] = digits[(hash[i] >> 4) & 0x0f];
+            out[i * 2 + 1] = digits[hash[i] & 0x0f];
+        }
+        return new String(out);
+    }
+}
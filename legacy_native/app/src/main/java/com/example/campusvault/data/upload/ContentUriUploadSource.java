@@ -0,0 +1,80 @@
+package com.example.campusvault.data.upload;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * UploadSource backed by a content:// URI from the system file picker.
+ */
+public class ContentUriUploadSource implements UploadSource {
+
+    private final ContentResolver resolver;
+    private final Uri uri;
+    private final String fileName;
+    private final String contentType;
+    private final long length;
+
+    public ContentUriUploadSource(ContentResolver resolver, Uri uri) {
+        this.resolver = resolver;
+        this.uri = uri;
+
+        String name = null;
+        long size = -1;
+        try (Cursor cursor = resolver.query(uri, null, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                int nameIndex = cursor.getColumnIndex(OpenableColumns.DISPLAY_NAME);
+                int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+                if (nameIndex != -1) name = cursor.getString(nameIndex);
+                if (sizeIndex != -1 && !cursor.isNull(sizeIndex)) size = cursor.getLong(sizeIndex);
+            }
+        } catch (Exception e) {
+            // Fall back to URI-derived values below
+        }
+        if (name == null) {
+            name = uri.getLastPathSegment();
+        }
+        this.fileName = name != null ? name : "upload_file";
+        this.length = size;
+
+        String type = resolver.getType(uri);
+        this.contentType = type != null ? type : "application/octet-stream";
+    }
+
+    @Override
+    public InputStream open() throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new FileNotFoundException("Cannot open " + uri);
+        }
+        return in;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public String fileName() {
+        return fileName;
+    }
+
+    @Override
+    public String contentType() {
+        return contentType;
+    }
+
+    @Override
+    public String fingerprint() {
+        return uri.toString() + "|" + length;
+    }
+
+    public Uri getUri() {
+        return uri;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.campusvault.data.upload;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import com.google.gson.Gson;
+
+/**
+ * UploadSessionStore backed by SharedPreferences, one JSON entry per session.
+ * Sessions older than the server-side expiry are discarded on read.
+ */
+public class PreferencesUploadSessionStore implements UploadSessionStore {
+
+    private static final String PREFS_NAME = "upload_sessions";
+    private static final long SESSION_TTL_MS = 24 * 60 * 60 * 1000L; // 24 hours
+
+    private final SharedPreferences prefs;
+    private final Gson gson = new Gson();
+
+    public PreferencesUploadSessionStore(Context context) {
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public synchronized UploadSession get(String fingerprint) {
+        String json = prefs.getString(fingerprint, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            UploadSession session = gson.fromJson(json, UploadSession.class);
+            if (session == null || System.currentTimeMillis() - session.getCreatedAt() > SESSION_TTL_MS) {
+                remove(fingerprint);
+                return null;
+            }
+            return session;
+        } catch (Exception e) {
+            remove(fingerprint);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void save(UploadSession session) {
+        prefs.edit().putString(session.getFingerprint(), gson.toJson(session)).apply();
+    }
+
+    @Override
+    public synchronized void remove(String fingerprint) {
+        prefs.edit().remove(fingerprint).apply();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.campusvault.data.upload;
+
+import android.util.Log;
+import com.example.campusvault.data.api.ApiService;
+import com.example.campusvault.data.models.DuplicateCheckResponse;
+import com.example.campusvault.data.models.HashDuplicateCheckRequest;
+import com.example.campusvault.data.models.LinkResourceRequest;
+import com.example.campusvault.data.models.MobileUploadRequest;
+import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.utils.StreamingBase64UploadBody;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Full upload pipeline for one file: hash-only duplicate check (linking the existing
+ * resource on a hit), then a chunked upload, falling back to the JSON/base64 endpoint
+ * when the server has no chunked upload support.
+ *
+ * The call is blocking and should run on a background thread.
+ */
+public class ResourceUploader {
+
+    private static final String TAG = "ResourceUploader";
+
+    private final ApiService api;
+    private final ChunkedUploader chunkedUploader;
+
+    public ResourceUploader(ApiService api, UploadSessionStore sessionStore) {
+        this.api = api;
+        this.chunkedUploader = new ChunkedUploader(api, sessionStore);
+    }
+
+    public Resource upload(UploadSource source, int courseUnitId, String title, String description,
+                           String resourceType, ChunkedUploader.ProgressListener listener) throws IOException {
+        Resource existing = findDuplicate(source, courseUnitId);
+        if (existing != null) {
+            // Same content is already on the server - link it instead of uploading
+            Log.d(TAG, "Duplicate of resource " + existing.getId() + ", linking");
+            return api.linkResource(existing.getId(), new LinkResourceRequest(courseUnitId, title, description))
+                .blockingGet();
+        }
+
+        try {
+            return chunkedUploader.upload(source, courseUnitId, title, description, resourceType, listener);
+        } catch (ChunkedUploader.UnsupportedException e) {
+            Log.w(TAG, "Chunked upload unavailable, using base64 upload");
+            return uploadBase64(source, courseUnitId, title, description, resourceType, listener);
+        }
+    }
+
+    /**
+     * Hash the file locally and ask the server whether it already has this content.
+     * A failed check never blocks the upload; it is treated as "not a duplicate".
+     */
+    private Resource findDuplicate(UploadSource source, int courseUnitId) throws InterruptedIOException {
+        try {
+            String hash = ContentHasher.sha256Hex(source);
+            DuplicateCheckResponse check = api.checkDuplicateByHash(
+                new HashDuplicateCheckRequest(hash, courseUnitId)).blockingGet();
+            return check.isDuplicate() ? check.getExisting() : null;
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (Exception e) {
+            Log.w(TAG, "Duplicate pre-check failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Upload through the JSON/base64 mobile endpoint. The file is encoded while it is
+     * being sent, so progress reflects bytes actually written to the connection.
+     */
+    private Resource uploadBase64(UploadSource source, int courseUnitId, String title, String description,
+                                  String resourceType, ChunkedUploader.ProgressListener listener) {
+        // Envelope only - the file content is streamed by the request body
+        MobileUploadRequest request = new MobileUploadRequest(
+            courseUnitId,
+            source.fileName(),
+            source.contentType(),
+            null,
+            title != null ? title : "",
+            description != null ? description : "",
+            resourceType != null ? resourceType : "notes"
+        );
+
+        long total = source.length();
+        StreamingBase64UploadBody body = new StreamingBase64UploadBody(request, source,
+            (percentage, kbPerSecond) -> {
+                if (listener != null) {
+                    listener.onProgress(total * percentage / 100, total);
+                }
+            });
+        return api.mobileUploadResourceStream(body).blockingGet();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.campusvault.data.upload;
+
+import android.util.Log;
+import com.example.campusvault.data.models.DuplicateConflictError;
+import com.example.campusvault.data.models.DuplicateResourceInfo;
+import com.google.gson.Gson;
+import java.util.Map;
+import retrofit2.HttpException;
+
+/**
+ * Turns upload failures into messages for the user and extracts duplicate info from 409 responses.
+ * An HTTP error body can only be read once, so callers read it with {@link #readErrorBody}
+ * and pass the string to the other helpers.
+ */
+public final class UploadErrors {
+
+    private static final String TAG = "UploadErrors";
+
+    private UploadErrors() {
+    }
+
+    public static String readErrorBody(Throwable error) {
+        if (!(error instanceof HttpException)) {
+            return null;
+        }
+        HttpException httpError = (HttpException) error;
+        try {
+            if (httpError.response() != null && httpError.response().errorBody() != null) {
+                String body = httpError.response().errorBody().string();
+                Log.e(TAG, "Server error body: " + body);
+                return body;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to read error body", e);
+        }
+        return null;
+    }
+
+    public static boolean isDuplicate(Throwable error) {
+        return error instanceof HttpException && ((HttpException) error).code() == 409;
+    }
+
+    /**
+     * Existing resource reported by a 409 Conflict body, or null if it can't be parsed
+     */
+    public static DuplicateResourceInfo parseDuplicate(String errorBody) {
+        if (errorBody == null) {
+            return null;
+        }
+        try {
+            // The backend returns {"detail": {"message": "...", "resource": {...}}}
+            DuplicateConflictError conflictError = new Gson().fromJson(errorBody, DuplicateConflictError.class);
+            return conflictError != null ? conflictError.getResource() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * User-facing message for an upload failure
+     */
+    public static String describe(Throwable error, String errorBody) {
+        if (!(error instanceof HttpException)) {
+            return "Network error: " + error.getMessage();
+        }
+
+        HttpException httpError = (HttpException) error;
+        if (httpError.code() == 409) {
+            return "This file already exists in the system";
+        }
+
+        // Try to get the actual error message from the server
+        String serverMessage = null;
+        if (errorBody != null && errorBody.contains("detail")) {
+            try {
+                // FastAPI error format: {"detail": "message"}
+                Map<?, ?> errorMap = new Gson().fromJson(errorBody, Map.class);
+                Object detail = errorMap.get("detail");
+                if (detail instanceof String) {
+                    serverMessage = (String) detail;
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to parse error body", e);
+            }
+        }
+
+        switch (httpError.code()) {
+            case 400:
+                return serverMessage != null ? serverMessage : "Invalid request. Please check your input.";
+            case 401:
+                return "Session expired (401). Please login again.";
+            case 403:
+                return serverMessage != null ? serverMessage : "Access denied (403). You may not have permission for this action.";
+            case 413:
+                return "File too large for server.";
+            case 500:
+                return serverMessage != null ? serverMessage : "Server error. Please try again later.";
+            default:
+                return serverMessage != null ? serverMessage : "Upload failed (Error " + httpError.code() + ")";
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.campusvault.data.upload;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Client-side record of a chunked upload, persisted so a dropped connection
+ * or app restart resumes without re-sending acknowledged chunks.
+ *
+ * Chunks may be acknowledged out of order when they are sent in parallel; a null
+ * checksum marks a chunk the server has not confirmed yet.
+ */
+public class UploadSession {
+
+    private String uploadId;
+    private String fingerprint;
+    private int courseUnitId;
+    private long totalBytes;
+    private int chunkSize;
+    private List<String> chunkChecksums = new ArrayList<>();
+    private long createdAt;
+
+    public UploadSession() {
+    }
+
+    public UploadSession(String uploadId, String fingerprint, int courseUnitId, long totalBytes, int chunkSize) {
+        this.uploadId = uploadId;
+        this.fingerprint = fingerprint;
+        this.courseUnitId = courseUnitId;
+        this.totalBytes = totalBytes;
+        this.chunkSize = chunkSize;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public int getChunkCount() {
+        if (chunkSize <= 0) return 0;
+        return (int) ((totalBytes + chunkSize - 1) / chunkSize);
+    }
+
+    public long getChunkStart(int chunkIndex) {
+        return (long) chunkIndex * chunkSize;
+    }
+
+    public int getChunkLength(int chunkIndex) {
+        return (int) Math.min(chunkSize, totalBytes - getChunkStart(chunkIndex));
+    }
+
+    /**
+     * Record a chunk the server has acknowledged
+     */
+    public synchronized void acknowledge(int chunkIndex, String checksum) {
+        while (chunkChecksums.size() <= chunkIndex) {
+            chunkChecksums.add(null);
+        }
+        chunkChecksums.set(chunkIndex, checksum);
+    }
+
+    public synchronized boolean isAcknowledged(int chunkIndex) {
+        return chunkIndex < chunkChecksums.size() && chunkChecksums.get(chunkIndex) != null;
+    }
+
+    /**
+     * Forget acknowledgements past a server-reported contiguous offset
+     */
+    public synchronized void rewindTo(long serverOffset) {
+        int keep = chunkSize > 0 ? (int) (serverOffset / chunkSize) : 0;
+        for (int i = keep; i < chunkChecksums.size(); i++) {
+            chunkChecksums.set(i, null);
+        }
+    }
+
+    /**
+     * Forget acknowledgements for chunks the server does not list as received
+     */
+    public synchronized void retainReceived(Collection<Integer> receivedChunks) {
+        for (int i = 0; i < chunkChecksums.size(); i++) {
+            if (!receivedChunks.contains(i)) {
+                chunkChecksums.set(i, null);
+            }
+        }
+    }
+
+    /**
+     * Bytes covered by acknowledged chunks
+     */
+    public synchronized long getAcknowledgedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < chunkChecksums.size(); i++) {
+            if (chunkChecksums.get(i) != null) {
+                bytes += getChunkLength(i);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * True once every chunk has an acknowledged checksum
+     */
+    public synchronized boolean isComplete() {
+        int count = getChunkCount();
+        for (int i = 0; i < count; i++) {
+            if (!isAcknowledged(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getCourseUnitId() {
+        return courseUnitId;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public synchronized List<String> getChunkChecksums() {
+        return new ArrayList<>(chunkChecksums);
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.campusvault.data.upload;
+
+/**
+ * Persists in-flight upload sessions keyed by file fingerprint.
+ */
+public interface UploadSessionStore {
+
+    UploadSession get(String key);
+
+    void save(UploadSession session);
+
+    void remove(String key);
+}
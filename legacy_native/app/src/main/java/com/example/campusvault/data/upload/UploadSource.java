@@ -0,0 +1,30 @@
+package com.example.campusvault.data.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A file that can be uploaded in chunks.
+ * Implementations must be able to re-open the stream so an interrupted upload can resume.
+ */
+public interface UploadSource {
+
+    /**
+     * Open a fresh stream positioned at the start of the file
+     */
+    InputStream open() throws IOException;
+
+    /**
+     * Total size in bytes, or -1 if unknown
+     */
+    long length();
+
+    String fileName();
+
+    String contentType();
+
+    /**
+     * Stable key identifying this file across app restarts, used to find a persisted session
+     */
+    String fingerprint();
+}
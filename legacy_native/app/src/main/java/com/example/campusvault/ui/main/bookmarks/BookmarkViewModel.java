@@ -6,13 +6,14 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import com.example.campusvault.data.api.ApiClient;
-import com.example.campusvault.data.api.ApiService;
 import com.example.campusvault.data.local.EncryptedPreferencesManager;
 import com.example.campusvault.data.local.SharedPreferencesManager;
 import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.data.repository.BookmarkRepository;
+import com.example.campusvault.data.sync.MutationOutbox;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.disposables.Disposable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -20,8 +21,10 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 public class BookmarkViewModel extends AndroidViewModel {
-    private final ApiService api;
+    private final BookmarkRepository repository;
+    private final MutationOutbox outbox;
     private final CompositeDisposable disposables = new CompositeDisposable();
+    private Disposable refresh;
 
     private final MutableLiveData<List<Resource>> _bookmarks = new MutableLiveData<>();
     public LiveData<List<Resource>> bookmarks = _bookmarks;
@@ -33,6 +36,7 @@ public class BookmarkViewModel extends AndroidViewModel {
     public LiveData<String> error = _error;
 
     private List<Resource> allBookmarks = new ArrayList<>();
+    private boolean cacheLoaded = false;
     private String currentSort = "recent";
     private String currentType = null;
     private String searchQuery = null;
@@ -41,34 +45,57 @@ public class BookmarkViewModel extends AndroidViewModel {
         super(application);
         SharedPreferencesManager prefs = new SharedPreferencesManager(application);
         EncryptedPreferencesManager encPrefs = new EncryptedPreferencesManager(application);
-        api = ApiClient.getInstance(prefs, encPrefs).getApiService();
-        
+        repository = new BookmarkRepository(application, ApiClient.getInstance(prefs, encPrefs).getApiService());
+        outbox = MutationOutbox.getInstance(application);
+
+        // Room is the source of truth: it emits the cached list at once and again after
+        // every revalidation or bookmark change that actually moved a row
+        disposables.add(repository.observeBookmarks()
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(
+                resources -> {
+                    allBookmarks = new ArrayList<>(resources);
+                    cacheLoaded = true;
+                    // An empty cache on first open is not "no bookmarks" until the server says so
+                    if (!allBookmarks.isEmpty() || !Boolean.TRUE.equals(_loading.getValue())) {
+                        applyFiltersAndSort();
+                    }
+                },
+                err -> android.util.Log.e("BookmarkViewModel", "Error reading cached bookmarks", err)
+            ));
+
         loadBookmarks();
     }
 
+    /**
+     * Revalidate the cached list in the background; the list itself updates through Room
+     */
     public void loadBookmarks() {
+        if (refresh != null && !refresh.isDisposed()) {
+            return;
+        }
         _loading.setValue(true);
         _error.setValue(null);
-        
-        disposables.add(api.getBookmarkedResources()
-            .subscribeOn(Schedulers.io())
+
+        refresh = repository.refreshBookmarks()
             .observeOn(AndroidSchedulers.mainThread())
             .subscribe(
-                resources -> {
+                () -> {
                     _loading.setValue(false);
-                    allBookmarks = resources != null ? resources : new ArrayList<>();
-                    // Mark all as bookmarked since they came from bookmarks endpoint
-                    for (Resource r : allBookmarks) {
-                        r.setBookmarked(true);
+                    if (cacheLoaded) {
+                        applyFiltersAndSort();
                     }
-                    applyFiltersAndSort();
                 },
                 err -> {
                     _loading.setValue(false);
+                    if (cacheLoaded) {
+                        applyFiltersAndSort();
+                    }
                     _error.setValue("Failed to load bookmarks: " + err.getMessage());
                     android.util.Log.e("BookmarkViewModel", "Error loading bookmarks", err);
                 }
-            ));
+            );
+        disposables.add(refresh);
     }
 
     public void setSortAndType(String sort, String type) {
@@ -83,31 +110,27 @@ public class BookmarkViewModel extends AndroidViewModel {
     }
 
     public void bookmarkResource(int resourceId) {
-        disposables.add(api.bookmarkResource(resourceId)
-            .subscribeOn(Schedulers.io())
+        // The outbox sets the cached flag, and Room puts the resource back in the list
+        disposables.add(outbox.bookmark(resourceId)
             .observeOn(AndroidSchedulers.mainThread())
             .subscribe(
-                () -> loadBookmarks(), // Refresh list
+                () -> { /* Restored by the Room observer */ },
                 err -> _error.setValue("Failed to bookmark: " + err.getMessage())
             ));
     }
 
     public void unbookmarkResource(int resourceId) {
-        // Optimistically remove from local list
+        // Drop it from the list now so a swiped row does not flash back before Room re-emits
         allBookmarks = allBookmarks.stream()
             .filter(r -> r.getId() != resourceId)
             .collect(Collectors.toList());
         applyFiltersAndSort();
-        
-        disposables.add(api.unbookmarkResource(resourceId)
-            .subscribeOn(Schedulers.io())
+
+        disposables.add(outbox.unbookmark(resourceId)
             .observeOn(AndroidSchedulers.mainThread())
             .subscribe(
-                () -> { /* Already removed optimistically */ },
-                err -> {
-                    _error.setValue("Failed to remove bookmark: " + err.getMessage());
-                    loadBookmarks(); // Reload to restore state
-                }
+                () -> { /* Already removed locally */ },
+                err -> _error.setValue("Failed to remove bookmark: " + err.getMessage())
             ));
     }
 
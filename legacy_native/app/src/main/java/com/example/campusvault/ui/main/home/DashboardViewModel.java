@@ -7,6 +7,9 @@ import com.example.campusvault.data.api.ApiService;
 import com.example.campusvault.data.models.CourseUnit;
 import com.example.campusvault.data.models.PaginatedResponse;
 import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.data.paging.KeysetPager;
+import com.example.campusvault.data.paging.TrendingKey;
+import com.example.campusvault.data.paging.UploadedAtKey;
 import com.example.campusvault.data.repository.ResourceRepository;
 import com.example.campusvault.data.repository.UniversityRepository;
 import com.example.campusvault.data.sync.NetworkMonitor;
@@ -26,6 +29,12 @@ public class DashboardViewModel extends BaseViewModel {
     private final CompositeDisposable disposables = new CompositeDisposable();
     private Disposable courseUnitsDisposable;
 
+    // Rows per page, how close to the end loading starts, and how many pages stay in memory
+    private static final KeysetPager.Config PAGING = new KeysetPager.Config(30, 10, 6);
+    private KeysetPager<Resource, TrendingKey> trendingPager;
+    private KeysetPager<Resource, UploadedAtKey> recentPager;
+
+    // Null entries are rows whose page the pager released
     private final MutableLiveData<List<Resource>> _trending = new MutableLiveData<>();
     public final LiveData<List<Resource>> trending = _trending;
 
@@ -42,116 +51,50 @@ public class DashboardViewModel extends BaseViewModel {
         this.networkMonitor = NetworkMonitor.getInstance(application);
     }
 
+    /**
+     * Start the trending list, or on a later call keep its position and just revalidate it
+     */
     public void loadTrending() {
-        // Subscribe to DB - instant local data
-        Disposable d = resourceRepo.getTrendingResources()
-            .observeOn(AndroidSchedulers.mainThread())
-            .subscribe(
-                data -> {
-                    _trending.postValue(data);
-                    if (!data.isEmpty()) {
-                        setLoading(false);
-                    }
-                },
-                err -> {}
-            );
-        disposables.add(d);
-
-        if (_trending.getValue() == null || _trending.getValue().isEmpty()) {
-            setLoading(true);
+        if (trendingPager == null) {
+            trendingPager = resourceRepo.pageTrendingResources(PAGING);
+            disposables.add(trendingPager.items().subscribe(_trending::setValue));
+            trendingPager.start();
         }
-        
-        // Always refresh from API in background if online
         if (networkMonitor.isOnline()) {
-            d = resourceRepo.refreshTrendingResources()
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(
-                    () -> setLoading(false),
-                    throwable -> {
-                        setLoading(false);
-                        handleException(throwable);
-                    }
-                );
-            disposables.add(d);
+            trendingPager.refresh();
         }
     }
-    
+
     /**
-     * Force refresh trending (e.g., pull-to-refresh)
+     * Called as the trending list scrolls so its pager can load ahead and release far-away pages
      */
-    public void forceRefreshTrending() {
-        if (!networkMonitor.isOnline()) {
-            handleException(new IllegalStateException("Cannot refresh while offline. Viewing cached data."));
-            return;
+    public void onTrendingVisibleRange(int first, int last) {
+        if (trendingPager != null) {
+            trendingPager.onVisibleRange(first, last);
         }
-        
-        setLoading(true);
-        Disposable d = resourceRepo.refreshTrendingResources()
-            .observeOn(AndroidSchedulers.mainThread())
-            .subscribe(
-                () -> setLoading(false),
-                throwable -> {
-                    setLoading(false);
-                    handleException(throwable);
-                }
-            );
-        disposables.add(d);
     }
 
+    /**
+     * Start the recent list, or on a later call keep its position and just revalidate it
+     */
     public void loadRecent() {
-        // Subscribe to DB - instant local data
-        Disposable d = resourceRepo.getRecentResources()
-            .observeOn(AndroidSchedulers.mainThread())
-            .subscribe(
-                data -> {
-                    _recent.postValue(data);
-                    if (!data.isEmpty()) {
-                        setLoading(false);
-                    }
-                },
-                err -> {}
-            );
-        disposables.add(d);
-
-        if (_recent.getValue() == null || _recent.getValue().isEmpty()) {
-            setLoading(true);
+        if (recentPager == null) {
+            recentPager = resourceRepo.pageRecentResources(PAGING);
+            disposables.add(recentPager.items().subscribe(_recent::setValue));
+            recentPager.start();
         }
-        
-        // Always refresh from API in background if online
         if (networkMonitor.isOnline()) {
-            d = resourceRepo.refreshRecentResources()
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(
-                    () -> setLoading(false),
-                    throwable -> {
-                        setLoading(false);
-                        handleException(throwable);
-                    }
-                );
-            disposables.add(d);
+            recentPager.refresh();
         }
     }
-    
+
     /**
-     * Force refresh recent (e.g., pull-to-refresh)
+     * Called as the recent list scrolls so its pager can load ahead and release far-away pages
      */
-    public void forceRefreshRecent() {
-        if (!networkMonitor.isOnline()) {
-            handleException(new IllegalStateException("Cannot refresh while offline. Viewing cached data."));
-            return;
+    public void onRecentVisibleRange(int first, int last) {
+        if (recentPager != null) {
+            recentPager.onVisibleRange(first, last);
         }
-        
-        setLoading(true);
-        Disposable d = resourceRepo.refreshRecentResources()
-            .observeOn(AndroidSchedulers.mainThread())
-            .subscribe(
-                () -> setLoading(false),
-                throwable -> {
-                    setLoading(false);
-                    handleException(throwable);
-                }
-            );
-        disposables.add(d);
     }
 
     public void loadCourseUnits(Integer programId, Integer year, Integer semester) {
@@ -323,5 +266,11 @@ public class DashboardViewModel extends BaseViewModel {
     protected void onCleared() {
         super.onCleared();
         disposables.clear();
+        if (trendingPager != null) {
+            trendingPager.dispose();
+        }
+        if (recentPager != null) {
+            recentPager.dispose();
+        }
     }
 }
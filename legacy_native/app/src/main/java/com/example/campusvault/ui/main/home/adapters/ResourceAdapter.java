@@ -48,7 +48,10 @@ public class ResourceAdapter extends ListAdapter<Resource, ResourceAdapter.VH> {
     public void onBindViewHolder(@NonNull VH holder, int position) {
         Resource resource = getItem(position);
         holder.bind(resource);
-        if (listener != null) {
+        if (resource == null) {
+            // Placeholder for a page the pager has released; it is reloaded as it scrolls in
+            holder.itemView.setOnClickListener(null);
+        } else if (listener != null) {
             holder.itemView.setOnClickListener(v -> listener.onResourceClicked(resource));
         }
     }
@@ -60,6 +63,13 @@ public class ResourceAdapter extends ListAdapter<Resource, ResourceAdapter.VH> {
             this.b = b;
         }
         void bind(Resource r) {
+            if (r == null) {
+                b.tvTitle.setText("");
+                b.tvSubtitle.setText("");
+                b.tvDownloads.setText("");
+                b.tvRating.setText("");
+                return;
+            }
             b.tvTitle.setText(r.getTitle());
             b.tvSubtitle.setText(r.getDescription());
             b.tvDownloads.setText(String.valueOf(r.getDownloadCount()));
@@ -0,0 +1,142 @@
+package com.example.campusvault.ui.main.resources;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.pdf.PdfRenderer;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.campusvault.databinding.ItemPdfPageBinding;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shows the pages of a PDF, rendering each one only when it scrolls into view.
+ * Rendered pages are kept in an LRU cache bounded by bitmap bytes.
+ */
+public class PdfPageAdapter extends RecyclerView.Adapter<PdfPageAdapter.PageViewHolder> {
+
+    private static final String TAG = "PdfPageAdapter";
+    // Placeholder height before a page is rendered (A4 portrait)
+    private static final float DEFAULT_ASPECT_RATIO = 1.414f;
+
+    private final PdfRenderer renderer;
+    private final int pageWidth;
+    // PdfRenderer only allows one open page at a time, so all rendering goes through one thread
+    private final ExecutorService renderExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<Integer> rendering = new HashSet<>();
+    private final LruCache<Integer, Bitmap> pageCache;
+
+    public PdfPageAdapter(PdfRenderer renderer, int pageWidth) {
+        this.renderer = renderer;
+        this.pageWidth = pageWidth;
+
+        // Use 1/8 of the available heap for rendered pages
+        int cacheSizeBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 8, Integer.MAX_VALUE);
+        this.pageCache = new LruCache<Integer, Bitmap>(cacheSizeBytes) {
+            @Override
+            protected int sizeOf(Integer page, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    @NonNull
+    @Override
+    public PageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemPdfPageBinding binding = ItemPdfPageBinding.inflate(
+            LayoutInflater.from(parent.getContext()), parent, false);
+        return new PageViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull PageViewHolder holder, int position) {
+        Bitmap bitmap = pageCache.get(position);
+        if (bitmap != null) {
+            holder.show(bitmap);
+        } else {
+            holder.showPlaceholder((int) (pageWidth * DEFAULT_ASPECT_RATIO));
+            render(position);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return renderer.getPageCount();
+    }
+
+    private void render(int position) {
+        if (!rendering.add(position)) {
+            return;
+        }
+        renderExecutor.execute(() -> {
+            Bitmap bitmap = null;
+            try {
+                bitmap = renderPage(position);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to render page " + position, e);
+            }
+            Bitmap result = bitmap;
+            mainHandler.post(() -> {
+                rendering.remove(position);
+                if (result != null) {
+                    pageCache.put(position, result);
+                    notifyItemChanged(position);
+                }
+            });
+        });
+    }
+
+    private Bitmap renderPage(int position) {
+        try (PdfRenderer.Page page = renderer.openPage(position)) {
+            int height = Math.max(1, (int) ((float) pageWidth * page.getHeight() / page.getWidth()));
+            Bitmap bitmap = Bitmap.createBitmap(pageWidth, height, Bitmap.Config.ARGB_8888);
+            // Pages are transparent by default
+            bitmap.eraseColor(Color.WHITE);
+            page.render(bitmap, null, null, PdfRenderer.Page.RENDER_MODE_FOR_DISPLAY);
+            return bitmap;
+        }
+    }
+
+    /**
+     * Stop rendering and close the document. The adapter can't be used afterwards.
+     */
+    public void release() {
+        mainHandler.removeCallbacksAndMessages(null);
+        // Close on the render thread so it can't race a page that is still being drawn
+        renderExecutor.execute(renderer::close);
+        renderExecutor.shutdown();
+        pageCache.evictAll();
+    }
+
+    static class PageViewHolder extends RecyclerView.ViewHolder {
+        private final ItemPdfPageBinding binding;
+
+        PageViewHolder(ItemPdfPageBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+
+        void show(Bitmap bitmap) {
+            ViewGroup.LayoutParams params = binding.ivPage.getLayoutParams();
+            params.height = ViewGroup.LayoutParams.WRAP_CONTENT;
+            binding.ivPage.setLayoutParams(params);
+            binding.ivPage.setImageBitmap(bitmap);
+        }
+
+        void showPlaceholder(int height) {
+            ViewGroup.LayoutParams params = binding.ivPage.getLayoutParams();
+            params.height = height;
+            binding.ivPage.setLayoutParams(params);
+            binding.ivPage.setImageDrawable(null);
+        }
+    }
+}
@@ -1,22 +1,23 @@
 package com.example.campusvault.ui.main.resources;
 
-import android.app.DownloadManager;
-import android.content.Context;
+import android.graphics.pdf.PdfRenderer;
 import android.net.Uri;
 import android.os.Bundle;
-import android.os.Environment;
+import android.os.ParcelFileDescriptor;
 import android.view.View;
-import android.webkit.WebChromeClient;
-import android.webkit.WebSettings;
-import android.webkit.WebView;
-import android.webkit.WebViewClient;
 import android.widget.Toast;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import com.example.campusvault.data.cache.ResourceFileCache;
+import com.example.campusvault.data.sync.MutationOutbox;
 import com.example.campusvault.databinding.ActivityPdfPreviewBinding;
+import com.example.campusvault.utils.FileExporter;
+import com.example.campusvault.utils.NetworkUtils;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.io.File;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import java.io.IOException;
 
 public class PdfPreviewActivity extends AppCompatActivity {
     
@@ -28,8 +29,10 @@ public class PdfPreviewActivity extends AppCompatActivity {
     private String pdfUrl;
     private String pdfTitle;
     private int resourceId = -1;
-    private com.example.campusvault.data.api.ApiService apiService;
-    private com.example.campusvault.data.local.SharedPreferencesManager prefs;
+    private MutationOutbox outbox;
+    private ResourceFileCache fileCache;
+    private PdfPageAdapter pageAdapter;
+    private Disposable loadDisposable;
     
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -42,9 +45,9 @@ public class PdfPreviewActivity extends AppCompatActivity {
         pdfTitle = getIntent().getStringExtra(EXTRA_PDF_TITLE);
         resourceId = getIntent().getIntExtra(EXTRA_RESOURCE_ID, -1);
 
-        // Init API for recording downloads
-        prefs = new com.example.campusvault.data.local.SharedPreferencesManager(this);
-        apiService = com.example.campusvault.data.api.ApiClient.getInstance(prefs).getApiService();
+        // Downloads are recorded through the outbox so they still count when offline
+        outbox = MutationOutbox.getInstance(this);
+        fileCache = ResourceFileCache.getInstance(this);
         
         if (pdfUrl == null || pdfUrl.isEmpty()) {
             showError("Invalid PDF URL");
@@ -64,50 +67,45 @@ public class PdfPreviewActivity extends AppCompatActivity {
     private void loadPdf() {
         binding.progressBar.setVisibility(View.VISIBLE);
         binding.errorLayout.setVisibility(View.GONE);
-        binding.webView.setVisibility(View.VISIBLE);
-        
-        // Configure WebView
-        WebSettings webSettings = binding.webView.getSettings();
-        webSettings.setJavaScriptEnabled(true);
-        webSettings.setLoadWithOverviewMode(true);
-        webSettings.setUseWideViewPort(true);
-        webSettings.setBuiltInZoomControls(true);
-        webSettings.setDisplayZoomControls(false);
-        webSettings.setSupportZoom(true);
-        
-        // Set WebView clients
-        binding.webView.setWebViewClient(new WebViewClient() {
-            @Override
-            public void onPageFinished(WebView view, String url) {
-                binding.progressBar.setVisibility(View.GONE);
-            }
-            
-            @Override
-            public void onReceivedError(WebView view, int errorCode, String description, String failingUrl) {
-                showError("Error loading PDF: " + description);
-            }
-        });
-        
-        binding.webView.setWebChromeClient(new WebChromeClient() {
-            @Override
-            public void onProgressChanged(WebView view, int newProgress) {
-                // Could add progress bar update here
-            }
-        });
-        
-        // Load PDF using Google Docs Viewer
+        binding.rvPages.setVisibility(View.VISIBLE);
+
+        if (loadDisposable != null) {
+            loadDisposable.dispose();
+        }
+        // Previously opened documents render straight from disk, even offline
+        loadDisposable = fileCache.fetch(cacheResourceId(), pdfUrl, exportFileName())
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(
+                this::openDocument,
+                error -> showError(NetworkUtils.isNetworkAvailable(this)
+                    ? "Error loading PDF: " + error.getMessage()
+                    : "You're offline and this PDF hasn't been opened before")
+            );
+    }
+
+    private void openDocument(File file) {
         try {
-            String encodedUrl = URLEncoder.encode(pdfUrl, "UTF-8");
-            String googleDocsUrl = "https://docs.google.com/gview?embedded=true&url=" + encodedUrl;
-            binding.webView.loadUrl(googleDocsUrl);
-        } catch (UnsupportedEncodingException e) {
-            showError("Error encoding URL: " + e.getMessage());
+            ParcelFileDescriptor descriptor = ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+            PdfRenderer renderer = new PdfRenderer(descriptor);
+
+            if (pageAdapter != null) {
+                pageAdapter.release();
+            }
+            int pageWidth = getResources().getDisplayMetrics().widthPixels;
+            pageAdapter = new PdfPageAdapter(renderer, pageWidth);
+            binding.rvPages.setAdapter(pageAdapter);
+            binding.progressBar.setVisibility(View.GONE);
+        } catch (IOException | SecurityException e) {
+            // The cached file stays: it is still the user's copy to export, and the renderer
+            // rejecting it says nothing about the download being bad
+            showError("Could not open PDF: " + e.getMessage());
         }
     }
     
     private void showError(String message) {
         binding.progressBar.setVisibility(View.GONE);
-        binding.webView.setVisibility(View.GONE);
+        binding.rvPages.setVisibility(View.GONE);
         binding.errorLayout.setVisibility(View.VISIBLE);
         binding.tvError.setText(message);
     }
@@ -121,40 +119,38 @@ public class PdfPreviewActivity extends AppCompatActivity {
         try {
             // Record download in backend (if id provided)
             if (resourceId != -1) {
-                apiService.recordDownload(resourceId)
-                    .subscribeOn(io.reactivex.rxjava3.schedulers.Schedulers.io())
-                    .observeOn(io.reactivex.rxjava3.android.schedulers.AndroidSchedulers.mainThread())
+                outbox.recordDownload(resourceId)
                     .subscribe(
-                        resource -> {},
+                        () -> {},
                         throwable -> {}
                     );
             }
-            DownloadManager.Request request = new DownloadManager.Request(Uri.parse(pdfUrl));
-            String safeName = sanitizeFileName(pdfTitle);
-            String ext = guessExtensionFromUrl(pdfUrl);
-            String finalName = safeName + (ext.isEmpty() ? "" : ext);
-            request.setTitle(pdfTitle != null ? pdfTitle : "Document");
-            request.setDescription("Downloading PDF...");
-            request.setNotificationVisibility(DownloadManager.Request.VISIBILITY_VISIBLE_NOTIFY_COMPLETED);
-            
-            // Create CampusVault folder in Downloads and download there
-            File downloadsDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
-            File campusVaultDir = new File(downloadsDir, "CampusVault");
-            if (!campusVaultDir.exists()) {
-                campusVaultDir.mkdirs();
-            }
-            request.setDestinationInExternalPublicDir(Environment.DIRECTORY_DOWNLOADS, "CampusVault/" + finalName);
-            
-            DownloadManager downloadManager = (DownloadManager) getSystemService(Context.DOWNLOAD_SERVICE);
-            if (downloadManager != null) {
-                downloadManager.enqueue(request);
-                Toast.makeText(this, "Download started", Toast.LENGTH_SHORT).show();
-            }
+
+            // The preview already cached the file, so this is normally a local copy
+            String finalName = exportFileName();
+            Toast.makeText(this, "Download started", Toast.LENGTH_SHORT).show();
+            fileCache.fetch(cacheResourceId(), pdfUrl, finalName)
+                .map(file -> FileExporter.saveToDownloads(getApplicationContext(), file, finalName))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    uri -> Toast.makeText(this, "Saved to Downloads/CampusVault", Toast.LENGTH_SHORT).show(),
+                    error -> Toast.makeText(this, "Download failed: " + error.getMessage(), Toast.LENGTH_SHORT).show()
+                );
         } catch (Exception e) {
             Toast.makeText(this, "Download failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
 
+    private String exportFileName() {
+        String ext = guessExtensionFromUrl(pdfUrl);
+        return sanitizeFileName(pdfTitle) + (ext.isEmpty() ? "" : ext);
+    }
+
+    private Integer cacheResourceId() {
+        return resourceId != -1 ? resourceId : null;
+    }
+
     private String sanitizeFileName(String name) {
         String base = (name == null || name.isEmpty()) ? "document" : name;
         return base.replaceAll("[\\\\/:*?\"<>|]", "_").trim();
@@ -171,20 +167,14 @@ public class PdfPreviewActivity extends AppCompatActivity {
         return ".pdf";
     }
     
-    @Override
-    public void onBackPressed() {
-        if (binding.webView.canGoBack()) {
-            binding.webView.goBack();
-        } else {
-            super.onBackPressed();
-        }
-    }
-    
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (binding.webView != null) {
-            binding.webView.destroy();
+        if (loadDisposable != null) {
+            loadDisposable.dispose();
+        }
+        if (pageAdapter != null) {
+            pageAdapter.release();
         }
         binding = null;
     }
@@ -1,12 +1,11 @@
 package com.example.campusvault.ui.main.resources;
 
-import android.app.DownloadManager;
-import android.content.Context;
+import android.content.ActivityNotFoundException;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
-import android.os.Environment;
 import android.view.View;
+import android.webkit.MimeTypeMap;
 import android.widget.ImageView;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
@@ -15,18 +14,23 @@ import com.example.campusvault.R;
 import com.example.campusvault.databinding.ActivityResourceDetailBinding;
 import com.example.campusvault.data.models.Resource;
 import com.example.campusvault.data.models.ResourceComment;
-import com.example.campusvault.data.models.CommentRequest;
-import com.example.campusvault.data.models.RatingRequest;
 import com.example.campusvault.data.api.ApiClient;
+import com.example.campusvault.data.cache.ResourceFileCache;
 import com.example.campusvault.data.api.ApiService;
 import com.example.campusvault.data.local.SharedPreferencesManager;
+import com.example.campusvault.data.local.database.entity.PendingMutationEntity;
+import com.example.campusvault.data.repository.ResourceRepository;
+import com.example.campusvault.data.sync.MutationOutbox;
+import com.example.campusvault.utils.FileExporter;
 import android.widget.Toast;
-import java.io.File;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
 public class ResourceDetailActivity extends AppCompatActivity {
     
@@ -42,12 +46,21 @@ public class ResourceDetailActivity extends AppCompatActivity {
     private int resourceId;
     private String resourceUrl;
     private String resourceTitle;
+    // "pdf" or a mime type, from the resource; null until the resource is loaded
+    private String resourceFileType;
     private ApiService apiService;
+    private MutationOutbox outbox;
+    private ResourceRepository resourceRepository;
     private CompositeDisposable disposables;
+    private ResourceFileCache fileCache;
     private CommentsAdapter commentsAdapter;
     private ImageView[] stars;
     private int currentRating = 0;
+    private int downloadCount = 0;
     private boolean isBookmarked = false;
+    private volatile int lastDownloadPercent = -1;
+    // Set once the server copy is shown, so the cached copy arriving late cannot overwrite it
+    private boolean serverDetailsShown = false;
     
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -59,6 +72,9 @@ public class ResourceDetailActivity extends AppCompatActivity {
         SharedPreferencesManager prefsManager = new SharedPreferencesManager(this);
         apiService = ApiClient.getInstance(prefsManager).getApiService();
         disposables = new CompositeDisposable();
+        outbox = MutationOutbox.getInstance(this);
+        resourceRepository = new ResourceRepository(getApplication(), apiService);
+        fileCache = ResourceFileCache.getInstance(this);
         
         // Get resource data from intent
         resourceId = getIntent().getIntExtra(EXTRA_RESOURCE_ID, -1);
@@ -79,12 +95,14 @@ public class ResourceDetailActivity extends AppCompatActivity {
         binding.btnDownload.setOnClickListener(v -> downloadResource());
         binding.btnPreview.setOnClickListener(v -> previewResource());
         binding.btnBookmark.setOnClickListener(v -> toggleBookmark());
+        binding.btnShare.setOnClickListener(v -> shareResource());
         
         // Setup comment send button
         binding.tilComment.setEndIconOnClickListener(v -> addComment());
         
         // Load data from API if we have a valid resource ID
         if (resourceId != -1) {
+            loadCachedResource();
             loadResourceDetails();
             loadComments();
         }
@@ -94,6 +112,7 @@ public class ResourceDetailActivity extends AppCompatActivity {
         binding.tvTitle.setText(title != null ? title : "Resource");
         binding.tvResourceTitle.setText(title != null ? title : "Untitled Resource");
         binding.tvDescription.setText(description != null && !description.isEmpty() ? description : "No description available");
+        downloadCount = downloads;
         binding.tvDownloads.setText(String.valueOf(downloads));
         binding.tvRating.setText(String.format("%.1f", rating));
         binding.tvFileSize.setText(formatFileSize(fileSize));
@@ -113,22 +132,13 @@ public class ResourceDetailActivity extends AppCompatActivity {
         }
         
         try {
-            // Record download event with backend
+            // Record download event; the outbox sends it to the backend when it can
             if (resourceId != -1) {
                 disposables.add(
-                    apiService.recordDownload(resourceId)
-                        .subscribeOn(Schedulers.io())
+                    outbox.recordDownload(resourceId)
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
-                            resource -> {
-                                // Download recorded successfully
-                                // Update downloads count immediately from response
-                                if (resource != null) {
-                                    binding.tvDownloads.setText(String.valueOf(resource.getDownloadCount()));
-                                } else {
-                                    loadResourceDetails();
-                                }
-                            },
+                            () -> binding.tvDownloads.setText(String.valueOf(++downloadCount)),
                             throwable -> {
                                 // Continue with download even if recording fails
                             }
@@ -136,33 +146,76 @@ public class ResourceDetailActivity extends AppCompatActivity {
                 );
             }
             
-            // Start actual download using DownloadManager
-            DownloadManager.Request request = new DownloadManager.Request(Uri.parse(resourceUrl));
-            String safeName = sanitizeFileName(resourceTitle);
-            String ext = guessExtensionFromUrl(resourceUrl);
-            String finalName = safeName + (ext.isEmpty() ? "" : ext);
-            request.setTitle(resourceTitle != null ? resourceTitle : "Resource");
-            request.setDescription("Downloading resource...");
-            request.setNotificationVisibility(DownloadManager.Request.VISIBILITY_VISIBLE_NOTIFY_COMPLETED);
-            
-            // Create CampusVault folder in Downloads and download there
-            File downloadsDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
-            File campusVaultDir = new File(downloadsDir, "CampusVault");
-            if (!campusVaultDir.exists()) {
-                campusVaultDir.mkdirs();
-            }
-            request.setDestinationInExternalPublicDir(Environment.DIRECTORY_DOWNLOADS, "CampusVault/" + finalName);
-            
-            DownloadManager downloadManager = (DownloadManager) getSystemService(Context.DOWNLOAD_SERVICE);
-            if (downloadManager != null) {
-                downloadManager.enqueue(request);
-                Toast.makeText(this, "Download started", Toast.LENGTH_SHORT).show();
-            }
+            // Save through the file cache - a previewed file is copied, not downloaded again
+            String finalName = exportFileName();
+            Toast.makeText(this, "Download started", Toast.LENGTH_SHORT).show();
+            binding.btnDownload.setEnabled(false);
+            lastDownloadPercent = -1;
+            disposables.add(
+                fileCache.fetch(cacheResourceId(), resourceUrl, finalName, this::onDownloadProgress)
+                    .map(file -> FileExporter.saveToDownloads(this, file, finalName))
+                    .subscribeOn(Schedulers.io())
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .doFinally(() -> {
+                        binding.btnDownload.setEnabled(true);
+                        binding.btnDownload.setText("Download");
+                    })
+                    .subscribe(
+                        uri -> Toast.makeText(this, "Saved to Downloads/CampusVault", Toast.LENGTH_SHORT).show(),
+                        error -> Toast.makeText(this, "Download failed: " + error.getMessage(), Toast.LENGTH_SHORT).show()
+                    )
+            );
         } catch (Exception e) {
             Toast.makeText(this, "Download failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
 
+    /**
+     * Called on download threads; only whole-percent changes reach the UI
+     */
+    private void onDownloadProgress(long downloaded, long total) {
+        if (total <= 0) {
+            return;
+        }
+        int percent = (int) ((100 * downloaded) / total);
+        if (percent == lastDownloadPercent) {
+            return;
+        }
+        lastDownloadPercent = percent;
+        runOnUiThread(() -> {
+            if (binding != null && !binding.btnDownload.isEnabled()) {
+                binding.btnDownload.setText(percent + "%");
+            }
+        });
+    }
+
+    private void shareResource() {
+        if (resourceUrl == null || resourceUrl.isEmpty()) {
+            Toast.makeText(this, "Resource URL not available", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        String finalName = exportFileName();
+        disposables.add(
+            fileCache.fetch(cacheResourceId(), resourceUrl, finalName)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    file -> startActivity(FileExporter.createShareIntent(this, file, finalName, resourceTitle)),
+                    error -> Toast.makeText(this, "Cannot share: " + error.getMessage(), Toast.LENGTH_SHORT).show()
+                )
+        );
+    }
+
+    private String exportFileName() {
+        String ext = guessExtensionFromUrl(resourceUrl);
+        return sanitizeFileName(resourceTitle) + (ext.isEmpty() ? "" : ext);
+    }
+
+    private Integer cacheResourceId() {
+        return resourceId != -1 ? resourceId : null;
+    }
+
     private String sanitizeFileName(String name) {
         String base = (name == null || name.isEmpty()) ? "resource" : name;
         // Replace path separators and illegal chars
@@ -187,6 +240,12 @@ public class ResourceDetailActivity extends AppCompatActivity {
             return;
         }
         
+        if (!"pdf".equals(previewExtension())) {
+            // PdfRenderer only reads PDFs; hand everything else to an installed viewer
+            openInViewer();
+            return;
+        }
+
         try {
             // Open in-app PDF preview
             Intent intent = new Intent(this, PdfPreviewActivity.class);
@@ -198,6 +257,46 @@ public class ResourceDetailActivity extends AppCompatActivity {
             Toast.makeText(this, "Cannot preview: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
+
+    /**
+     * Lower-case extension of the resource, from its file type when known, else from its URL
+     */
+    private String previewExtension() {
+        if (resourceFileType != null && !resourceFileType.isEmpty()) {
+            String type = resourceFileType.toLowerCase(Locale.ROOT);
+            if (type.contains("/")) {
+                String ext = MimeTypeMap.getSingleton().getExtensionFromMimeType(type);
+                return ext != null ? ext : "";
+            }
+            return type.startsWith(".") ? type.substring(1) : type;
+        }
+        return MimeTypeMap.getFileExtensionFromUrl(resourceUrl).toLowerCase(Locale.ROOT);
+    }
+
+    private void openInViewer() {
+        Uri uri = Uri.parse(resourceUrl);
+        String mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(previewExtension());
+        Intent intent = new Intent(Intent.ACTION_VIEW);
+        if (mimeType != null) {
+            intent.setDataAndType(uri, mimeType);
+        } else {
+            intent.setData(uri);
+        }
+        try {
+            startActivity(intent);
+        } catch (ActivityNotFoundException e) {
+            if (mimeType == null) {
+                Toast.makeText(this, "No app available to open this file", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            // No viewer for the type itself; a browser can still fetch the URL
+            try {
+                startActivity(new Intent(Intent.ACTION_VIEW, uri));
+            } catch (ActivityNotFoundException none) {
+                Toast.makeText(this, "No app available to open this file", Toast.LENGTH_SHORT).show();
+            }
+        }
+    }
     
     private void setupRatingStars() {
         stars = new ImageView[]{
@@ -216,6 +315,36 @@ public class ResourceDetailActivity extends AppCompatActivity {
         binding.rvComments.setAdapter(commentsAdapter);
     }
     
+    /**
+     * Lists only load the columns their cells show, so fill in the rest (description, file URL)
+     * from the cached row. This also covers opening a resource while offline.
+     */
+    private void loadCachedResource() {
+        disposables.add(
+            resourceRepository.getResource(resourceId)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    resource -> {
+                        if (serverDetailsShown) {
+                            return;
+                        }
+                        setupUI(resource.getTitle(), resource.getDescription(),
+                               resource.getFileSize(), resource.getDownloadCount(),
+                               resource.getAverageRating());
+                        resourceUrl = resource.getFileUrl();
+                        resourceTitle = resource.getTitle();
+                        resourceFileType = resource.getFileType();
+                        showBookmarked(resource.isBookmarked());
+                        // Queued downloads were already added to the cached count
+                        applyPendingMutations(false);
+                    },
+                    throwable -> {
+                        // Not fatal - the server copy is on its way
+                    }
+                )
+        );
+    }
+
     private void loadResourceDetails() {
         binding.progressBar.setVisibility(View.VISIBLE);
         
@@ -226,20 +355,17 @@ public class ResourceDetailActivity extends AppCompatActivity {
                 .subscribe(
                     resource -> {
                         binding.progressBar.setVisibility(View.GONE);
+                        serverDetailsShown = true;
                         // Update UI with fresh data
                         setupUI(resource.getTitle(), resource.getDescription(), 
                                resource.getFileSize(), resource.getDownloadCount(), 
                                resource.getAverageRating());
                         resourceUrl = resource.getFileUrl();
                         resourceTitle = resource.getTitle();
+                        resourceFileType = resource.getFileType();
                         
                         // Update bookmark icon
-                        isBookmarked = resource.isBookmarked();
-                        if (isBookmarked) {
-                            binding.btnBookmark.setColorFilter(getColor(R.color.primary));
-                        } else {
-                            binding.btnBookmark.setColorFilter(getColor(R.color.icon_inactive));
-                        }
+                        showBookmarked(resource.isBookmarked());
                         
                         // Update rating stars if user has rated
                         if (resource.getUserRating() != null && resource.getUserRating() > 0) {
@@ -249,6 +375,8 @@ public class ResourceDetailActivity extends AppCompatActivity {
                         } else {
                             binding.tvYourRating.setText("Tap to rate");
                         }
+
+                        applyPendingMutations(true);
                     },
                     throwable -> {
                         binding.progressBar.setVisibility(View.GONE);
@@ -258,10 +386,55 @@ public class ResourceDetailActivity extends AppCompatActivity {
         );
     }
     
+    /**
+     * The server's copy does not include actions still waiting in the outbox - lay them over it
+     *
+     * @param countDownloads add queued downloads to the count shown; false for the cached row,
+     *                       whose count MutationOutbox already bumped when each was queued
+     */
+    private void applyPendingMutations(boolean countDownloads) {
+        disposables.add(
+            outbox.pendingFor(resourceId)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    pending -> {
+                        int pendingDownloads = 0;
+                        for (PendingMutationEntity mutation : pending) {
+                            switch (mutation.getType()) {
+                                case PendingMutationEntity.TYPE_BOOKMARK:
+                                case PendingMutationEntity.TYPE_UNBOOKMARK:
+                                    showBookmarked(PendingMutationEntity.TYPE_BOOKMARK.equals(mutation.getType()));
+                                    break;
+                                case PendingMutationEntity.TYPE_RATE:
+                                    currentRating = outbox.ratingOf(mutation);
+                                    updateStarDisplay(currentRating);
+                                    binding.tvYourRating.setText("You rated " + currentRating + " stars");
+                                    break;
+                                case PendingMutationEntity.TYPE_DOWNLOAD:
+                                    pendingDownloads++;
+                                    break;
+                            }
+                        }
+                        if (countDownloads && pendingDownloads > 0) {
+                            downloadCount += pendingDownloads;
+                            binding.tvDownloads.setText(String.valueOf(downloadCount));
+                        }
+                    },
+                    throwable -> android.util.Log.e("ResourceDetail", "Error reading pending actions", throwable)
+                )
+        );
+    }
+
     private void loadComments() {
         disposables.add(
-            apiService.getComments(resourceId)
-                .subscribeOn(Schedulers.io())
+            Single.zip(
+                    apiService.getComments(resourceId)
+                        .subscribeOn(Schedulers.io())
+                        .doOnError(throwable -> android.util.Log.e("ResourceDetail", "Error loading comments", throwable))
+                        // Offline: still show the user's own queued comments
+                        .onErrorReturnItem(new ArrayList<>()),
+                    outbox.pendingFor(resourceId),
+                    this::withPendingComments)
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
                     comments -> {
@@ -295,18 +468,12 @@ public class ResourceDetailActivity extends AppCompatActivity {
         updateStarDisplay(rating);
         binding.tvYourRating.setText("You rated " + rating + " stars");
         
+        // The average refreshes on the next load, once the outbox has sent the rating
         disposables.add(
-            apiService.rateResource(resourceId, new RatingRequest(rating))
-                .subscribeOn(Schedulers.io())
+            outbox.rate(resourceId, rating)
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                    resource -> {
-                        Toast.makeText(this, "Rating submitted!", Toast.LENGTH_SHORT).show();
-                        // Update UI with the returned resource data
-                        setupUI(resource.getTitle(), resource.getDescription(), 
-                               resource.getFileSize(), resource.getDownloadCount(), 
-                               resource.getAverageRating());
-                    },
+                    () -> Toast.makeText(this, "Rating submitted!", Toast.LENGTH_SHORT).show(),
                     throwable -> {
                         Toast.makeText(this, "Failed to submit rating", Toast.LENGTH_SHORT).show();
                     }
@@ -334,11 +501,10 @@ public class ResourceDetailActivity extends AppCompatActivity {
         binding.tilComment.setEnabled(false);
         
         disposables.add(
-            apiService.addComment(resourceId, new CommentRequest(content))
-                .subscribeOn(Schedulers.io())
+            outbox.comment(resourceId, content)
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                    response -> {
+                    () -> {
                         binding.etComment.setText("");
                         binding.tilComment.setEnabled(true);
                         Toast.makeText(this, "Comment added!", Toast.LENGTH_SHORT).show();
@@ -353,41 +519,46 @@ public class ResourceDetailActivity extends AppCompatActivity {
     }
     
     private void toggleBookmark() {
-        if (isBookmarked) {
-            // Remove bookmark
-            disposables.add(
-                apiService.unbookmarkResource(resourceId)
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                        () -> {
-                            isBookmarked = false;
-                            binding.btnBookmark.setColorFilter(getColor(R.color.icon_inactive));
-                            Toast.makeText(this, "Bookmark removed", Toast.LENGTH_SHORT).show();
-                        },
-                        throwable -> {
-                            Toast.makeText(this, "Failed to remove bookmark", Toast.LENGTH_SHORT).show();
-                        }
-                    )
-            );
-        } else {
-            // Add bookmark
-            disposables.add(
-                apiService.bookmarkResource(resourceId)
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                        () -> {
-                            isBookmarked = true;
-                            binding.btnBookmark.setColorFilter(getColor(R.color.primary));
-                            Toast.makeText(this, "Bookmarked!", Toast.LENGTH_SHORT).show();
-                        },
-                        throwable -> {
-                            Toast.makeText(this, "Failed to bookmark", Toast.LENGTH_SHORT).show();
-                        }
-                    )
-            );
+        boolean bookmark = !isBookmarked;
+        showBookmarked(bookmark);
+        disposables.add(
+            (bookmark ? outbox.bookmark(resourceId) : outbox.unbookmark(resourceId))
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    () -> Toast.makeText(this, bookmark ? "Bookmarked!" : "Bookmark removed", Toast.LENGTH_SHORT).show(),
+                    throwable -> {
+                        showBookmarked(!bookmark);
+                        Toast.makeText(this, bookmark ? "Failed to bookmark" : "Failed to remove bookmark",
+                            Toast.LENGTH_SHORT).show();
+                    }
+                )
+        );
+    }
+
+    private void showBookmarked(boolean bookmarked) {
+        isBookmarked = bookmarked;
+        binding.btnBookmark.setColorFilter(getColor(bookmarked ? R.color.primary : R.color.icon_inactive));
+    }
+
+    /**
+     * Server comments followed by the user's comments still waiting in the outbox
+     */
+    private List<ResourceComment> withPendingComments(List<ResourceComment> comments,
+                                                      List<PendingMutationEntity> pending) {
+        List<ResourceComment> merged = comments != null ? new ArrayList<>(comments) : new ArrayList<>();
+        for (PendingMutationEntity mutation : pending) {
+            if (PendingMutationEntity.TYPE_COMMENT.equals(mutation.getType())) {
+                ResourceComment comment = new ResourceComment();
+                // Negative ids keep them apart from server comments in the adapter's diff
+                comment.setId((int) -mutation.getId());
+                comment.setResourceId(resourceId);
+                comment.setUsername("You (sending...)");
+                comment.setBody(outbox.commentOf(mutation));
+                comment.setCreatedAt(new Date(mutation.getCreatedAt()));
+                merged.add(comment);
+            }
         }
+        return merged;
     }
     
     @Override
@@ -8,6 +8,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import com.example.campusvault.databinding.FragmentResourcesTabBinding;
 import com.example.campusvault.ui.base.BaseFragment;
 import com.example.campusvault.ui.main.home.adapters.ResourceAdapter;
@@ -51,15 +52,21 @@ public class ResourcesTabFragment extends BaseFragment<FragmentResourcesTabBindi
             Intent intent = new Intent(requireContext(), ResourceDetailActivity.class);
             intent.putExtra(ResourceDetailActivity.EXTRA_RESOURCE_ID, resource.getId());
             intent.putExtra(ResourceDetailActivity.EXTRA_RESOURCE_TITLE, resource.getTitle());
-            intent.putExtra(ResourceDetailActivity.EXTRA_RESOURCE_URL, resource.getFileUrl());
-            intent.putExtra(ResourceDetailActivity.EXTRA_RESOURCE_DESCRIPTION, resource.getDescription());
             intent.putExtra(ResourceDetailActivity.EXTRA_RESOURCE_FILE_SIZE, resource.getFileSize());
             intent.putExtra(ResourceDetailActivity.EXTRA_RESOURCE_DOWNLOADS, resource.getDownloadCount());
             intent.putExtra(ResourceDetailActivity.EXTRA_RESOURCE_RATING, resource.getAverageRating());
             startActivity(intent);
         });
-        binding.recycler.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        binding.recycler.setLayoutManager(layoutManager);
         binding.recycler.setAdapter(adapter);
+        binding.recycler.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                viewModel.onVisibleRange(layoutManager.findFirstVisibleItemPosition(),
+                        layoutManager.findLastVisibleItemPosition());
+            }
+        });
 
         ResourcesViewModelFactory factory = new ResourcesViewModelFactory(requireContext());
         viewModel = new ViewModelProvider(this, factory).get(ResourcesViewModel.class);
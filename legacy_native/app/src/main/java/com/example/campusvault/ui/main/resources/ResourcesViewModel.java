@@ -5,20 +5,29 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import com.example.campusvault.data.api.ApiService;
-import com.example.campusvault.data.models.PaginatedResponse;
 import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.data.paging.KeysetPager;
+import com.example.campusvault.data.paging.UploadedAtKey;
 import com.example.campusvault.data.repository.ResourceRepository;
 import com.example.campusvault.data.sync.NetworkMonitor;
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.disposables.Disposable;
 import java.util.List;
+import java.util.Objects;
 
 public class ResourcesViewModel extends ViewModel {
     private final ResourceRepository repo;
     private final NetworkMonitor networkMonitor;
     private final CompositeDisposable disposables = new CompositeDisposable();
 
+    // Rows per page, how close to the end loading starts, and how many pages stay in memory
+    private static final KeysetPager.Config PAGING = new KeysetPager.Config(30, 10, 6);
+    private KeysetPager<Resource, UploadedAtKey> pager;
+    // The current pager's items subscription, replaced along with the pager
+    private Disposable pagerItems;
+    private int pagerCourseUnitId;
+    private String pagerType;
+
     public ResourcesViewModel(ResourceRepository repo, Application application) {
         this.repo = repo;
         this.networkMonitor = NetworkMonitor.getInstance(application);
@@ -39,36 +48,42 @@ public class ResourcesViewModel extends ViewModel {
             resourceType = "notes";
         }
         
-        final String finalResourceType = resourceType;
-        
-        // Subscribe to DB - instant local data
-        disposables.add(
-            repo.getResourcesByCourseUnit(courseUnitId, finalResourceType)
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(
-                    data -> _resources.postValue(data),
-                    err -> {}
-                )
-        );
-        
-        // Always refresh from API in background if online
+        // onResume calls this again - keep the pager and its position, just revalidate
+        if (pager == null || courseUnitId != pagerCourseUnitId || !Objects.equals(resourceType, pagerType)) {
+            if (pager != null) {
+                disposables.remove(pagerItems);
+                pager.dispose();
+            }
+            pager = repo.pageResourcesByCourseUnit(courseUnitId, resourceType, PAGING);
+            pagerCourseUnitId = courseUnitId;
+            pagerType = resourceType;
+            pagerItems = pager.items().subscribe(_resources::setValue);
+            disposables.add(pagerItems);
+            pager.start();
+        }
+
         if (networkMonitor.isOnline()) {
-            disposables.add(
-                repo.refreshResourcesByCourseUnit(courseUnitId, finalResourceType)
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                        () -> {},
-                        throwable -> {}
-                    )
-            );
+            pager.refresh();
         } else {
             // Inform user that they are viewing cached data
             _error.postValue("Viewing cached data. Connect to network for updates.");
         }
     }
 
+    /**
+     * Called as the list scrolls so the pager can load ahead and release far-away pages
+     */
+    public void onVisibleRange(int first, int last) {
+        if (pager != null) {
+            pager.onVisibleRange(first, last);
+        }
+    }
+
     @Override
     protected void onCleared() {
         disposables.clear();
+        if (pager != null) {
+            pager.dispose();
+        }
     }
 }
@@ -13,10 +13,14 @@ import androidx.preference.Preference;
 import androidx.preference.PreferenceFragmentCompat;
 import androidx.preference.PreferenceManager;
 
+import com.example.campusvault.BuildConfig;
 import com.example.campusvault.R;
+import com.example.campusvault.data.cache.ResourceFileCache;
 import com.example.campusvault.ui.dialogs.UpdateDialog;
 import com.example.campusvault.utils.UpdateChecker;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 import java.io.File;
 import java.text.DecimalFormat;
@@ -52,6 +56,12 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
             applyTheme(sharedPreferences.getString(key, "system"));
         } else if ("download_quality".equals(key)) {
             updateDownloadQualitySummary();
+        } else if (ResourceFileCache.PREF_CACHE_SIZE.equals(key)) {
+            long budget = ResourceFileCache.parseBudget(sharedPreferences.getString(key, null));
+            ResourceFileCache.getInstance(requireContext()).setMaxBytes(budget)
+                    .subscribeOn(Schedulers.io())
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(this::updateStorageUsage, error -> {});
         }
     }
 
@@ -90,6 +100,10 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
         if (downloadQuality != null) {
             downloadQuality.setSummaryProvider(ListPreference.SimpleSummaryProvider.getInstance());
         }
+        ListPreference fileCacheSize = findPreference(ResourceFileCache.PREF_CACHE_SIZE);
+        if (fileCacheSize != null) {
+            fileCacheSize.setSummaryProvider(ListPreference.SimpleSummaryProvider.getInstance());
+        }
     }
 
     private void applyTheme(String theme) {
@@ -188,6 +202,23 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
                 return true;
             });
         }
+
+        // Sync Diagnostics (debug builds only)
+        Preference developer = findPreference("developer");
+        if (developer != null) {
+            developer.setVisible(BuildConfig.DEBUG);
+        }
+        Preference syncDiagnostics = findPreference("sync_diagnostics");
+        if (syncDiagnostics != null) {
+            syncDiagnostics.setOnPreferenceClickListener(preference -> {
+                getParentFragmentManager()
+                        .beginTransaction()
+                        .replace(R.id.settings_container, new SyncTelemetryFragment())
+                        .addToBackStack(null)
+                        .commit();
+                return true;
+            });
+        }
     }
 
     private void updateStorageUsage() {
@@ -234,6 +265,10 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
 
     private void clearAppCache() {
         try {
+            // Drop cached resource files together with their index
+            ResourceFileCache.getInstance(requireContext()).clear()
+                    .subscribeOn(Schedulers.io())
+                    .subscribe(() -> {}, error -> {});
             File cacheDir = requireContext().getCacheDir();
             if (cacheDir != null && cacheDir.isDirectory()) {
                 deleteDir(cacheDir);
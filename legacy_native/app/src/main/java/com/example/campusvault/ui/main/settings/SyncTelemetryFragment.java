@@ -0,0 +1,107 @@
+package com.example.campusvault.ui.main.settings;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.dao.SyncTelemetryDao;
+import com.example.campusvault.data.local.database.entity.SyncTelemetryEntity;
+import com.example.campusvault.data.sync.SyncTelemetryStats;
+import com.example.campusvault.databinding.FragmentSyncTelemetryBinding;
+import com.example.campusvault.ui.base.BaseFragment;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Debug screen listing per-stage sync latency percentiles, bytes and row counts from the
+ * sync telemetry table. Reached from Settings in debug builds only.
+ */
+public class SyncTelemetryFragment extends BaseFragment<FragmentSyncTelemetryBinding> {
+
+    private static final int RECENT_RUNS = 20;
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+    private SyncTelemetryDao dao;
+
+    @Override
+    protected FragmentSyncTelemetryBinding getViewBinding(@NonNull LayoutInflater inflater, @Nullable ViewGroup container) {
+        return FragmentSyncTelemetryBinding.inflate(inflater, container, false);
+    }
+
+    @Override
+    protected void setupUI() {
+        dao = AppDatabase.getInstance(requireContext()).syncTelemetryDao();
+        binding.btnClear.setOnClickListener(v -> disposables.add(dao.clear()
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> {}, error -> showError("Could not clear telemetry"))));
+    }
+
+    @Override
+    protected void observeData() {
+        disposables.add(dao.observeAll()
+                .subscribeOn(Schedulers.io())
+                .map(rows -> new String[]{formatStats(SyncTelemetryStats.summarize(rows)), formatRecent(rows)})
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(text -> {
+                    binding.tvStats.setText(text[0]);
+                    binding.tvRecent.setText(text[1]);
+                }, error -> showError("Could not load telemetry")));
+    }
+
+    private static String formatStats(List<SyncTelemetryStats> stats) {
+        if (stats.isEmpty()) {
+            return "No syncs recorded yet";
+        }
+        StringBuilder sb = new StringBuilder(String.format(Locale.US,
+                "%-13s %4s %4s %4s %7s %7s %8s %8s %6s%n",
+                "stage", "n", "fail", "rtry", "p50 ms", "p95 ms", "p50 in", "p95 in", "rows"));
+        for (SyncTelemetryStats s : stats) {
+            sb.append(String.format(Locale.US, "%-13s %4d %4d %4d %7d %7d %8s %8s %6.1f%n",
+                    s.stage, s.samples, s.failures, s.retries, s.p50DurationMs, s.p95DurationMs,
+                    formatBytes(s.p50BytesIn), formatBytes(s.p95BytesIn), s.meanRowsWritten));
+        }
+        return sb.toString();
+    }
+
+    private static String formatRecent(List<SyncTelemetryEntity> rows) {
+        SimpleDateFormat time = new SimpleDateFormat("MM-dd HH:mm:ss", Locale.US);
+        StringBuilder sb = new StringBuilder();
+        int runs = 0;
+        for (SyncTelemetryEntity row : rows) {
+            if (!SyncTelemetryEntity.STAGE_RUN.equals(row.getStage())) {
+                continue;
+            }
+            if (++runs > RECENT_RUNS) {
+                break;
+            }
+            sb.append(String.format(Locale.US, "%s %-9s %6dms %3d req %8s in %8s out +%d ~%d -%d%s%n",
+                    time.format(new Date(row.getStartedAt())), row.getOutcome(), row.getDurationMs(),
+                    row.getRequests(), formatBytes(row.getBytesIn()), formatBytes(row.getBytesOut()),
+                    row.getRowsInserted(), row.getRowsUpdated(), row.getRowsDeleted(),
+                    row.getAttempt() > 0 ? " (retry " + row.getAttempt() + ")" : ""));
+        }
+        return sb.length() > 0 ? sb.toString() : "-";
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.US, "%.1fK", bytes / 1024.0);
+        }
+        return String.format(Locale.US, "%.1fM", bytes / (1024.0 * 1024.0));
+    }
+
+    @Override
+    public void onDestroyView() {
+        disposables.clear();
+        super.onDestroyView();
+    }
+}
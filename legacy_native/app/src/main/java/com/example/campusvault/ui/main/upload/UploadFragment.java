@@ -1,9 +1,12 @@
 package com.example.campusvault.ui.main.upload;
 
+import android.Manifest;
 import android.app.Activity;
 import android.content.Intent;
+import android.content.pm.PackageManager;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.provider.OpenableColumns;
 import android.text.Editable;
@@ -22,6 +25,7 @@ import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import com.example.campusvault.R;
@@ -56,6 +60,12 @@ public class UploadFragment extends Fragment {
                 }
             });
 
+    private final ActivityResultLauncher<String> notificationPermissionLauncher = registerForActivityResult(
+            new ActivityResultContracts.RequestPermission(),
+            granted -> {
+                // Upload runs either way; without the permission there is just no notification
+            });
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -292,7 +302,10 @@ public class UploadFragment extends Fragment {
     }
 
     private void openFilePicker() {
-        Intent intent = new Intent(Intent.ACTION_GET_CONTENT);
+        // OPEN_DOCUMENT grants a persistable permission, so the queued upload can
+        // still read the file after the app is restarted
+        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
         intent.setType("*/*");
         String[] mimeTypes = {
             "application/pdf",
@@ -330,6 +343,12 @@ public class UploadFragment extends Fragment {
                 return; // Error will be shown via observer
             }
 
+            try {
+                requireContext().getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            } catch (SecurityException e) {
+                // Provider doesn't offer persistable grants - upload still works while the app is alive
+            }
+
             pickedFileUri = uri;
             pickedFileSize = size;
 
@@ -375,6 +394,13 @@ public class UploadFragment extends Fragment {
         binding.tilTitle.setError(null);
         binding.tilCourseUnit.setError(null);
 
+        // Uploads continue in the background with a progress notification
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.POST_NOTIFICATIONS)
+                    != PackageManager.PERMISSION_GRANTED) {
+            notificationPermissionLauncher.launch(Manifest.permission.POST_NOTIFICATIONS);
+        }
+
         String title = binding.etTitle.getText().toString().trim();
         String description = binding.etDescription.getText() != null ? binding.etDescription.getText().toString().trim() : "";
 
@@ -2,26 +2,26 @@ package com.example.campusvault.ui.main.upload;
 
 import android.app.Application;
 import android.net.Uri;
-import android.util.Base64;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import com.example.campusvault.data.api.ApiService;
+import com.example.campusvault.data.local.database.entity.PendingUploadEntity;
 import com.example.campusvault.data.models.CourseUnit;
-import com.example.campusvault.data.models.DuplicateConflictError;
 import com.example.campusvault.data.models.DuplicateResourceInfo;
 import com.example.campusvault.data.models.LinkResourceRequest;
-import com.example.campusvault.data.models.MobileUploadRequest;
 import com.example.campusvault.data.models.Resource;
+import com.example.campusvault.data.upload.ContentUriUploadSource;
+import com.example.campusvault.data.sync.UploadQueueManager;
+import com.example.campusvault.data.upload.UploadSource;
 import com.google.gson.Gson;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import retrofit2.HttpException;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,8 +31,10 @@ public class UploadViewModel extends AndroidViewModel {
     public static final int MAX_UPLOAD_SIZE_MB = 50;
     
     private final ApiService api;
+    private final UploadQueueManager uploadQueue;
     private final CompositeDisposable cd = new CompositeDisposable();
     private Disposable currentUploadDisposable;
+    private volatile Long currentUploadId;
 
     // Course units
     private final MutableLiveData<List<CourseUnit>> _courseUnits = new MutableLiveData<>();
@@ -71,7 +73,11 @@ public class UploadViewModel extends AndroidViewModel {
     public LiveData<String> fileValidationError = _fileValidationError;
 
     // For tracking upload progress
+    private static final long PROGRESS_INTERVAL_NS = 250_000_000L; // 250 ms
     private long totalBytes = 0;
+    private long transferStartNs;
+    private long transferStartBytes;
+    private long lastProgressPostNs;
 
     public enum UploadState {
         IDLE,
@@ -85,6 +91,7 @@ public class UploadViewModel extends AndroidViewModel {
     public UploadViewModel(@NonNull Application application, ApiService api) {
         super(application);
         this.api = api;
+        this.uploadQueue = UploadQueueManager.getInstance(application);
     }
 
     public void loadCourseUnits(Integer programId, Integer year, Integer semester) {
@@ -145,73 +152,115 @@ public class UploadViewModel extends AndroidViewModel {
     }
 
     /**
-     * Main upload method using base64 encoding (JSON-based, avoids multipart issues)
+     * Main upload method. Queues the file for UploadWorker, which keeps sending it when the
+     * user leaves this screen, and mirrors the queued upload's progress into this view model.
      */
     public void uploadFile(Uri fileUri, String title, String description, int courseUnitId, String resourceType) {
-        try {
-            _uploadState.setValue(UploadState.UPLOADING);
-            _uploadProgress.setValue(10); // Initial progress for reading file
-            _errorMessage.setValue(null);
-            
-            // Read file into byte array
-            InputStream inputStream = getApplication().getContentResolver().openInputStream(fileUri);
-            ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
-            byte[] buffer = new byte[8192];
-            int read;
-            while ((read = inputStream.read(buffer)) != -1) {
-                byteBuffer.write(buffer, 0, read);
-            }
-            inputStream.close();
-            byte[] fileBytes = byteBuffer.toByteArray();
-            totalBytes = fileBytes.length;
-            
-            _uploadProgress.postValue(20); // File read complete
-
-            // Get original filename from URI
-            String fileName = getFileNameFromUri(fileUri);
-            
-            // Detect content type
-            String contentType = getApplication().getContentResolver().getType(fileUri);
-            if (contentType == null) contentType = "application/octet-stream";
-            
-            // Encode file as base64
-            String fileBase64 = Base64.encodeToString(fileBytes, Base64.NO_WRAP);
-            
-            _uploadProgress.postValue(30); // Encoding complete
-
-            android.util.Log.d("UploadViewModel", "Starting mobile upload: file=" + fileName + 
-                ", size=" + totalBytes + ", courseUnitId=" + courseUnitId + ", type=" + resourceType);
-
-            // Create the request object
-            MobileUploadRequest request = new MobileUploadRequest(
-                courseUnitId,
-                fileName,
-                contentType,
-                fileBase64,
-                title != null ? title : "",
-                description != null ? description : "",
-                resourceType != null ? resourceType : "notes"
-            );
+        _uploadState.setValue(UploadState.UPLOADING);
+        _uploadProgress.setValue(0);
+        _uploadSpeed.setValue(0.0);
+        _etaSeconds.setValue(0L);
+        _errorMessage.setValue(null);
 
-            currentUploadDisposable = api.mobileUploadResource(request)
-                    .subscribeOn(Schedulers.io())
-                    .doOnSubscribe(d -> _uploadProgress.postValue(50)) // Sending
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                        resource -> {
-                            _uploadProgress.setValue(100);
-                            _uploadState.setValue(UploadState.SUCCESS);
-                            _uploaded.setValue(resource);
-                        },
-                        this::handleUploadError
-                    );
-            
-            cd.add(currentUploadDisposable);
-
-        } catch (Exception e) {
-            android.util.Log.e("UploadViewModel", "Failed to prepare file", e);
-            _uploadState.setValue(UploadState.ERROR);
-            _errorMessage.setValue("Failed to prepare file: " + e.getMessage());
+        UploadSource source = new ContentUriUploadSource(getApplication().getContentResolver(), fileUri);
+        totalBytes = source.length();
+        transferStartNs = System.nanoTime();
+        transferStartBytes = -1;
+        lastProgressPostNs = 0;
+
+        android.util.Log.d("UploadViewModel", "Queueing upload: file=" + source.fileName() +
+            ", size=" + totalBytes + ", courseUnitId=" + courseUnitId + ", type=" + resourceType);
+
+        currentUploadDisposable = Single.fromCallable(() -> source.contentType())
+                .flatMap(contentType -> uploadQueue.enqueue(fileUri, source.fileName(), contentType,
+                    totalBytes, courseUnitId, title, description, resourceType))
+                .doOnSuccess(id -> currentUploadId = id)
+                .flatMapPublisher(uploadQueue::observe)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .takeUntil(PendingUploadEntity::isFinished)
+                .subscribe(
+                    this::onQueuedUploadChanged,
+                    error -> {
+                        android.util.Log.e("UploadViewModel", "Failed to queue upload", error);
+                        _errorMessage.setValue("Could not start upload: " + error.getMessage());
+                        _uploadState.setValue(UploadState.ERROR);
+                    }
+                );
+
+        cd.add(currentUploadDisposable);
+    }
+
+    private void onQueuedUploadChanged(PendingUploadEntity upload) {
+        switch (upload.getStatus()) {
+            case PendingUploadEntity.STATUS_UPLOADING:
+                onBytesUploaded(upload.getBytesUploaded(), upload.getSizeBytes());
+                break;
+            case PendingUploadEntity.STATUS_DONE:
+                _uploadProgress.setValue(100);
+                _etaSeconds.setValue(0L);
+                _uploadState.setValue(UploadState.SUCCESS);
+                currentUploadId = null;
+                loadUploadedResource(upload.getResourceId());
+                break;
+            case PendingUploadEntity.STATUS_DUPLICATE:
+                DuplicateResourceInfo existing = upload.getErrorMessage() != null
+                    ? new Gson().fromJson(upload.getErrorMessage(), DuplicateResourceInfo.class)
+                    : null;
+                _duplicateFound.setValue(existing);
+                _errorMessage.setValue(existing != null ? "This file already exists" : "This file already exists in the system");
+                _uploadState.setValue(UploadState.DUPLICATE_FOUND);
+                currentUploadId = null;
+                break;
+            case PendingUploadEntity.STATUS_FAILED:
+                _errorMessage.setValue(upload.getErrorMessage());
+                _uploadState.setValue(UploadState.ERROR);
+                currentUploadId = null;
+                break;
+            default:
+                // Queued - waiting for a network or a free upload slot
+                break;
+        }
+    }
+
+    /**
+     * The worker only records the new resource's id; fetch it for observers of {@link #uploaded}
+     */
+    private void loadUploadedResource(Integer resourceId) {
+        if (resourceId == null) {
+            return;
+        }
+        cd.add(api.getResourceById(resourceId)
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(
+                _uploaded::setValue,
+                error -> android.util.Log.e("UploadViewModel", "Could not load uploaded resource " + resourceId, error)
+            ));
+    }
+
+    /**
+     * Publish byte-level progress, speed and ETA, throttled to keep the UI quiet
+     */
+    private void onBytesUploaded(long uploaded, long total) {
+        long now = System.nanoTime();
+        if (transferStartBytes < 0) {
+            // Resumed uploads start part-way through; only count bytes sent in this run
+            transferStartBytes = uploaded;
+        }
+        if (uploaded < total && now - lastProgressPostNs < PROGRESS_INTERVAL_NS) {
+            return;
+        }
+        lastProgressPostNs = now;
+
+        _uploadProgress.setValue(total > 0 ? (int) ((100 * uploaded) / total) : 0);
+
+        double elapsedSeconds = (now - transferStartNs) / 1_000_000_000.0;
+        long sent = uploaded - transferStartBytes;
+        double kbPerSecond = elapsedSeconds > 0 ? (sent / 1024.0) / elapsedSeconds : 0;
+        _uploadSpeed.setValue(kbPerSecond);
+        if (kbPerSecond > 0) {
+            _etaSeconds.setValue((long) (((total - uploaded) / 1024.0) / kbPerSecond));
         }
     }
 
@@ -221,6 +270,12 @@ public class UploadViewModel extends AndroidViewModel {
     public void cancelUpload() {
         if (currentUploadDisposable != null && !currentUploadDisposable.isDisposed()) {
             currentUploadDisposable.dispose();
+            if (currentUploadId != null) {
+                cd.add(uploadQueue.cancel(currentUploadId)
+                    .subscribeOn(Schedulers.io())
+                    .subscribe(() -> {}, err -> android.util.Log.e("UploadViewModel", "Cancel failed", err)));
+                currentUploadId = null;
+            }
             _uploadState.setValue(UploadState.CANCELLED);
             _uploadProgress.setValue(0);
             _errorMessage.setValue("Upload cancelled");
@@ -250,95 +305,6 @@ public class UploadViewModel extends AndroidViewModel {
                 ));
     }
 
-    /**
-     * Handle upload errors including 409 Conflict (duplicate)
-     */
-    private void handleUploadError(Throwable error) {
-        android.util.Log.e("UploadViewModel", "Upload error: " + error.getClass().getSimpleName() + " - " + error.getMessage());
-        
-        if (error instanceof HttpException) {
-            HttpException httpError = (HttpException) error;
-            android.util.Log.e("UploadViewModel", "HTTP Error Code: " + httpError.code());
-            
-            if (httpError.code() == 409) {
-                // Duplicate content detected
-                try {
-                    String errorBody = httpError.response().errorBody().string();
-                    Gson gson = new Gson();
-                    // The backend returns {"detail": {"message": "...", "resource": {...}}}
-                    // We need to parse the detail field
-                    DuplicateConflictError conflictError = gson.fromJson(errorBody, DuplicateConflictError.class);
-                    
-                    if (conflictError != null && conflictError.getResource() != null) {
-                        _duplicateFound.setValue(conflictError.getResource());
-                        _uploadState.setValue(UploadState.DUPLICATE_FOUND);
-                        _errorMessage.setValue("This file already exists");
-                        return;
-                    }
-                } catch (Exception e) {
-                    // Failed to parse duplicate info, try alternative parsing
-                    try {
-                        String errorBody = httpError.response().errorBody().string();
-                        // Try parsing as FastAPI detail format
-                        if (errorBody.contains("Duplicate content detected")) {
-                            _uploadState.setValue(UploadState.DUPLICATE_FOUND);
-                            _errorMessage.setValue("This file already exists in the system");
-                            return;
-                        }
-                    } catch (Exception ignored) {}
-                }
-            }
-            
-            // Try to get the actual error message from the server
-            String serverMessage = null;
-            try {
-                if (httpError.response() != null && httpError.response().errorBody() != null) {
-                    String errorBody = httpError.response().errorBody().string();
-                    android.util.Log.e("UploadViewModel", "Server error body: " + errorBody);
-                    // Try to parse FastAPI error format: {"detail": "message"}
-                    if (errorBody.contains("detail")) {
-                        Gson gson = new Gson();
-                        java.util.Map<String, Object> errorMap = gson.fromJson(errorBody, java.util.Map.class);
-                        Object detail = errorMap.get("detail");
-                        if (detail instanceof String) {
-                            serverMessage = (String) detail;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                android.util.Log.e("UploadViewModel", "Failed to parse error body", e);
-            }
-            
-            // Handle HTTP errors with server message or fallback
-            String message;
-            switch (httpError.code()) {
-                case 400:
-                    message = serverMessage != null ? serverMessage : "Invalid request. Please check your input.";
-                    break;
-                case 401:
-                    message = "Session expired (401). Please login again.";
-                    break;
-                case 403:
-                    message = serverMessage != null ? serverMessage : "Access denied (403). You may not have permission for this action.";
-                    break;
-                case 413:
-                    message = "File too large for server.";
-                    break;
-                case 500:
-                    message = serverMessage != null ? serverMessage : "Server error. Please try again later.";
-                    break;
-                default:
-                    message = serverMessage != null ? serverMessage : "Upload failed (Error " + httpError.code() + ")";
-            }
-            android.util.Log.e("UploadViewModel", "Upload error: " + httpError.code() + " - " + message);
-            _errorMessage.setValue(message);
-        } else {
-            _errorMessage.setValue("Network error: " + error.getMessage());
-        }
-        
-        _uploadState.setValue(UploadState.ERROR);
-    }
-
     /**
      * Reset upload state for a new upload
      */
@@ -353,30 +319,6 @@ public class UploadViewModel extends AndroidViewModel {
         _fileValidationError.setValue(null);
     }
 
-    /**
-     * Get filename from content URI
-     */
-    private String getFileNameFromUri(Uri uri) {
-        String result = null;
-        if ("content".equals(uri.getScheme())) {
-            try (android.database.Cursor cursor = getApplication().getContentResolver()
-                    .query(uri, null, null, null, null)) {
-                if (cursor != null && cursor.moveToFirst()) {
-                    int nameIndex = cursor.getColumnIndex(android.provider.OpenableColumns.DISPLAY_NAME);
-                    if (nameIndex != -1) {
-                        result = cursor.getString(nameIndex);
-                    }
-                }
-            } catch (Exception e) {
-                // Ignore
-            }
-        }
-        if (result == null) {
-            result = uri.getLastPathSegment();
-        }
-        return result != null ? result : "upload_file";
-    }
-
     /**
      * Format ETA for display
      */
@@ -0,0 +1,119 @@
+package com.example.campusvault.utils;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.Intent;
+import android.media.MediaScannerConnection;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Environment;
+import android.provider.MediaStore;
+import android.webkit.MimeTypeMap;
+import androidx.core.content.FileProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Utility class for handing cached files to the user - saving to Downloads and sharing
+ */
+public class FileExporter {
+
+    private static final String DOWNLOADS_SUBDIR = "CampusVault";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Copy a local file into Downloads/CampusVault. Blocking - call off the main thread.
+     * @return content uri of the saved copy
+     */
+    public static Uri saveToDownloads(Context context, File source, String fileName) throws IOException {
+        String mimeType = guessMimeType(fileName);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            ContentResolver resolver = context.getContentResolver();
+            ContentValues values = new ContentValues();
+            values.put(MediaStore.Downloads.DISPLAY_NAME, fileName);
+            values.put(MediaStore.Downloads.MIME_TYPE, mimeType);
+            values.put(MediaStore.Downloads.RELATIVE_PATH, Environment.DIRECTORY_DOWNLOADS + "/" + DOWNLOADS_SUBDIR);
+            values.put(MediaStore.Downloads.IS_PENDING, 1);
+
+            Uri uri = resolver.insert(MediaStore.Downloads.EXTERNAL_CONTENT_URI, values);
+            if (uri == null) {
+                throw new IOException("Cannot create download entry");
+            }
+            try (OutputStream out = resolver.openOutputStream(uri)) {
+                if (out == null) {
+                    throw new IOException("Cannot open download entry");
+                }
+                copy(source, out);
+            } catch (IOException e) {
+                resolver.delete(uri, null, null);
+                throw e;
+            }
+            values.clear();
+            values.put(MediaStore.Downloads.IS_PENDING, 0);
+            resolver.update(uri, values, null, null);
+            return uri;
+        }
+
+        File downloadsDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
+        File campusVaultDir = new File(downloadsDir, DOWNLOADS_SUBDIR);
+        if (!campusVaultDir.exists() && !campusVaultDir.mkdirs()) {
+            throw new IOException("Cannot create " + campusVaultDir);
+        }
+        File target = uniqueFile(campusVaultDir, fileName);
+        try (OutputStream out = new java.io.FileOutputStream(target)) {
+            copy(source, out);
+        }
+        MediaScannerConnection.scanFile(context, new String[]{target.getAbsolutePath()}, new String[]{mimeType}, null);
+        return Uri.fromFile(target);
+    }
+
+    /**
+     * Intent sharing a cached file through the app's FileProvider
+     */
+    public static Intent createShareIntent(Context context, File file, String fileName, String title) {
+        Uri uri = FileProvider.getUriForFile(context, context.getPackageName() + ".fileprovider", file);
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType(guessMimeType(fileName));
+        intent.putExtra(Intent.EXTRA_STREAM, uri);
+        if (title != null) {
+            intent.putExtra(Intent.EXTRA_SUBJECT, title);
+        }
+        intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        return Intent.createChooser(intent, "Share via");
+    }
+
+    public static String guessMimeType(String fileName) {
+        String mimeType = null;
+        int dot = fileName != null ? fileName.lastIndexOf('.') : -1;
+        if (dot >= 0) {
+            String ext = fileName.substring(dot + 1).toLowerCase(java.util.Locale.ROOT);
+            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(ext);
+        }
+        return mimeType != null ? mimeType : "application/octet-stream";
+    }
+
+    private static File uniqueFile(File dir, String fileName) {
+        File file = new File(dir, fileName);
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String ext = dot > 0 ? fileName.substring(dot) : "";
+        for (int i = 1; file.exists(); i++) {
+            file = new File(dir, base + " (" + i + ")" + ext);
+        }
+        return file;
+    }
+
+    private static void copy(File source, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = new FileInputStream(source)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+}
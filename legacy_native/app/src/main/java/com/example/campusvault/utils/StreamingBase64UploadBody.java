@@ -0,0 +1,112 @@
+package com.example.campusvault.utils;
+
+import android.util.Base64;
+import android.util.Base64OutputStream;
+
+import com.example.campusvault.data.models.MobileUploadRequest;
+import com.example.campusvault.data.upload.UploadSource;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * RequestBody for the JSON/base64 mobile upload endpoint that encodes the file while it is
+ * being sent.
+ *
+ * The envelope fields are serialised up front, then the file is read from its source and
+ * base64-encoded straight into the sink, so neither the raw bytes nor the encoded string is
+ * ever held in memory.
+ */
+public class StreamingBase64UploadBody extends RequestBody {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final UploadSource source;
+    private final ProgressRequestBody.UploadProgressListener listener;
+
+    /**
+     * @param envelope request fields to send alongside the file; its file_base64 value is ignored
+     */
+    public StreamingBase64UploadBody(MobileUploadRequest envelope, UploadSource source,
+                                     ProgressRequestBody.UploadProgressListener listener) {
+        this.source = source;
+        this.listener = listener;
+
+        String fileBase64 = envelope.getFileBase64();
+        envelope.setFileBase64(null); // Gson skips nulls, so the file field is left out
+        String json = new Gson().toJson(envelope);
+        envelope.setFileBase64(fileBase64);
+
+        // Re-open the object to append the file field last: {...,"file_base64":"<data>"}
+        String head = json.substring(0, json.lastIndexOf('}'));
+        this.prefix = (head + (head.length() > 1 ? "," : "") + "\"file_base64\":\"")
+            .getBytes(StandardCharsets.UTF_8);
+        this.suffix = "\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        long fileLength = source.length();
+        if (fileLength < 0) {
+            return -1;
+        }
+        return prefix.length + encodedLength(fileLength) + suffix.length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long fileLength = source.length();
+        byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+        long uploaded = 0L;
+        int lastProgress = -1;
+        long start = System.nanoTime();
+
+        sink.write(prefix);
+        try (InputStream input = source.open()) {
+            // NO_CLOSE: closing flushes the final padding but leaves the sink open for the suffix
+            OutputStream encoder = new Base64OutputStream(sink.outputStream(),
+                Base64.NO_WRAP | Base64.NO_CLOSE);
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                encoder.write(buffer, 0, read);
+                uploaded += read;
+                lastProgress = emitProgress(uploaded, fileLength, start, lastProgress);
+            }
+            encoder.close();
+        }
+        sink.write(suffix);
+    }
+
+    private int emitProgress(long uploaded, long total, long startNs, int lastProgress) {
+        if (listener == null || total <= 0) {
+            return lastProgress;
+        }
+        int progress = (int) ((100 * uploaded) / total);
+        if (progress == lastProgress) {
+            return lastProgress;
+        }
+        double elapsedSeconds = (System.nanoTime() - startNs) / 1_000_000_000.0;
+        double kbPerSecond = elapsedSeconds > 0 ? (uploaded / 1024.0) / elapsedSeconds : 0;
+        listener.onProgress(progress, kbPerSecond);
+        return progress;
+    }
+
+    private static long encodedLength(long bytes) {
+        return ((bytes + 2) / 3) * 4;
+    }
+}
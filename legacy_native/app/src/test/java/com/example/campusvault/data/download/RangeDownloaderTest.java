@@ -0,0 +1,280 @@
+package com.example.campusvault.data.download;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.campusvault.data.local.database.dao.DownloadSegmentDao;
+import com.example.campusvault.data.local.database.entity.DownloadSegmentEntity;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RangeDownloaderTest {
+
+    private static final String KEY = "resource-7";
+    // Splits into three segments of MIN_SEGMENT_BYTES
+    private static final int SIZE = (int) (RangeDownloader.MIN_SEGMENT_BYTES * 3);
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private MockWebServer server;
+    private final FileServer files = new FileServer();
+    private final MemorySegmentDao dao = new MemorySegmentDao();
+    private RangeDownloader downloader;
+    private File target;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(files);
+        server.start();
+        downloader = new RangeDownloader(new OkHttpClient(), dao);
+        target = new File(temp.getRoot(), "download.bin");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void parsesTotalFromContentRange() {
+        assertEquals(12345, RangeDownloader.parseTotal("bytes 0-0/12345"));
+        assertEquals(-1, RangeDownloader.parseTotal("bytes 0-0/*"));
+        assertEquals(-1, RangeDownloader.parseTotal(null));
+    }
+
+    @Test
+    public void fetchesEachSegmentAsARange() throws Exception {
+        files.serve(randomBytes(1), "\"v1\"");
+
+        download();
+
+        assertArrayEquals(files.content, Files.readAllBytes(target.toPath()));
+        long segment = RangeDownloader.MIN_SEGMENT_BYTES;
+        assertEquals(Arrays.asList(
+            "bytes=0-" + (segment - 1),
+            "bytes=" + segment + "-" + (2 * segment - 1),
+            "bytes=" + 2 * segment + "-" + (SIZE - 1)), files.segmentRanges());
+        for (String validator : files.ifRange) {
+            assertEquals("\"v1\"", validator);
+        }
+        assertTrue(dao.getSegments(KEY).isEmpty());
+    }
+
+    @Test
+    public void resumesFromSavedSegmentProgress() throws Exception {
+        files.serve(randomBytes(2), "\"v1\"");
+        long segment = RangeDownloader.MIN_SEGMENT_BYTES;
+        // First segment done, second part-way, third untouched
+        dao.insertAll(Arrays.asList(
+            segment(0, 0, segment - 1, segment),
+            segment(1, segment, 2 * segment - 1, 1000),
+            segment(2, 2 * segment, SIZE - 1, 0)));
+        try (RandomAccessFile file = new RandomAccessFile(target, "rw")) {
+            file.setLength(SIZE);
+            file.write(files.content, 0, (int) segment + 1000);
+        }
+
+        download();
+
+        assertArrayEquals(files.content, Files.readAllBytes(target.toPath()));
+        assertEquals(Arrays.asList(
+            "bytes=" + (segment + 1000) + "-" + (2 * segment - 1),
+            "bytes=" + 2 * segment + "-" + (SIZE - 1)), files.segmentRanges());
+    }
+
+    @Test
+    public void startsOverWhenValidatorChanged() throws Exception {
+        files.serve(randomBytes(3), "\"v2\"");
+        dao.insertAll(Collections.singletonList(segment(0, 0, SIZE - 1, 1000)));
+        try (RandomAccessFile file = new RandomAccessFile(target, "rw")) {
+            file.setLength(SIZE);
+        }
+
+        download();
+
+        assertArrayEquals(files.content, Files.readAllBytes(target.toPath()));
+        assertEquals(3, files.segmentRanges().size());
+    }
+
+    @Test
+    public void restartsWhenFileChangesMidDownload() throws Exception {
+        files.serve(randomBytes(4), "\"v2\"");
+        // The first probe still sees the old file, so the segments ask with a stale If-Range
+        files.staleProbes.set(1);
+
+        download();
+
+        assertArrayEquals(files.content, Files.readAllBytes(target.toPath()));
+        assertEquals(2, files.probes.get());
+        assertTrue(dao.getSegments(KEY).isEmpty());
+    }
+
+    @Test
+    public void retriesAFailedSegment() throws Exception {
+        files.serve(randomBytes(5), "\"v1\"");
+        files.failures.set(1);
+
+        download();
+
+        assertArrayEquals(files.content, Files.readAllBytes(target.toPath()));
+        assertEquals(4, files.segmentRanges().size());
+    }
+
+    @Test
+    public void streamsWholeFileWhenRangesAreIgnored() throws Exception {
+        files.serve(randomBytes(6), null);
+        files.honourRanges = false;
+
+        download();
+
+        assertArrayEquals(files.content, Files.readAllBytes(target.toPath()));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private void download() throws Exception {
+        downloader.download(KEY, server.url("/files/7").toString(), target, null);
+    }
+
+    private static DownloadSegmentEntity segment(int index, long start, long end, long downloaded) {
+        DownloadSegmentEntity segment = new DownloadSegmentEntity(KEY, index, start, end, SIZE, "\"v1\"");
+        segment.setDownloadedBytes(downloaded);
+        return segment;
+    }
+
+    private static byte[] randomBytes(long seed) {
+        byte[] bytes = new byte[SIZE];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Serves one file, honouring Range and If-Range like a static file server
+     */
+    private static class FileServer extends Dispatcher {
+        volatile byte[] content;
+        volatile String etag;
+        volatile boolean honourRanges = true;
+        final AtomicInteger staleProbes = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger probes = new AtomicInteger();
+        final Queue<String> ranges = new ConcurrentLinkedQueue<>();
+        final Queue<String> ifRange = new ConcurrentLinkedQueue<>();
+
+        void serve(byte[] content, String etag) {
+            this.content = content;
+            this.etag = etag;
+        }
+
+        List<String> segmentRanges() {
+            List<String> sorted = new ArrayList<>(ranges);
+            sorted.sort(Comparator.comparingLong(range -> Long.parseLong(range.substring(6, range.indexOf('-')))));
+            return sorted;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String range = request.getHeader("Range");
+            if (!honourRanges || range == null) {
+                return whole();
+            }
+            if (range.equals("bytes=0-0")) {
+                probes.incrementAndGet();
+                String probeEtag = staleProbes.getAndDecrement() > 0 ? "\"stale\"" : etag;
+                return partial(0, 0).setHeader("ETag", probeEtag);
+            }
+
+            ranges.add(range);
+            String validator = request.getHeader("If-Range");
+            if (validator != null) {
+                ifRange.add(validator);
+                if (!validator.equals(etag)) {
+                    return whole();
+                }
+            }
+            if (failures.getAndDecrement() > 0) {
+                return new MockResponse().setResponseCode(503);
+            }
+            int dash = range.indexOf('-');
+            long start = Long.parseLong(range.substring(6, dash));
+            long end = Long.parseLong(range.substring(dash + 1));
+            return partial(start, end);
+        }
+
+        private MockResponse whole() {
+            MockResponse response = new MockResponse().setBody(new Buffer().write(content));
+            return etag != null ? response.setHeader("ETag", etag) : response;
+        }
+
+        private MockResponse partial(long start, long end) {
+            return new MockResponse()
+                .setResponseCode(206)
+                .setHeader("Content-Range", "bytes " + start + "-" + end + "/" + content.length)
+                .setHeader("ETag", etag)
+                .setBody(new Buffer().write(content, (int) start, (int) (end - start + 1)));
+        }
+    }
+
+    private static class MemorySegmentDao implements DownloadSegmentDao {
+        private final List<DownloadSegmentEntity> rows = new ArrayList<>();
+
+        @Override
+        public synchronized List<DownloadSegmentEntity> getSegments(String downloadKey) {
+            List<DownloadSegmentEntity> result = new ArrayList<>();
+            for (DownloadSegmentEntity row : rows) {
+                if (row.getDownloadKey().equals(downloadKey)) {
+                    result.add(row);
+                }
+            }
+            result.sort(Comparator.comparingInt(DownloadSegmentEntity::getSegmentIndex));
+            return result;
+        }
+
+        @Override
+        public synchronized void insertAll(List<DownloadSegmentEntity> segments) {
+            rows.addAll(segments);
+        }
+
+        @Override
+        public synchronized void updateProgress(String downloadKey, int segmentIndex, long downloadedBytes) {
+            for (DownloadSegmentEntity row : rows) {
+                if (row.getDownloadKey().equals(downloadKey) && row.getSegmentIndex() == segmentIndex) {
+                    row.setDownloadedBytes(downloadedBytes);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void deleteSegments(String downloadKey) {
+            rows.removeIf(row -> row.getDownloadKey().equals(downloadKey));
+        }
+
+        @Override
+        public synchronized void deleteAll() {
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.campusvault.data.local.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * The hand-written tags JSON must read everything Gson wrote into existing databases, and
+ * write what Gson reads back
+ */
+public class ConvertersTest {
+
+    private static final Gson GSON = new Gson();
+    private static final Type STRING_LIST = new TypeToken<List<String>>() { }.getType();
+
+    private static final List<List<String>> SAMPLES = Arrays.asList(
+        Collections.emptyList(),
+        Collections.singletonList("lecture"),
+        Arrays.asList("week 3", "", " padded "),
+        Arrays.asList("say \"hi\"", "back\\slash", "a/b"),
+        Arrays.asList("line\nbreak", "tab\there", "cr\rlf", "bell\u0007", "nul\u0000"),
+        // Gson escapes these as \\u003c and so on
+        Arrays.asList("<b>", "R&D", "a=b", "it's"),
+        Arrays.asList("Ünïcödé", "数据结构", "emoji \uD83D\uDCDA"),
+        Arrays.asList("kept", null, "around null"),
+        Collections.singletonList(null));
+
+    @Test
+    public void roundTripsItsOwnOutput() {
+        for (List<String> tags : SAMPLES) {
+            assertEquals(tags, Converters.toStringList(Converters.fromStringList(tags)));
+        }
+    }
+
+    @Test
+    public void readsWhatGsonWrote() {
+        for (List<String> tags : SAMPLES) {
+            String json = GSON.toJson(tags);
+            assertEquals(json, tags, Converters.toStringList(json));
+        }
+    }
+
+    @Test
+    public void writesWhatGsonReads() {
+        for (List<String> tags : SAMPLES) {
+            List<String> read = GSON.fromJson(Converters.fromStringList(tags), STRING_LIST);
+            assertEquals(tags, read);
+        }
+    }
+
+    @Test
+    public void decodesEveryEscape() {
+        assertEquals(Collections.singletonList("\" \\ / \b \f \n \r \t"),
+            Converters.toStringList("[\"\\\" \\\\ \\/ \\b \\f \\n \\r \\t\"]"));
+        assertEquals(Collections.singletonList("<é>"),
+            Converters.toStringList("[\"\\u003c\\u00E9\\u003e\"]"));
+        assertEquals(Collections.singletonList("\uD83D\uDCDA"),
+            Converters.toStringList("[\"\\ud83d\\udcda\"]"));
+    }
+
+    @Test
+    public void toleratesWhitespace() {
+        assertEquals(Arrays.asList("a", null, "b"),
+            Converters.toStringList(" [ \"a\" ,\n null ,\t\"b\" ] "));
+        assertEquals(Collections.emptyList(), Converters.toStringList("[ ]"));
+    }
+
+    @Test
+    public void malformedReadsAsNoTags() {
+        String[] malformed = {
+            "", "   ", "lecture", "{\"a\": 1}", "[", "[\"open", "[\"a\"", "[\"a\",]", "[,]",
+            "[\"a\" \"b\"]", "[nul]", "[1, 2]", "[\"\\u12\"]", "[\"\\uzzzz\"]", "[\"trailing\\"
+        };
+        for (String json : malformed) {
+            List<String> tags = Converters.toStringList(json);
+            assertTrue(json + " read as " + tags, tags.isEmpty());
+        }
+    }
+
+    @Test
+    public void nullStaysNull() {
+        assertNull(Converters.fromStringList(null));
+        assertNull(Converters.toStringList(null));
+        assertNull(Converters.fromTimestamp(null));
+        assertNull(Converters.dateToTimestamp(null));
+    }
+
+    @Test
+    public void datesRoundTrip() {
+        Date date = new Date(1_700_000_000_123L);
+        assertEquals(date, Converters.fromTimestamp(Converters.dateToTimestamp(date)));
+    }
+
+    @Test
+    public void longListsRoundTrip() {
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tags.add("tag " + i + (i % 7 == 0 ? " \"quoted\"" : ""));
+        }
+        assertEquals(tags, Converters.toStringList(Converters.fromStringList(tags)));
+    }
+}
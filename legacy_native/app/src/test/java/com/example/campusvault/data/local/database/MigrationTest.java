@@ -0,0 +1,185 @@
+package com.example.campusvault.data.local.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.room.Room;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Upgrades a version 4 database, the last release without migrations, through every step
+ * in {@link Migrations#ALL} and opens it with Room, which checks each table against its
+ * entity. Indices and FTS triggers are compared with a fresh install, since Room's check
+ * does not cover triggers.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class MigrationTest {
+
+    private static final String MIGRATED_DB = "migration-test";
+    private static final String FRESH_DB = "migration-test-fresh";
+    private static final int FIRST_VERSION = 4;
+    private static final int LATEST_VERSION = 15;
+
+    // The tables Room created for the version 4 entities
+    private static final String[] VERSION_4_SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS `users` (`id` INTEGER NOT NULL, `email` TEXT, `username` TEXT, " +
+            "`first_name` TEXT, `last_name` TEXT, `faculty_id` INTEGER NOT NULL, `program_id` INTEGER NOT NULL, " +
+            "`role` TEXT, `avatar_url` TEXT, `banner_url` TEXT, `is_verified` INTEGER NOT NULL, " +
+            "`created_at` INTEGER, `cached_at` INTEGER, PRIMARY KEY(`id`))",
+        "CREATE TABLE IF NOT EXISTS `resources` (`id` INTEGER NOT NULL, `title` TEXT, `description` TEXT, " +
+            "`file_url` TEXT, `thumbnail_url` TEXT, `file_type` TEXT, `file_size` INTEGER NOT NULL, " +
+            "`author_id` INTEGER NOT NULL, `author_name` TEXT, `course_unit_id` INTEGER, `course_unit_name` TEXT, " +
+            "`tags` TEXT, `download_count` INTEGER NOT NULL, `average_rating` REAL NOT NULL, " +
+            "`is_bookmarked` INTEGER NOT NULL, `uploaded_at` INTEGER, `cached_at` INTEGER, `resource_type` TEXT, " +
+            "PRIMARY KEY(`id`))",
+        "CREATE TABLE IF NOT EXISTS `faculties` (`id` INTEGER NOT NULL, `name` TEXT, `code` TEXT, " +
+            "`cached_at` INTEGER, PRIMARY KEY(`id`))",
+        "CREATE TABLE IF NOT EXISTS `programs` (`id` INTEGER NOT NULL, `name` TEXT, `code` TEXT, " +
+            "`faculty_id` INTEGER NOT NULL, `duration_years` INTEGER NOT NULL, `cached_at` INTEGER, PRIMARY KEY(`id`))",
+        "CREATE TABLE IF NOT EXISTS `course_units` (`id` INTEGER NOT NULL, `code` TEXT, `name` TEXT, " +
+            "`program_id` INTEGER NOT NULL, `year` INTEGER NOT NULL, `semester` INTEGER NOT NULL, " +
+            "`cached_at` INTEGER, PRIMARY KEY(`id`))"
+    };
+
+    private Context context;
+    private AppDatabase migrated;
+    private AppDatabase fresh;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(MIGRATED_DB);
+        context.deleteDatabase(FRESH_DB);
+    }
+
+    @After
+    public void tearDown() {
+        if (migrated != null) {
+            migrated.close();
+        }
+        if (fresh != null) {
+            fresh.close();
+        }
+        context.deleteDatabase(MIGRATED_DB);
+        context.deleteDatabase(FRESH_DB);
+    }
+
+    @Test
+    public void migrationsCoverEveryVersionStep() {
+        int version = FIRST_VERSION;
+        for (Migration migration : Migrations.ALL) {
+            assertEquals("Migrations must be consecutive", version, migration.startVersion);
+            assertEquals("One version per step", version + 1, migration.endVersion);
+            version = migration.endVersion;
+        }
+        assertEquals(LATEST_VERSION, version);
+    }
+
+    @Test
+    public void roomOpensMigratedDatabaseWithCachedRowsKept() {
+        createVersion4Database();
+
+        migrated = open(MIGRATED_DB);
+
+        ResourceEntity resource = migrated.resourceDao().getResourceById(1).blockingFirst();
+        assertEquals("Week 1 notes", resource.getTitle());
+        assertTrue(resource.isBookmarked());
+        assertEquals(2, migrated.tagDao().getTagNames(1).blockingGet().size());
+        assertEquals(1, migrated.resourceDao().searchResources("week").blockingFirst().size());
+
+        SupportSQLiteDatabase db = migrated.getOpenHelper().getWritableDatabase();
+        assertEquals(LATEST_VERSION, db.getVersion());
+        try (Cursor cursor = db.query("SELECT content_hash FROM resources WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            // 0 never matches a real hash, so the next refresh rewrites the row
+            assertEquals(0, cursor.getLong(0));
+        }
+        try (Cursor cursor = db.query("SELECT rowid FROM resources_fts WHERE resources_fts MATCH 'intro'")) {
+            assertEquals(1, cursor.getCount());
+        }
+        try (Cursor cursor = db.query("SELECT rowid FROM course_units_fts WHERE course_units_fts MATCH 'literacy'")) {
+            assertEquals(1, cursor.getCount());
+        }
+    }
+
+    @Test
+    public void migratedDatabaseHasTheIndicesAndTriggersOfAFreshInstall() {
+        createVersion4Database();
+        migrated = open(MIGRATED_DB);
+        fresh = open(FRESH_DB);
+
+        assertEquals(schemaObjects(fresh, "index"), schemaObjects(migrated, "index"));
+        assertEquals(schemaObjects(fresh, "trigger"), schemaObjects(migrated, "trigger"));
+    }
+
+    @Test
+    public void migratedFtsTriggersFollowTheContentTable() {
+        createVersion4Database();
+        migrated = open(MIGRATED_DB);
+        SupportSQLiteDatabase db = migrated.getOpenHelper().getWritableDatabase();
+
+        db.execSQL("UPDATE resources SET title = 'Week 2 slides' WHERE id = 1");
+
+        try (Cursor cursor = db.query("SELECT rowid FROM resources_fts WHERE resources_fts MATCH 'slides'")) {
+            assertEquals(1, cursor.getCount());
+        }
+    }
+
+    private void createVersion4Database() {
+        try (SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(MIGRATED_DB), null)) {
+            for (String sql : VERSION_4_SCHEMA) {
+                db.execSQL(sql);
+            }
+            db.execSQL("INSERT INTO course_units (id, code, name, program_id, year, semester, cached_at) " +
+                "VALUES (10, 'CSC1100', 'Computer Literacy', 3, 1, 1, 1700000000000)");
+            db.execSQL("INSERT INTO resources (id, title, description, file_size, author_id, author_name, " +
+                "course_unit_id, course_unit_name, tags, download_count, average_rating, is_bookmarked, " +
+                "uploaded_at, cached_at, resource_type) VALUES (1, 'Week 1 notes', 'Intro lecture', 2048, 5, " +
+                "'Jane', 10, 'Computer Literacy', '[\"lecture\",\"Week 1\"]', 12, 4.5, 1, 1690000000000, " +
+                "1700000000000, 'notes')");
+            db.setVersion(FIRST_VERSION);
+        }
+    }
+
+    private AppDatabase open(String name) {
+        AppDatabase db = Room.databaseBuilder(context, AppDatabase.class, name)
+            .addMigrations(Migrations.ALL)
+            .allowMainThreadQueries()
+            .build();
+        // Opening runs the migrations and Room's schema check
+        db.getOpenHelper().getWritableDatabase();
+        return db;
+    }
+
+    /**
+     * Name to SQL, whitespace collapsed, of every index or trigger Room's own code did not add
+     */
+    private static Map<String, String> schemaObjects(AppDatabase db, String type) {
+        Map<String, String> objects = new TreeMap<>();
+        try (Cursor cursor = db.getOpenHelper().getReadableDatabase().query(
+                "SELECT name, sql FROM sqlite_master WHERE type = ? AND name NOT LIKE 'sqlite_autoindex%' " +
+                "AND tbl_name != 'room_table_modification_log'", new Object[]{type})) {
+            while (cursor.moveToNext()) {
+                String sql = cursor.getString(1);
+                objects.put(cursor.getString(0), sql != null ? sql.replaceAll("\\s+", " ") : null);
+            }
+        }
+        return objects;
+    }
+}
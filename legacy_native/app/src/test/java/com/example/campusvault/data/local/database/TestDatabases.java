@@ -0,0 +1,47 @@
+package com.example.campusvault.data.local.database;
+
+import android.content.Context;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+/**
+ * In-memory {@link AppDatabase} instances and seeded catalogs for Robolectric tests
+ */
+public final class TestDatabases {
+
+    public static final int COURSE_UNITS = 200;
+    // Every 100th resource has no upload time, every 20th is bookmarked
+    public static final long FIRST_UPLOAD = 1_600_000_000_000L;
+
+    private TestDatabases() {
+    }
+
+    public static AppDatabase inMemory() {
+        return builder().build();
+    }
+
+    public static RoomDatabase.Builder<AppDatabase> builder() {
+        Context context = ApplicationProvider.getApplicationContext();
+        return Room.inMemoryDatabaseBuilder(context, AppDatabase.class).allowMainThreadQueries();
+    }
+
+    /**
+     * Insert resources 1..count spread over {@link #COURSE_UNITS} course units, in one statement
+     */
+    public static void seedResources(AppDatabase db, int count) {
+        SupportSQLiteDatabase sql = db.getOpenHelper().getWritableDatabase();
+        sql.execSQL("INSERT INTO resources (id, title, description, file_size, author_id, author_name, " +
+            "course_unit_id, course_unit_name, tags, download_count, average_rating, is_bookmarked, " +
+            "uploaded_at, cached_at, content_hash, resource_type) " +
+            "WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < ?) " +
+            "SELECT i, 'Resource ' || i, 'Notes on topic ' || (i % 997), 1024 * (i % 500), i % 300, " +
+            "'Author ' || (i % 300), i % " + COURSE_UNITS + ", 'Course unit ' || (i % " + COURSE_UNITS + "), " +
+            "'[\"week ' || (i % 14) || '\"]', (i * 7919) % 5000, (i % 50) / 10.0, i % 20 = 0, " +
+            "CASE WHEN i % 100 = 0 THEN NULL ELSE " + FIRST_UPLOAD + " + i * 60000 END, " +
+            FIRST_UPLOAD + " + (i % 1000), i, " +
+            "CASE i % 4 WHEN 0 THEN 'notes' WHEN 1 THEN 'past_paper' WHEN 2 THEN 'slides' ELSE 'assignment' END " +
+            "FROM n", new Object[]{count});
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.campusvault.data.local.database.dao;
+
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.database.Cursor;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.TestDatabases;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Runs EXPLAIN QUERY PLAN on the SQL every ResourceDao method actually issues, captured
+ * through Room's query callback, over a seeded 100k-row catalog. A full table scan or a
+ * temp B-tree sort in any of them fails the test.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class ResourceDaoQueryPlanTest {
+
+    private static final int ROWS = 100_000;
+
+    private final List<Statement> issued = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> problems = new ArrayList<>();
+    private AppDatabase db;
+    private ResourceDao dao;
+
+    private static class Statement {
+        final String sql;
+        final Object[] args;
+
+        Statement(String sql, List<Object> args) {
+            this.sql = sql;
+            this.args = args.toArray();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        db = TestDatabases.builder()
+            .setQueryCallback((sql, args) -> issued.add(new Statement(sql, args)), Runnable::run)
+            .build();
+        TestDatabases.seedResources(db, ROWS);
+        dao = db.resourceDao();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void readQueriesSeekOnAnIndex() {
+        check("getResourceById", () -> dao.getResourceById(500).blockingFirst());
+        check("findResourceById", () -> dao.findResourceById(500).blockingGet());
+        check("getRecentResources", () -> dao.getRecentResources(20).blockingFirst());
+        check("getTrendingResources", () -> dao.getTrendingResources(20).blockingFirst());
+        check("getResourcesByCourseUnit", () -> dao.getResourcesByCourseUnit(7).blockingFirst());
+        check("getResourcesByCourseUnitAndType", () -> dao.getResourcesByCourseUnitAndType(7, "notes").blockingFirst());
+        check("getCourseUnitResourcesWithTag", () -> dao.getCourseUnitResourcesWithTag(7, "week 3").blockingFirst());
+        check("getBookmarkedResources", () -> dao.getBookmarkedResources().blockingFirst());
+        check("searchResourcesFts", () -> dao.searchResourcesFts("topic*").blockingFirst());
+        check("isBookmarked", () -> dao.isBookmarked(40).blockingFirst());
+        check("getResourceCount", () -> dao.getResourceCount().blockingGet());
+        check("getBookmarkedCountSync", () -> dao.getBookmarkedCountSync());
+        check("getBookmarkedIdsSync", () -> dao.getBookmarkedIdsSync());
+        check("getBookmarkedIdsAmong", () -> dao.getBookmarkedIdsAmong(Arrays.asList(20, 40, 41)));
+        check("getHashes", () -> dao.getHashes(Arrays.asList(1, 2, 3)));
+        assertNoProblems();
+    }
+
+    @Test
+    public void keysetPagesSeekOnAnIndex() {
+        long middle = TestDatabases.FIRST_UPLOAD + ROWS / 2 * 60000L;
+        check("getCourseUnitDatedPage", () -> dao.getCourseUnitDatedPage(7, middle, 50_007, 30));
+        check("getCourseUnitDatedPageByType", () -> dao.getCourseUnitDatedPageByType(7, "notes", middle, 50_007, 30));
+        check("getCourseUnitUndatedPage", () -> dao.getCourseUnitUndatedPage(7, 50_007, 30));
+        check("getCourseUnitUndatedPageByType", () -> dao.getCourseUnitUndatedPageByType(7, "notes", 50_007, 30));
+        check("getRecentDatedPage", () -> dao.getRecentDatedPage(middle, 50_000, 30));
+        check("getRecentUndatedPage", () -> dao.getRecentUndatedPage(50_000, 30));
+        check("getTrendingPageAfter", () -> dao.getTrendingPageAfter(2500, 2.5f, 50_000, 30));
+        assertNoProblems();
+    }
+
+    @Test
+    public void writesFindTheirRowsOnAnIndex() {
+        check("updateBookmarkStatus", () -> dao.updateBookmarkStatus(41, true).blockingAwait());
+        check("setBookmarkStatusSync", () -> dao.setBookmarkStatusSync(Arrays.asList(42, 43), true));
+        check("incrementDownloadCount", () -> dao.incrementDownloadCount(44).blockingAwait());
+        check("deleteExpiredCache", () -> dao.deleteExpiredCache(0).blockingAwait());
+        check("deleteByIds", () -> dao.deleteByIds(Collections.singletonList(ROWS + 1)));
+        check("deleteTagLinks", () -> dao.deleteTagLinks(Collections.singletonList(ROWS + 1)));
+        assertNoProblems();
+    }
+
+    /**
+     * Run one DAO call and explain every statement it sent to SQLite
+     */
+    private void check(String method, Runnable call) {
+        issued.clear();
+        call.run();
+        List<Statement> statements;
+        synchronized (issued) {
+            statements = new ArrayList<>(issued);
+        }
+
+        boolean explained = false;
+        for (Statement statement : statements) {
+            if (!isPlannable(statement.sql)) {
+                continue;
+            }
+            explained = true;
+            List<String> plan = explain(statement);
+            for (String step : plan) {
+                if (isFullScan(step) || step.contains("TEMP B-TREE")) {
+                    problems.add(method + ": " + step + "\n    " + statement.sql + "\n    plan: " + plan);
+                }
+            }
+        }
+        assertTrue(method + " issued no query", explained);
+    }
+
+    private List<String> explain(Statement statement) {
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.getOpenHelper().getReadableDatabase()
+                .query("EXPLAIN QUERY PLAN " + statement.sql, statement.args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        }
+        return plan;
+    }
+
+    private static boolean isPlannable(String sql) {
+        String head = sql.trim().toUpperCase();
+        boolean dml = head.startsWith("SELECT") || head.startsWith("UPDATE") || head.startsWith("DELETE");
+        // Room's own invalidation bookkeeping
+        return dml && !sql.contains("room_table_modification_log");
+    }
+
+    /**
+     * "SCAN resources" walks the whole table; "SCAN ... USING INDEX" walks an index in the
+     * order the query wants and stops at its LIMIT, and FTS lookups show as virtual table scans
+     */
+    private static boolean isFullScan(String step) {
+        return step.startsWith("SCAN ") && !step.contains(" USING ") && !step.contains("VIRTUAL TABLE")
+            && !step.equals("SCAN CONSTANT ROW");
+    }
+
+    private void assertNoProblems() {
+        assertTrue("Queries without index support:\n" + String.join("\n", problems), problems.isEmpty());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.campusvault.data.local.database.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.database.Cursor;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.TestDatabases;
+import com.example.campusvault.data.local.database.model.ResourceListItem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Times one page of the recent list at increasing depths in a seeded 100k-row catalog:
+ * the keyset query the pager uses against the LIMIT/OFFSET query it replaced. A keyset
+ * page seeks straight to its key, so its time stays flat; OFFSET walks every row it skips.
+ * Prints the medians; asserts that both return the same rows, that the deepest keyset page
+ * costs about what the first one does, and that the deepest OFFSET page is the slower one.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class ResourceKeysetBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE = 30;
+    private static final int RUNS = 15;
+    private static final List<Integer> DEPTHS = Arrays.asList(0, 1_000, 10_000, 50_000, 90_000);
+    // How far the deepest keyset page may drift from the first, with headroom for timer noise
+    private static final int FLAT_FACTOR = 5;
+    private static final long FLAT_SLACK_NANOS = 200_000;
+
+    private static final String ORDER = " ORDER BY uploaded_at DESC, id DESC";
+    private static final String OFFSET_PAGE = "SELECT " + ResourceListItem.COLUMNS + " FROM resources"
+        + ORDER + " LIMIT ? OFFSET ?";
+
+    private AppDatabase db;
+    private ResourceDao dao;
+    private SupportSQLiteDatabase sql;
+
+    @Before
+    public void setUp() {
+        db = TestDatabases.inMemory();
+        TestDatabases.seedResources(db, ROWS);
+        dao = db.resourceDao();
+        sql = db.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void keysetPagesStayFlatWhileOffsetGrows() {
+        long firstKeyset = -1;
+        long deepestKeyset = 0;
+        long deepestOffset = 0;
+        for (int depth : DEPTHS) {
+            Long uploadedAt = null;
+            Integer afterId = null;
+            if (depth > 0) {
+                // Key of the last row on the page before, as the pager would hold it
+                try (Cursor cursor = sql.query("SELECT uploaded_at, id FROM resources" + ORDER
+                        + " LIMIT 1 OFFSET ?", new Object[]{depth - 1})) {
+                    assertTrue(cursor.moveToFirst());
+                    uploadedAt = cursor.getLong(0);
+                    afterId = cursor.getInt(1);
+                }
+            }
+            Long keyUploadedAt = uploadedAt;
+            Integer keyId = afterId;
+
+            assertEquals("rows at depth " + depth, offsetIds(depth), ids(dao.getRecentPage(keyUploadedAt, keyId, PAGE)));
+
+            long keyset = medianNanos(() -> dao.getRecentPage(keyUploadedAt, keyId, PAGE));
+            long offset = medianNanos(() -> offsetIds(depth));
+            System.out.printf("depth %6d: keyset %7.3f ms, offset %7.3f ms%n", depth, keyset / 1e6, offset / 1e6);
+            if (firstKeyset < 0) {
+                firstKeyset = keyset;
+            }
+            deepestKeyset = keyset;
+            deepestOffset = offset;
+        }
+        assertTrue("keyset page at depth " + DEPTHS.get(DEPTHS.size() - 1) + " took " + deepestKeyset
+                + " ns against " + firstKeyset + " ns at depth 0",
+            deepestKeyset <= FLAT_FACTOR * firstKeyset + FLAT_SLACK_NANOS);
+        assertTrue("OFFSET " + DEPTHS.get(DEPTHS.size() - 1) + " should cost more than a keyset seek",
+            deepestOffset > deepestKeyset);
+    }
+
+    private List<Integer> offsetIds(int depth) {
+        List<Integer> ids = new ArrayList<>(PAGE);
+        try (Cursor cursor = sql.query(OFFSET_PAGE, new Object[]{PAGE, depth})) {
+            int id = cursor.getColumnIndexOrThrow("id");
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getInt(id));
+            }
+        }
+        return ids;
+    }
+
+    private static List<Integer> ids(List<ResourceListItem> page) {
+        List<Integer> ids = new ArrayList<>(page.size());
+        for (ResourceListItem item : page) {
+            ids.add(item.id);
+        }
+        return ids;
+    }
+
+    /** Median of RUNS timed calls, after one untimed warm-up */
+    private static long medianNanos(Runnable query) {
+        query.run();
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.campusvault.data.local.database.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.RowDiff;
+import com.example.campusvault.data.local.database.TestDatabases;
+import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import io.reactivex.rxjava3.disposables.Disposable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Compares the old per-row sync write (one insert, transaction and invalidation per resource)
+ * with {@link ResourceDao#upsertAll}: rows per second, and how often an open resource list
+ * re-queries. Prints the numbers; asserts only on the re-emissions, which don't depend on
+ * the machine.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class ResourceUpsertBenchmarkTest {
+
+    private static final int BATCH = 500;
+    private static final long QUIET_MS = 300;
+    private static final long SETTLE_TIMEOUT_MS = 10_000;
+
+    private AppDatabase db;
+    private ResourceDao dao;
+    private final AtomicInteger emissions = new AtomicInteger();
+    private Disposable observer;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        db = TestDatabases.inMemory();
+        dao = db.resourceDao();
+        observer = dao.getRecentResources(20).subscribe(rows -> emissions.incrementAndGet());
+        awaitQuiet();
+        assertEquals("initial emission", 1, emissions.get());
+    }
+
+    @After
+    public void tearDown() {
+        observer.dispose();
+        db.close();
+    }
+
+    @Test
+    public void batchedUpsertInvalidatesOnce() throws InterruptedException {
+        List<ResourceEntity> perRow = resources(1, BATCH, "v1");
+        long start = System.nanoTime();
+        for (ResourceEntity resource : perRow) {
+            dao.insert(resource).blockingAwait();
+        }
+        long perRowNs = System.nanoTime() - start;
+        int perRowEmissions = settledEmissions();
+
+        List<ResourceEntity> batched = resources(BATCH + 1, BATCH, "v1");
+        start = System.nanoTime();
+        RowDiff<ResourceEntity> diff = dao.upsertAll(batched);
+        long batchedNs = System.nanoTime() - start;
+        int batchedEmissions = settledEmissions();
+
+        System.out.printf("per-row insert: %d rows/s, %d re-emissions%n", rowsPerSecond(perRowNs), perRowEmissions);
+        System.out.printf("upsertAll:      %d rows/s, %d re-emissions%n", rowsPerSecond(batchedNs), batchedEmissions);
+
+        assertEquals(BATCH, diff.inserted.size());
+        assertEquals(1, batchedEmissions);
+        assertTrue("per-row writes should re-query at least as often", perRowEmissions >= batchedEmissions);
+    }
+
+    @Test
+    public void unchangedRefreshDoesNotReEmit() throws InterruptedException {
+        dao.upsertAll(resources(1, BATCH, "v1"));
+        settledEmissions();
+
+        RowDiff<ResourceEntity> diff = dao.upsertAll(resources(1, BATCH, "v1"));
+
+        assertTrue(diff.isEmpty());
+        assertEquals(0, settledEmissions());
+    }
+
+    @Test
+    public void insertKeepsRowWrittenSinceItsHashWasRead() {
+        dao.upsertAll(resources(1, 10, "v1"));
+
+        // A stale insert for a row that now exists must not replace it (and cascade its tags away)
+        dao.insertAllSync(resources(3, 1, "stale"));
+
+        assertEquals("Resource 3 v1", dao.getResourceById(3).blockingFirst().getTitle());
+        assertEquals(Arrays.asList("lecture", "week 3"), db.tagDao().getTagNames(3).blockingGet());
+    }
+
+    private static List<ResourceEntity> resources(int firstId, int count, String revision) {
+        List<ResourceEntity> resources = new ArrayList<>(count);
+        for (int id = firstId; id < firstId + count; id++) {
+            ResourceEntity resource = new ResourceEntity();
+            resource.setId(id);
+            resource.setTitle("Resource " + id + " " + revision);
+            resource.setDescription("Notes on topic " + (id % 97));
+            resource.setCourseUnitId(id % TestDatabases.COURSE_UNITS);
+            resource.setTags(Arrays.asList("lecture", "week " + (id % 14)));
+            resource.setDownloadCount(id % 50);
+            resource.setUploadedAt(new Date(TestDatabases.FIRST_UPLOAD + id * 60_000L));
+            resource.setCachedAt(new Date());
+            resource.setResourceType("notes");
+            resources.add(resource);
+        }
+        return resources;
+    }
+
+    private static long rowsPerSecond(long nanos) {
+        return BATCH * 1_000_000_000L / Math.max(1, nanos);
+    }
+
+    /**
+     * Re-emissions since the last call, once invalidation has settled
+     */
+    private int settledEmissions() throws InterruptedException {
+        awaitQuiet();
+        return emissions.getAndSet(0);
+    }
+
+    /**
+     * Invalidations reach observers asynchronously; wait until the count stops moving
+     */
+    private void awaitQuiet() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MS;
+        int last = -1;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(QUIET_MS);
+            int current = emissions.get();
+            if (current == last) {
+                return;
+            }
+            last = current;
+        }
+    }
+}
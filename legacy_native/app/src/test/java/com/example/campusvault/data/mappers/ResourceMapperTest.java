@@ -0,0 +1,85 @@
+package com.example.campusvault.data.mappers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.example.campusvault.data.local.database.entity.ResourceEntity;
+import com.example.campusvault.data.models.ChangeSet;
+import com.example.campusvault.data.models.PaginatedResponse;
+import com.example.campusvault.data.models.Resource;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.util.Date;
+import org.junit.Test;
+
+/**
+ * A resource must hash the same whichever refresh path stored it, or every sync rewrites
+ * rows a list refresh just wrote (and the other way round)
+ */
+public class ResourceMapperTest {
+
+    // Same date format as ApiClient
+    private static final Gson GSON = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss").create();
+
+    private static final String FULL = "{\"id\": 7, \"title\": \"Week 3 notes\", \"description\": \"Recursion\", "
+        + "\"url\": \"https://files.example.com/7.pdf\", \"file_type\": \"pdf\", \"size_bytes\": 20480, "
+        + "\"author\": {\"id\": 5, \"firstName\": \"Jane\", \"lastName\": \"Doe\"}, "
+        + "\"course_unit\": {\"id\": 10, \"name\": \"Data Structures\"}, \"tags\": [\"lecture\", \"week 3\"], "
+        + "\"download_count\": 12, \"average_rating\": 4.5, \"is_bookmarked\": true, "
+        + "\"created_at\": \"2024-02-01T09:30:00\", \"resource_type\": \"notes\"}";
+
+    // Optional fields left out, course unit sent as a bare id
+    private static final String SPARSE = "{\"id\": 8, \"course_unit_id\": 10, \"download_count\": 0}";
+
+    @Test
+    public void listAndDeltaPathsHashAlike() {
+        for (String json : new String[]{FULL, SPARSE}) {
+            ResourceEntity fromList = ResourceMapper.toEntity(fromListPage(json));
+            ResourceEntity fromDelta = ResourceMapper.toEntity(fromChangeSet(json));
+
+            assertEquals(json, fromList.computeContentHash(), fromDelta.computeContentHash());
+        }
+    }
+
+    @Test
+    public void missingFieldsAreNormalised() {
+        ResourceEntity entity = ResourceMapper.toEntity(fromChangeSet(SPARSE));
+
+        assertEquals("Untitled", entity.getTitle());
+        assertEquals(0, entity.getAuthorId());
+        assertEquals("Unknown", entity.getAuthorName());
+        assertEquals(Integer.valueOf(10), entity.getCourseUnitId());
+    }
+
+    @Test
+    public void localStateIsNotPartOfTheHash() {
+        ResourceEntity first = ResourceMapper.toEntity(fromListPage(FULL));
+        ResourceEntity second = ResourceMapper.toEntity(fromListPage(FULL));
+        second.setBookmarked(!first.isBookmarked());
+        second.setCachedAt(new Date(first.getCachedAt().getTime() + 60_000));
+
+        assertEquals(first.computeContentHash(), second.computeContentHash());
+    }
+
+    @Test
+    public void serverChangesChangeTheHash() {
+        Resource resource = fromListPage(FULL);
+        long before = ResourceMapper.toEntity(resource).computeContentHash();
+        resource.setDownloadCount(resource.getDownloadCount() + 1);
+
+        assertNotEquals(before, ResourceMapper.toEntity(resource).computeContentHash());
+    }
+
+    private static Resource fromListPage(String resource) {
+        PaginatedResponse<Resource> page = GSON.fromJson("{\"items\": [" + resource + "], \"total\": 1}",
+            new TypeToken<PaginatedResponse<Resource>>() { }.getType());
+        return page.getItems().get(0);
+    }
+
+    private static Resource fromChangeSet(String resource) {
+        ChangeSet<Resource> changes = GSON.fromJson("{\"items\": [" + resource + "], \"cursor\": \"c1\"}",
+            new TypeToken<ChangeSet<Resource>>() { }.getType());
+        return changes.getItems().get(0);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.campusvault.data.paging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Runs the pager on the trampoline scheduler, so every load completes before the call
+ * that started it returns
+ */
+public class KeysetPagerTest {
+
+    private static final int PAGE = 10;
+
+    private final List<Row> table = new ArrayList<>();
+    private final PublishSubject<Object> invalidations = PublishSubject.create();
+    private final FakeMediator mediator = new FakeMediator();
+    private KeysetPager<Row, Integer> pager;
+    private List<Row> items = new ArrayList<>();
+
+    private static final class Row {
+        final int id;
+        final String title;
+
+        Row(int id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+
+    /** Adds the next server page to the table on each append, until the server has no more */
+    private final class FakeMediator implements KeysetPager.RemoteMediator {
+        int serverRows;
+        int appends;
+        int refreshes;
+
+        @Override
+        public Completable refresh() {
+            return Completable.fromAction(() -> refreshes++);
+        }
+
+        @Override
+        public Single<Boolean> append() {
+            return Single.fromCallable(() -> {
+                appends++;
+                int from = table.size() + 1;
+                int to = Math.min(serverRows, table.size() + PAGE);
+                for (int id = from; id <= to; id++) {
+                    table.add(new Row(id, "Resource " + id));
+                }
+                return to < serverRows;
+            });
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (pager != null) {
+            pager.dispose();
+        }
+    }
+
+    @Test
+    public void startLoadsTheFirstPage() {
+        fill(100);
+        start(3);
+
+        assertEquals(PAGE, items.size());
+        assertEquals(1, items.get(0).id);
+        assertEquals(PAGE, items.get(PAGE - 1).id);
+    }
+
+    @Test
+    public void scrollingLoadsAheadAndReleasesFarPages() {
+        fill(100);
+        start(3);
+
+        for (int first = 0; first <= 40; first += 5) {
+            pager.onVisibleRange(first, first + 4);
+        }
+
+        assertTrue(items.size() >= 45);
+        assertNull("Far pages are released", items.get(0));
+        assertNotNull(items.get(44));
+        assertTrue(loadedCount() <= 3 * PAGE);
+
+        pager.onVisibleRange(0, 4);
+
+        assertEquals(1, items.get(0).id);
+        assertEquals("Positions stay put", 45, items.get(44).id);
+    }
+
+    @Test
+    public void invalidationReloadsLoadedPages() {
+        fill(30);
+        start(3);
+        pager.onVisibleRange(5, 9);
+
+        table.set(2, new Row(3, "Bookmarked"));
+        table.remove(5);
+        assertEquals("Resource 3", items.get(2).title);
+
+        invalidations.onNext(new Object());
+
+        assertEquals("Bookmarked", items.get(2).title);
+        assertEquals(7, items.get(5).id);
+        assertFalse(items.contains(null));
+    }
+
+    @Test
+    public void fetchesServerPagesOnceLocalRowsRunOut() {
+        fill(PAGE);
+        mediator.serverRows = 3 * PAGE;
+        start(6);
+
+        for (int first = 0; first <= 3 * PAGE; first += 5) {
+            pager.onVisibleRange(first, first + 4);
+        }
+
+        assertEquals(3 * PAGE, items.size());
+        assertEquals(3 * PAGE, items.get(3 * PAGE - 1).id);
+        // The second append reported the end; scrolling further asks for nothing more
+        assertEquals(2, mediator.appends);
+        pager.onVisibleRange(25, 29);
+        assertEquals(2, mediator.appends);
+    }
+
+    @Test
+    public void refreshChecksTheServerThenReloads() {
+        fill(PAGE);
+        start(3);
+        table.add(0, new Row(0, "New upload"));
+
+        pager.refresh();
+
+        assertEquals(1, mediator.refreshes);
+        assertEquals(0, items.get(0).id);
+    }
+
+    @Test
+    public void disposeStopsFollowingInvalidations() {
+        fill(PAGE);
+        start(3);
+        assertTrue(invalidations.hasObservers());
+
+        pager.dispose();
+
+        assertFalse(invalidations.hasObservers());
+    }
+
+    private void fill(int count) {
+        for (int id = 1; id <= count; id++) {
+            table.add(new Row(id, "Resource " + id));
+        }
+    }
+
+    private void start(int maxLoadedPages) {
+        pager = new KeysetPager<>(new KeysetPager.Config(PAGE, 5, maxLoadedPages), this::load,
+            row -> row.id, mediator, invalidations, Schedulers.trampoline(), Schedulers.trampoline());
+        pager.items().subscribe(rows -> items = rows);
+        pager.start();
+    }
+
+    /** Rows after the key in id order, like a keyset query */
+    private List<Row> load(Integer after, int limit) {
+        List<Row> page = new ArrayList<>();
+        for (Row row : table) {
+            if ((after == null || row.id > after) && page.size() < limit) {
+                page.add(row);
+            }
+        }
+        return page;
+    }
+
+    private int loadedCount() {
+        int loaded = 0;
+        for (Row row : items) {
+            if (row != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+}
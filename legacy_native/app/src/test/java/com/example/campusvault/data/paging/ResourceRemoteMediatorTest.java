@@ -0,0 +1,143 @@
+package com.example.campusvault.data.paging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import com.example.campusvault.data.local.database.AppDatabase;
+import com.example.campusvault.data.local.database.TestDatabases;
+import com.example.campusvault.data.local.database.entity.RemoteKeyEntity;
+import com.example.campusvault.data.mappers.ResourceMapper;
+import com.example.campusvault.data.models.PaginatedResponse;
+import com.example.campusvault.data.models.Resource;
+import io.reactivex.rxjava3.core.Single;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class ResourceRemoteMediatorTest {
+
+    private static final String LIST = "course_unit:7:all";
+    private static final int PAGE = 10;
+
+    private AppDatabase db;
+    private ResourceRemoteMediator mediator;
+    private int serverRows;
+    private final List<Integer> fetched = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        db = TestDatabases.inMemory();
+        mediator = new ResourceRemoteMediator(db, LIST, PAGE, this::serve, ResourceMapper::toEntityList);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void appendWalksThePagesAndStopsAtTheEnd() {
+        serverRows = 25;
+
+        assertTrue(mediator.append().blockingGet());
+        assertTrue(mediator.append().blockingGet());
+        assertFalse(mediator.append().blockingGet());
+
+        assertEquals(List.of(1, 2, 3), fetched);
+        assertEquals(25, db.resourceDao().getResourceCount().blockingGet().intValue());
+        assertTrue(key().isEndReached());
+
+        // Known end: no request at all
+        assertFalse(mediator.append().blockingGet());
+        assertEquals(3, fetched.size());
+    }
+
+    @Test
+    public void freshRefreshDoesNotRefetch() {
+        serverRows = 25;
+        mediator.refresh().blockingAwait();
+        mediator.refresh().blockingAwait();
+
+        assertEquals(List.of(1), fetched);
+        assertEquals(Integer.valueOf(2), key().getNextPage());
+    }
+
+    @Test
+    public void staleRefreshKeepsTheScrollPosition() {
+        serverRows = 45;
+        mediator.append().blockingGet();
+        mediator.append().blockingGet();
+        expireKey();
+
+        mediator.refresh().blockingAwait();
+
+        assertEquals(List.of(1, 2, 1), fetched);
+        assertEquals(Integer.valueOf(3), key().getNextPage());
+    }
+
+    @Test
+    public void refreshReopensAListThatHadEnded() {
+        serverRows = 15;
+        mediator.append().blockingGet();
+        mediator.append().blockingGet();
+        assertTrue(key().isEndReached());
+
+        // More uploads since: page 1 says there is more again
+        serverRows = 30;
+        expireKey();
+        mediator.refresh().blockingAwait();
+
+        assertEquals(Integer.valueOf(2), key().getNextPage());
+        assertTrue(mediator.append().blockingGet());
+        assertEquals(List.of(1, 2, 1, 2), fetched);
+    }
+
+    @Test
+    public void shortFirstPageEndsTheList() {
+        serverRows = 4;
+
+        mediator.refresh().blockingAwait();
+
+        assertNull(key().getNextPage());
+        assertFalse(mediator.append().blockingGet());
+        assertEquals(List.of(1), fetched);
+    }
+
+    private Single<PaginatedResponse<Resource>> serve(int page, int pageSize) {
+        return Single.fromCallable(() -> {
+            fetched.add(page);
+            List<Resource> items = new ArrayList<>();
+            for (int id = (page - 1) * pageSize + 1; id <= Math.min(serverRows, page * pageSize); id++) {
+                Resource resource = new Resource();
+                resource.setId(id);
+                resource.setTitle("Resource " + id);
+                resource.setCourseUnitId(7);
+                items.add(resource);
+            }
+            PaginatedResponse<Resource> response = new PaginatedResponse<>();
+            response.setItems(items);
+            response.setHasNext(page * pageSize < serverRows);
+            return response;
+        });
+    }
+
+    private RemoteKeyEntity key() {
+        return db.remoteKeyDao().get(LIST);
+    }
+
+    private void expireKey() {
+        RemoteKeyEntity key = key();
+        key.setRefreshedAt(System.currentTimeMillis() - ResourceRemoteMediator.REFRESH_TIMEOUT_MS - 1);
+        db.remoteKeyDao().upsert(key);
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.campusvault.data.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.content.SharedPreferences;
+import com.example.campusvault.data.api.ApiService;
+import com.example.campusvault.data.models.Resource;
+import com.google.gson.GsonBuilder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.HttpException;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava3.RxJava3CallAdapterFactory;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Drives the resources delta feed against a MockWebServer standing in for /sync/resources
+ */
+public class DeltaSyncTest {
+
+    private static final String STAGE = "resources";
+    private static final String CURSOR_KEY = DeltaSync.KEY_CURSOR_PREFIX + STAGE;
+    private static final String ETAG_KEY = DeltaSync.KEY_ETAG_PREFIX + STAGE;
+
+    private MockWebServer server;
+    private ApiService api;
+    private MemoryPreferences prefs;
+    private DeltaSync deltaSync;
+    private final List<Integer> applied = new ArrayList<>();
+    private final List<Integer> deleted = new ArrayList<>();
+    private int appliedPages;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+            .baseUrl(server.url("/"))
+            .addConverterFactory(GsonConverterFactory.create(
+                new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss").create()))
+            .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
+            .build()
+            .create(ApiService.class);
+        prefs = new MemoryPreferences();
+        deltaSync = new DeltaSync(prefs);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void pagesUntilHasMoreIsFalse() throws Exception {
+        server.enqueue(page("[1, 2]", "[]", "c1", true).setHeader("ETag", "\"mid\""));
+        server.enqueue(page("[3]", "[9]", "c2", false).setHeader("ETag", "\"v2\""));
+
+        assertTrue(sync(0));
+
+        assertEquals(List.of(1, 2, 3), applied);
+        assertEquals(List.of(9), deleted);
+        assertEquals(2, appliedPages);
+        RecordedRequest first = take();
+        assertEquals("/sync/resources?limit=50", first.getPath());
+        assertNull(first.getHeader("If-None-Match"));
+        assertEquals("/sync/resources?updated_since=c1&limit=50", take().getPath());
+        assertEquals("c2", prefs.getString(CURSOR_KEY, null));
+        // Only the last page's ETag stands for the whole feed
+        assertEquals("\"v2\"", prefs.getString(ETAG_KEY, null));
+    }
+
+    @Test
+    public void notModifiedSendsStoredEtagAndWritesNothing() throws Exception {
+        prefs.edit().putString(CURSOR_KEY, "c2").putString(ETAG_KEY, "\"v2\"").apply();
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        assertTrue(sync(0));
+
+        RecordedRequest request = take();
+        assertEquals("/sync/resources?updated_since=c2&limit=50", request.getPath());
+        assertEquals("\"v2\"", request.getHeader("If-None-Match"));
+        assertEquals(0, appliedPages);
+        assertEquals("c2", prefs.getString(CURSOR_KEY, null));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void goneClearsCursorAndFallsBack() throws Exception {
+        prefs.edit().putString(CURSOR_KEY, "ancient").putString(ETAG_KEY, "\"old\"").apply();
+        server.enqueue(new MockResponse().setResponseCode(410));
+
+        assertFalse(sync(0));
+
+        assertEquals(0, appliedPages);
+        assertFalse(prefs.contains(CURSOR_KEY));
+        assertFalse(prefs.contains(ETAG_KEY));
+    }
+
+    @Test
+    public void missingFeedFallsBackAndKeepsState() throws Exception {
+        prefs.edit().putString(CURSOR_KEY, "c2").apply();
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        assertFalse(sync(0));
+
+        assertEquals("c2", prefs.getString(CURSOR_KEY, null));
+    }
+
+    @Test
+    public void pageLimitLeavesTheRestForTheNextRun() throws Exception {
+        server.enqueue(page("[1]", "[]", "c1", true));
+        server.enqueue(page("[2]", "[]", "c2", true));
+
+        assertTrue(sync(1));
+
+        assertEquals(List.of(1), applied);
+        assertEquals("c1", prefs.getString(CURSOR_KEY, null));
+        assertNull(prefs.getString(ETAG_KEY, null));
+        assertEquals(1, server.getRequestCount());
+
+        server.enqueue(page("[3]", "[]", "c3", false).setHeader("ETag", "\"v3\""));
+        assertTrue(sync(0));
+
+        assertEquals(List.of(1, 2, 3), applied);
+        take();
+        assertEquals("/sync/resources?updated_since=c1&limit=50", take().getPath());
+        assertEquals("c3", prefs.getString(CURSOR_KEY, null));
+    }
+
+    @Test
+    public void failedPageKeepsCursorOfLastAppliedPage() throws Exception {
+        server.enqueue(page("[1]", "[]", "c1", true));
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        try {
+            sync(0);
+            fail("Expected the 500 to surface");
+        } catch (HttpException e) {
+            assertEquals(500, e.code());
+        }
+
+        assertEquals(List.of(1), applied);
+        assertEquals("c1", prefs.getString(CURSOR_KEY, null));
+    }
+
+    private boolean sync(int maxPages) throws Exception {
+        return deltaSync.sync(STAGE, 50, maxPages, api::getResourceChanges, (List<Resource> changed, List<Integer> ids) -> {
+            appliedPages++;
+            for (Resource resource : changed) {
+                applied.add(resource.getId());
+            }
+            deleted.addAll(ids);
+        });
+    }
+
+    private RecordedRequest take() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        if (request == null) {
+            fail("No request made");
+        }
+        return request;
+    }
+
+    private static MockResponse page(String ids, String deletedIds, String cursor, boolean hasMore) {
+        StringBuilder items = new StringBuilder();
+        for (String id : ids.replaceAll("[\\[\\] ]", "").split(",")) {
+            if (id.isEmpty()) {
+                continue;
+            }
+            if (items.length() > 0) {
+                items.append(", ");
+            }
+            items.append("{\"id\": ").append(id).append(", \"title\": \"Resource ").append(id).append("\"}");
+        }
+        return new MockResponse().setBody("{\"items\": [" + items + "], \"deleted_ids\": " + deletedIds
+            + ", \"cursor\": \"" + cursor + "\", \"has_more\": " + hasMore + "}");
+    }
+
+    /** Just enough SharedPreferences for DeltaSync; edits apply when committed */
+    private static final class MemoryPreferences implements SharedPreferences {
+        private final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public Map<String, ?> getAll() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            return values.containsKey(key) ? (String) values.get(key) : defValue;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Set<String> getStringSet(String key, Set<String> defValues) {
+            return values.containsKey(key) ? (Set<String>) values.get(key) : defValues;
+        }
+
+        @Override
+        public int getInt(String key, int defValue) {
+            return values.containsKey(key) ? (Integer) values.get(key) : defValue;
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            return values.containsKey(key) ? (Long) values.get(key) : defValue;
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            return values.containsKey(key) ? (Float) values.get(key) : defValue;
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            return values.containsKey(key) ? (Boolean) values.get(key) : defValue;
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public Editor edit() {
+            return new MemoryEditor();
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        private final class MemoryEditor implements Editor {
+            private final Map<String, Object> puts = new HashMap<>();
+            private final List<String> removals = new ArrayList<>();
+            private boolean clear;
+
+            @Override
+            public Editor putString(String key, String value) {
+                return put(key, value);
+            }
+
+            @Override
+            public Editor putStringSet(String key, Set<String> values) {
+                return put(key, values);
+            }
+
+            @Override
+            public Editor putInt(String key, int value) {
+                return put(key, value);
+            }
+
+            @Override
+            public Editor putLong(String key, long value) {
+                return put(key, value);
+            }
+
+            @Override
+            public Editor putFloat(String key, float value) {
+                return put(key, value);
+            }
+
+            @Override
+            public Editor putBoolean(String key, boolean value) {
+                return put(key, value);
+            }
+
+            @Override
+            public Editor remove(String key) {
+                removals.add(key);
+                return this;
+            }
+
+            @Override
+            public Editor clear() {
+                clear = true;
+                return this;
+            }
+
+            @Override
+            public boolean commit() {
+                if (clear) {
+                    values.clear();
+                }
+                for (String key : removals) {
+                    values.remove(key);
+                }
+                for (Map.Entry<String, Object> entry : puts.entrySet()) {
+                    // Like Android, putting null removes the key
+                    if (entry.getValue() == null) {
+                        values.remove(entry.getKey());
+                    } else {
+                        values.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void apply() {
+                commit();
+            }
+
+            private Editor put(String key, Object value) {
+                puts.put(key, value);
+                return this;
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.campusvault.data.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Test;
+
+public class SyncPlannerTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long NOW = 100 * HOUR;
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> lastSync = new HashMap<>();
+    // Ticks once per reading, so every start and finish gets its own time
+    private final AtomicLong clock = new AtomicLong();
+    // One worker thread: stages start in exactly the order they were dispatched
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void planExplainsEachStage() {
+        SyncPlanner planner = catalog(null);
+        lastSync.put("resources", NOW - 2 * HOUR);
+        lastSync.put("faculties", NOW - HOUR);
+        lastSync.put("programs", NOW - 30 * HOUR);
+
+        SyncPlanner.Plan plan = plan(planner, Collections.emptyList(), false, false);
+
+        assertEquals("resources RUN: stale for 7200s", entry(plan, "resources").toString());
+        assertEquals("faculties SKIP: fresh for another " + 23 * 3600 + "s", entry(plan, "faculties").toString());
+        assertEquals("programs RUN: stale for " + 30 * 3600 + "s", entry(plan, "programs").toString());
+        assertEquals("course_units RUN: never synced", entry(plan, "course_units").toString());
+        assertEquals(Arrays.asList("resources", "programs", "course_units"), plan.stagesToRun());
+    }
+
+    @Test
+    public void forceRunsOnlyRequestedStages() {
+        SyncPlanner planner = catalog(null);
+        lastSync.put("faculties", NOW - 1000);
+
+        SyncPlanner.Plan plan = plan(planner, Collections.singletonList("faculties"), true, false);
+
+        assertEquals(Collections.singletonList("faculties"), plan.stagesToRun());
+        assertEquals("forced", entry(plan, "faculties").reason);
+        assertEquals("not requested", entry(plan, "resources").reason);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownRequestedStageIsRejected() {
+        plan(catalog(null), Collections.singletonList("grades"), false, false);
+    }
+
+    @Test
+    public void onlyAnExplicitUserRequestBoosts() {
+        SyncPlanner planner = catalog(null);
+
+        assertTrue(entry(plan(planner, Collections.singletonList("programs"), false, true), "programs").boosted);
+        assertFalse(entry(plan(planner, Collections.singletonList("programs"), false, false), "programs").boosted);
+        // A user-requested full sync keeps the normal order
+        assertFalse(entry(plan(planner, Collections.emptyList(), false, true), "resources").boosted);
+    }
+
+    @Test
+    public void readyStagesStartByPriorityAndDependentsWait() throws Exception {
+        SyncPlanner planner = catalog(null);
+
+        SyncPlanner.Report report = run(planner, plan(planner, Collections.emptyList(), false, false));
+
+        assertEquals(Arrays.asList("resources", "faculties", "programs", "course_units"), started);
+        assertTrue(result(report, "programs").startedAtMs > result(report, "faculties").finishedAtMs);
+        assertTrue(result(report, "course_units").startedAtMs > result(report, "programs").finishedAtMs);
+        for (SyncPlanner.StageResult result : report.results) {
+            assertEquals(result.name, SyncPlanner.Outcome.SUCCEEDED, result.outcome);
+        }
+        report.throwIfFailed();
+    }
+
+    @Test
+    public void boostedStagesStartBeforeHigherPriorityOnes() throws Exception {
+        SyncPlanner planner = new SyncPlanner.Builder()
+            .stage("low", HOUR, 1, () -> started.add("low"))
+            .stage("high", HOUR, 5, () -> started.add("high"))
+            .stage("mid", HOUR, 3, () -> started.add("mid"))
+            .build();
+
+        run(planner, plan(planner, Collections.emptyList(), false, false));
+        assertEquals(Arrays.asList("high", "mid", "low"), started);
+
+        // Every stage runs, but only "low" carries the user's request
+        List<SyncPlanner.PlannedStage> entries = new ArrayList<>();
+        for (SyncPlanner.PlannedStage entry : plan(planner, Collections.emptyList(), false, false).stages) {
+            entries.add(new SyncPlanner.PlannedStage(entry.stage, true, entry.stage.name.equals("low"), "test"));
+        }
+        started.clear();
+        run(planner, new SyncPlanner.Plan(entries));
+        assertEquals(Arrays.asList("low", "high", "mid"), started);
+    }
+
+    @Test
+    public void failedDependencySkipsEverythingDownstream() throws Exception {
+        IOException outage = new IOException("faculties unavailable");
+        SyncPlanner planner = catalog(outage);
+
+        SyncPlanner.Report report = run(planner, plan(planner, Collections.emptyList(), false, false));
+
+        assertEquals(Arrays.asList("resources", "faculties"), started);
+        assertEquals(SyncPlanner.Outcome.SUCCEEDED, result(report, "resources").outcome);
+        assertEquals(SyncPlanner.Outcome.FAILED, result(report, "faculties").outcome);
+        assertEquals(SyncPlanner.Outcome.SKIPPED, result(report, "programs").outcome);
+        assertEquals("faculties failed", result(report, "programs").reason);
+        assertEquals(SyncPlanner.Outcome.SKIPPED, result(report, "course_units").outcome);
+        assertEquals("programs failed", result(report, "course_units").reason);
+        try {
+            report.throwIfFailed();
+            fail("Expected the faculty failure");
+        } catch (IOException e) {
+            assertSame(outage, e);
+        }
+    }
+
+    @Test
+    public void freshDependencyDoesNotBlock() throws Exception {
+        SyncPlanner planner = catalog(null);
+        lastSync.put("resources", NOW);
+        lastSync.put("faculties", NOW);
+
+        SyncPlanner.Report report = run(planner, plan(planner, Collections.emptyList(), false, false));
+
+        assertEquals(Arrays.asList("programs", "course_units"), started);
+        assertEquals(SyncPlanner.Outcome.SKIPPED, result(report, "faculties").outcome);
+        assertNull(result(report, "faculties").error);
+        assertEquals(SyncPlanner.Outcome.SUCCEEDED, result(report, "programs").outcome);
+    }
+
+    @Test
+    public void cyclesAreRejected() {
+        SyncPlanner.Builder builder = new SyncPlanner.Builder()
+            .stage("a", HOUR, 1, () -> { }, "c")
+            .stage("b", HOUR, 1, () -> { }, "a")
+            .stage("c", HOUR, 1, () -> { }, "b");
+        try {
+            builder.build();
+            fail("Expected the cycle to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Dependency cycle through "));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selfDependencyIsACycle() {
+        new SyncPlanner.Builder().stage("a", HOUR, 1, () -> { }, "a").build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownDependencyIsRejected() {
+        new SyncPlanner.Builder().stage("programs", HOUR, 1, () -> { }, "faculties").build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateStageIsRejected() {
+        new SyncPlanner.Builder().stage("a", HOUR, 1, () -> { }).stage("a", HOUR, 2, () -> { });
+    }
+
+    /**
+     * The stages SyncWorker registers, in the same order and with the same priorities
+     */
+    private SyncPlanner catalog(Exception facultyFailure) {
+        return new SyncPlanner.Builder()
+            .stage("resources", HOUR, 2, () -> started.add("resources"))
+            .stage("faculties", 24 * HOUR, 1, () -> {
+                started.add("faculties");
+                if (facultyFailure != null) {
+                    throw facultyFailure;
+                }
+            })
+            .stage("programs", 24 * HOUR, 1, () -> started.add("programs"), "faculties")
+            .stage("course_units", 12 * HOUR, 1, () -> started.add("course_units"), "programs")
+            .build();
+    }
+
+    private SyncPlanner.Plan plan(SyncPlanner planner, List<String> requested, boolean force, boolean user) {
+        return planner.plan(requested, force, user, NOW, stage -> lastSync.getOrDefault(stage, 0L));
+    }
+
+    private SyncPlanner.Report run(SyncPlanner planner, SyncPlanner.Plan plan) throws InterruptedException {
+        return planner.execute(plan, executor, clock::incrementAndGet);
+    }
+
+    private static SyncPlanner.PlannedStage entry(SyncPlanner.Plan plan, String name) {
+        for (SyncPlanner.PlannedStage entry : plan.stages) {
+            if (entry.stage.name.equals(name)) {
+                return entry;
+            }
+        }
+        throw new AssertionError("No stage " + name + " in " + plan);
+    }
+
+    private static SyncPlanner.StageResult result(SyncPlanner.Report report, String name) {
+        for (SyncPlanner.StageResult result : report.results) {
+            if (result.name.equals(name)) {
+                return result;
+            }
+        }
+        throw new AssertionError("No result for " + name + " in " + report);
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.campusvault.data.upload;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.campusvault.data.api.ApiService;
+import com.example.campusvault.data.models.Resource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava3.RxJava3CallAdapterFactory;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+public class ChunkedUploaderTest {
+
+    private static final byte[] FILE = "0123456789".getBytes();
+    private static final int CHUNK_SIZE = 4;
+
+    private MockWebServer server;
+    private ApiService api;
+    private final MemoryStore store = new MemoryStore();
+    // Responses to hand out before the default one, per "METHOD path"
+    private final Map<String, Queue<MockResponse>> scripted = new HashMap<>();
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private final Queue<RecordedRequest> chunks = new ConcurrentLinkedQueue<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String key = request.getMethod() + " " + request.getPath();
+                requests.add(key);
+                synchronized (scripted) {
+                    Queue<MockResponse> queue = scripted.get(key);
+                    if (queue != null && !queue.isEmpty()) {
+                        return queue.poll();
+                    }
+                }
+                if (request.getMethod().equals("PUT")) {
+                    chunks.add(request);
+                    return json("{\"upload_id\":\"u1\"}");
+                }
+                if (key.equals("POST /resources/upload/sessions")) {
+                    return json("{\"upload_id\":\"u1\",\"chunk_size\":" + CHUNK_SIZE + "}");
+                }
+                if (key.equals("POST /resources/upload/sessions/u1/complete")) {
+                    return json("{\"id\":7,\"title\":\"Notes\"}");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+        api = new Retrofit.Builder()
+            .baseUrl(server.url("/"))
+            .addConverterFactory(GsonConverterFactory.create())
+            .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
+            .build()
+            .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void uploadsEveryChunkWithItsRangeAndCompletes() throws Exception {
+        Resource resource = upload();
+
+        assertEquals(7, resource.getId());
+        assertEquals(Map.of(0, "bytes 0-3/10", 1, "bytes 4-7/10", 2, "bytes 8-9/10"), sentRanges());
+        assertNull(store.get(key()));
+    }
+
+    @Test
+    public void resumesSavedSessionSendingOnlyMissingChunks() throws Exception {
+        saveSessionWithChunks(0);
+        script("GET /resources/upload/sessions/u1", json("{\"upload_id\":\"u1\",\"received_chunks\":[0]}"));
+
+        upload();
+
+        assertEquals(List.of(1, 2), sentChunkIndices());
+        assertEquals(0, countRequests("POST /resources/upload/sessions"));
+    }
+
+    @Test
+    public void retriesResumeCheckThatFailsTransiently() throws Exception {
+        saveSessionWithChunks(0, 1);
+        script("GET /resources/upload/sessions/u1",
+            new MockResponse().setResponseCode(503),
+            json("{\"upload_id\":\"u1\",\"received_chunks\":[0,1]}"));
+
+        upload();
+
+        assertEquals(List.of(2), sentChunkIndices());
+        assertEquals(0, countRequests("POST /resources/upload/sessions"));
+    }
+
+    @Test
+    public void startsOverWhenSavedSessionExpiredOnServer() throws Exception {
+        saveSessionWithChunks(0);
+        script("GET /resources/upload/sessions/u1", new MockResponse().setResponseCode(410));
+
+        upload();
+
+        assertEquals(1, countRequests("POST /resources/upload/sessions"));
+        assertEquals(List.of(0, 1, 2), sentChunkIndices());
+    }
+
+    @Test
+    public void retriesOnlyTheChunkThatFailed() throws Exception {
+        script("PUT /resources/upload/sessions/u1/chunks/1", new MockResponse().setResponseCode(500));
+
+        upload();
+
+        assertEquals(List.of(0, 1, 2), sentChunkIndices());
+        assertEquals(2, countRequests("PUT /resources/upload/sessions/u1/chunks/1"));
+    }
+
+    @Test(timeout = 10_000)
+    public void returnsPermitWhenChunkResponseCannotBeRead() throws Exception {
+        // Gson rejects "[]" with a RuntimeException rather than an IOException. Both initial
+        // permits fail this way while the reader waits for a third, which only a returned permit frees
+        MockResponse unreadable = json("[]").setBodyDelay(300, TimeUnit.MILLISECONDS);
+        script("PUT /resources/upload/sessions/u1/chunks/0", unreadable);
+        script("PUT /resources/upload/sessions/u1/chunks/1", unreadable);
+        script("GET /resources/upload/sessions/u1", json("{\"upload_id\":\"u1\",\"received_chunks\":[]}"));
+
+        Resource resource = upload();
+
+        assertEquals(7, resource.getId());
+        assertEquals(2, countRequests("PUT /resources/upload/sessions/u1/chunks/0"));
+        assertEquals(2, countRequests("PUT /resources/upload/sessions/u1/chunks/1"));
+    }
+
+    private Resource upload() throws Exception {
+        return new ChunkedUploader(api, store, CHUNK_SIZE).upload(new MemorySource(), 3, "Notes", null, "notes", null);
+    }
+
+    private void saveSessionWithChunks(int... acknowledged) {
+        UploadSession session = new UploadSession("u1", key(), 3, FILE.length, CHUNK_SIZE);
+        for (int index : acknowledged) {
+            int start = (int) session.getChunkStart(index);
+            byte[] chunk = Arrays.copyOfRange(FILE, start, start + session.getChunkLength(index));
+            session.acknowledge(index, ContentHasher.sha256Hex(chunk, chunk.length));
+        }
+        store.save(session);
+    }
+
+    private void script(String key, MockResponse... responses) {
+        synchronized (scripted) {
+            scripted.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).addAll(List.of(responses));
+        }
+    }
+
+    private Map<Integer, String> sentRanges() {
+        Map<Integer, String> ranges = new HashMap<>();
+        for (RecordedRequest request : chunks) {
+            int index = chunkIndex(request);
+            ranges.put(index, request.getHeader("Content-Range"));
+            int start = index * CHUNK_SIZE;
+            byte[] expected = Arrays.copyOfRange(FILE, start, Math.min(start + CHUNK_SIZE, FILE.length));
+            assertArrayEquals(expected, request.getBody().readByteArray());
+        }
+        return ranges;
+    }
+
+    private List<Integer> sentChunkIndices() {
+        List<Integer> indices = new ArrayList<>();
+        for (RecordedRequest request : chunks) {
+            indices.add(chunkIndex(request));
+        }
+        Collections.sort(indices);
+        return indices;
+    }
+
+    private int countRequests(String key) {
+        int count = 0;
+        for (String request : requests) {
+            if (request.equals(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int chunkIndex(RecordedRequest request) {
+        String path = request.getPath();
+        return Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static String key() {
+        return "file-1|3";
+    }
+
+    private static class MemorySource implements UploadSource {
+        @Override
+        public InputStream open() {
+            return new ByteArrayInputStream(FILE);
+        }
+
+        @Override
+        public long length() {
+            return FILE.length;
+        }
+
+        @Override
+        public String fileName() {
+            return "notes.pdf";
+        }
+
+        @Override
+        public String contentType() {
+            return "application/pdf";
+        }
+
+        @Override
+        public String fingerprint() {
+            return "file-1";
+        }
+    }
+
+    private static class MemoryStore implements UploadSessionStore {
+        private final Map<String, UploadSession> sessions = new HashMap<>();
+
+        @Override
+        public synchronized UploadSession get(String key) {
+            return sessions.get(key);
+        }
+
+        @Override
+        public synchronized void save(UploadSession session) {
+            sessions.put(session.getFingerprint(), session);
+        }
+
+        @Override
+        public synchronized void remove(String key) {
+            sessions.remove(key);
+        }
+    }
+}